@@ -0,0 +1,649 @@
+package picocli.codegen.annotation.processing;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.SimpleAnnotationValueVisitor6;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import picocli.annot.Command;
+import picocli.annot.Mixin;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+import picocli.annot.ParentCommand;
+import picocli.annot.Spec;
+import picocli.annot.Unmatched;
+import picocli.help.Help;
+import picocli.model.IGeneratedCommand;
+import picocli.model.SubcommandIndex;
+
+/**
+ * {@code GeneratedCommandProcessor} is an annotation processor that generates, for each class with picocli annotations,
+ * an {@link IGeneratedCommand} implementation holding the values of its annotations and accessing its annotated fields
+ * directly. At runtime, picocli builds the {@code CommandSpec} of instances of these classes from the generated source
+ * instead of scanning the classes through reflection: this speeds up the startup of the application, and the fields
+ * of the classes no longer need to be registered for reflection when compiling it to a GraalVM native image.
+ * <p>
+ * The processor is registered as a service of the {@code picocli-codegen} jar, so it runs whenever this jar is on the
+ * annotation processor path of the compiler. Classes it cannot generate source for are reported with a note, and are
+ * still scanned through reflection at runtime: abstract classes, classes that are not accessible from their package,
+ * classes (or superclasses) with annotated methods, with private annotated fields or with final {@code @Option} or
+ * {@code @Parameters} fields, and classes whose annotations refer to inaccessible classes.
+ * </p><p>
+ * The processor also writes the {@linkplain SubcommandIndex subcommand index} of the compiled classes: the classes with
+ * a {@code @Command(subcommandOf = ...)} attribute are listed in the {@value SubcommandIndex#RESOURCE_NAME} resource
+ * by the name of their parent commands, so that a {@code CommandLine} registers them as subcommands of their parents
+ * without loading their classes.
+ * </p>
+ *
+ * @since 4.0
+ */
+@SupportedAnnotationTypes({ "picocli.annot.Command", "picocli.annot.Option", "picocli.annot.Parameters",
+        "picocli.annot.Mixin", "picocli.annot.Unmatched", "picocli.annot.Spec", "picocli.annot.ParentCommand" })
+public class GeneratedCommandProcessor extends AbstractProcessor {
+    private static final List<String> MEMBER_ANNOTATIONS = Arrays.asList(Option.class.getName(),
+            Parameters.class.getName(), Mixin.class.getName(), Unmatched.class.getName(), Spec.class.getName(),
+            ParentCommand.class.getName());
+
+    private final Set<String> generated = new HashSet<String>();
+    /** The lines of the subcommand index, written when processing is over. */
+    private final Set<String> index = new LinkedHashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> classes = new LinkedHashSet<TypeElement>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Element type = element;
+                while (type != null && !(type instanceof TypeElement)) {
+                    type = type.getEnclosingElement();
+                }
+                if (type != null && type.getKind() == ElementKind.CLASS) {
+                    classes.add((TypeElement) type);
+                }
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(Command.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                indexSubcommand((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) {
+            writeIndex();
+        }
+        for (TypeElement type : classes) {
+            String name = processingEnv.getElementUtils().getBinaryName(type) + IGeneratedCommand.CLASS_NAME_SUFFIX;
+            if (!generated.add(name)) {
+                continue;
+            }
+            try {
+                String source = new Generator(type).generate();
+                Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter();
+                try {
+                    writer.write(source);
+                } finally {
+                    writer.close();
+                }
+            } catch (UnsupportedClassException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "picocli: not generating "
+                        + name + ", " + type + " will be scanned through reflection: " + ex.getMessage(), type);
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "picocli: could not write " + name + ": " + ex, type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the lines of the subcommand index for the parent commands of the specified class, if it has a
+     * {@code subcommandOf} attribute.
+     */
+    private void indexSubcommand(TypeElement type) {
+        List<String> parents = new ArrayList<String>();
+        String name = null;
+        List<String> aliases = new ArrayList<String>();
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(annotation(type, Command.class.getName()));
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            String attribute = entry.getKey().getSimpleName().toString();
+            if (attribute.equals("name")) {
+                name = (String) entry.getValue().getValue();
+            } else if (attribute.equals("aliases") || attribute.equals("subcommandOf")) {
+                for (Object value : (List<?>) entry.getValue().getValue()) {
+                    Object element = ((AnnotationValue) value).getValue();
+                    if (attribute.equals("aliases")) {
+                        aliases.add((String) element);
+                    } else {
+                        TypeElement parent = (TypeElement) ((DeclaredType) element).asElement();
+                        parents.add(processingEnv.getElementUtils().getBinaryName(parent).toString());
+                    }
+                }
+            }
+        }
+        if (parents.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<String>(aliases);
+        names.add(0, name);
+        for (String commandName : names) {
+            if (Help.DEFAULT_COMMAND_NAME.equals(commandName) || commandName.length() == 0
+                    || commandName.matches(".*\\s.*")) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "picocli: subcommand " + type
+                        + " needs a name without whitespace to be listed in " + SubcommandIndex.RESOURCE_NAME
+                        + ", but was '" + commandName + "'", type);
+                return;
+            }
+        }
+        StringBuilder line = new StringBuilder().append(processingEnv.getElementUtils().getBinaryName(type));
+        for (String commandName : names) {
+            line.append(' ').append(commandName);
+        }
+        for (String parent : parents) {
+            index.add(parent + " " + line);
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    SubcommandIndex.RESOURCE_NAME);
+            Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8");
+            try {
+                writer.write("# Generated by picocli-codegen: parent class, subcommand class, name and aliases\n");
+                for (String line : index) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "picocli: could not write " + SubcommandIndex.RESOURCE_NAME + ": " + ex);
+        }
+    }
+
+    /** Thrown when no source can be generated for a class. */
+    private static class UnsupportedClassException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedClassException(String message) {
+            super(message);
+        }
+    }
+
+    /** Generates the source of the {@code IGeneratedCommand} of a command class. */
+    private class Generator {
+        private final TypeElement type;
+        private final PackageElement pkg;
+        private final StringBuilder constants = new StringBuilder();
+        private final StringBuilder getters = new StringBuilder();
+        private final StringBuilder setters = new StringBuilder();
+        private int annotationCount;
+        private int fieldCount;
+
+        Generator(TypeElement type) {
+            this.type = type;
+            this.pkg = processingEnv.getElementUtils().getPackageOf(type);
+        }
+
+        String generate() throws UnsupportedClassException {
+            if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+                throw new UnsupportedClassException("abstract class");
+            }
+            checkAccessible(type);
+            List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+            for (TypeElement t = type; t != null; t = superclass(t)) {
+                hierarchy.add(0, t);
+            }
+            List<String> commands = new ArrayList<String>();
+            List<String> members = new ArrayList<String>();
+            for (TypeElement t : hierarchy) {
+                AnnotationMirror command = annotation(t, Command.class.getName());
+                commands.add(command == null ? "null" : constant(command));
+                members.add(members(t));
+            }
+            String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            String simpleName = binaryName.substring(binaryName.lastIndexOf('.') + 1)
+                    + IGeneratedCommand.CLASS_NAME_SUFFIX;
+            StringBuilder result = new StringBuilder();
+            if (!pkg.isUnnamed()) {
+                result.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+            }
+            result.append("/** Picocli annotations of {@code ").append(type.getQualifiedName())
+                    .append("}, generated by picocli-codegen: do not edit. */\n")
+                    .append("@SuppressWarnings({ \"unchecked\", \"rawtypes\", \"deprecation\" })\n")
+                    .append("public final class ").append(simpleName)
+                    .append(" implements picocli.model.IGeneratedCommand {\n")
+                    .append(constants)
+                    .append("    private static final picocli.annot.Command[] COMMANDS = { ")
+                    .append(join(commands)).append(" };\n\n")
+                    .append("    public picocli.annot.Command[] commands() {\n")
+                    .append("        return COMMANDS.clone();\n")
+                    .append("    }\n\n")
+                    .append("    public picocli.model.GeneratedMember[][] members(Object command) {\n")
+                    .append("        return new picocli.model.GeneratedMember[][] {\n");
+            for (String member : members) {
+                result.append("                { ").append(member).append(" },\n");
+            }
+            result.append("        };\n")
+                    .append("    }\n\n")
+                    .append("    private static picocli.model.GeneratedMember member(Object command, int index,\n")
+                    .append("            String name, Class<?> type, Class<?>[] typeArguments, String genericString,\n")
+                    .append("            java.lang.annotation.Annotation... annotations) {\n")
+                    .append("        Binding binding = new Binding(command, index);\n")
+                    .append("        return new picocli.model.GeneratedMember(name, type, typeArguments,\n")
+                    .append("                genericString, annotations, binding, binding);\n")
+                    .append("    }\n\n")
+                    .append("    private static final class Binding\n")
+                    .append("            implements picocli.model.IGetter, picocli.model.ISetter {\n")
+                    .append("        private final Object command;\n")
+                    .append("        private final int index;\n\n")
+                    .append("        Binding(Object command, int index) {\n")
+                    .append("            this.command = command;\n")
+                    .append("            this.index = index;\n")
+                    .append("        }\n\n")
+                    .append("        public <T> T get() {\n")
+                    .append("            switch (index) {\n")
+                    .append(getters)
+                    .append("            default: throw new IllegalStateException(\"No field \" + index);\n")
+                    .append("            }\n")
+                    .append("        }\n\n")
+                    .append("        public <T> T set(T value) {\n")
+                    .append("            T result = get();\n")
+                    .append("            switch (index) {\n")
+                    .append(setters)
+                    .append("            default: throw new IllegalStateException(\"No field \" + index);\n")
+                    .append("            }\n")
+                    .append("        }\n")
+                    .append("    }\n")
+                    .append("}\n");
+            return result.toString();
+        }
+
+        /** Returns the {@code member(...)} calls creating the annotated fields of the specified class. */
+        private String members(TypeElement declaring) throws UnsupportedClassException {
+            List<String> result = new ArrayList<String>();
+            for (Element element : declaring.getEnclosedElements()) {
+                List<AnnotationMirror> annotations = memberAnnotations(element);
+                if (annotations.isEmpty()) {
+                    continue;
+                }
+                if (element.getKind() != ElementKind.FIELD) {
+                    throw new UnsupportedClassException("annotated " + element.getKind().toString().toLowerCase()
+                            + " " + declaring + "." + element);
+                }
+                result.add(field(declaring, (VariableElement) element, annotations));
+            }
+            return join(result);
+        }
+
+        private String field(TypeElement declaring, VariableElement field, List<AnnotationMirror> annotations)
+                throws UnsupportedClassException {
+            Set<Modifier> modifiers = field.getModifiers();
+            String description = declaring + "." + field.getSimpleName();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                throw new UnsupportedClassException("private field " + description);
+            }
+            if (!modifiers.contains(Modifier.PUBLIC)
+                    && !pkg.equals(processingEnv.getElementUtils().getPackageOf(declaring))) {
+                throw new UnsupportedClassException("inaccessible field " + description);
+            }
+            if (modifiers.contains(Modifier.FINAL) && (annotation(field, Option.class.getName()) != null
+                    || annotation(field, Parameters.class.getName()) != null)) {
+                throw new UnsupportedClassException("final field " + description);
+            }
+            checkAccessible(declaring);
+            TypeMirror fieldType = field.asType();
+            String erasure = erasure(fieldType);
+            String boxed = !fieldType.getKind().isPrimitive() ? erasure
+                    : processingEnv.getTypeUtils().boxedClass((PrimitiveType) fieldType).getQualifiedName().toString();
+            String target = (modifiers.contains(Modifier.STATIC) ? declaring.getQualifiedName().toString()
+                    : "((" + declaring.getQualifiedName() + ") command)") + "." + field.getSimpleName();
+            int index = fieldCount++;
+            getters.append("            case ").append(index).append(": return (T) (Object) ").append(target)
+                    .append(";\n");
+            setters.append("            case ").append(index).append(": ").append(target).append(" = (").append(boxed)
+                    .append(") value; return result;\n");
+
+            List<String> constantNames = new ArrayList<String>();
+            for (AnnotationMirror annotation : annotations) {
+                constantNames.add(constant(annotation));
+            }
+            String genericString = (modifiers(modifiers) + typeName(fieldType) + " "
+                    + processingEnv.getElementUtils().getBinaryName(declaring) + "." + field.getSimpleName());
+            return "member(command, " + index + ", " + quote(field.getSimpleName().toString()) + ", " + erasure
+                    + ".class, " + typeArguments(fieldType) + ", " + quote(genericString) + ", " + join(constantNames)
+                    + ")";
+        }
+
+        /**
+         * Returns the type arguments of the specified type, resolved to classes the way picocli resolves the
+         * reflected generic type of a field, or {@code null} if it is not a parameterized type.
+         */
+        private String typeArguments(TypeMirror type) throws UnsupportedClassException {
+            if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).getTypeArguments().isEmpty()) {
+                return "null";
+            }
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            List<String> result = new ArrayList<String>();
+            for (TypeMirror argument : arguments) {
+                TypeMirror resolved = argument;
+                if (argument.getKind() == TypeKind.WILDCARD) {
+                    WildcardType wildcard = (WildcardType) argument;
+                    resolved = wildcard.getSuperBound() != null && isClass(wildcard.getSuperBound())
+                            ? wildcard.getSuperBound()
+                            : wildcard.getExtendsBound() == null
+                                    ? processingEnv.getElementUtils().getTypeElement("java.lang.Object").asType()
+                                    : wildcard.getExtendsBound();
+                }
+                if (!isClass(resolved)) { // too convoluted generic type: picocli falls back to String
+                    result.clear();
+                    for (int i = 0; i < arguments.size(); i++) {
+                        result.add("java.lang.String.class");
+                    }
+                    break;
+                }
+                result.add(erasure(resolved) + ".class");
+            }
+            return "new Class<?>[] { " + join(result) + " }";
+        }
+
+        /** Returns whether reflection represents the specified type argument as a {@code Class}. */
+        private boolean isClass(TypeMirror type) {
+            switch (type.getKind()) {
+            case DECLARED:
+                return ((DeclaredType) type).getTypeArguments().isEmpty();
+            case ARRAY:
+                TypeMirror component = ((ArrayType) type).getComponentType();
+                return component.getKind().isPrimitive() || isClass(component);
+            default:
+                return false;
+            }
+        }
+
+        /** Declares a constant with the specified annotation and returns its name. */
+        private String constant(AnnotationMirror annotation) throws UnsupportedClassException {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            String name = "A" + annotationCount++;
+            constants.append("    private static final ").append(annotationType.getQualifiedName()).append(" ")
+                    .append(name).append(" = new ").append(annotationType.getQualifiedName()).append("() {\n")
+                    .append("        public Class<? extends java.lang.annotation.Annotation> annotationType() {\n")
+                    .append("            return ").append(annotationType.getQualifiedName()).append(".class;\n")
+                    .append("        }\n");
+            Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                    processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+                TypeMirror returnType = entry.getKey().getReturnType();
+                constants.append("\n        public ").append(returnType).append(" ")
+                        .append(entry.getKey().getSimpleName()).append("() {\n")
+                        .append("            return ").append(literal(entry.getValue(), returnType)).append(";\n")
+                        .append("        }\n");
+            }
+            constants.append("    };\n\n");
+            return name;
+        }
+
+        private String literal(AnnotationValue value, TypeMirror type) throws UnsupportedClassException {
+            LiteralVisitor visitor = new LiteralVisitor();
+            String result = value.accept(visitor, type);
+            if (visitor.problem != null) {
+                throw new UnsupportedClassException(visitor.problem);
+            }
+            return result;
+        }
+
+        /** Returns the source of annotation values of the expected type. */
+        private class LiteralVisitor extends SimpleAnnotationValueVisitor6<String, TypeMirror> {
+            String problem;
+
+            @Override
+            public String visitBoolean(boolean b, TypeMirror type) {
+                return String.valueOf(b);
+            }
+
+            @Override
+            public String visitByte(byte b, TypeMirror type) {
+                return "(byte) " + b;
+            }
+
+            @Override
+            public String visitChar(char c, TypeMirror type) {
+                return c == '\'' ? "'\\''" : "'" + escape(String.valueOf(c)) + "'";
+            }
+
+            @Override
+            public String visitDouble(double d, TypeMirror type) {
+                return Double.isNaN(d) ? "Double.NaN" : Double.isInfinite(d)
+                        ? (d > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY") : d + "d";
+            }
+
+            @Override
+            public String visitFloat(float f, TypeMirror type) {
+                return Float.isNaN(f) ? "Float.NaN" : Float.isInfinite(f)
+                        ? (f > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY") : f + "f";
+            }
+
+            @Override
+            public String visitInt(int i, TypeMirror type) {
+                return String.valueOf(i);
+            }
+
+            @Override
+            public String visitLong(long l, TypeMirror type) {
+                return l + "L";
+            }
+
+            @Override
+            public String visitShort(short s, TypeMirror type) {
+                return "(short) " + s;
+            }
+
+            @Override
+            public String visitString(String s, TypeMirror type) {
+                return quote(s);
+            }
+
+            @Override
+            public String visitType(TypeMirror t, TypeMirror type) {
+                try {
+                    return erasure(t) + ".class";
+                } catch (UnsupportedClassException ex) {
+                    problem = ex.getMessage();
+                    return null;
+                }
+            }
+
+            @Override
+            public String visitEnumConstant(VariableElement c, TypeMirror type) {
+                return ((TypeElement) c.getEnclosingElement()).getQualifiedName() + "." + c.getSimpleName();
+            }
+
+            @Override
+            public String visitArray(List<? extends AnnotationValue> values, TypeMirror type) {
+                TypeMirror component = ((ArrayType) type).getComponentType();
+                List<String> result = new ArrayList<String>();
+                for (AnnotationValue value : values) {
+                    result.add(value.accept(this, component));
+                }
+                try {
+                    return "new " + erasure(component) + "[] " + (result.isEmpty() ? "{}" : "{ " + join(result) + " }");
+                } catch (UnsupportedClassException ex) {
+                    problem = ex.getMessage();
+                    return null;
+                }
+            }
+
+            @Override
+            protected String defaultAction(Object o, TypeMirror type) {
+                problem = "unsupported annotation value " + o;
+                return null;
+            }
+        }
+
+        /** Returns the source of the erasure of the specified type, which must be accessible. */
+        private String erasure(TypeMirror type) throws UnsupportedClassException {
+            TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+            TypeMirror element = erasure;
+            while (element.getKind() == TypeKind.ARRAY) {
+                element = ((ArrayType) element).getComponentType();
+            }
+            if (element.getKind() == TypeKind.DECLARED) {
+                checkAccessible((TypeElement) ((DeclaredType) element).asElement());
+            }
+            return erasure.toString();
+        }
+
+        /** Returns the name of the type like {@link java.lang.reflect.Type#getTypeName()}. */
+        private String typeName(TypeMirror type) {
+            switch (type.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                DeclaredType declared = (DeclaredType) type;
+                String result = processingEnv.getElementUtils().getBinaryName((TypeElement) declared.asElement())
+                        .toString();
+                if (declared.getTypeArguments().isEmpty()) {
+                    return result;
+                }
+                List<String> arguments = new ArrayList<String>();
+                for (TypeMirror argument : declared.getTypeArguments()) {
+                    arguments.add(typeName(argument));
+                }
+                return result + "<" + join(arguments) + ">";
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                return wildcard.getExtendsBound() != null ? "? extends " + typeName(wildcard.getExtendsBound())
+                        : wildcard.getSuperBound() != null ? "? super " + typeName(wildcard.getSuperBound()) : "?";
+            default:
+                return type.toString();
+            }
+        }
+
+        private void checkAccessible(TypeElement element) throws UnsupportedClassException {
+            for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+                TypeElement t = (TypeElement) e;
+                if (t.getNestingKind() != NestingKind.TOP_LEVEL && t.getNestingKind() != NestingKind.MEMBER) {
+                    throw new UnsupportedClassException("local or anonymous class " + element);
+                }
+                if (t.getModifiers().contains(Modifier.PRIVATE) || !t.getModifiers().contains(Modifier.PUBLIC)
+                        && !pkg.equals(processingEnv.getElementUtils().getPackageOf(t))) {
+                    throw new UnsupportedClassException("inaccessible class " + element);
+                }
+            }
+        }
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement result = (TypeElement) ((DeclaredType) superclass).asElement();
+        return result.getQualifiedName().contentEquals("java.lang.Object") ? null : result;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static List<AnnotationMirror> memberAnnotations(Element element) {
+        List<AnnotationMirror> result = new ArrayList<AnnotationMirror>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (MEMBER_ANNOTATIONS.contains(name)) {
+                result.add(mirror);
+            }
+        }
+        return result;
+    }
+
+    /** Returns the modifiers of a field like {@link java.lang.reflect.Field#toGenericString()}. */
+    private static String modifiers(Set<Modifier> modifiers) {
+        StringBuilder result = new StringBuilder();
+        for (Modifier modifier : Arrays.asList(Modifier.PUBLIC, Modifier.PROTECTED, Modifier.PRIVATE,
+                Modifier.STATIC, Modifier.FINAL, Modifier.TRANSIENT, Modifier.VOLATILE)) {
+            if (modifiers.contains(modifier)) {
+                result.append(modifier).append(' ');
+            }
+        }
+        return result.toString();
+    }
+
+    private static String join(List<String> values) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            result.append(result.length() == 0 ? "" : ", ").append(value);
+        }
+        return result.toString();
+    }
+
+    private static String quote(String value) {
+        return "\"" + escape(value) + "\"";
+    }
+
+    private static String escape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"': result.append("\\\""); break;
+            case '\\': result.append("\\\\"); break;
+            case '\n': result.append("\\n"); break;
+            case '\r': result.append("\\r"); break;
+            case '\t': result.append("\\t"); break;
+            case '\b': result.append("\\b"); break;
+            case '\f': result.append("\\f"); break;
+            default:
+                if (c < ' ' || c > '~') {
+                    result.append(String.format("\\u%04x", (int) c));
+                } else {
+                    result.append(c);
+                }
+            }
+        }
+        return result.toString();
+    }
+}
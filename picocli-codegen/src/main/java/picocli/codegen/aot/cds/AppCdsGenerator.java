@@ -0,0 +1,275 @@
+package picocli.codegen.aot.cds;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import picocli.AutoComplete;
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+import picocli.except.ParameterException;
+import picocli.model.OptionSpec;
+
+/**
+ * {@code AppCdsGenerator} generates the class list of a picocli-based application, to create an
+ * <a href="https://openjdk.java.net/jeps/310">Application Class-Data Sharing</a> (AppCDS) archive with it.
+ * <p>
+ * Loading and verifying the classes of picocli and of the commands takes most of the startup time of a command
+ * line application. The classes of an AppCDS archive are loaded from a memory-mapped archive instead, already
+ * parsed and verified, which saves most of this time.
+ * </p><p>
+ * {@code AppCdsGenerator} starts a JVM with {@code -XX:DumpLoadedClassList} that {@linkplain #exercise(Class)
+ * exercises} the specified {@code @Command} classes: it constructs their {@code CommandLine}, parses command
+ * lines, and generates their usage help, version help and completion script, for the commands and all their
+ * subcommands. The classes loaded by this JVM are written to the class list, which is then passed to the
+ * {@code -XX:SharedClassListFile} option of {@code java -Xshare:dump} to create the archive (see
+ * {@link #archiveCommand(File, File)}). The application is started with the archive with the
+ * {@code -XX:SharedArchiveFile} option.
+ * </p><p>
+ * Application classes are only listed by Java 11 or later (or Java 10 with {@code -XX:+UseAppCDS}). The class
+ * path of the archive must be a prefix of the class path of the application, and may only contain jar files.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class AppCdsGenerator {
+    private static final String TOOL_CLASS_PREFIX = AppCdsGenerator.class.getName().replace('.', '/');
+
+    @Command(name = "AppCdsGenerator",
+            description = {"Generates the class list of the specified @Command classes, and prints the command " +
+                    "to create an AppCDS archive with it. The class list has the classes loaded by a JVM " +
+                    "that constructs, parses, and prints the usage help, version help and completion script " +
+                    "of the commands and their subcommands.",
+                    "See https://openjdk.java.net/jeps/310"},
+            mixinStandardHelpOptions = true, version = "picocli-codegen AppCdsGenerator 4.0")
+    private static class App implements Callable<Void> {
+
+        @Parameters(arity = "1..*", description = "One or more fully qualified names of @Command classes to exercise.")
+        String[] classes = new String[0];
+
+        @Option(names = {"-o", "--output"}, description = "Class list file to write. Default: classes.lst.")
+        File classList = new File("classes.lst");
+
+        @Option(names = {"-a", "--archive"}, description = "AppCDS archive file to create. Default: app.jsa.")
+        File archive = new File("app.jsa");
+
+        @Option(names = {"-cp", "--classpath"}, description = "Class path of the application. " +
+                "Default: the class path of this tool.")
+        String classpath = System.getProperty("java.class.path");
+
+        @Option(names = "--java", description = "The java executable to run. " +
+                "Default: the java executable running this tool.")
+        String java = javaExecutable();
+
+        @Option(names = "--create-archive", description = "Also create the AppCDS archive, " +
+                "instead of only printing the command to create it.")
+        boolean createArchive;
+
+        public Void call() throws IOException, InterruptedException {
+            AppCdsGenerator generator = new AppCdsGenerator(java, classpath);
+            List<String> listed = generator.generateClassList(classList, classes);
+            System.err.printf("Wrote %d classes to %s%n", listed.size(), classList);
+            List<String> command = generator.archiveCommand(classList, archive);
+            if (createArchive) {
+                generator.run(command);
+                System.err.printf("Created %s%n", archive);
+            } else {
+                StringBuilder line = new StringBuilder();
+                for (String arg : command) {
+                    line.append(line.length() == 0 ? "" : " ").append(arg.contains(" ") ? '"' + arg + '"' : arg);
+                }
+                System.out.println(line);
+            }
+            return null;
+        }
+    }
+
+    /** The JVM whose loaded classes are listed: exercises the {@code @Command} classes named by its arguments. */
+    public static final class Exercise {
+        private Exercise() {
+        }
+
+        /**
+         * Exercises the specified {@code @Command} classes.
+         * @param args one or more fully qualified class names of {@code @Command}-annotated classes.
+         * @throws ClassNotFoundException if a class is not found
+         */
+        public static void main(String... args) throws ClassNotFoundException {
+            for (String name : args) {
+                exercise(Class.forName(name));
+            }
+        }
+    }
+
+    private final String java;
+    private final String classpath;
+
+    /**
+     * Creates a generator for the application with the specified class path.
+     * @param java the java executable that runs the application, to list the classes it loads and create the archive
+     * @param classpath the class path of the application, with the {@code @Command} classes and picocli
+     */
+    public AppCdsGenerator(String java, String classpath) {
+        this.java = java;
+        this.classpath = classpath;
+    }
+
+    /**
+     * Runs this class as a standalone application, writing the class list to a file and printing the command to
+     * create the AppCDS archive to {@code System.out}.
+     * @param args one or more fully qualified class names of {@code @Command}-annotated classes.
+     */
+    public static void main(String... args) {
+        CommandLine.call(new App(), args);
+    }
+
+    /**
+     * Writes the classes loaded by a JVM that {@linkplain #exercise(Class) exercises} the specified
+     * {@code @Command} classes to the specified class list file, in the format of {@code -XX:DumpLoadedClassList}.
+     * The classes of this tool are not listed.
+     *
+     * @param classList the class list file to write
+     * @param commandClasses the fully qualified names of the {@code @Command} classes to exercise
+     * @return the listed classes
+     * @throws IOException if the JVM failed or the class list could not be written
+     * @throws InterruptedException if interrupted while waiting for the JVM
+     */
+    public List<String> generateClassList(File classList, String... commandClasses)
+            throws IOException, InterruptedException {
+        File dumped = File.createTempFile("picocli-classes", ".lst");
+        try {
+            List<String> command = new ArrayList<String>(Arrays.asList(java, "-Xshare:off",
+                    "-XX:DumpLoadedClassList=" + dumped.getAbsolutePath(), "-cp", classpath + File.pathSeparator
+                            + codeSource().getAbsolutePath(), Exercise.class.getName()));
+            command.addAll(Arrays.asList(commandClasses));
+            run(command);
+
+            List<String> result = new ArrayList<String>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(dumped), "UTF-8"));
+            try {
+                for (String line; (line = reader.readLine()) != null; ) {
+                    if (line.length() > 0 && !line.startsWith(TOOL_CLASS_PREFIX)) {
+                        result.add(line);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            Writer writer = new OutputStreamWriter(new FileOutputStream(classList), "UTF-8");
+            try {
+                for (String line : result) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+            return result;
+        } finally {
+            if (!dumped.delete()) {
+                dumped.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Returns the command that creates the specified AppCDS archive from the specified class list. The application
+     * is then started with the {@code -XX:SharedArchiveFile} option, for example
+     * {@code java -XX:SharedArchiveFile=app.jsa -cp app.jar com.your.package.YourMain}.
+     *
+     * @param classList the class list, see {@link #generateClassList(File, String...)}
+     * @param archive the archive file to create
+     * @return the java executable and its arguments
+     */
+    public List<String> archiveCommand(File classList, File archive) {
+        return Arrays.asList(java, "-Xshare:dump", "-XX:SharedClassListFile=" + classList.getPath(),
+                "-XX:SharedArchiveFile=" + archive.getPath(), "-cp", classpath);
+    }
+
+    /**
+     * Exercises the construction, parsing, usage help, version help and completion script of the specified
+     * {@code @Command} class and its subcommands, so that the classes used by these paths are loaded.
+     * @param cls the {@code @Command}-annotated class
+     */
+    public static void exercise(Class<?> cls) {
+        exercise(new CommandLine(cls), Collections.newSetFromMap(new IdentityHashMap<CommandLine, Boolean>()));
+    }
+
+    private static void exercise(CommandLine commandLine, Set<CommandLine> visited) {
+        if (!visited.add(commandLine)) {
+            return;
+        }
+        PrintStream out = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        });
+        parse(commandLine, out);
+        parse(commandLine, out, "--picocli-appcds-unknown-option");
+        for (OptionSpec option : commandLine.getCommandSpec().options()) {
+            if (option.usageHelp() || option.versionHelp()) {
+                parse(commandLine, out, option.longestName());
+            }
+        }
+        commandLine.usage(out);
+        commandLine.printVersionHelp(out);
+        AutoComplete.bash(commandLine.getCommandName(), commandLine);
+        for (CommandLine sub : commandLine.getSubcommands().values()) {
+            exercise(sub, visited);
+        }
+    }
+
+    private static void parse(CommandLine commandLine, PrintStream out, String... args) {
+        try {
+            commandLine.parseArgs(args);
+        } catch (ParameterException ex) {
+            out.println(ex.getMessage());
+            ex.getCommandLine().usage(out);
+        }
+    }
+
+    /** Runs the specified command, forwarding its output to the standard error stream. */
+    void run(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        InputStream in = process.getInputStream();
+        byte[] buffer = new byte[8192];
+        for (int count; (count = in.read(buffer)) != -1; ) {
+            System.err.write(buffer, 0, count);
+        }
+        int exitValue = process.waitFor();
+        if (exitValue != 0) {
+            throw new IOException(command + " exited with " + exitValue);
+        }
+    }
+
+    /** Returns the jar file or directory with the classes of this tool. */
+    private static File codeSource() {
+        try {
+            return new File(AppCdsGenerator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String javaExecutable() {
+        return new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+    }
+}
@@ -0,0 +1,267 @@
+package picocli.codegen.aot.graalvm;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+import picocli.model.ArgSpec;
+import picocli.model.CommandSpec;
+
+/**
+ * {@code NativeImageFeatureGenerator} generates a GraalVM native-image {@code Feature} that builds the command
+ * model of a picocli-based application while the native image is built, together with the native-image
+ * configuration to use it.
+ * <p>
+ * The generated {@code Feature} calls {@link picocli.model.PrebuiltCommandSpecs#prebuild(Class...)} for the
+ * specified {@code @Command} classes before the static analysis of the image: the command specs of these commands
+ * and of all their subcommands, and the built-in type converters, are then stored in the image heap, and the
+ * {@code CommandLine} constructed for a command class when the application starts uses them instead of building
+ * its model reflectively. The application must construct its {@code CommandLine} with the command class, not
+ * with an instance of it. The {@code Feature} source is compiled with the application, with the GraalVM SDK
+ * ({@code org.graalvm.sdk:graal-sdk}) as a compile-only dependency.
+ * </p><p>
+ * The generated {@code native-image.properties} file registers the {@code Feature}, initializes picocli and the
+ * packages of the command objects at image build time, and refers to the {@code reflect-config.json} and
+ * {@code resource-config.json} files generated next to it by {@link ReflectionConfigGenerator} and
+ * {@link ResourceConfigGenerator}. The {@code native-image} utility reads these files when they are on the class
+ * path, in the {@linkplain #resourceDirectory() resource directory} of the feature. Other classes whose instances
+ * are referenced by the command objects must also be initialized at build time.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class NativeImageFeatureGenerator {
+    static final String PROPERTIES_FILE = "native-image.properties";
+    static final String REFLECT_CONFIG_FILE = "reflect-config.json";
+    static final String RESOURCE_CONFIG_FILE = "resource-config.json";
+
+    @Command(name = "NativeImageFeatureGenerator",
+            description = {"Generates a GraalVM native-image Feature that builds the command specs " +
+                    "of the specified @Command classes at image build time, " +
+                    "and the native-image.properties, reflect-config.json and resource-config.json files " +
+                    "to build the image with it.",
+                    "See https://github.com/oracle/graal/blob/master/substratevm/CONFIGURE.md"},
+            mixinStandardHelpOptions = true, version = "picocli-codegen NativeImageFeatureGenerator 4.0")
+    private static class App implements Callable<Void> {
+
+        @Parameters(arity = "1..*", description = "One or more classes to build the command spec of.")
+        Class<?>[] classes = new Class<?>[0];
+
+        @Option(names = {"-f", "--feature"}, description = "Fully qualified class name of the Feature to generate. " +
+                "Default: PicocliFeature in the package of the first command class.")
+        String featureClassName;
+
+        @Option(names = {"-s", "--source-dir"}, description = "Directory to write the Feature source file to. " +
+                "Default: the current directory.")
+        File sourceDir = new File(".");
+
+        @Option(names = {"-r", "--resource-dir"}, description = "Directory to write the native-image configuration " +
+                "files to, in the META-INF/native-image subdirectory. Default: the current directory.")
+        File resourceDir = new File(".");
+
+        public Void call() throws IOException, NoSuchFieldException, IllegalAccessException {
+            String name = featureClassName;
+            if (name == null) {
+                String first = classes[0].getName();
+                name = first.substring(0, first.lastIndexOf('.') + 1) + "PicocliFeature";
+            }
+            for (File file : new NativeImageFeatureGenerator(name).generate(sourceDir, resourceDir, classes)) {
+                System.err.printf("Wrote %s%n", file);
+            }
+            return null;
+        }
+    }
+
+    private final String featureClassName;
+
+    /**
+     * Creates a generator for the specified {@code Feature} class.
+     * @param featureClassName the fully qualified name of the {@code Feature} class to generate
+     */
+    public NativeImageFeatureGenerator(String featureClassName) {
+        this.featureClassName = featureClassName;
+    }
+
+    /**
+     * Runs this class as a standalone application, writing the {@code Feature} source file and the native-image
+     * configuration files.
+     * @param args one or more fully qualified class names of {@code @Command}-annotated classes.
+     */
+    public static void main(String... args) {
+        CommandLine.call(new App(), args);
+    }
+
+    /**
+     * Writes the {@code Feature} source file to the specified source directory, and the native-image configuration
+     * files to the {@linkplain #resourceDirectory() resource directory} of the feature in the specified directory.
+     *
+     * @param sourceDir the root directory of the source files
+     * @param resourceDir the root directory of the resources
+     * @param commandClasses the {@code @Command} classes to build the command specs of
+     * @return the written files
+     * @throws IOException if a file could not be written
+     * @throws NoSuchFieldException if a problem occurs while generating the reflection configuration
+     * @throws IllegalAccessException if a problem occurs while generating the reflection configuration
+     */
+    public List<File> generate(File sourceDir, File resourceDir, Class<?>... commandClasses)
+            throws IOException, NoSuchFieldException, IllegalAccessException {
+        CommandSpec[] specs = new CommandSpec[commandClasses.length];
+        for (int i = 0; i < specs.length; i++) {
+            specs[i] = new CommandLine(commandClasses[i]).getCommandSpec();
+        }
+        File source = new File(sourceDir, featureClassName.replace('.', File.separatorChar) + ".java");
+        File configDir = new File(resourceDir, resourceDirectory().replace('/', File.separatorChar));
+        mkdirs(source.getParentFile());
+        mkdirs(configDir);
+        List<File> result = new ArrayList<File>();
+        result.add(write(source, generateFeature(commandClasses)));
+        result.add(write(new File(configDir, PROPERTIES_FILE), generateNativeImageProperties(specs)));
+        result.add(write(new File(configDir, REFLECT_CONFIG_FILE),
+                new ReflectionConfigGenerator().generateReflectionConfig(specs)));
+        result.add(write(new File(configDir, RESOURCE_CONFIG_FILE),
+                new ResourceConfigGenerator().generateResourceConfig(specs)));
+        return result;
+    }
+
+    /**
+     * Returns the class path resource directory of the native-image configuration files of the feature, where the
+     * {@code native-image} utility finds the {@code native-image.properties} file.
+     * @return {@code META-INF/native-image/picocli-codegen/} followed by the feature class name
+     */
+    public String resourceDirectory() {
+        return "META-INF/native-image/picocli-codegen/" + featureClassName;
+    }
+
+    /**
+     * Returns the Java source of the {@code Feature} class, which prebuilds the command specs of the specified
+     * {@code @Command} classes before the static analysis of the native image.
+     *
+     * @param commandClasses the {@code @Command} classes to build the command specs of
+     * @return the source of the {@code Feature} class
+     * @throws IllegalArgumentException if a class cannot be referenced in source code, like an anonymous class
+     */
+    public String generateFeature(Class<?>... commandClasses) {
+        int dot = featureClassName.lastIndexOf('.');
+        StringBuilder result = new StringBuilder(1024);
+        if (dot > 0) {
+            result.append(String.format("package %s;%n%n", featureClassName.substring(0, dot)));
+        }
+        result.append(String.format("import org.graalvm.nativeimage.hosted.Feature;%n"));
+        result.append(String.format("%n"));
+        result.append(String.format("import picocli.model.PrebuiltCommandSpecs;%n"));
+        result.append(String.format("%n"));
+        result.append(String.format("/**%n"));
+        result.append(String.format(" * Builds the picocli command specs while the native image is built, " +
+                "to store them in the image heap.%n"));
+        result.append(String.format(" * To use them, the application must construct its CommandLine with " +
+                "the command class, as in%n"));
+        result.append(String.format(" * {@code new CommandLine(MyCommand.class)}, " +
+                "not with an instance of the class.%n"));
+        result.append(String.format(" * Generated by picocli-codegen NativeImageFeatureGenerator.%n"));
+        result.append(String.format(" */%n"));
+        result.append(String.format("public final class %s implements Feature {%n", featureClassName.substring(dot + 1)));
+        result.append(String.format("    @Override%n"));
+        result.append(String.format("    public void beforeAnalysis(BeforeAnalysisAccess access) {%n"));
+        result.append(String.format("        PrebuiltCommandSpecs.prebuild("));
+        String prefix = "";
+        for (Class<?> cls : commandClasses) {
+            if (cls.getCanonicalName() == null) {
+                throw new IllegalArgumentException(cls.getName() + " cannot be referenced in a Feature");
+            }
+            result.append(prefix).append(String.format("%n                %s.class", cls.getCanonicalName()));
+            prefix = ",";
+        }
+        result.append(String.format(");%n"));
+        result.append(String.format("    }%n"));
+        result.append(String.format("}%n"));
+        return result.toString();
+    }
+
+    /**
+     * Returns the {@code native-image.properties} file of the feature, which registers the feature, initializes
+     * picocli and the packages of the specified commands at image build time, and refers to the
+     * {@code reflect-config.json} and {@code resource-config.json} files in the same directory.
+     *
+     * @param specs the command specs of the {@code @Command} classes passed to the feature
+     * @return the contents of the {@code native-image.properties} file
+     */
+    public String generateNativeImageProperties(CommandSpec... specs) {
+        Set<String> packages = new LinkedHashSet<String>(Arrays.asList("picocli"));
+        for (CommandSpec spec : specs) {
+            visitCommandSpec(spec, packages);
+        }
+        StringBuilder initialized = new StringBuilder();
+        for (String name : packages) {
+            initialized.append(initialized.length() == 0 ? "" : ",").append(name);
+        }
+        String continuation = String.format(" \\%n       ");
+        return String.format("# Generated by picocli-codegen NativeImageFeatureGenerator%n") +
+                "Args = --features=" + featureClassName + continuation +
+                "--initialize-at-build-time=" + initialized + continuation +
+                "--initialize-at-run-time=picocli.help.Ansi" + continuation +
+                "-H:ReflectionConfigurationResources=${.}/" + REFLECT_CONFIG_FILE + continuation +
+                "-H:ResourceConfigurationResources=${.}/" + RESOURCE_CONFIG_FILE + String.format("%n");
+    }
+
+    private static void visitCommandSpec(CommandSpec spec, Set<String> packages) {
+        Object userObject = spec.userObject();
+        if (userObject instanceof Method) {
+            visitType(((Method) userObject).getDeclaringClass(), packages);
+        } else if (userObject != null && !Proxy.isProxyClass(userObject.getClass())) {
+            visitType(userObject.getClass(), packages);
+        }
+        visitObject(spec.versionProvider(), packages);
+        visitObject(spec.defaultValueProvider(), packages);
+        for (ArgSpec arg : spec.args()) {
+            if (arg.converters() != null) {
+                for (Object converter : arg.converters()) {
+                    visitObject(converter, packages);
+                }
+            }
+        }
+        for (CommandSpec mixin : spec.mixins().values()) {
+            visitCommandSpec(mixin, packages);
+        }
+        for (CommandLine sub : new LinkedHashSet<CommandLine>(spec.subcommands().values())) {
+            visitCommandSpec(sub.getCommandSpec(), packages);
+        }
+    }
+
+    private static void visitObject(Object object, Set<String> packages) {
+        if (object != null) {
+            visitType(object.getClass(), packages);
+        }
+    }
+
+    private static void visitType(Class<?> type, Set<String> packages) {
+        String name = type.getName();
+        int dot = name.lastIndexOf('.');
+        String pkg = dot < 0 ? name : name.substring(0, dot);
+        if (!pkg.equals("picocli") && !pkg.startsWith("picocli.") && !pkg.startsWith("java.")
+                && !pkg.startsWith("javax.")) {
+            packages.add(pkg);
+        }
+    }
+
+    private static void mkdirs(File dir) throws IOException {
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+    }
+
+    private static File write(File file, String content) throws IOException {
+        ResourceConfigGenerator.writeToFile(file, content);
+        return file;
+    }
+}
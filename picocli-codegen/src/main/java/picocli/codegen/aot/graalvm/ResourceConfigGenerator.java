@@ -0,0 +1,122 @@
+package picocli.codegen.aot.graalvm;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+import picocli.model.CommandSpec;
+
+/**
+ * {@code ResourceConfigGenerator} generates a JSON String with the resource bundles that are loaded by the
+ * {@code Messages} of a picocli-based application, in order to compile this application ahead-of-time into a
+ * native executable with GraalVM.
+ * <p>
+ * A native image only contains the resources and resource bundles it was configured with. The output of
+ * {@code ResourceConfigGenerator} is intended to be passed to the {@code -H:ResourceConfigurationFiles=/path/to/resourceconfig}
+ * option of the {@code native-image} <a href="https://www.graalvm.org/docs/reference-manual/aot-compilation/">GraalVM utility</a>.
+ * It lists the base names of the {@linkplain CommandSpec#resourceBundle() resource bundles} of the specified commands,
+ * their mixins and their subcommands.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class ResourceConfigGenerator {
+
+    @Command(name = "ResourceConfigGenerator",
+            description = {"Generates a JSON file with the resource bundles that are loaded " +
+                    "for the specified @Command classes. " +
+                    "The generated JSON file can be passed to the -H:ResourceConfigurationFiles=/path/to/resourceconfig " +
+                    "option of the `native-image` GraalVM utility.",
+                    "See https://github.com/oracle/graal/blob/master/substratevm/RESOURCES.md"},
+            mixinStandardHelpOptions = true, version = "picocli-codegen ResourceConfigGenerator 4.0")
+    private static class App implements Callable<Void> {
+
+        @Parameters(arity = "1..*", description = "One or more classes to generate a GraalVM ResourceConfiguration for.")
+        Class<?>[] classes = new Class<?>[0];
+
+        @Option(names = {"-o", "--output"}, description = "Output file to write the configuration to. " +
+                "If not specified, the configuration is written to the standard output stream.")
+        File outputFile;
+
+        public Void call() throws IOException {
+            List<CommandSpec> specs = new ArrayList<CommandSpec>();
+            for (Class<?> cls : classes) {
+                specs.add(new CommandLine(cls).getCommandSpec());
+            }
+            String result = new ResourceConfigGenerator().generateResourceConfig(specs.toArray(new CommandSpec[0]));
+            if (outputFile == null) {
+                System.out.print(result);
+            } else {
+                writeToFile(outputFile, result);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Runs this class as a standalone application, printing the resulting JSON String to a file or to {@code System.out}.
+     * @param args one or more fully qualified class names of {@code @Command}-annotated classes.
+     */
+    public static void main(String... args) {
+        CommandLine.call(new App(), args);
+    }
+
+    /**
+     * Returns a JSON String with the resource bundles of the specified {@code CommandSpec} objects, their mixins and
+     * their subcommands.
+     *
+     * @param specs one or more {@code CommandSpec} objects to inspect
+     * @return a JSON String in the <a href="https://github.com/oracle/graal/blob/master/substratevm/RESOURCES.md">format</a>
+     *       required by the {@code -H:ResourceConfigurationFiles=/path/to/resourceconfig} option of the GraalVM
+     *       {@code native-image} utility.
+     */
+    public String generateResourceConfig(CommandSpec... specs) {
+        Set<String> bundles = new LinkedHashSet<String>();
+        for (CommandSpec spec : specs) {
+            visitCommandSpec(spec, bundles);
+        }
+        StringBuilder result = new StringBuilder(256);
+        result.append(String.format("{%n  \"bundles\" : ["));
+        String prefix = String.format("%n");
+        for (String bundle : bundles) {
+            result.append(prefix).append(String.format("    { \"name\" : \"%s\" }", bundle));
+            prefix = String.format(",%n");
+        }
+        return result.append(String.format("%s]%n}%n", bundles.isEmpty() ? "" : String.format("%n  "))).toString();
+    }
+
+    private static void visitCommandSpec(CommandSpec spec, Set<String> bundles) {
+        ResourceBundle bundle = spec.resourceBundle();
+        if (bundle != null && bundle.getBaseBundleName() != null) {
+            bundles.add(bundle.getBaseBundleName());
+        }
+        for (CommandSpec mixin : spec.mixins().values()) {
+            visitCommandSpec(mixin, bundles);
+        }
+        for (CommandLine sub : new LinkedHashSet<CommandLine>(spec.subcommands().values())) {
+            visitCommandSpec(sub.getCommandSpec(), bundles);
+        }
+    }
+
+    static void writeToFile(File file, String content) throws IOException {
+        FileWriter writer = null;
+        try {
+            writer = new FileWriter(file);
+            writer.write(content);
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package picocli.codegen.annotation.processing;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import picocli.CommandLine;
+import picocli.model.CommandSpec;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+public class GeneratedCommandProcessorTest {
+    private static final String DEMO = "package demo;\n"
+            + "import java.util.List;\n"
+            + "import java.util.Map;\n"
+            + "import picocli.annot.*;\n"
+            + "import picocli.model.CommandSpec;\n"
+            + "@Command(name = \"demo\", mixinStandardHelpOptions = true, version = \"1.0\",\n"
+            + "        description = \"Demo \\\"command\\\"\\u00e9\", subcommands = Demo.Sub.class)\n"
+            + "public class Demo extends Base {\n"
+            + "    @Option(names = {\"-c\", \"--count\"}, description = \"The count\") int count = 3;\n"
+            + "    @Option(names = \"-D\", split = \",\") Map<String, Integer> props;\n"
+            + "    @Option(names = \"--unit\") java.util.concurrent.TimeUnit unit;\n"
+            + "    @Parameters(description = \"Files\") List<? extends CharSequence> files;\n"
+            + "    @Spec CommandSpec spec;\n"
+            + "    @Mixin Common common;\n"
+            + "    public static class Common {\n"
+            + "        @Option(names = \"--quiet\") boolean quiet;\n"
+            + "    }\n"
+            + "    @Command(name = \"empty\")\n"
+            + "    public static class Empty {\n"
+            + "    }\n"
+            + "    @Command(name = \"sub\", aliases = \"s\")\n"
+            + "    static class Sub {\n"
+            + "        @ParentCommand Demo parent;\n"
+            + "        @Option(names = \"-x\") static String x;\n"
+            + "        @Unmatched List<String> unmatched;\n"
+            + "    }\n"
+            + "}\n"
+            + "class Base {\n"
+            + "    @Option(names = \"--base\", hidden = true) long base;\n"
+            + "}\n"
+            + "class Hidden {\n"
+            + "    @Option(names = \"-p\") private int p;\n"
+            + "}\n";
+
+    private static File generatedDir;
+    private static ClassLoader generatedLoader;
+    private static ClassLoader reflectedLoader;
+    private static List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    @BeforeClass
+    public static void compile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+        generatedDir = compile(compiler, true);
+        generatedLoader = new URLClassLoader(new URL[] {generatedDir.toURI().toURL()},
+                GeneratedCommandProcessorTest.class.getClassLoader());
+        reflectedLoader = new URLClassLoader(new URL[] {compile(compiler, false).toURI().toURL()},
+                GeneratedCommandProcessorTest.class.getClassLoader());
+    }
+
+    private static File compile(JavaCompiler compiler, boolean process) throws IOException {
+        File dir = File.createTempFile("picocli-processor", "");
+        assertTrue(dir.delete() && dir.mkdirs());
+        List<Diagnostic<? extends JavaFileObject>> result = compile(compiler, process, dir, "demo/Demo.java", DEMO);
+        if (process) {
+            diagnostics = result;
+        }
+        return dir;
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(JavaCompiler compiler, boolean process,
+            File dir, String name, final String content) {
+        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///" + name),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+        List<String> options = new ArrayList<String>(Arrays.asList("-d", dir.getPath(), "-s", dir.getPath(),
+                "-classpath", System.getProperty("java.class.path")));
+        if (!process) {
+            options.add("-proc:none");
+        }
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<JavaFileObject>();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, collector, options, null,
+                Arrays.asList(source));
+        if (process) {
+            task.setProcessors(Arrays.asList(new GeneratedCommandProcessor()));
+        }
+        assertTrue(collector.getDiagnostics().toString(), task.call());
+        return collector.getDiagnostics();
+    }
+
+    @Test
+    public void testGeneratesSourceForSupportedClasses() {
+        assertTrue(new File(generatedDir, "demo/Demo_PicocliCommand.java").exists());
+        assertTrue(new File(generatedDir, "demo/Demo$Common_PicocliCommand.java").exists());
+        assertTrue(new File(generatedDir, "demo/Demo$Sub_PicocliCommand.java").exists());
+        assertTrue(new File(generatedDir, "demo/Base_PicocliCommand.java").exists());
+        assertFalse(new File(generatedDir, "demo/Hidden_PicocliCommand.java").exists());
+        boolean noted = false;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            noted |= diagnostic.getKind() == Diagnostic.Kind.NOTE
+                    && diagnostic.getMessage(null).contains("private field demo.Hidden.p");
+        }
+        assertTrue(diagnostics.toString(), noted);
+    }
+
+    @Test
+    public void testGeneratedCommandIsUsedAndBindsFields() throws Exception {
+        Object demo = generatedLoader.loadClass("demo.Demo").newInstance();
+        CommandLine commandLine = new CommandLine(demo);
+        CommandSpec spec = commandLine.getCommandSpec();
+        assertTrue(spec.findOption("--count").getter().getClass().getName()
+                .startsWith("demo.Demo_PicocliCommand$"));
+        assertEquals(Integer.valueOf(3), spec.findOption("--count").initialValue());
+
+        commandLine.parseArgs("-c", "5", "-D", "a=1,b=2", "--base", "7", "--quiet", "--unit", "SECONDS",
+                "x", "y");
+        assertEquals(5, value(demo, "count"));
+        assertEquals(2, ((Map<?, ?>) value(demo, "props")).size());
+        assertEquals(Integer.valueOf(1), ((Map<?, ?>) value(demo, "props")).get("a"));
+        assertEquals(7L, value(demo, "base"));
+        assertEquals("SECONDS", value(demo, "unit").toString());
+        assertEquals(Arrays.asList("x", "y"), value(demo, "files"));
+        assertEquals(true, value(value(demo, "common"), "quiet"));
+        assertSame(spec, value(demo, "spec"));
+
+        commandLine.parseArgs("s", "-x", "z", "extra");
+        Object sub = commandLine.getSubcommands().get("sub").getCommand();
+        assertSame(demo, value(sub, "parent"));
+        assertEquals("z", value(sub, "x"));
+        assertEquals(Arrays.asList("extra"), value(sub, "unmatched"));
+        assertEquals(3, value(demo, "count"));
+    }
+
+    @Test
+    public void testGeneratedSpecMatchesReflectedSpec() throws Exception {
+        CommandLine generated = new CommandLine(generatedLoader.loadClass("demo.Demo").newInstance());
+        CommandLine reflected = new CommandLine(reflectedLoader.loadClass("demo.Demo").newInstance());
+        assertFalse(reflected.getCommandSpec().findOption("--count").getter().getClass().getName()
+                .startsWith("demo."));
+        assertEquals(usage(reflected), usage(generated));
+        assertEquals(reflected.getCommandSpec().options().toString(),
+                generated.getCommandSpec().options().toString());
+        assertEquals(reflected.getCommandSpec().positionalParameters().get(0).auxiliaryTypes()[0],
+                generated.getCommandSpec().positionalParameters().get(0).auxiliaryTypes()[0]);
+        assertNotNull(generated.getSubcommands().get("s"));
+        assertEquals(usage(reflected.getSubcommands().get("sub")), usage(generated.getSubcommands().get("sub")));
+    }
+
+    @Test
+    public void testGeneratedCommandWithoutAnnotatedFields() throws Exception {
+        assertTrue(new File(generatedDir, "demo/Demo$Empty_PicocliCommand.java").exists());
+        CommandLine commandLine = new CommandLine(generatedLoader.loadClass("demo.Demo$Empty").newInstance());
+        assertEquals("empty", commandLine.getCommandName());
+        assertTrue(commandLine.getCommandSpec().options().isEmpty());
+    }
+
+    @Test
+    public void testWritesSubcommandIndex() throws Exception {
+        String plugin = "package plugin;\n"
+                + "import picocli.annot.*;\n"
+                + "@Command(name = \"tool\")\n"
+                + "public class Tool {\n"
+                + "}\n"
+                + "@Command(name = \"plugin\", aliases = {\"p\", \"plug\"}, subcommandOf = Tool.class)\n"
+                + "class Plugin {\n"
+                + "    @ParentCommand Tool parent;\n"
+                + "}\n";
+        File dir = File.createTempFile("picocli-processor", "");
+        assertTrue(dir.delete() && dir.mkdirs());
+        compile(ToolProvider.getSystemJavaCompiler(), true, dir, "plugin/Tool.java", plugin);
+
+        assertEquals("# Generated by picocli-codegen: parent class, subcommand class, name and aliases\n"
+                + "plugin.Tool plugin.Plugin plugin p plug\n", read(new File(dir, "META-INF/picocli/subcommands")));
+        ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()},
+                GeneratedCommandProcessorTest.class.getClassLoader());
+        CommandLine tool = new CommandLine(loader.loadClass("plugin.Tool").newInstance());
+        assertEquals(Arrays.asList("plugin", "p", "plug"), new ArrayList<String>(tool.getSubcommands().keySet()));
+        assertFalse(tool.getSubcommands().get("plug").hasCommandSpec());
+        tool.parseArgs("plug");
+        assertSame(tool.getCommand(), value(tool.getSubcommands().get("plugin").getCommand(), "parent"));
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buff = new byte[(int) file.length()];
+            int size = in.read(buff);
+            return new String(buff, 0, size, "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    private static Object value(Object object, String name) throws Exception {
+        for (Class<?> cls = object.getClass(); cls != null; cls = cls.getSuperclass()) {
+            for (Field field : cls.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    field.setAccessible(true);
+                    return field.get(object);
+                }
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static String usage(CommandLine commandLine) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        commandLine.usage(new PrintStream(baos));
+        return baos.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package picocli.codegen.aot.cds;
+
+import org.junit.Test;
+import picocli.codegen.aot.graalvm.Example;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AppCdsGeneratorTest {
+    private static final String JAVA = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+
+    @Test
+    public void testExerciseCommandAndSubcommands() {
+        AppCdsGenerator.exercise(Example.class);
+    }
+
+    @Test
+    public void testGenerateClassList() throws Exception {
+        File classList = File.createTempFile("picocli-test", ".lst");
+        try {
+            AppCdsGenerator generator = new AppCdsGenerator(JAVA, System.getProperty("java.class.path"));
+            List<String> listed = generator.generateClassList(classList, Example.class.getName());
+            assertEquals(listed, lines(classList));
+            assertTrue(listed.contains("java/lang/Object"));
+            for (String name : listed) {
+                assertFalse(name, name.startsWith("picocli/codegen/aot/cds/AppCdsGenerator"));
+            }
+            if (!System.getProperty("java.specification.version").startsWith("1.")) { // Java 9+
+                assertTrue(listed.contains("picocli/CommandLine"));
+                assertTrue(listed.contains("picocli/codegen/aot/graalvm/Example"));
+            }
+        } finally {
+            classList.delete();
+        }
+    }
+
+    @Test
+    public void testArchiveCommand() {
+        AppCdsGenerator generator = new AppCdsGenerator("java", "app.jar");
+        assertEquals(Arrays.asList("java", "-Xshare:dump", "-XX:SharedClassListFile=classes.lst",
+                "-XX:SharedArchiveFile=app.jsa", "-cp", "app.jar"),
+                generator.archiveCommand(new File("classes.lst"), new File("app.jsa")));
+    }
+
+    private static List<String> lines(File file) throws IOException {
+        List<String> result = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            for (String line; (line = reader.readLine()) != null; ) {
+                result.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return result;
+    }
+}
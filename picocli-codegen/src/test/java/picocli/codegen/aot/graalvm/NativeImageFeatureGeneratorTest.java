@@ -0,0 +1,109 @@
+package picocli.codegen.aot.graalvm;
+
+import org.junit.Test;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NativeImageFeatureGeneratorTest {
+    @Test
+    public void testGenerateFeature() {
+        String expected = String.format("package com.example.cli;%n" +
+                "%n" +
+                "import org.graalvm.nativeimage.hosted.Feature;%n" +
+                "%n" +
+                "import picocli.model.PrebuiltCommandSpecs;%n" +
+                "%n" +
+                "/**%n" +
+                " * Builds the picocli command specs while the native image is built, to store them in the image heap.%n" +
+                " * To use them, the application must construct its CommandLine with the command class, as in%n" +
+                " * {@code new CommandLine(MyCommand.class)}, not with an instance of the class.%n" +
+                " * Generated by picocli-codegen NativeImageFeatureGenerator.%n" +
+                " */%n" +
+                "public final class AppFeature implements Feature {%n" +
+                "    @Override%n" +
+                "    public void beforeAnalysis(BeforeAnalysisAccess access) {%n" +
+                "        PrebuiltCommandSpecs.prebuild(%n" +
+                "                picocli.codegen.aot.graalvm.Example.class,%n" +
+                "                picocli.codegen.aot.graalvm.ResourceConfigGeneratorTest.I18n.class);%n" +
+                "    }%n" +
+                "}%n");
+        assertEquals(expected, new NativeImageFeatureGenerator("com.example.cli.AppFeature")
+                .generateFeature(Example.class, ResourceConfigGeneratorTest.I18n.class));
+    }
+
+    @Test
+    public void testGenerateFeatureRejectsAnonymousClasses() {
+        Object anonymous = new Object() {
+        };
+        try {
+            new NativeImageFeatureGenerator("AppFeature").generateFeature(anonymous.getClass());
+            fail("Expected exception");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(anonymous.getClass().getName() + " cannot be referenced in a Feature", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testGenerateNativeImageProperties() {
+        String expected = String.format("# Generated by picocli-codegen NativeImageFeatureGenerator%n" +
+                "Args = --features=AppFeature \\%n" +
+                "       --initialize-at-build-time=picocli \\%n" +
+                "       --initialize-at-run-time=picocli.help.Ansi \\%n" +
+                "       -H:ReflectionConfigurationResources=${.}/reflect-config.json \\%n" +
+                "       -H:ResourceConfigurationResources=${.}/resource-config.json%n");
+        assertEquals(expected, new NativeImageFeatureGenerator("AppFeature")
+                .generateNativeImageProperties(new CommandLine(Example.class).getCommandSpec()));
+    }
+
+    @Test
+    public void testGenerateWritesTheFeatureAndTheConfiguration() throws Exception {
+        File dir = File.createTempFile("picocli-codegen", "");
+        assertTrue(dir.delete());
+        try {
+            NativeImageFeatureGenerator generator = new NativeImageFeatureGenerator("com.example.AppFeature");
+            List<File> files = generator.generate(new File(dir, "src"), new File(dir, "res"), Example.class);
+
+            File config = new File(dir, "res/META-INF/native-image/picocli-codegen/com.example.AppFeature");
+            assertEquals(Arrays.asList(new File(dir, "src/com/example/AppFeature.java"),
+                    new File(config, "native-image.properties"),
+                    new File(config, "reflect-config.json"),
+                    new File(config, "resource-config.json")), files);
+            assertEquals(generator.generateFeature(Example.class), read(files.get(0)));
+            assertEquals(new ReflectionConfigGenerator().generateReflectionConfig(
+                    new CommandLine(Example.class).getCommandSpec()), read(files.get(2)));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buff = new byte[(int) file.length()];
+            int size = in.read(buff);
+            return new String(buff, 0, size);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
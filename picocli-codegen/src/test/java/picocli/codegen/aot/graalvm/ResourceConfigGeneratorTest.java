@@ -0,0 +1,47 @@
+package picocli.codegen.aot.graalvm;
+
+import org.junit.Test;
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Mixin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class ResourceConfigGeneratorTest {
+    @Command(resourceBundle = "picocli.codegen.aot.graalvm.I18nMessages")
+    public static class I18nMixin {
+    }
+
+    @Command(name = "i18n", resourceBundle = "picocli.codegen.aot.graalvm.I18nMessages", subcommands = Example.class)
+    public static class I18n {
+        @Mixin
+        I18nMixin mixin;
+    }
+
+    @Test
+    public void testBundlesOfCommandsMixinsAndSubcommandsAreListedOnce() {
+        String expected = String.format("{%n" +
+                "  \"bundles\" : [%n" +
+                "    { \"name\" : \"picocli.codegen.aot.graalvm.I18nMessages\" }%n" +
+                "  ]%n" +
+                "}%n");
+        assertEquals(expected, new ResourceConfigGenerator().generateResourceConfig(
+                new CommandLine(I18n.class).getCommandSpec(), new CommandLine(Example.class).getCommandSpec()));
+    }
+
+    @Test
+    public void testMainStdOutWithoutBundles() {
+        PrintStream old = System.out;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(baos));
+        try {
+            ResourceConfigGenerator.main(Example.class.getName());
+        } finally {
+            System.setOut(old);
+        }
+        assertEquals(String.format("{%n  \"bundles\" : []%n}%n"), baos.toString());
+    }
+}
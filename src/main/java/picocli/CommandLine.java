@@ -20,6 +20,7 @@ import java.io.PrintWriter;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -32,6 +33,11 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import picocli.annot.Command;
 import picocli.annot.Option;
@@ -59,6 +65,8 @@ import picocli.help.Layout;
 import picocli.help.Text;
 import picocli.help.TextTable;
 import picocli.model.ArgSpec;
+import picocli.model.ArgumentFileCache;
+import picocli.model.BatchParseResult;
 import picocli.model.CommandReflection;
 import picocli.model.CommandSpec;
 import picocli.model.Factory;
@@ -256,7 +264,13 @@ public class CommandLine {
     }
 
     final Tracer tracer = new Tracer();
-    final CommandSpec commandSpec;
+    private volatile CommandSpec commandSpec;
+    /** Creates the command spec of a lazy subcommand; {@code null} once it was created. */
+    private Supplier<CommandSpec> lazyCommandSpec;
+    /** Command spec of a lazy subcommand while it is being initialized. */
+    private CommandSpec initializingCommandSpec;
+    /** Settings to apply to a lazy subcommand once its command spec was created. */
+    private List<Consumer<CommandLine>> pendingSettings;
     //TODO:private scope
     public final Interpreter interpreter;
     public final IFactory factory;
@@ -328,6 +342,44 @@ public class CommandLine {
         this.factory = Assert.notNull(factory, "factory");
         interpreter = new Interpreter(this, tracer);
         commandSpec = CommandSpec.forAnnotatedObject(command, factory);
+        init(commandSpec);
+    }
+
+    private CommandLine(Supplier<CommandSpec> commandSpec, IFactory factory) {
+        this.factory = Assert.notNull(factory, "factory");
+        interpreter = new Interpreter(this, tracer);
+        lazyCommandSpec = Assert.notNull(commandSpec, "commandSpec");
+        pendingSettings = new ArrayList<Consumer<CommandLine>>();
+    }
+
+    /**
+     * Constructs a new {@code CommandLine} interpreter whose {@code CommandSpec} is only created,
+     * by the specified supplier, when it is first needed: when the parser matches the command as
+     * a subcommand, or when the usage help or completion script lists its options, for example.
+     * Settings applied to the returned {@code CommandLine} before that are recorded and applied
+     * to the command spec once it was created. {@link #addSubcommand(String, Object, String...)}
+     * registers it as a subcommand without creating its command spec either.
+     * <p>
+     * This is how the {@linkplain Command#lazySubcommands() lazy subcommands} of a command are
+     * registered: commands with many subcommands then only create the subcommands used by an
+     * invocation. The command spec is created at most once, also if several threads need it.
+     * </p>
+     * 
+     * @param commandSpec
+     *            creates the command spec, linked to its parent command if any
+     * @param factory
+     *            the factory used to create instances of subcommands, converters, etc., that are
+     *            registered declaratively with annotation attributes
+     * @return a new {@code CommandLine} without a command spec yet
+     * @see #hasCommandSpec()
+     * @since 4.0
+     */
+    //TODO:internal scope
+    public static CommandLine lazy(Supplier<CommandSpec> commandSpec, IFactory factory) {
+        return new CommandLine(commandSpec, factory);
+    }
+
+    private void init(CommandSpec commandSpec) {
         commandSpec.commandLine(this);
         commandSpec.validate();
         if (commandSpec.unmatchedArgsBindings().size() > 0) {
@@ -337,12 +389,88 @@ public class CommandLine {
 
     /**
      * Returns the {@code CommandSpec} model that this {@code CommandLine} was constructed with.
+     * For a {@linkplain #lazy(Supplier, IFactory) lazy} command, this creates the command spec if
+     * it was not created yet.
      * 
      * @return the {@code CommandSpec} model
      * @since 3.0
      */
     public CommandSpec getCommandSpec() {
-        return commandSpec;
+        CommandSpec result = commandSpec;
+        return result != null ? result : createCommandSpec();
+    }
+
+    /**
+     * Returns whether the {@code CommandSpec} of this {@code CommandLine} was created, which is
+     * only not the case for {@linkplain #lazy(Supplier, IFactory) lazy} commands that were not
+     * needed yet.
+     * 
+     * @since 4.0
+     */
+    public boolean hasCommandSpec() {
+        return commandSpec != null;
+    }
+
+    private synchronized CommandSpec createCommandSpec() {
+        if (commandSpec != null) {
+            return commandSpec;
+        }
+        if (initializingCommandSpec != null) { // called back while initializing
+            return initializingCommandSpec;
+        }
+        CommandSpec result = lazyCommandSpec.get();
+        initializingCommandSpec = result;
+        try {
+            init(result);
+            for (Consumer<CommandLine> setting : pendingSettings) {
+                setting.accept(this);
+            }
+            if (result.parent() != null && result.parent().isFrozen()) {
+                result.freeze();
+            }
+            pendingSettings = null;
+            lazyCommandSpec = null;
+            commandSpec = result;
+        } finally {
+            initializingCommandSpec = null;
+        }
+        return result;
+    }
+
+    /**
+     * Applies the specified setting to the command spec of this {@code CommandLine}: right away,
+     * or, for a {@linkplain #lazy(Supplier, IFactory) lazy} command whose command spec was not
+     * created yet, when it is created.
+     *
+     * @param setting
+     *            the setting to apply
+     * @since 4.0
+     */
+    //TODO:internal scope
+    public void whenCommandSpecCreated(Consumer<CommandSpec> setting) {
+        apply(command -> setting.accept(command.getCommandSpec()));
+    }
+
+    /**
+     * Applies the specified setting to the subcommands, or records it for the lazy subcommands
+     * that were not created yet.
+     */
+    private void applyToSubcommands(Consumer<CommandLine> setting) {
+        for (CommandLine command : getCommandSpec().subcommands().values()) {
+            command.apply(setting);
+        }
+    }
+
+    private void apply(Consumer<CommandLine> setting) {
+        if (commandSpec == null) {
+            synchronized (this) {
+                if (commandSpec == null && initializingCommandSpec == null) {
+                    pendingSettings.add(setting);
+                    return;
+                }
+            }
+        }
+        setting.accept(this);
     }
 
     /**
@@ -457,10 +585,10 @@ public class CommandLine {
      */
     public CommandLine addSubcommand(String name, Object command, String... aliases) {
         CommandLine subcommandLine = toCommandLine(command, factory);
-        subcommandLine.getCommandSpec().aliases().addAll(Arrays.asList(aliases));
-        getCommandSpec().addSubcommand(name, subcommandLine);
-        CommandReflection.initParentCommand(subcommandLine.getCommandSpec().userObject(),
-                getCommandSpec().userObject());
+        getCommandSpec().addSubcommand(name, subcommandLine, aliases);
+        final Object parent = getCommandSpec().userObject();
+        subcommandLine.whenCommandSpecCreated(
+                spec -> CommandReflection.initParentCommand(spec.userObject(), parent));
         return this;
     }
 
@@ -566,9 +694,7 @@ public class CommandLine {
      */
     public CommandLine setToggleBooleanFlags(boolean newValue) {
         getCommandSpec().parser().toggleBooleanFlags(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setToggleBooleanFlags(newValue);
-        }
+        applyToSubcommands(command -> command.setToggleBooleanFlags(newValue));
         return this;
     }
 
@@ -602,9 +728,7 @@ public class CommandLine {
      */
     public CommandLine setOverwrittenOptionsAllowed(boolean newValue) {
         getCommandSpec().parser().overwrittenOptionsAllowed(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setOverwrittenOptionsAllowed(newValue);
-        }
+        applyToSubcommands(command -> command.setOverwrittenOptionsAllowed(newValue));
         return this;
     }
 
@@ -636,9 +760,127 @@ public class CommandLine {
      */
     public CommandLine setPosixClusteredShortOptionsAllowed(boolean newValue) {
         getCommandSpec().parser().posixClusteredShortOptionsAllowed(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setPosixClusteredShortOptionsAllowed(newValue);
-        }
+        applyToSubcommands(command -> command.setPosixClusteredShortOptionsAllowed(newValue));
+        return this;
+    }
+
+    /**
+     * Returns whether the parser accepts unambiguous prefixes of long option names. The default
+     * is {@code false}.
+     * 
+     * @return {@code true} if a long option like {@code --verbose} can be abbreviated like
+     *         {@code --verb}, {@code false} otherwise
+     * @see #setAbbreviatedOptionsAllowed(boolean)
+     * @since 4.0
+     */
+    public boolean isAbbreviatedOptionsAllowed() {
+        return getCommandSpec().parser().abbreviatedOptionsAllowed();
+    }
+
+    /**
+     * Sets whether long options (with names of more than two characters) can be abbreviated to
+     * any prefix that no other long option starts with, like {@code --verb} for
+     * {@code --verbose}, as {@code getopt_long} allows. The default is {@code false}.
+     * <p>
+     * Abbreviations are also accepted with an attached value, like {@code --verb=2}. An exact
+     * option name always takes precedence over an abbreviation, and an abbreviation that matches
+     * several options is rejected with a {@link ParameterException} listing the candidates.
+     * </p>
+     * <p>
+     * The specified setting will be registered with this {@code CommandLine} and the full hierarchy
+     * of its subcommands and nested sub-subcommands <em>at the moment this method is called</em>.
+     * Subcommands added later will have the default setting. To ensure a setting is applied to all
+     * subcommands, call the setter last, after adding subcommands.
+     * </p>
+     * 
+     * @param newValue
+     *            the new setting
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @since 4.0
+     */
+    public CommandLine setAbbreviatedOptionsAllowed(boolean newValue) {
+        getCommandSpec().parser().abbreviatedOptionsAllowed(newValue);
+        applyToSubcommands(command -> command.setAbbreviatedOptionsAllowed(newValue));
+        return this;
+    }
+
+    /**
+     * Returns whether the parser accepts unambiguous prefixes of subcommand names. The default
+     * is {@code false}.
+     * 
+     * @return {@code true} if a subcommand like {@code status} can be abbreviated like
+     *         {@code st}, {@code false} otherwise
+     * @see #setAbbreviatedSubcommandsAllowed(boolean)
+     * @since 4.0
+     */
+    public boolean isAbbreviatedSubcommandsAllowed() {
+        return getCommandSpec().parser().abbreviatedSubcommandsAllowed();
+    }
+
+    /**
+     * Sets whether subcommands can be invoked with any prefix of their name or alias that no
+     * other subcommand starts with, like {@code st} for {@code status}. The default is
+     * {@code false}.
+     * <p>
+     * When enabled, a positional parameter that happens to be a prefix of a subcommand name
+     * invokes that subcommand, and one that is a prefix of several subcommand names is rejected
+     * with a {@link ParameterException} listing the candidates.
+     * </p>
+     * <p>
+     * The specified setting will be registered with this {@code CommandLine} and the full hierarchy
+     * of its subcommands and nested sub-subcommands <em>at the moment this method is called</em>.
+     * Subcommands added later will have the default setting. To ensure a setting is applied to all
+     * subcommands, call the setter last, after adding subcommands.
+     * </p>
+     * 
+     * @param newValue
+     *            the new setting
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @since 4.0
+     */
+    public CommandLine setAbbreviatedSubcommandsAllowed(boolean newValue) {
+        getCommandSpec().parser().abbreviatedSubcommandsAllowed(newValue);
+        applyToSubcommands(command -> command.setAbbreviatedSubcommandsAllowed(newValue));
+        return this;
+    }
+
+    /**
+     * Returns whether the parser shares a single {@code String} instance between all occurrences
+     * of the same key in {@code Map} options and positional parameters. The default is
+     * {@code false}.
+     * 
+     * @return {@code true} if equal map keys are interned while parsing, {@code false} otherwise
+     * @see #setInternMapKeys(boolean)
+     * @since 4.0
+     */
+    public boolean isInternMapKeys() {
+        return getCommandSpec().parser().internMapKeys();
+    }
+
+    /**
+     * Sets whether the parser shares a single {@code String} instance between all occurrences of
+     * the same key in {@code Map} options and positional parameters, like a property that is
+     * specified repeatedly with {@code -Dkey=value}. The default is {@code false}.
+     * <p>
+     * Keys are interned per invocation of the parser, before they are converted to the key type
+     * of the map, so that the parse result retains each distinct key only once. This saves
+     * memory for command lines with many repeated keys, at the cost of a hash lookup per key.
+     * </p>
+     * <p>
+     * The specified setting will be registered with this {@code CommandLine} and the full hierarchy
+     * of its subcommands and nested sub-subcommands <em>at the moment this method is called</em>.
+     * Subcommands added later will have the default setting. To ensure a setting is applied to all
+     * subcommands, call the setter last, after adding subcommands.
+     * </p>
+     * 
+     * @param newValue
+     *            the new setting
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @since 4.0
+     */
+    public CommandLine setInternMapKeys(boolean newValue) {
+        getCommandSpec().parser().internMapKeys(newValue);
+        applyToSubcommands(command -> command.setInternMapKeys(newValue));
         return this;
     }
 
@@ -677,9 +919,7 @@ public class CommandLine {
      */
     public CommandLine setCaseInsensitiveEnumValuesAllowed(boolean newValue) {
         getCommandSpec().parser().caseInsensitiveEnumValuesAllowed(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setCaseInsensitiveEnumValuesAllowed(newValue);
-        }
+        applyToSubcommands(command -> command.setCaseInsensitiveEnumValuesAllowed(newValue));
         return this;
     }
 
@@ -712,9 +952,7 @@ public class CommandLine {
      */
     public CommandLine setTrimQuotes(boolean newValue) {
         getCommandSpec().parser().trimQuotes(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setTrimQuotes(newValue);
-        }
+        applyToSubcommands(command -> command.setTrimQuotes(newValue));
         return this;
     }
 
@@ -748,9 +986,7 @@ public class CommandLine {
      */
     public CommandLine setSplitQuotedStrings(boolean newValue) {
         getCommandSpec().parser().splitQuotedStrings(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setSplitQuotedStrings(newValue);
-        }
+        applyToSubcommands(command -> command.setSplitQuotedStrings(newValue));
         return this;
     }
 
@@ -777,9 +1013,7 @@ public class CommandLine {
      */
     public CommandLine setEndOfOptionsDelimiter(String delimiter) {
         getCommandSpec().parser().endOfOptionsDelimiter(delimiter);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setEndOfOptionsDelimiter(delimiter);
-        }
+        applyToSubcommands(command -> command.setEndOfOptionsDelimiter(delimiter));
         return this;
     }
 
@@ -812,9 +1046,7 @@ public class CommandLine {
      */
     public CommandLine setDefaultValueProvider(IDefaultValueProvider newValue) {
         getCommandSpec().defaultValueProvider(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setDefaultValueProvider(newValue);
-        }
+        applyToSubcommands(command -> command.setDefaultValueProvider(newValue));
         return this;
     }
 
@@ -849,9 +1081,7 @@ public class CommandLine {
      */
     public CommandLine setStopAtPositional(boolean newValue) {
         getCommandSpec().parser().stopAtPositional(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setStopAtPositional(newValue);
-        }
+        applyToSubcommands(command -> command.setStopAtPositional(newValue));
         return this;
     }
 
@@ -903,9 +1133,7 @@ public class CommandLine {
      */
     public CommandLine setStopAtUnmatched(boolean newValue) {
         getCommandSpec().parser().stopAtUnmatched(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setStopAtUnmatched(newValue);
-        }
+        applyToSubcommands(command -> command.setStopAtUnmatched(newValue));
         if (newValue) {
             setUnmatchedArgumentsAllowed(true);
         }
@@ -946,9 +1174,7 @@ public class CommandLine {
      */
     public CommandLine setUnmatchedOptionsArePositionalParams(boolean newValue) {
         getCommandSpec().parser().unmatchedOptionsArePositionalParams(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setUnmatchedOptionsArePositionalParams(newValue);
-        }
+        applyToSubcommands(command -> command.setUnmatchedOptionsArePositionalParams(newValue));
         return this;
     }
 
@@ -986,9 +1212,7 @@ public class CommandLine {
      */
     public CommandLine setUnmatchedArgumentsAllowed(boolean newValue) {
         getCommandSpec().parser().unmatchedArgumentsAllowed(newValue);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setUnmatchedArgumentsAllowed(newValue);
-        }
+        applyToSubcommands(command -> command.setUnmatchedArgumentsAllowed(newValue));
         return this;
     }
 
@@ -1118,6 +1342,11 @@ public class CommandLine {
      * <p>
      * If parsing fails, a {@link ParameterException} is thrown.
      * </p>
+     * <p>
+     * If the command spec is {@linkplain CommandSpec#freeze() frozen}, this method may be called
+     * from multiple threads concurrently; matched values are then only available from the
+     * returned {@code ParseResult}.
+     * </p>
      *
      * @param args
      *            The command line arguments to parse.
@@ -1128,8 +1357,7 @@ public class CommandLine {
      *             whose user input was invalid
      */
     public ParseResult parseArgs(String... args) {
-        interpreter.parse(args);
-        return interpreter.parseResult.build();
+        return interpreter.parseArgs(args);
     }
 
     /**
@@ -1141,6 +1369,62 @@ public class CommandLine {
         return parseArgs(translateCommandline(args));
     }
 
+    /**
+     * Parses each of the specified argument vectors in parallel on the common fork/join pool, and
+     * returns their results in input order.
+     * 
+     * @param argsList
+     *            the argument vectors to parse
+     * @return the result of each argument vector that was parsed, or the exception it failed with
+     * @throws IllegalStateException
+     *             if the command spec is not {@linkplain CommandSpec#freeze() frozen}
+     * @see #parseArgsBatch(List, Executor)
+     * @since 4.0
+     */
+    public BatchParseResult parseArgsBatch(List<String[]> argsList) {
+        return parseArgsBatch(argsList, null);
+    }
+
+    /**
+     * Parses each of the specified argument vectors in parallel on the specified executor, and
+     * returns their results in input order.
+     * <p>
+     * All argument vectors are parsed against this command, whose command spec must be
+     * {@linkplain CommandSpec#freeze() frozen} so that parses share it without interfering with
+     * each other: matched values are only available from the returned {@code ParseResult}s. An
+     * argument vector that fails to parse does not affect the others; its exception is kept in
+     * the returned {@code BatchParseResult} instead of being thrown.
+     * </p>
+     * 
+     * @param argsList
+     *            the argument vectors to parse
+     * @param executor
+     *            the executor to parse with, or {@code null} for the common fork/join pool
+     * @return the result of each argument vector that was parsed, or the exception it failed with
+     * @throws IllegalStateException
+     *             if the command spec is not {@linkplain CommandSpec#freeze() frozen}
+     * @since 4.0
+     */
+    public BatchParseResult parseArgsBatch(List<String[]> argsList, Executor executor) {
+        return interpreter.parseArgsBatch(Assert.notNull(argsList, "argument vectors"), executor);
+    }
+
+    /**
+     * Parses each of the specified argument vectors in parallel on the common fork/join pool, and
+     * returns their results in encounter order.
+     * 
+     * @param args
+     *            the argument vectors to parse
+     * @return the result of each argument vector that was parsed, or the exception it failed with
+     * @throws IllegalStateException
+     *             if the command spec is not {@linkplain CommandSpec#freeze() frozen}
+     * @see #parseArgsBatch(List, Executor)
+     * @since 4.0
+     */
+    public BatchParseResult parseArgsBatch(Stream<String[]> args) {
+        return parseArgsBatch(args.collect(Collectors.toList()), null);
+    }
+
     public ParseResult getParseResult() {
         return interpreter.parseResult == null ? null : interpreter.parseResult.build();
     }
@@ -2596,14 +2880,18 @@ public class CommandLine {
      * @param <K>
      *            the target type
      * @return this CommandLine object, to allow method chaining
+     * @throws IllegalStateException
+     *             if the command spec is {@linkplain CommandSpec#freeze() frozen}
      * @see #addSubcommand(String, Object)
      */
     public <K> CommandLine registerConverter(Class<K> cls, ITypeConverter<K> converter) {
+        if (getCommandSpec().isFrozen()) {
+            throw new IllegalStateException("Cannot register a converter for " + cls
+                    + ": command '" + getCommandName() + "' is frozen");
+        }
         interpreter.converterRegistry.put(Assert.notNull(cls, "class"),
                 Assert.notNull(converter, "converter"));
-        for (CommandLine command : getCommandSpec().commands.values()) {
-            command.registerConverter(cls, converter);
-        }
+        applyToSubcommands(command -> command.registerConverter(cls, converter));
         return this;
     }
 
@@ -2636,9 +2924,7 @@ public class CommandLine {
      */
     public CommandLine setSeparator(String separator) {
         getCommandSpec().parser().separator(Assert.notNull(separator, "separator"));
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setSeparator(separator);
-        }
+        applyToSubcommands(command -> command.setSeparator(separator));
         return this;
     }
 
@@ -2671,9 +2957,7 @@ public class CommandLine {
      */
     public CommandLine setResourceBundle(ResourceBundle bundle) {
         getCommandSpec().resourceBundle(bundle);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.getCommandSpec().resourceBundle(bundle);
-        }
+        applyToSubcommands(command -> command.getCommandSpec().resourceBundle(bundle));
         return this;
     }
 
@@ -2702,9 +2986,7 @@ public class CommandLine {
      */
     public CommandLine setUsageHelpWidth(int width) {
         getCommandSpec().usageMessage().width(width);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setUsageHelpWidth(width);
-        }
+        applyToSubcommands(command -> command.setUsageHelpWidth(width));
         return this;
     }
 
@@ -2789,9 +3071,98 @@ public class CommandLine {
      */
     public CommandLine setAtFileCommentChar(Character atFileCommentChar) {
         getCommandSpec().parser().atFileCommentChar(atFileCommentChar);
-        for (CommandLine command : getCommandSpec().subcommands().values()) {
-            command.setAtFileCommentChar(atFileCommentChar);
-        }
+        applyToSubcommands(command -> command.setAtFileCommentChar(atFileCommentChar));
+        return this;
+    }
+
+    /**
+     * Returns the character encoding of argument files, or {@code null} if argument files are
+     * read with the platform default charset.
+     * 
+     * @return the charset of argument files or {@code null}. The default is {@code null}.
+     * @since 4.0
+     */
+    public Charset getAtFileCharset() {
+        return getCommandSpec().parser().atFileCharset();
+    }
+
+    /**
+     * Sets the character encoding of argument files, or {@code null} to read argument files with
+     * the platform default charset.
+     * 
+     * @param atFileCharset
+     *            the charset of argument files or {@code null}. The default is {@code null}.
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @since 4.0
+     */
+    public CommandLine setAtFileCharset(Charset atFileCharset) {
+        getCommandSpec().parser().atFileCharset(atFileCharset);
+        return this;
+    }
+
+    /**
+     * Returns whether argument files are expanded while the arguments are parsed, instead of up
+     * front. This property is {@code false} by default.
+     * 
+     * @return whether argument files are read lazily
+     * @see #setAtFileStreaming(boolean)
+     * @since 4.0
+     */
+    public boolean isAtFileStreaming() {
+        return getCommandSpec().parser().atFileStreaming();
+    }
+
+    /**
+     * Sets whether argument files are expanded while the arguments are parsed, instead of up
+     * front. ({@code false} by default.)
+     * <p>
+     * When streaming, the contents of argument files are read and tokenized as the parser
+     * consumes them, so very large argument files are never held in memory as a whole. Errors
+     * reading an argument file are then reported as a {@link ParameterException} during the
+     * parse rather than as an {@link InitializationException} before it. Debug tracing still
+     * reads the remaining arguments up front, to show them.
+     * </p>
+     * 
+     * @param atFileStreaming
+     *            whether argument files should be read lazily
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @since 4.0
+     */
+    public CommandLine setAtFileStreaming(boolean atFileStreaming) {
+        getCommandSpec().parser().atFileStreaming(atFileStreaming);
+        return this;
+    }
+
+    /**
+     * Returns the cache of tokenized argument files, or {@code null} if argument files are read
+     * each time they are expanded.
+     * 
+     * @return the argument file cache or {@code null}. The default is {@code null}.
+     * @see #setAtFileCache(ArgumentFileCache)
+     * @since 4.0
+     */
+    public ArgumentFileCache getAtFileCache() {
+        return getCommandSpec().parser().atFileCache();
+    }
+
+    /**
+     * Sets the cache of tokenized argument files, or {@code null} to read argument files each
+     * time they are expanded.
+     * <p>
+     * Long-running applications that parse the same argument files over and over can share a
+     * single bounded cache across commands; an argument file is only read again once its size
+     * or last-modified time changed, or after it was evicted. Cached argument files are held in
+     * memory as a whole, so {@linkplain #setAtFileStreaming(boolean) streaming} does not apply to
+     * them.
+     * </p>
+     * 
+     * @param atFileCache
+     *            the argument file cache or {@code null}. The default is {@code null}.
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @since 4.0
+     */
+    public CommandLine setAtFileCache(ArgumentFileCache atFileCache) {
+        getCommandSpec().parser().atFileCache(atFileCache);
         return this;
     }
 
@@ -111,6 +111,45 @@ public @interface Command {
      */
     Class<?>[] subcommands() default {};
 
+    /**
+     * Specify {@code true} to register the {@linkplain #subcommands() declared subcommands} by
+     * the {@linkplain #name() name} and {@linkplain #aliases() aliases} of their {@code @Command}
+     * annotation only, and to instantiate each subcommand and build its model when it is first
+     * needed: when the parser matches it on the command line, or when the usage help or a
+     * completion script describes it, for example. Commands with many subcommands then start up
+     * faster, since an invocation usually uses only one of them.
+     * <p>
+     * Settings applied to the {@code CommandLine} before a lazy subcommand is used, like
+     * {@link CommandLine#setCaseInsensitiveEnumValuesAllowed(boolean)}, are applied to the
+     * subcommand when it is created. {@linkplain CommandSpec#freeze() Freezing} the command
+     * creates all its subcommands.
+     * </p>
+     * 
+     * @return whether the declared subcommands are instantiated when first needed
+     * @see CommandLine#hasCommandSpec()
+     * @since 4.0
+     */
+    boolean lazySubcommands() default false;
+
+    /**
+     * The commands that this command is a subcommand of, for subcommands that are not declared
+     * by their parent command, for example because they are shipped in a separate jar. The
+     * annotation processor of {@code picocli-codegen} lists these subcommands in the
+     * {@linkplain picocli.model.SubcommandIndex subcommand index}, by the {@linkplain #name()
+     * name} and {@linkplain #aliases() aliases} of this annotation. A {@code CommandLine}
+     * constructed for one of the parent commands registers them from the index without loading
+     * their class, which is only loaded and instantiated when the subcommand is first needed,
+     * like the {@linkplain #lazySubcommands() lazy subcommands}.
+     * <p>
+     * This attribute has no effect if the command class was not compiled with the annotation
+     * processor.
+     * </p>
+     * 
+     * @return the parent commands of this subcommand, or an empty array if none
+     * @since 4.0
+     */
+    Class<?>[] subcommandOf() default {};
+
     /**
      * Specify whether methods annotated with {@code @Command} should be registered as
      * subcommands of their enclosing {@code @Command} class. The default is {@code true}. For
@@ -95,9 +95,7 @@ public class UnmatchedArgumentException extends ParameterException {
             return spec.findOptionNamesWithPrefix(
                     stripped.substring(0, Math.min(2, stripped.length())));
         } else if (!spec.subcommands().isEmpty()) {
-            List<String> mostSimilar = CosineSimilarity.mostSimilar(arg,
-                    spec.subcommands().keySet());
-            return mostSimilar.subList(0, Math.min(3, mostSimilar.size()));
+            return spec.subcommandSuggestions().mostSimilar(arg, 3);
         }
         return Collections.emptyList();
     }
@@ -1,15 +1,17 @@
 package picocli.model;
 
 import java.lang.reflect.Array;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -34,6 +36,7 @@ import picocli.util.Utils;
  */
 public abstract class ArgSpec {
     private static final String NO_DEFAULT_VALUE = "__no_default_value__";
+    private static final String REGEX_METACHARACTERS = ".$|()[{^?*+\\";
 
     // help-related fields
     private final boolean hidden;
@@ -50,6 +53,10 @@ public abstract class ArgSpec {
     private final boolean interactive;
     private final boolean required;
     private final String splitRegex;
+    /** The split regex if it only matches itself, else {@code null}. */
+    private final String splitLiteral;
+    /** The compiled split regex, if it is not a literal. */
+    private final Pattern splitPattern;
     private final Class<?> type;
     private final Class<?>[] auxiliaryTypes;
     private final ITypeConverter<?>[] converters;
@@ -89,6 +96,13 @@ public abstract class ArgSpec {
         description = builder.description == null ? new String[0] : builder.description;
         descriptionKey = builder.descriptionKey;
         splitRegex = builder.splitRegex == null ? "" : builder.splitRegex;
+        splitLiteral = literal(splitRegex);
+        try {
+            splitPattern = splitLiteral == null ? Pattern.compile(splitRegex) : null;
+        } catch (PatternSyntaxException ex) {
+            throw new InitializationException(
+                    "Invalid split regex '" + splitRegex + "': " + ex.getDescription(), ex);
+        }
         paramLabel = StringUtils.isBlank(builder.paramLabel) ? "PARAM" : builder.paramLabel;
         hideParamSyntax = builder.hideParamSyntax;
         converters = builder.converters == null ? new ITypeConverter<?>[0] : builder.converters;
@@ -483,6 +497,70 @@ public abstract class ArgSpec {
         }
     }
 
+    /**
+     * Sets the value of this argument like {@link #setValue(Object, CommandLine)}, but without
+     * obtaining the previous value where the setter allows that.
+     */
+    void assignValue(Object newValue, CommandLine commandLine) throws PicocliException {
+        if (setter instanceof FieldBinding) {
+            ((FieldBinding) setter).assign(newValue);
+        } else {
+            setValue(newValue, commandLine);
+        }
+    }
+
+    /**
+     * Sets the value of an {@code int} argument through the primitive setter of its
+     * {@link #setter()}, without obtaining the previous value.
+     */
+    void setInt(int newValue, CommandLine commandLine) throws PicocliException {
+        try {
+            primitiveSetter(commandLine).setInt(newValue);
+        } catch (Exception ex) {
+            throw couldNotSet(newValue, ex);
+        }
+    }
+
+    /** Sets the value of a {@code long} argument, like {@link #setInt(int, CommandLine)}. */
+    void setLong(long newValue, CommandLine commandLine) throws PicocliException {
+        try {
+            primitiveSetter(commandLine).setLong(newValue);
+        } catch (Exception ex) {
+            throw couldNotSet(newValue, ex);
+        }
+    }
+
+    /** Sets the value of a {@code double} argument, like {@link #setInt(int, CommandLine)}. */
+    void setDouble(double newValue, CommandLine commandLine) throws PicocliException {
+        try {
+            primitiveSetter(commandLine).setDouble(newValue);
+        } catch (Exception ex) {
+            throw couldNotSet(newValue, ex);
+        }
+    }
+
+    /** Sets the value of a {@code boolean} argument, like {@link #setInt(int, CommandLine)}. */
+    void setBoolean(boolean newValue, CommandLine commandLine) throws PicocliException {
+        try {
+            primitiveSetter(commandLine).setBoolean(newValue);
+        } catch (Exception ex) {
+            throw couldNotSet(newValue, ex);
+        }
+    }
+
+    private ISetter primitiveSetter(CommandLine commandLine) {
+        if (setter instanceof MethodBinding) {
+            ((MethodBinding) setter).commandLine = commandLine;
+        }
+        return setter;
+    }
+
+    private PicocliException couldNotSet(Object newValue, Exception ex) {
+        return ex instanceof PicocliException ? (PicocliException) ex
+                : new PicocliException(
+                        "Could not set value (" + newValue + ") for " + this + ": " + ex, ex);
+    }
+
     /**
      * Returns {@code true} if this argument's {@link #type()} is an array, a {@code Collection} or
      * a {@code Map}, {@code false} otherwise.
@@ -600,18 +678,77 @@ public abstract class ArgSpec {
             return new String[] { value };
         }
         int limit = parser.limitSplit() ? Math.max(arity.max - consumed, 0) : 0;
-        if (parser.splitQuotedStrings()) {
-            return value.split(splitRegex(), limit);
+        if (parser.splitQuotedStrings() || value.indexOf('"') < 0) {
+            return split(value, limit);
         }
         return splitRespectingQuotedStrings(value, limit, parser);
     }
 
+    /** Splits like {@link String#split(String, int)} with the split regex of this argument. */
+    private String[] split(String value, int limit) {
+        return splitLiteral == null ? splitPattern.split(value, limit)
+                : splitLiteral(value, splitLiteral, limit);
+    }
+
+    /**
+     * Returns the string matched by the specified regex if it only matches a literal string,
+     * like {@code ","} or {@code "\\|"}, else {@code null}.
+     */
+    static String literal(String regex) {
+        if (regex.length() == 0) {
+            return null;
+        }
+        if (regex.length() == 2 && regex.charAt(0) == '\\'
+                && REGEX_METACHARACTERS.indexOf(regex.charAt(1)) >= 0) {
+            return regex.substring(1);
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
+    /**
+     * Splits the specified value around the specified delimiter, with the same results as
+     * {@link String#split(String, int)} with a non-negative limit: this only allocates the
+     * resulting array and substrings.
+     */
+    static String[] splitLiteral(String value, String delimiter, int limit) {
+        int parts = 1;
+        for (int i = value.indexOf(delimiter); i >= 0 && (limit == 0 || parts < limit);
+                i = value.indexOf(delimiter, i + delimiter.length())) {
+            parts++;
+        }
+        if (parts == 1) {
+            return new String[] { value };
+        }
+        String[] result = new String[parts];
+        int start = 0;
+        for (int p = 0; p < parts - 1; p++) {
+            int end = value.indexOf(delimiter, start);
+            result[p] = value.substring(start, end);
+            start = end + delimiter.length();
+        }
+        result[parts - 1] = value.substring(start);
+        if (limit == 0) { // trailing empty strings are dropped
+            while (parts > 0 && result[parts - 1].length() == 0) {
+                parts--;
+            }
+            if (parts < result.length) {
+                result = Arrays.copyOf(result, parts);
+            }
+        }
+        return result;
+    }
+
     // @since 3.7
     private String[] splitRespectingQuotedStrings(String value, int limit, ParserSpec parser) {
         StringBuilder splittable = new StringBuilder();
         StringBuilder temp = new StringBuilder();
         StringBuilder current = splittable;
-        Queue<String> quotedValues = new LinkedList<String>();
+        Queue<String> quotedValues = new ArrayDeque<String>();
         boolean escaping = false, inQuote = false;
         for (int ch = 0, i = 0; i < value.length(); i += Character.charCount(ch)) {
             ch = value.codePointAt(i);
@@ -643,7 +780,7 @@ public abstract class ArgSpec {
             quotedValues.add(temp.toString());
             temp.setLength(0);
         }
-        String[] result = splittable.toString().split(splitRegex(), limit);
+        String[] result = split(splittable.toString(), limit);
         for (int i = 0; i < result.length; i++) {
             result[i] = restoreQuotedValues(result[i], quotedValues, parser);
         }
@@ -651,7 +788,7 @@ public abstract class ArgSpec {
             new Tracer().warn(
                     "Unable to respect quotes while splitting value %s for %s (unprocessed remainder: %s)%n",
                     value, this, quotedValues);
-            return value.split(splitRegex(), limit);
+            return split(value, limit);
         }
         return result;
     }
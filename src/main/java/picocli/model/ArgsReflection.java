@@ -109,11 +109,16 @@ class ArgsReflection {
 
     private static void initCommon(ArgSpec.Builder<?> builder, TypedMember member) {
         builder.type(member.getType());
-        builder.withToString((member.accessible instanceof Field ? "field "
+        builder.withToString((member.accessible instanceof Field
+                || member.accessible instanceof GeneratedMember ? "field "
                 : member.accessible instanceof Method ? "method "
                         : member.accessible.getClass().getSimpleName() + " ")
                 + abbreviate(member.toGenericString()));
 
+        bind(builder, member);
+    }
+
+    private static void bind(ArgSpec.Builder<?> builder, TypedMember member) {
         builder.getter(member.getter()).setter(member.setter());
         builder.hasInitialValue(member.hasInitialValue);
         try {
@@ -123,6 +128,44 @@ class ArgsReflection {
         }
     }
 
+    /**
+     * Returns a copy of the specified option or positional parameter, extracted from an annotated
+     * member, that is not bound to the member nor holds anything created by a factory.
+     */
+    static ArgSpec prototype(ArgSpec argSpec) {
+        ObjectBinding binding = new ObjectBinding();
+        return argSpec.toBuilder().getter(binding).setter(binding)
+                .converters(new ITypeConverter<?>[0]).build();
+    }
+
+    /**
+     * Returns the option or positional parameter of the specified member, like
+     * {@link #extractOptionSpec(TypedMember, IFactory)} and
+     * {@link #extractPositionalParamSpec(TypedMember, IFactory)}, copying the attributes of the
+     * annotations from the specified {@linkplain #prototype(ArgSpec) prototype} of the same
+     * annotated member.
+     */
+    static ArgSpec rebind(ArgSpec prototype, TypedMember member, IFactory factory) {
+        ArgSpec.Builder<?> builder = prototype.toBuilder();
+        bind(builder, member);
+        Class<? extends Iterable<String>> choiceValues;
+        Class<? extends ITypeConverter<?>>[] converters;
+        if (member.isOption()) {
+            Option option = member.getAnnotation(Option.class);
+            choiceValues = option.choiceValues();
+            converters = option.converter();
+        } else {
+            Parameters parameters = member.getAnnotation(Parameters.class);
+            choiceValues = parameters.choiceValues();
+            converters = parameters.converter();
+        }
+        if (!NoChoiceValues.class.equals(choiceValues)) {
+            builder.choiceValues(Factory.createChoiceValues(factory, choiceValues));
+        }
+        builder.converters(Factory.createConverter(factory, converters));
+        return builder.build();
+    }
+
     static String abbreviate(String text) {
         return text.replace("private ", "").replace("protected ", "").replace("public ", "")
                 .replace("java.lang.", "");
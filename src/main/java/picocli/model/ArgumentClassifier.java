@@ -0,0 +1,391 @@
+package picocli.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classifies command line arguments as options, subcommands or positional parameters, for the
+ * {@link Interpreter}.
+ * <p>
+ * The option names, subcommand names and end-of-options delimiter of a command are compiled into
+ * a trie, so that an argument is classified in a single pass over its characters, without
+ * allocating substrings: this also finds the option name before the first separator of an
+ * argument like {@code --file=out.txt}. Instances are immutable and obtained from
+ * {@link CommandSpec#argumentClassifier()}, which compiles a new one whenever the options,
+ * subcommands or parser settings of the command changed.
+ * </p>
+ * <p>
+ * Each node of the trie also knows whether one or several options with a long name (longer than
+ * two characters) and subcommands have a name starting with its prefix, so that
+ * {@linkplain ParserSpec#abbreviatedOptionsAllowed() abbreviated} options and subcommands are
+ * resolved in the same pass. The names of an option or subcommand and its aliases have the same
+ * target: an abbreviation of several of them is not ambiguous. The option counts of the nodes
+ * also give the number of leading characters an argument has in common with all option names,
+ * for {@link CommandSpec#resemblesOption(String, picocli.util.Tracer)}.
+ * </p>
+ */
+final class ArgumentClassifier {
+    /** An argument that does not match any option or subcommand. */
+    static final int POSITIONAL = 0;
+    /** An option name. */
+    static final int OPTION = 1;
+    /** An option name followed by the separator and an attached value. */
+    static final int ATTACHED = 2;
+    /** An argument that may be a cluster of short options. */
+    static final int CLUSTER = 3;
+    /** A subcommand name. */
+    static final int SUBCOMMAND = 4;
+    /** The end-of-options delimiter. */
+    static final int END_OF_OPTIONS = 5;
+    /** An abbreviation of several long option names or subcommand names. */
+    static final int AMBIGUOUS = 6;
+
+    private static final int KIND_MASK = 7;
+    /** Set with {@link #OPTION}, {@link #ATTACHED} or {@link #SUBCOMMAND} for abbreviations. */
+    private static final int ABBREVIATED = 8;
+    private static final int INDEX_SHIFT = 4;
+
+    private static final int OPTION_FLAG = 1;
+    private static final int SUBCOMMAND_FLAG = 2;
+    private static final int END_OF_OPTIONS_FLAG = 4;
+
+    private static final char[] NO_CHARS = {};
+    private static final Node[] NO_NODES = {};
+
+    private static final class Node {
+        char[] chars = NO_CHARS;
+        Node[] children = NO_NODES;
+        int flags;
+        /** Name of the option or subcommand ending at this node, if any. */
+        String name;
+        /** Number of option names starting with the prefix of this node. */
+        int optionCount;
+        /**
+         * Number of distinct options with a long name starting with the prefix of this node: 0, 1,
+         * or 2 for two or more.
+         */
+        int longOptionCount;
+        String longOption;
+        Object longOptionTarget;
+        /**
+         * Number of distinct subcommands with a name starting with the prefix of this node: 0, 1,
+         * or 2 for two or more.
+         */
+        int subcommandCount;
+        String subcommand;
+        Object subcommandTarget;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            return index < 0 ? null : children[index];
+        }
+
+        Node addChild(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            char[] newChars = new char[chars.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(chars, index, newChars, index + 1, chars.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            newChars[index] = c;
+            newChildren[index] = new Node();
+            chars = newChars;
+            children = newChildren;
+            return newChildren[index];
+        }
+
+        /** Returns whether an abbreviation ending at this node resolves to something. */
+        boolean hasCandidates(boolean options, boolean subcommands) {
+            return options && longOptionCount > 0 || subcommands && subcommandCount > 0;
+        }
+    }
+
+    private final Node root = new Node();
+    private final String separator;
+    private final String endOfOptionsDelimiter;
+    private final boolean clustersAllowed;
+    private final boolean abbreviatedOptions;
+    private final boolean abbreviatedSubcommands;
+
+    /**
+     * Compiles a classifier for the specified option names and subcommand names, each of which is
+     * a distinct option or subcommand.
+     */
+    ArgumentClassifier(Collection<String> optionNames, Collection<String> subcommandNames,
+            ParserSpec parser) {
+        this(identities(optionNames), identities(subcommandNames), parser);
+    }
+
+    /**
+     * Compiles a classifier for the specified options and subcommands by name: names that map to
+     * the same (identical) option or subcommand are its aliases.
+     */
+    ArgumentClassifier(Map<String, ?> options, Map<String, ?> subcommands, ParserSpec parser) {
+        this.separator = parser.separator();
+        this.endOfOptionsDelimiter = parser.endOfOptionsDelimiter();
+        this.clustersAllowed = parser.posixClusteredShortOptionsAllowed();
+        this.abbreviatedOptions = parser.abbreviatedOptionsAllowed();
+        this.abbreviatedSubcommands = parser.abbreviatedSubcommandsAllowed();
+        for (Map.Entry<String, ?> entry : options.entrySet()) {
+            add(entry.getKey(), OPTION_FLAG, entry.getValue());
+        }
+        for (Map.Entry<String, ?> entry : subcommands.entrySet()) {
+            add(entry.getKey(), SUBCOMMAND_FLAG, entry.getValue());
+        }
+        if (endOfOptionsDelimiter != null) {
+            add(endOfOptionsDelimiter, END_OF_OPTIONS_FLAG, null);
+        }
+    }
+
+    private static Map<String, String> identities(Collection<String> names) {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        for (String name : names) {
+            result.put(name, name);
+        }
+        return result;
+    }
+
+    private void add(String name, int flag, Object target) {
+        boolean longOption = flag == OPTION_FLAG && name.length() > 2;
+        Node node = root;
+        for (int i = 0;; i++) {
+            if (flag == OPTION_FLAG) {
+                node.optionCount++;
+            }
+            if (longOption) {
+                if (node.longOptionCount == 0) {
+                    node.longOptionCount = 1;
+                    node.longOption = name;
+                    node.longOptionTarget = target;
+                } else if (node.longOptionTarget != target) {
+                    node.longOptionCount = 2;
+                }
+            } else if (flag == SUBCOMMAND_FLAG) {
+                if (node.subcommandCount == 0) {
+                    node.subcommandCount = 1;
+                    node.subcommand = name;
+                    node.subcommandTarget = target;
+                } else if (node.subcommandTarget != target) {
+                    node.subcommandCount = 2;
+                }
+            }
+            if (i == name.length()) {
+                break;
+            }
+            node = node.addChild(name.charAt(i));
+        }
+        node.flags |= flag;
+        if (flag != END_OF_OPTIONS_FLAG) {
+            node.name = name;
+        }
+    }
+
+    /** Returns whether this classifier was compiled for the current settings of the parser. */
+    boolean isFor(ParserSpec parser) {
+        return separator.equals(parser.separator())
+                && (endOfOptionsDelimiter == null ? parser.endOfOptionsDelimiter() == null
+                        : endOfOptionsDelimiter.equals(parser.endOfOptionsDelimiter()))
+                && clustersAllowed == parser.posixClusteredShortOptionsAllowed()
+                && abbreviatedOptions == parser.abbreviatedOptionsAllowed()
+                && abbreviatedSubcommands == parser.abbreviatedSubcommandsAllowed();
+    }
+
+    /**
+     * Classifies the specified argument the way {@link Interpreter} processes it: the
+     * end-of-options delimiter, then subcommands, then options, then abbreviations (if allowed),
+     * then an option with an attached value, then clusters of short options (if allowed), else a
+     * positional parameter. Use {@link #kind(int)}, {@link #isAbbreviated(int)} and
+     * {@link #separatorIndex(int)} to decode the result.
+     */
+    int classify(String arg) {
+        Node node = root;
+        Node keyNode = null; // node of the argument up to its first separator
+        int separatorIndex = -1;
+        int length = arg.length();
+        // abbreviations must have more than the leading dashes of an option name
+        boolean named = false;
+        boolean keyNamed = false;
+        for (int i = 0; node != null; i++) {
+            if (separatorIndex < 0 && arg.startsWith(separator, i)) {
+                separatorIndex = i;
+                keyNode = node;
+                keyNamed = named;
+            }
+            if (i == length) {
+                break;
+            }
+            char c = arg.charAt(i);
+            named |= Character.isLetterOrDigit(c);
+            node = node.child(c);
+        }
+        if (node != null) {
+            if ((node.flags & END_OF_OPTIONS_FLAG) != 0) {
+                return END_OF_OPTIONS;
+            }
+            if ((node.flags & SUBCOMMAND_FLAG) != 0) {
+                return SUBCOMMAND;
+            }
+            if ((node.flags & OPTION_FLAG) != 0) {
+                return OPTION;
+            }
+            if (named && abbreviatedSubcommands && node.subcommandCount > 0) {
+                return !ambiguous(node) ? SUBCOMMAND | ABBREVIATED : AMBIGUOUS;
+            }
+            if (named && abbreviatedOptions && node.longOptionCount > 0) {
+                return !ambiguous(node) ? OPTION | ABBREVIATED : AMBIGUOUS;
+            }
+        }
+        if (separatorIndex > 0 && keyNode != null) {
+            if ((keyNode.flags & OPTION_FLAG) != 0) {
+                return separatorIndex << INDEX_SHIFT | ATTACHED;
+            }
+            if (keyNamed && abbreviatedOptions && keyNode.longOptionCount > 0) {
+                return separatorIndex << INDEX_SHIFT
+                        | (keyNode.longOptionCount == 1 ? ATTACHED | ABBREVIATED : AMBIGUOUS);
+            }
+        }
+        if (clustersAllowed && length > 2 && arg.charAt(0) == '-') {
+            return CLUSTER;
+        }
+        return POSITIONAL;
+    }
+
+    private boolean ambiguous(Node node) {
+        int count = (abbreviatedOptions ? node.longOptionCount : 0)
+                + (abbreviatedSubcommands ? node.subcommandCount : 0);
+        return count > 1;
+    }
+
+    /** Returns the kind of argument of the specified {@link #classify(String)} result. */
+    static int kind(int classification) {
+        return classification & KIND_MASK;
+    }
+
+    /** Returns whether a {@link #classify(String)} result is an abbreviation. */
+    static boolean isAbbreviated(int classification) {
+        return (classification & ABBREVIATED) != 0;
+    }
+
+    /**
+     * Returns the index of the separator of an {@link #ATTACHED} classification, or of an
+     * {@link #AMBIGUOUS} classification of an abbreviated option with an attached value (else
+     * zero).
+     */
+    static int separatorIndex(int classification) {
+        return classification >>> INDEX_SHIFT;
+    }
+
+    /** Returns the long option name the specified unambiguous abbreviation resolves to. */
+    String resolveOption(String abbreviation) {
+        return find(abbreviation).longOption;
+    }
+
+    /** Returns the subcommand name the specified unambiguous abbreviation resolves to. */
+    String resolveSubcommand(String abbreviation) {
+        return find(abbreviation).subcommand;
+    }
+
+    /**
+     * Returns the long option names and subcommand names starting with the specified
+     * abbreviation.
+     */
+    List<String> candidates(String abbreviation) {
+        List<String> result = new ArrayList<String>();
+        Node node = find(abbreviation);
+        if (node != null) {
+            collect(node, result);
+        }
+        return result;
+    }
+
+    private void collect(Node node, List<String> result) {
+        if ((node.flags & SUBCOMMAND_FLAG) != 0 && abbreviatedSubcommands
+                || (node.flags & OPTION_FLAG) != 0 && abbreviatedOptions
+                        && node.name.length() > 2) {
+            result.add(node.name);
+        }
+        for (Node child : node.children) {
+            if (child.hasCandidates(abbreviatedOptions, abbreviatedSubcommands)) {
+                collect(child, result);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified argument is {@code "--"}, an option name (or an abbreviation
+     * of one), an option name followed by the separator, or starts with a short option name.
+     */
+    boolean isOption(String arg) {
+        if (arg == null) {
+            return false;
+        }
+        if ("--".equals(arg)) {
+            return true;
+        }
+        switch (kind(classify(arg))) {
+        case OPTION:
+        case ATTACHED:
+        case AMBIGUOUS:
+            return true;
+        case SUBCOMMAND:
+        case END_OF_OPTIONS:
+            Node node = find(arg);
+            if ((node.flags & OPTION_FLAG) != 0) {
+                return true;
+            }
+            break;
+        default:
+        }
+        return arg.length() > 2 && arg.charAt(0) == '-' && isShortOption(arg.charAt(1));
+    }
+
+    /** Returns whether the specified argument is a subcommand name or {@linkplain #isOption}. */
+    boolean isOptionOrSubcommand(String arg) {
+        return arg != null && (kind(classify(arg)) == SUBCOMMAND || isOption(arg));
+    }
+
+    /** Returns the number of option names. */
+    int optionCount() {
+        return root.optionCount;
+    }
+
+    /**
+     * Returns the sum, over all option names, of the number of leading characters the option name
+     * has in common with the specified argument.
+     */
+    int commonPrefixLength(String arg) {
+        int result = 0;
+        Node node = root;
+        for (int i = 0; i < arg.length(); i++) {
+            node = node.child(arg.charAt(i));
+            if (node == null) {
+                break;
+            }
+            result += node.optionCount;
+        }
+        return result;
+    }
+
+    private boolean isShortOption(char c) {
+        Node dash = root.child('-');
+        Node node = dash == null ? null : dash.child(c);
+        return node != null && (node.flags & OPTION_FLAG) != 0;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; node != null && i < prefix.length(); i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+}
@@ -0,0 +1,182 @@
+package picocli.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Cursor over the (expanded) command line arguments, consumed front to back by the
+ * {@link Interpreter}.
+ * <p>
+ * Behaves like a stack whose top is the next argument to process, without copying the
+ * arguments up front: popping only advances an index into the arguments, which are never
+ * modified. Values pushed back (like the {@code file} of {@code -ffile} or {@code --file=file})
+ * are kept on a small stack of their own, unless the value is the argument just popped.
+ * </p>
+ * <p>
+ * The arguments may also be pulled from an iterator while they are consumed (see
+ * {@link ParserSpec#atFileStreaming()}); cursors {@linkplain #copy() copied} from each other share
+ * the arguments pulled so far. Only {@link #size()} and {@link #remainder()} pull all remaining
+ * arguments.
+ * </p>
+ */
+final class ArgumentCursor {
+    private static final String[] NONE = {};
+
+    /** Arguments shared by a cursor and its copies; only ever appended to. */
+    private static final class Arguments {
+        private final Iterator<String> source;
+        private String[] array;
+        private int length;
+
+        Arguments(String[] array, Iterator<String> source) {
+            this.array = array;
+            this.length = array.length;
+            this.source = source;
+        }
+
+        /** Pulls arguments until there are at least the specified number, or no more. */
+        boolean fill(int count) {
+            if (count <= length) {
+                return true;
+            }
+            while (length < count && source != null && source.hasNext()) {
+                if (length == array.length) {
+                    array = Arrays.copyOf(array, Math.max(16, length + (length >> 1)));
+                }
+                array[length++] = source.next();
+            }
+            return count <= length;
+        }
+    }
+
+    private final Arguments arguments;
+    private int index;
+    private String[] pushed = NONE;
+    private int pushedCount;
+
+    /** Creates a cursor over the specified array, which is never modified. */
+    ArgumentCursor(String[] args) {
+        this(new Arguments(args, null));
+    }
+
+    /** Creates a cursor over the arguments returned by the specified iterator, pulled lazily. */
+    ArgumentCursor(Iterator<String> source) {
+        this(new Arguments(NONE, source));
+    }
+
+    private ArgumentCursor(Arguments arguments) {
+        this.arguments = arguments;
+    }
+
+    /** Returns a cursor holding only the specified value. */
+    static ArgumentCursor of(String value) {
+        return new ArgumentCursor(new String[] { value });
+    }
+
+    boolean isEmpty() {
+        return pushedCount == 0 && !arguments.fill(index + 1);
+    }
+
+    /** Returns the number of remaining arguments. */
+    int size() {
+        arguments.fill(Integer.MAX_VALUE);
+        return pushedCount + arguments.length - index;
+    }
+
+    /**
+     * Returns the number of remaining arguments, or the specified maximum if there are more,
+     * without pulling more arguments than needed.
+     */
+    int available(int max) {
+        if (pushedCount >= max) {
+            return max;
+        }
+        arguments.fill(index + max - pushedCount);
+        return Math.min(max, pushedCount + arguments.length - index);
+    }
+
+    /**
+     * Returns the number of remaining arguments pulled so far, without pulling more: all
+     * remaining arguments, unless they are pulled from an iterator.
+     */
+    int sizeHint() {
+        return pushedCount + arguments.length - index;
+    }
+
+    /**
+     * Returns the number of arguments consumed so far, minus the number of values pushed back;
+     * the difference between two positions is the number of arguments consumed in between.
+     */
+    int position() {
+        return index - pushedCount;
+    }
+
+    /** Returns the next argument without consuming it, or {@code null} if there is none. */
+    String peek() {
+        if (pushedCount > 0) {
+            return pushed[pushedCount - 1];
+        }
+        return arguments.fill(index + 1) ? arguments.array[index] : null;
+    }
+
+    /** Consumes and returns the next argument. */
+    String pop() {
+        if (pushedCount > 0) {
+            String result = pushed[--pushedCount];
+            pushed[pushedCount] = null;
+            return result;
+        }
+        if (!arguments.fill(index + 1)) {
+            throw new IllegalStateException("No more arguments");
+        }
+        return arguments.array[index++];
+    }
+
+    /** Makes the specified value the next argument. */
+    void push(String value) {
+        if (pushedCount == 0 && index > 0 && arguments.array[index - 1] == value) {
+            index--; // pushing back what was just popped: nothing to keep
+            return;
+        }
+        if (pushedCount == pushed.length) {
+            pushed = Arrays.copyOf(pushed, Math.max(4, pushedCount * 2));
+        }
+        pushed[pushedCount++] = value;
+    }
+
+    /**
+     * Returns an independent cursor positioned at the same argument. Both cursors share the
+     * arguments, including those pulled later on.
+     */
+    ArgumentCursor copy() {
+        ArgumentCursor result = new ArgumentCursor(arguments);
+        result.index = index;
+        if (pushedCount > 0) {
+            result.pushed = Arrays.copyOf(pushed, pushedCount);
+            result.pushedCount = pushedCount;
+        }
+        return result;
+    }
+
+    /** Returns a read-only view of the remaining arguments, next argument first. */
+    List<String> remainder() {
+        arguments.fill(Integer.MAX_VALUE);
+        List<String> rest = Arrays.asList(arguments.array).subList(index, arguments.length);
+        if (pushedCount == 0) {
+            return Collections.unmodifiableList(rest);
+        }
+        List<String> result = new ArrayList<>(pushedCount + rest.size());
+        for (int i = pushedCount - 1; i >= 0; i--) {
+            result.add(pushed[i]);
+        }
+        result.addAll(rest);
+        return Collections.unmodifiableList(result);
+    }
+
+    public String toString() {
+        return remainder().toString();
+    }
+}
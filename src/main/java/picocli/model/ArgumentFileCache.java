@@ -0,0 +1,130 @@
+package picocli.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import picocli.CommandLine;
+
+/**
+ * Bounded, least-recently-used cache of tokenized argument files ({@code @files}), for
+ * long-lived processes that expand the same argument files over and over.
+ * <p>
+ * Argument files are cached by canonical path, together with their size and last-modified time;
+ * a cached file whose size or last-modified time changed is tokenized again. Argument files
+ * referred to by other argument files are cached separately. The cache may be shared by many
+ * commands and used concurrently.
+ * </p>
+ *
+ * @see ParserSpec#atFileCache(ArgumentFileCache)
+ * @see CommandLine#setAtFileCache(ArgumentFileCache)
+ * @since 4.0
+ */
+public class ArgumentFileCache {
+    private static final class Entry {
+        final long length;
+        final long lastModified;
+        final Character commentChar;
+        final Charset charset;
+        final String[] tokens;
+
+        Entry(long length, long lastModified, Character commentChar, Charset charset,
+                String[] tokens) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.commentChar = commentChar;
+            this.charset = charset;
+            this.tokens = tokens;
+        }
+
+        boolean isValid(File file, Character commentChar, Charset charset) {
+            return length == file.length() && lastModified == file.lastModified()
+                    && (this.commentChar == null ? commentChar == null
+                            : this.commentChar.equals(commentChar))
+                    && this.charset.equals(charset);
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Creates a cache holding the tokens of at most the specified number of argument files.
+     *
+     * @param maxEntries
+     *            the maximum number of argument files to cache; must be positive
+     */
+    public ArgumentFileCache(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive but was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Returns the maximum number of argument files this cache holds. */
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /** Returns the number of argument files currently cached. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Returns how many times a cached argument file could be used. */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /** Returns how many times an argument file had to be read and tokenized. */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /** Removes all cached argument files; the hit and miss counts are kept. */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the tokens of the specified argument file, from the cache if the file did not
+     * change since it was cached.
+     */
+    String[] tokens(File file, Character commentChar, Charset charset) throws IOException {
+        String path = file.getCanonicalPath();
+        synchronized (this) {
+            Entry entry = entries.get(path);
+            if (entry != null && entry.isValid(file, commentChar, charset)) {
+                hitCount++;
+                return entry.tokens;
+            }
+            missCount++;
+        }
+        // size and time first: if the file changes while being read, the entry is stale at once
+        long length = file.length();
+        long lastModified = file.lastModified();
+        String[] tokens = ArgumentFileExpander.tokenize(file, commentChar, charset);
+        synchronized (this) {
+            entries.put(path, new Entry(length, lastModified, commentChar, charset, tokens));
+        }
+        return tokens;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ArgumentFileCache[size=%d, maxEntries=%d, hits=%d, misses=%d]",
+                entries.size(), maxEntries, hitCount, missCount);
+    }
+}
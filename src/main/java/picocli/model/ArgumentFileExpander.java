@@ -0,0 +1,281 @@
+package picocli.model;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StreamTokenizer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import picocli.except.InitializationException;
+import picocli.util.Tracer;
+
+/**
+ * Iterator over command line arguments with their @-files expanded.
+ * <p>
+ * Argument files are tokenized while the arguments are iterated: only the files being read are
+ * open, each through a buffered channel decoding with the {@linkplain ParserSpec#atFileCharset()
+ * configured charset}, and no argument is held once it was returned. An argument file may refer
+ * to other argument files; a file that was already expanded for the same command line argument is
+ * ignored.
+ * </p>
+ * <p>
+ * If an {@linkplain ParserSpec#atFileCache() argument file cache} is configured, argument files
+ * are instead tokenized as a whole, through the cache.
+ * </p>
+ */
+final class ArgumentFileExpander implements Iterator<String>, Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Argument file being expanded, read from disk or from its cached tokens. */
+    private static final class ArgumentFile implements Closeable {
+        final String fileName;
+        final Reader reader;
+        final StreamTokenizer tokenizer;
+        final String[] tokens;
+        int index;
+        /** Arguments expanded from this file, only collected for tracing. */
+        final List<String> expanded;
+
+        ArgumentFile(String fileName, Reader reader, Character commentChar, boolean trace) {
+            this.fileName = fileName;
+            this.reader = reader;
+            this.tokenizer = tokenizer(reader, commentChar);
+            this.tokens = null;
+            this.expanded = trace ? new ArrayList<String>() : null;
+        }
+
+        ArgumentFile(String fileName, String[] tokens, boolean trace) {
+            this.fileName = fileName;
+            this.reader = null;
+            this.tokenizer = null;
+            this.tokens = tokens;
+            this.expanded = trace ? new ArrayList<String>() : null;
+        }
+
+        /** Returns the next token, or {@code null} at the end of the file. */
+        String nextToken() throws IOException {
+            if (tokens != null) {
+                return index < tokens.length ? tokens[index++] : null;
+            }
+            return tokenizer.nextToken() == StreamTokenizer.TT_EOF ? null : tokenizer.sval;
+        }
+
+        @Override
+        public void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    private final String[] args;
+    private final Character commentChar;
+    private final Charset charset;
+    private final ArgumentFileCache cache;
+    private final Tracer tracer;
+    private final Deque<ArgumentFile> files = new ArrayDeque<>();
+    private Set<String> visited;
+    private int index;
+    private String next;
+
+    ArgumentFileExpander(String[] args, ParserSpec parser, Tracer tracer) {
+        this.args = args;
+        this.commentChar = parser.atFileCommentChar();
+        this.charset = parser.atFileCharset() == null ? Charset.defaultCharset()
+                : parser.atFileCharset();
+        this.cache = parser.atFileCache();
+        this.tracer = tracer;
+    }
+
+    /** Returns all tokens of the specified argument file, without expanding nested files. */
+    static String[] tokenize(File file, Character commentChar, Charset charset)
+            throws IOException {
+        Reader reader = open(file, charset);
+        try {
+            StreamTokenizer tokenizer = tokenizer(reader, commentChar);
+            List<String> result = new ArrayList<>();
+            while (tokenizer.nextToken() != StreamTokenizer.TT_EOF) {
+                result.add(tokenizer.sval);
+            }
+            return result.toArray(new String[0]);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Reader open(File file, Charset charset) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(channel,
+                charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    private static StreamTokenizer tokenizer(Reader reader, Character commentChar) {
+        StreamTokenizer result = new StreamTokenizer(reader);
+        result.resetSyntax();
+        result.wordChars(' ', 255);
+        result.whitespaceChars(0, ' ');
+        result.quoteChar('"');
+        result.quoteChar('\'');
+        if (commentChar != null) {
+            result.commentChar(commentChar);
+        }
+        return result;
+    }
+
+    /** Returns whether any of the specified arguments may refer to an argument file. */
+    static boolean hasArgumentFiles(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("@")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns all remaining arguments, expanded. */
+    String[] expandAll() {
+        List<String> result = new ArrayList<>(args.length + 16);
+        while (hasNext()) {
+            result.add(next());
+        }
+        return result.toArray(new String[0]);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String result = next;
+        next = null;
+        return result;
+    }
+
+    /** Closes the argument files still being read. */
+    @Override
+    public void close() {
+        while (!files.isEmpty()) {
+            files.pop().close();
+        }
+    }
+
+    private String advance() {
+        while (true) {
+            String arg;
+            if (!files.isEmpty()) {
+                ArgumentFile file = files.peek();
+                try {
+                    arg = file.nextToken();
+                } catch (Exception ex) {
+                    close();
+                    throw new InitializationException(
+                            "Could not read argument file @" + file.fileName, ex);
+                }
+                if (arg == null) {
+                    files.pop().close();
+                    if (tracer.isInfo()) {
+                        tracer.info("Expanded file @%s to arguments %s%n", file.fileName,
+                                file.expanded);
+                    }
+                    continue;
+                }
+            } else if (index < args.length) {
+                arg = args[index++];
+                visited = new LinkedHashSet<>();
+            } else {
+                return null;
+            }
+            String result = addOrExpand(arg);
+            if (result != null) {
+                if (tracer.isInfo()) {
+                    for (ArgumentFile file : files) {
+                        if (file.expanded != null) {
+                            file.expanded.add(result);
+                        }
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    /** Returns the argument, or {@code null} if it refers to an argument file to expand. */
+    private String addOrExpand(String arg) {
+        if (!arg.equals("@") && arg.startsWith("@")) {
+            arg = arg.substring(1);
+            if (arg.startsWith("@")) {
+                if (tracer.isInfo()) {
+                    tracer.info("Not expanding @-escaped argument %s (trimmed leading '@' char)%n",
+                            arg);
+                }
+            } else {
+                if (tracer.isInfo()) {
+                    tracer.info("Expanding argument file @%s%n", arg);
+                }
+                return expandArgumentFile(arg);
+            }
+        }
+        return arg;
+    }
+
+    private String expandArgumentFile(String fileName) {
+        File file = new File(fileName);
+        if (!file.canRead()) {
+            if (tracer.isInfo()) {
+                tracer.info(
+                        "File %s does not exist or cannot be read; treating argument literally%n",
+                        fileName);
+            }
+            return "@" + fileName;
+        } else if (visited.contains(file.getAbsolutePath())) {
+            if (tracer.isInfo()) {
+                tracer.info("Already visited file %s; ignoring...%n", file.getAbsolutePath());
+            }
+        } else {
+            visited.add(file.getAbsolutePath());
+            ArgumentFile argumentFile;
+            try {
+                if (cache != null) {
+                    argumentFile = new ArgumentFile(fileName,
+                            cache.tokens(file, commentChar, charset), tracer.isInfo());
+                } else {
+                    argumentFile = new ArgumentFile(fileName, open(file, charset), commentChar,
+                            tracer.isInfo());
+                }
+            } catch (Exception ex) {
+                close();
+                throw new InitializationException("Could not read argument file @" + fileName,
+                        ex);
+            }
+            files.push(argumentFile);
+        }
+        return null;
+    }
+}
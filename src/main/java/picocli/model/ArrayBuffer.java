@@ -0,0 +1,174 @@
+package picocli.model;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Growable buffer collecting the elements of an array-typed option or positional parameter during
+ * a parse.
+ * <p>
+ * Repeated occurrences of the argument append in amortized constant time; the array itself is
+ * created once, when the {@link Interpreter} publishes the values at the end of the parse.
+ * {@code int}, {@code long} and {@code double} elements are stored unboxed: the interpreter
+ * appends them with {@link #appendInt(int)}, {@link #appendLong(long)} and
+ * {@link #appendDouble(double)} when their converter is a primitive converter. Elements
+ * converted by other converters, and the elements of an existing array, arrive boxed and are
+ * unboxed once.
+ * </p>
+ */
+abstract class ArrayBuffer {
+    private static final int INITIAL_CAPACITY = 8;
+
+    int size;
+
+    /** Returns a new, empty buffer for arrays of the specified component type. */
+    static ArrayBuffer create(Class<?> componentType) {
+        if (componentType == int.class)
+            return new IntBuffer();
+        else if (componentType == long.class)
+            return new LongBuffer();
+        else if (componentType == double.class)
+            return new DoubleBuffer();
+        else
+            return new ObjectBuffer(componentType);
+    }
+
+    static int grow(int capacity, int minCapacity) {
+        return Math.max(minCapacity, capacity == 0 ? INITIAL_CAPACITY : capacity + (capacity >> 1));
+    }
+
+    /** Appends the specified element, or all elements of the specified collection. */
+    void add(Object element) {
+        if (element instanceof Collection<?>) {
+            for (Object item : (Collection<?>) element) {
+                append(item);
+            }
+        } else {
+            append(element);
+        }
+    }
+
+    /** Appends all elements of the specified array. */
+    void addArray(Object array) {
+        for (int i = 0, length = Array.getLength(array); i < length; i++) {
+            append(Array.get(array, i));
+        }
+    }
+
+    abstract void append(Object element);
+
+    /** Appends the specified element to an {@code int} buffer. */
+    void appendInt(int element) {
+        append(element);
+    }
+
+    /** Appends the specified element to a {@code long} buffer. */
+    void appendLong(long element) {
+        append(element);
+    }
+
+    /** Appends the specified element to a {@code double} buffer. */
+    void appendDouble(double element) {
+        append(element);
+    }
+
+    /** Returns a new array holding the buffered elements. */
+    abstract Object toArray();
+
+    private static final class IntBuffer extends ArrayBuffer {
+        private int[] elements = new int[0];
+
+        @Override
+        void append(Object element) {
+            appendInt(((Number) element).intValue());
+        }
+
+        @Override
+        void appendInt(int element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, grow(elements.length, size + 1));
+            }
+            elements[size++] = element;
+        }
+
+        @Override
+        Object toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+
+    private static final class LongBuffer extends ArrayBuffer {
+        private long[] elements = new long[0];
+
+        @Override
+        void append(Object element) {
+            appendLong(((Number) element).longValue());
+        }
+
+        @Override
+        void appendLong(long element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, grow(elements.length, size + 1));
+            }
+            elements[size++] = element;
+        }
+
+        @Override
+        Object toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+
+    private static final class DoubleBuffer extends ArrayBuffer {
+        private double[] elements = new double[0];
+
+        @Override
+        void append(Object element) {
+            appendDouble(((Number) element).doubleValue());
+        }
+
+        @Override
+        void appendDouble(double element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, grow(elements.length, size + 1));
+            }
+            elements[size++] = element;
+        }
+
+        @Override
+        Object toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+
+    private static final class ObjectBuffer extends ArrayBuffer {
+        private final Class<?> componentType;
+        private Object[] elements = new Object[0];
+
+        ObjectBuffer(Class<?> componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        void append(Object element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, grow(elements.length, size + 1));
+            }
+            elements[size++] = element;
+        }
+
+        @Override
+        Object toArray() {
+            Object result = Array.newInstance(componentType, size);
+            if (componentType.isPrimitive()) {
+                for (int i = 0; i < size; i++) {
+                    Array.set(result, i, elements[i]);
+                }
+            } else {
+                System.arraycopy(elements, 0, result, 0, size);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package picocli.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import picocli.CommandLine;
+
+/**
+ * Results of parsing a batch of argument vectors against the same command, in the order of the
+ * argument vectors. Each argument vector either produced a {@link ParseResult} or failed with an
+ * exception; the failure of one argument vector does not affect the others.
+ *
+ * @see CommandLine#parseArgsBatch(List)
+ * @since 4.0
+ */
+public final class BatchParseResult {
+    private final ParseResult[] parseResults;
+    private final RuntimeException[] errors;
+
+    BatchParseResult(ParseResult[] parseResults, RuntimeException[] errors) {
+        this.parseResults = parseResults;
+        this.errors = errors;
+    }
+
+    /** Returns the number of argument vectors that were parsed. */
+    public int size() {
+        return parseResults.length;
+    }
+
+    /**
+     * Returns the result of parsing the argument vector at the specified index, or {@code null}
+     * if parsing it failed.
+     */
+    public ParseResult parseResult(int index) {
+        return parseResults[index];
+    }
+
+    /**
+     * Returns the exception thrown parsing the argument vector at the specified index, usually a
+     * {@link picocli.except.ParameterException}, or {@code null} if parsing it succeeded.
+     */
+    public RuntimeException error(int index) {
+        return errors[index];
+    }
+
+    /** Returns whether parsing any of the argument vectors failed. */
+    public boolean hasErrors() {
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the results of parsing each argument vector, in input order, with {@code null}
+     * elements for the argument vectors that failed.
+     */
+    public List<ParseResult> parseResults() {
+        return Collections.unmodifiableList(Arrays.asList(parseResults));
+    }
+
+    /**
+     * Returns the exceptions thrown parsing each argument vector, in input order, with
+     * {@code null} elements for the argument vectors that succeeded.
+     */
+    public List<RuntimeException> errors() {
+        return Collections.unmodifiableList(Arrays.asList(errors));
+    }
+
+    @Override
+    public String toString() {
+        int failed = 0;
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                failed++;
+            }
+        }
+        return String.format("BatchParseResult[size=%d, errors=%d]", size(), failed);
+    }
+}
@@ -6,8 +6,9 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
+import java.util.function.Supplier;
 
 import picocli.CommandLine;
 import picocli.annot.Command;
@@ -22,6 +23,26 @@ import picocli.util.Assert;
 import picocli.util.Tracer;
 
 public class CommandReflection {
+    /** The generated annotations of each command class, or {@code null} if there are none. */
+    private static final ClassValue<IGeneratedCommand> GENERATED =
+            new ClassValue<IGeneratedCommand>() {
+        @Override
+        protected IGeneratedCommand computeValue(Class<?> type) {
+            String name = type.getName() + IGeneratedCommand.CLASS_NAME_SUFFIX;
+            Class<?> generated;
+            try {
+                generated = Class.forName(name, true, type.getClassLoader());
+            } catch (ClassNotFoundException ex) {
+                return null;
+            }
+            try {
+                return (IGeneratedCommand) generated.newInstance();
+            } catch (Exception ex) {
+                throw new InitializationException("Could not instantiate " + name + ": " + ex, ex);
+            }
+        }
+    };
+
     static CommandSpec extractCommandSpec(Object command, IFactory factory,
             boolean annotationsAreMandatory) {
         Class<?> cls = command.getClass();
@@ -36,6 +57,12 @@ public class CommandReflection {
         if (command instanceof Class) {
             cls = (Class<?>) command;
             commandClassName = cls.getName();
+            CommandSpec prebuilt = factory.getClass() == Factory.class
+                    ? PrebuiltCommandSpecs.take(cls) : null;
+            if (prebuilt != null) {
+                t.debug("Using prebuilt CommandSpec for %s%n", commandClassName);
+                return prebuilt;
+            }
             try {
                 t.debug("Getting a %s instance from the factory%n", cls.getName());
                 instance = Factory.create(factory, cls);
@@ -53,27 +80,50 @@ public class CommandReflection {
             }
         } else if (command instanceof Method) {
             cls = null; // don't mix in options/positional params from outer class @Command
+        } else if (PrebuiltCommandSpecs.isPrebuilt(cls)) {
+            t.warn("Not using the prebuilt CommandSpec of %s for an instance: construct the "
+                    + "CommandLine with the class instead%n", commandClassName);
         }
 
         CommandSpec result = CommandSpec.wrapWithoutInspection(Assert.notNull(instance, "command"));
 
-        Stack<Class<?>> hierarchy = new Stack<Class<?>>();
-        while (cls != null) {
-            hierarchy.add(cls);
-            cls = cls.getSuperclass();
-        }
         boolean hasCommandAnnotation = false;
         boolean mixinStandardHelpOptions = false;
-        while (!hierarchy.isEmpty()) {
-            cls = hierarchy.pop();
-            boolean thisCommandHasAnnotation = updateCommandAttributes(cls, result, factory);
-            hasCommandAnnotation |= thisCommandHasAnnotation;
-            hasCommandAnnotation |= initFromAnnotatedFields(instance, cls, result, factory);
-            if (cls.isAnnotationPresent(Command.class)) {
-                mixinStandardHelpOptions |= cls.getAnnotation(Command.class)
-                        .mixinStandardHelpOptions();
+        IGeneratedCommand generated = generated(cls, instance);
+        if (generated != null) {
+            t.debug("Using generated %s%n", generated.getClass().getName());
+            Command[] commands = generated.commands();
+            GeneratedMember[][] members = generated.members(instance);
+            for (int i = 0; i < commands.length; i++) {
+                Command cmd = commands[i];
+                if (cmd != null) {
+                    hasCommandAnnotation |= updateCommandAttributes(cmd, result, factory);
+                }
+                for (GeneratedMember member : members[i]) {
+                    hasCommandAnnotation |= initFromAnnotatedTypedMembers(
+                            new TypedMember(member), null, result, factory);
+                }
+                if (cmd != null) {
+                    mixinStandardHelpOptions |= cmd.mixinStandardHelpOptions();
+                }
             }
         }
+        CommandTemplate[] hierarchy = cls == null || generated != null ? new CommandTemplate[0]
+                : CommandTemplate.of(cls).hierarchy();
+        for (CommandTemplate template : hierarchy) {
+            Command cmd = template.command();
+            // superclass values should not overwrite values if both class and superclass have a @Command annotation
+            if (cmd != null) {
+                hasCommandAnnotation |= updateCommandAttributes(cmd, result, factory);
+            }
+            hasCommandAnnotation |= initFromAnnotatedMembers(instance, template, result, factory);
+            if (cmd != null) {
+                mixinStandardHelpOptions |= cmd.mixinStandardHelpOptions();
+            }
+        }
+        if (cls != null && !Proxy.isProxyClass(cls)) {
+            addIndexedSubcommands(cls, result, factory, t);
+        }
         result.mixinStandardHelpOptions(mixinStandardHelpOptions); //#377 Standard help options should be added last
         if (command instanceof Method) {
             Method method = (Method) command;
@@ -95,15 +145,12 @@ public class CommandReflection {
         return result;
     }
 
-    private static boolean updateCommandAttributes(Class<?> cls, CommandSpec commandSpec,
-            IFactory factory) {
-        // superclass values should not overwrite values if both class and superclass have a @Command annotation
-        if (!cls.isAnnotationPresent(Command.class)) {
-            return false;
-        }
-
-        Command cmd = cls.getAnnotation(Command.class);
-        return updateCommandAttributes(cmd, commandSpec, factory);
+    /**
+     * Returns the generated annotations of the specified command class, if the instance is of
+     * that very class.
+     */
+    static IGeneratedCommand generated(Class<?> cls, Object instance) {
+        return cls == null || cls != instance.getClass() ? null : GENERATED.get(cls);
     }
 
     private static boolean updateCommandAttributes(Method method, CommandSpec commandSpec,
@@ -129,12 +176,12 @@ public class CommandReflection {
 
     private static void initSubcommands(Command cmd, CommandSpec parent, IFactory factory) {
         for (Class<?> sub : cmd.subcommands()) {
+            if (cmd.lazySubcommands()) {
+                addLazySubcommand(sub, parent, factory);
+                continue;
+            }
             try {
-                if (Help.class == sub) {
-                    throw new InitializationException(
-                            Help.class.getName() + " is not a valid subcommand. Did you mean "
-                                    + HelpCommand.class.getName() + "?");
-                }
+                assertValidSubcommand(sub);
                 CommandLine subcommandLine = CommandLine.toCommandLine(factory.create(sub),
                         factory);
                 parent.addSubcommand(subcommandName(sub), subcommandLine);
@@ -156,21 +203,118 @@ public class CommandReflection {
         }
     }
 
+    private static void assertValidSubcommand(Class<?> sub) {
+        if (Help.class == sub) {
+            throw new InitializationException(Help.class.getName()
+                    + " is not a valid subcommand. Did you mean " + HelpCommand.class.getName()
+                    + "?");
+        }
+    }
+
+    /**
+     * Registers the specified subcommand class by the name and aliases of its {@code @Command}
+     * annotation; the subcommand is only instantiated when its command spec is first needed.
+     */
+    private static void addLazySubcommand(final Class<?> sub, CommandSpec parent,
+            IFactory factory) {
+        assertValidSubcommand(sub);
+        addLazySubcommand(subcommandName(sub),
+                Arrays.asList(sub.getAnnotation(Command.class).aliases()),
+                new Supplier<Class<?>>() {
+                    public Class<?> get() {
+                        return sub;
+                    }
+                }, parent, factory);
+    }
+
+    /**
+     * Registers the subcommands of the specified command class and its superclasses that are
+     * listed in the {@link SubcommandIndex}; their classes are only loaded when their command
+     * spec is first needed. Subcommands with the name of a subcommand that is already registered
+     * are ignored.
+     */
+    private static void addIndexedSubcommands(Class<?> cls, CommandSpec parent, IFactory factory,
+            Tracer t) {
+        final ClassLoader loader = cls.getClassLoader() != null ? cls.getClassLoader()
+                : ClassLoader.getSystemClassLoader();
+        SubcommandIndex index = SubcommandIndex.of(loader);
+        for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (final SubcommandIndex.Entry entry : index.subcommands(c)) {
+                if (parent.subcommands().containsKey(entry.name)) {
+                    t.debug("Ignoring indexed subcommand %s of %s: '%s' is already registered%n",
+                            entry.className, c.getName(), entry.name);
+                    continue;
+                }
+                addLazySubcommand(entry.name, entry.aliases, new Supplier<Class<?>>() {
+                    public Class<?> get() {
+                        try {
+                            Class<?> result = Class.forName(entry.className, true, loader);
+                            assertValidSubcommand(result);
+                            return result;
+                        } catch (ClassNotFoundException ex) {
+                            throw new InitializationException("Could not load subcommand "
+                                    + entry.className + " listed in "
+                                    + SubcommandIndex.RESOURCE_NAME + ": " + ex, ex);
+                        }
+                    }
+                }, parent, factory);
+            }
+        }
+    }
+
+    private static void addLazySubcommand(String name, List<String> aliases,
+            final Supplier<Class<?>> type, final CommandSpec parent, final IFactory factory) {
+        CommandLine subcommandLine = CommandLine.lazy(new Supplier<CommandSpec>() {
+            public CommandSpec get() {
+                Class<?> sub = type.get();
+                CommandSpec result;
+                try {
+                    result = CommandSpec.forAnnotatedObject(factory.create(sub), factory);
+                } catch (InitializationException ex) {
+                    throw ex;
+                } catch (NoSuchMethodException ex) {
+                    throw new InitializationException("Cannot instantiate subcommand "
+                            + sub.getName() + ": the class has no constructor", ex);
+                } catch (Exception ex) {
+                    throw new InitializationException("Could not instantiate subcommand "
+                            + sub.getName() + ": " + ex, ex);
+                }
+                result.parent(parent);
+                result.initResourceBundle(parent.resourceBundle());
+                initParentCommand(result.userObject(), parent.userObject());
+                return result;
+            }
+        }, factory);
+        parent.addLazySubcommand(name, aliases, subcommandLine);
+    }
+
     //TODO:internal scope
     public static void initParentCommand(Object subcommand, Object parent) {
         if (subcommand == null) {
             return;
         }
         try {
-            Class<?> cls = subcommand.getClass();
-            while (cls != null) {
-                for (Field f : cls.getDeclaredFields()) {
-                    if (f.isAnnotationPresent(ParentCommand.class)) {
+            IGeneratedCommand generated = generated(subcommand.getClass(), subcommand);
+            if (generated != null) {
+                for (GeneratedMember[] members : generated.members(subcommand)) {
+                    for (GeneratedMember member : members) {
+                        if (member.isAnnotationPresent(ParentCommand.class)) {
+                            member.setter().set(parent);
+                        }
+                    }
+                }
+                return;
+            }
+            for (CommandTemplate template : CommandTemplate.of(subcommand.getClass())
+                    .hierarchy()) {
+                for (CommandTemplate.Member member : template.members()) {
+                    if (member.accessible instanceof Field
+                            && member.accessible.isAnnotationPresent(ParentCommand.class)) {
+                        Field f = (Field) member.accessible;
                         f.setAccessible(true);
                         f.set(subcommand, parent);
                     }
                 }
-                cls = cls.getSuperclass();
             }
         } catch (Exception ex) {
             throw new InitializationException("Unable to initialize @ParentCommand field: " + ex,
@@ -187,22 +331,18 @@ public class CommandReflection {
         return subCommand.name();
     }
 
-    private static boolean initFromAnnotatedFields(Object scope, Class<?> cls, CommandSpec receiver,
-            IFactory factory) {
+    private static boolean initFromAnnotatedMembers(Object scope, CommandTemplate template,
+            CommandSpec receiver, IFactory factory) {
         boolean result = false;
-        for (Field field : cls.getDeclaredFields()) {
-            result |= initFromAnnotatedTypedMembers(TypedMember.createIfAnnotated(field, scope),
-                    receiver, factory);
-        }
-        for (Method method : cls.getDeclaredMethods()) {
-            result |= initFromAnnotatedTypedMembers(TypedMember.createIfAnnotated(method, scope),
+        for (CommandTemplate.Member member : template.members()) {
+            result |= initFromAnnotatedTypedMembers(TypedMember.create(member, scope), member,
                     receiver, factory);
         }
         return result;
     }
 
-    private static boolean initFromAnnotatedTypedMembers(TypedMember member, CommandSpec receiver,
-            IFactory factory) {
+    private static boolean initFromAnnotatedTypedMembers(TypedMember member,
+            CommandTemplate.Member template, CommandSpec receiver, IFactory factory) {
         boolean result = false;
         if (member == null) {
             return result;
@@ -218,8 +358,14 @@ public class CommandReflection {
         }
         if (member.isArgSpec()) {
             validateArgSpecField(member);
-            Messages msg = receiver.usageMessage().messages();
-            if (member.isOption()) {
+            if (template != null) {
+                ArgSpec argSpec = template.argSpec(member, factory);
+                if (argSpec instanceof OptionSpec) {
+                    receiver.addOption((OptionSpec) argSpec);
+                } else {
+                    receiver.addPositional((PositionalParamSpec) argSpec);
+                }
+            } else if (member.isOption()) {
                 receiver.addOption(ArgsReflection.extractOptionSpec(member, factory));
             } else if (member.isParameter()) {
                 receiver.addPositional(ArgsReflection.extractPositionalParamSpec(member, factory));
@@ -250,8 +396,8 @@ public class CommandReflection {
             } else {
                 param.position = i - optionCount;
             }
-            result |= initFromAnnotatedTypedMembers(new TypedMember(param, scope), receiver,
-                    factory);
+            result |= initFromAnnotatedTypedMembers(new TypedMember(param, scope), null,
+                    receiver, factory);
         }
         return result;
     }
@@ -350,7 +496,7 @@ public class CommandReflection {
         }
     }
 
-    private static UnmatchedArgsBinding buildUnmatchedForField(final TypedMember member) {
+    private static UnmatchedArgsBinding buildUnmatchedForField(TypedMember member) {
         if (!(member.getType().equals(String[].class)
                 || (List.class.isAssignableFrom(member.getType())
                         && member.getGenericType() instanceof ParameterizedType
@@ -359,16 +505,25 @@ public class CommandReflection {
             throw new InitializationException(
                     "Invalid type for " + member + ": must be either String[] or List<String>");
         }
-        if (member.getType().equals(String[].class)) {
-            return UnmatchedArgsBinding.forStringArrayConsumer(member.setter());
+        return buildUnmatched(member.getType(), member.getter(), member.setter());
+    }
+
+    /**
+     * Returns the binding of the unmatched arguments to the specified {@code String[]} or
+     * {@code List<String>} member.
+     */
+    static UnmatchedArgsBinding buildUnmatched(Class<?> type, final IGetter getter,
+            final ISetter setter) {
+        if (type.equals(String[].class)) {
+            return UnmatchedArgsBinding.forStringArrayConsumer(setter);
         } else {
             return UnmatchedArgsBinding.forStringCollectionSupplier(new IGetter() {
                 @SuppressWarnings("unchecked")
                 public <T> T get() throws Exception {
-                    List<String> result = (List<String>) member.getter().get();
+                    List<String> result = (List<String>) getter.get();
                     if (result == null) {
                         result = new ArrayList<String>();
-                        member.setter().set(result);
+                        setter.set(result);
                     }
                     return (T) result;
                 }
@@ -1,8 +1,12 @@
 package picocli.model;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
@@ -11,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import picocli.CommandLine;
 import picocli.annot.Command;
@@ -101,6 +106,10 @@ public class CommandSpec {
     private IDefaultValueProvider defaultValueProvider;
     private String[] version;
     private String toString;
+    private boolean frozen;
+    private volatile ArgumentClassifier argumentClassifier;
+    private volatile SuggestionIndex subcommandSuggestions;
+    private volatile SuggestionIndex optionSuggestions;
 
     private CommandSpec(Object userObject) {
         this.userObject = userObject;
@@ -263,7 +272,9 @@ public class CommandSpec {
             mixedInSpec.commandLine(commandLine);
         }
         for (CommandLine sub : commands.values()) {
-            sub.getCommandSpec().parent(this);
+            if (sub.hasCommandSpec()) { // lazy subcommands link to their parent when created
+                sub.getCommandSpec().parent(this);
+            }
         }
         return this;
     }
@@ -278,10 +289,64 @@ public class CommandSpec {
      * returns this commandSpec.
      */
     public CommandSpec parser(ParserSpec settings) {
+        assertNotFrozen();
         parser.initFrom(settings);
         return this;
     }
 
+    /**
+     * Freezes this command and all its subcommands, and returns this commandSpec. A frozen
+     * command can no longer be modified: adding options, positional parameters, mixins or
+     * subcommands, or changing the {@linkplain #parser() parser} settings throws an
+     * {@code IllegalStateException}.
+     * <p>
+     * Parsing a frozen command does not modify the command model nor the annotated fields and
+     * methods of the user object: each parse keeps the matched values in a context of its own,
+     * and they are only available from the {@link ParseResult} returned by
+     * {@link CommandLine#parseArgs(String...)}, for example via
+     * {@link ParseResult#valueOf(ArgSpec)}. This allows multiple threads to parse concurrently
+     * with the same {@code CommandLine} without locking. As a consequence, methods that return
+     * the state of the last parse, like {@link CommandLine#getParseResult()} and
+     * {@link CommandLine#isUsageHelpRequested()}, do not reflect parses of a frozen command.
+     * </p><p>
+     * The command specs of {@linkplain CommandLine#lazy lazy} subcommands that were not created
+     * yet are not created by this method: they are frozen when they are created.
+     * </p>
+     * 
+     * @return this CommandSpec for method chaining
+     * @since 4.0
+     */
+    public CommandSpec freeze() {
+        frozen = true;
+        parser.freeze();
+        // the aliases of a subcommand map to the same CommandLine
+        Set<CommandLine> subcommands = Collections.newSetFromMap(
+                new IdentityHashMap<CommandLine, Boolean>());
+        subcommands.addAll(commands.values());
+        for (CommandLine sub : subcommands) {
+            if (sub.hasCommandSpec()) { // lazy subcommands are frozen when created
+                sub.getCommandSpec().freeze();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether this command was {@linkplain #freeze() frozen}.
+     * 
+     * @since 4.0
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void assertNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException(
+                    "Command '" + name() + "' is frozen and cannot be modified");
+        }
+    }
+
     /** Returns the usage help message specification for this command. */
     public UsageMessageSpec usageMessage() {
         return usageMessage;
@@ -335,6 +400,51 @@ public class CommandSpec {
         }
     }
 
+    /**
+     * Returns the classifier of arguments for the current options, subcommands and parser
+     * settings of this command.
+     */
+    ArgumentClassifier argumentClassifier() {
+        ArgumentClassifier result = argumentClassifier;
+        if (result == null || !result.isFor(parser)) {
+            result = new ArgumentClassifier(optionsByNameMap, commands, parser);
+            argumentClassifier = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns an index of the subcommand names and aliases of this command, to suggest
+     * subcommands for mistyped arguments.
+     * 
+     * @since 4.0
+     */
+    public SuggestionIndex subcommandSuggestions() {
+        SuggestionIndex result = subcommandSuggestions;
+        if (result == null) {
+            subcommandSuggestions = result = new SuggestionIndex(commands.keySet());
+        }
+        return result;
+    }
+
+    /**
+     * Returns an index of the option names of this command, to suggest options for mistyped
+     * arguments.
+     * 
+     * @since 4.0
+     */
+    public SuggestionIndex optionSuggestions() {
+        SuggestionIndex result = optionSuggestions;
+        if (result == null) {
+            List<String> names = new ArrayList<String>();
+            for (OptionSpec option : options()) {
+                names.addAll(Arrays.asList(option.names()));
+            }
+            optionSuggestions = result = new SuggestionIndex(names);
+        }
+        return result;
+    }
+
     /** Returns a read-only view of the subcommand map. */
     public Map<String, CommandLine> subcommands() {
         return Collections.unmodifiableMap(commands);
@@ -368,19 +478,81 @@ public class CommandSpec {
      * @param subCommandLine
      *            the subcommand to envoke when the name is encountered on the command line
      * @return this {@code CommandSpec} object for method chaining
+     * @see #addSubcommand(String, CommandLine, String...)
      */
     public CommandSpec addSubcommand(String name, CommandLine subCommandLine) {
-        CommandLine previous = commands.put(name, subCommandLine);
-        if (previous != null && previous != subCommandLine) {
-            throw new InitializationException("Another subcommand named '" + name
-                    + "' already exists for command '" + this.name() + "'");
+        return addSubcommand(name, subCommandLine, new String[0]);
+    }
+
+    /**
+     * Adds the specified subcommand with the specified name and aliases. If the specified
+     * subcommand does not have a ResourceBundle set, it is initialized to the ResourceBundle of
+     * this command spec.
+     * <p>
+     * The command spec of a {@linkplain CommandLine#lazy lazy} subcommand is not created: the
+     * subcommand is registered with the specified name and aliases only, and its name, aliases,
+     * parent and resource bundle are set when its command spec is created. Aliases declared by
+     * the command spec itself are then not recognized on the command line.
+     * </p>
+     *
+     * @param name
+     *            subcommand name - when this String is encountered in the command line
+     *            arguments the subcommand is invoked
+     * @param subCommandLine
+     *            the subcommand to envoke when the name is encountered on the command line
+     * @param aliases
+     *            zero or more alias names that are also recognized on the command line as this
+     *            subcommand
+     * @return this {@code CommandSpec} object for method chaining
+     * @since 4.0
+     */
+    public CommandSpec addSubcommand(final String name, CommandLine subCommandLine,
+            final String... aliases) {
+        if (subCommandLine.hasCommandSpec()) {
+            CommandSpec subSpec = subCommandLine.getCommandSpec();
+            subSpec.aliases().addAll(Arrays.asList(aliases));
+            putSubcommand(name, subSpec.aliases(), subCommandLine);
+            initSubcommand(name, subSpec);
+        } else {
+            putSubcommand(name, Arrays.asList(aliases), subCommandLine);
+            subCommandLine.whenCommandSpecCreated(new Consumer<CommandSpec>() {
+                public void accept(CommandSpec subSpec) {
+                    subSpec.aliases().addAll(Arrays.asList(aliases));
+                    initSubcommand(name, subSpec);
+                }
+            });
         }
-        CommandSpec subSpec = subCommandLine.getCommandSpec();
+        return this;
+    }
+
+    private void initSubcommand(String name, CommandSpec subSpec) {
         if (subSpec.name == null) {
             subSpec.name(name);
         }
         subSpec.parent(this);
-        for (String alias : subSpec.aliases()) {
+        subSpec.initResourceBundle(resourceBundle());
+    }
+
+    /**
+     * Registers the specified {@linkplain CommandLine#lazy lazy} subcommand with the specified
+     * name and aliases, without creating its command spec. The command spec must be linked to
+     * this command when it is created.
+     */
+    void addLazySubcommand(String name, Collection<String> aliases, CommandLine subCommandLine) {
+        putSubcommand(name, aliases, subCommandLine);
+    }
+
+    private void putSubcommand(String name, Collection<String> aliases,
+            CommandLine subCommandLine) {
+        assertNotFrozen();
+        argumentClassifier = null;
+        subcommandSuggestions = null;
+        CommandLine previous = commands.put(name, subCommandLine);
+        if (previous != null && previous != subCommandLine) {
+            throw new InitializationException("Another subcommand named '" + name
+                    + "' already exists for command '" + this.name() + "'");
+        }
+        for (String alias : aliases) {
             previous = commands.put(alias, subCommandLine);
             if (previous != null && previous != subCommandLine) {
                 throw new InitializationException("Alias '" + alias + "' for subcommand '"
@@ -388,16 +560,16 @@ public class CommandSpec {
                         + this.name() + "'");
             }
         }
-        subSpec.initResourceBundle(resourceBundle());
-        return this;
     }
 
-    private void initResourceBundle(ResourceBundle bundle) {
+    void initResourceBundle(ResourceBundle bundle) {
         if (resourceBundle() == null) {
             resourceBundle(bundle);
         }
         for (CommandLine sub : commands.values()) { // percolate down the hierarchy
-            sub.getCommandSpec().initResourceBundle(resourceBundle());
+            if (sub.hasCommandSpec()) { // lazy subcommands inherit the bundle when created
+                sub.getCommandSpec().initResourceBundle(resourceBundle());
+            }
         }
     }
 
@@ -483,6 +655,9 @@ public class CommandSpec {
      *             another option
      */
     public CommandSpec addOption(OptionSpec option) {
+        assertNotFrozen();
+        argumentClassifier = null;
+        optionSuggestions = null;
         args.add(option);
         options.add(option);
         for (String name : option.names()) { // cannot be null or empty
@@ -515,6 +690,7 @@ public class CommandSpec {
      * @return this CommandSpec for method chaining
      */
     public CommandSpec addPositional(PositionalParamSpec positional) {
+        assertNotFrozen();
         args.add(positional);
         positionalParameters.add(positional);
         if (positional.required()) {
@@ -537,6 +713,7 @@ public class CommandSpec {
      * @return this CommandSpec for method chaining
      */
     public CommandSpec addMixin(String name, CommandSpec mixin) {
+        assertNotFrozen();
         mixins.put(name, mixin);
 
         parser.initSeparator(mixin.parser.separator());
@@ -568,6 +745,7 @@ public class CommandSpec {
      * @return this CommandSpec for method chaining
      */
     public CommandSpec addUnmatchedArgsBinding(UnmatchedArgsBinding spec) {
+        assertNotFrozen();
         unmatchedArgs.add(spec);
         parser().unmatchedArgumentsAllowed(true);
         return this;
@@ -849,6 +1027,7 @@ public class CommandSpec {
      * @since 3.6
      */
     public CommandSpec defaultValueProvider(IDefaultValueProvider defaultValueProvider) {
+        assertNotFrozen();
         this.defaultValueProvider = defaultValueProvider;
         return this;
     }
@@ -887,6 +1066,7 @@ public class CommandSpec {
      * @see Command#helpCommand()
      */
     public CommandSpec helpCommand(boolean newValue) {
+        assertNotFrozen();
         isHelpCommand = newValue;
         return this;
     }
@@ -898,6 +1078,7 @@ public class CommandSpec {
      * @see Command#mixinStandardHelpOptions()
      */
     public CommandSpec mixinStandardHelpOptions(boolean newValue) {
+        assertNotFrozen();
         if (newValue) {
             CommandSpec mixin = CommandSpec.forAnnotatedObject(new AutoHelpMixin(),
                     new Factory());
@@ -905,6 +1086,8 @@ public class CommandSpec {
         } else {
             CommandSpec helpMixin = mixins.remove(AutoHelpMixin.KEY);
             if (helpMixin != null) {
+                argumentClassifier = null;
+                optionSuggestions = null;
                 options.removeAll(helpMixin.options);
                 for (OptionSpec option : helpMixin.options()) {
                     for (String name : option.names()) {
@@ -932,6 +1115,29 @@ public class CommandSpec {
         return this;
     }
 
+    /**
+     * Writes the attributes of this command, but not its arguments, mixins and subcommands, to a
+     * {@linkplain CommandSpecSnapshot snapshot}.
+     */
+    void writeSnapshot(DataOutput out) throws IOException {
+        CommandSpecSnapshot.writeString(out, name);
+        CommandSpecSnapshot.writeStrings(out, aliases.toArray(new String[0]));
+        CommandSpecSnapshot.writeBoolean(out, isHelpCommand);
+        CommandSpecSnapshot.writeStrings(out, version);
+        CommandSpecSnapshot.writeString(out, toString);
+        usageMessage.writeSnapshot(out);
+    }
+
+    /** Reads the attributes written by {@link #writeSnapshot(DataOutput)}. */
+    void readSnapshot(DataInput in) throws IOException {
+        name = CommandSpecSnapshot.readString(in);
+        aliases(CommandSpecSnapshot.readStrings(in));
+        isHelpCommand = CommandSpecSnapshot.readBoolean(in);
+        version = CommandSpecSnapshot.readStrings(in);
+        toString = CommandSpecSnapshot.readString(in);
+        usageMessage.readSnapshot(in);
+    }
+
     void initName(String value) {
         if (Model.initializable(name, value, DEFAULT_COMMAND_NAME)) {
             name = value;
@@ -1056,15 +1262,7 @@ public class CommandSpec {
     }
 
     public List<String> findOptionNamesWithPrefix(String prefix) {
-        List<String> result = new ArrayList<String>();
-        for (OptionSpec option : options()) {
-            for (String name : option.names()) {
-                if (stripPrefix(name).startsWith(prefix)) {
-                    result.add(name);
-                }
-            }
-        }
-        return result;
+        return optionSuggestions().withStrippedPrefix(prefix);
     }
 
     public boolean resemblesOption(String arg, Tracer tracer) {
@@ -1084,22 +1282,14 @@ public class CommandSpec {
             }
             return result;
         }
-        int count = 0;
-        for (String optionName : optionsMap().keySet()) {
-            for (int i = 0; i < arg.length(); i++) {
-                if (optionName.length() > i && arg.charAt(i) == optionName.charAt(i)) {
-                    count++;
-                } else {
-                    break;
-                }
-            }
-        }
-        boolean result = count > 0 && count * 10 >= optionsMap().size() * 9; // at least one prefix char in common with 9 out of 10 options
+        ArgumentClassifier classifier = argumentClassifier();
+        int count = classifier.commonPrefixLength(arg);
+        int optionCount = classifier.optionCount();
+        boolean result = count > 0 && count * 10 >= optionCount * 9; // at least one prefix char in common with 9 out of 10 options
         if (tracer != null && tracer.isDebug()) {
             tracer.debug(
                     "%s %s an option: %d matching prefix chars out of %d option names%n",
-                    arg, (result ? "resembles" : "doesn't resemble"), count,
-                    optionsMap().size());
+                    arg, (result ? "resembles" : "doesn't resemble"), count, optionCount);
         }
         return result;
     }
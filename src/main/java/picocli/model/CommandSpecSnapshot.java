@@ -0,0 +1,816 @@
+package picocli.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Mixin;
+import picocli.annot.ParentCommand;
+import picocli.annot.Spec;
+import picocli.annot.Unmatched;
+import picocli.except.InitializationException;
+import picocli.help.Help;
+import picocli.util.Tracer;
+
+/**
+ * Compact binary snapshot of the command spec of an annotated command, with its mixins and
+ * subcommands, to create it at startup without scanning the annotations of the command classes.
+ * <p>
+ * A snapshot holds the attributes of the commands, their options and positional parameters with
+ * their ranges, the usage help messages and parser settings, and the structure of mixins and
+ * subcommands. The options, positional parameters, mixins and {@code @Spec},
+ * {@code @ParentCommand} and {@code @Unmatched} fields are kept as references to the fields they
+ * are bound to, and converters, custom choice values and providers as references to their
+ * classes: reading a snapshot binds the fields of the command object and creates the converters
+ * and providers with the factory, without looking up any annotation. Subcommands are only read
+ * from the snapshot when they are first needed, like {@linkplain Command#lazySubcommands() lazy
+ * subcommands}.
+ * </p>
+ * <p>
+ * A snapshot also holds a digest of the bytecode of the command classes and their superclasses:
+ * once any of them changed, or picocli was upgraded, the snapshot is stale and
+ * {@link #read(InputStream, Object, IFactory)} returns {@code null}. Only commands whose
+ * annotated members are all fields can be written to a snapshot; command methods, annotated
+ * methods and annotated interfaces are not supported.
+ * </p>
+ *
+ * @see #load(File, Object, IFactory)
+ * @since 4.0
+ */
+public final class CommandSpecSnapshot {
+    private static final int MAGIC = 0x50435353; // "PCSS"
+    private static final int FORMAT = 1;
+    private static final byte ARG = 0;
+    private static final byte MIXIN = 1;
+    private static final byte NO_CHOICES = 0;
+    private static final byte CHOICE_VALUES = 1;
+    private static final byte CHOICE_CLASS = 2;
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        for (Class<?> cls : new Class<?>[] { boolean.class, byte.class, char.class, short.class,
+                int.class, long.class, float.class, double.class, void.class }) {
+            PRIMITIVES.put(cls.getName(), cls);
+        }
+    }
+
+    /** The annotated fields of a command class that are not options or positional parameters. */
+    private static final class Members {
+        final Map<String, Field> mixins = new HashMap<String, Field>();
+        final List<Field> specs = new ArrayList<Field>();
+        final List<Field> parents = new ArrayList<Field>();
+        final List<Field> unmatched = new ArrayList<Field>();
+
+        Members(Class<?> cls, Object userObject) {
+            for (CommandTemplate template : CommandTemplate.of(cls).hierarchy()) {
+                for (CommandTemplate.Member member : template.members()) {
+                    if (!(member.accessible instanceof Field)) {
+                        throw unsupported(cls, "annotated method " + member.accessible);
+                    }
+                    Field field = (Field) member.accessible;
+                    if (field.isAnnotationPresent(Mixin.class)) {
+                        mixins.put(TypedMember.create(member, userObject).mixinName(), field);
+                    } else if (field.isAnnotationPresent(Spec.class)) {
+                        specs.add(field);
+                    } else if (field.isAnnotationPresent(ParentCommand.class)) {
+                        parents.add(field);
+                    } else if (field.isAnnotationPresent(Unmatched.class)) {
+                        unmatched.add(field);
+                    }
+                }
+            }
+        }
+    }
+
+    /** The factory and class loader of the command being read. */
+    private static final class Context {
+        final IFactory factory;
+        final ClassLoader loader;
+
+        Context(IFactory factory, ClassLoader loader) {
+            this.factory = factory;
+            this.loader = loader;
+        }
+
+        Class<?> load(String name) throws ClassNotFoundException {
+            Class<?> result = PRIMITIVES.get(name);
+            return result != null ? result : Class.forName(name, false, loader);
+        }
+
+        Class<?> loadClass(String name) {
+            try {
+                return load(name);
+            } catch (ClassNotFoundException ex) {
+                throw new InitializationException("Could not load " + name + ": " + ex, ex);
+            }
+        }
+
+        Class<?> readClass(DataInput in) throws IOException {
+            String name = readString(in);
+            return name == null ? null : loadClass(name);
+        }
+
+        Field readField(DataInput in) throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            Class<?> cls = loadClass(in.readUTF());
+            String name = in.readUTF();
+            try {
+                Field result = cls.getDeclaredField(name);
+                result.setAccessible(true);
+                return result;
+            } catch (NoSuchFieldException ex) {
+                throw new InitializationException("Could not find field " + name + " of " + cls,
+                        ex);
+            }
+        }
+    }
+
+    private CommandSpecSnapshot() {
+    }
+
+    /**
+     * Returns the command spec of the specified command read from the specified snapshot file,
+     * if it is up-to-date; otherwise creates the command spec from the annotations of the
+     * command and writes it to the snapshot file, for the next time.
+     *
+     * @param file
+     *            the snapshot file, which need not exist
+     * @param command
+     *            the annotated command object, or its class to create it with the factory
+     * @param factory
+     *            the factory used to create the command object if needed, its converters,
+     *            providers, mixins and subcommands
+     * @return the command spec of the command
+     * @throws InitializationException
+     *             if the command spec could not be created
+     */
+    public static CommandSpec load(File file, Object command, IFactory factory) {
+        Tracer tracer = new Tracer();
+        Object instance = command instanceof Class ? Factory.create(factory, (Class<?>) command)
+                : command;
+        if (file.isFile()) {
+            InputStream in = null;
+            try {
+                in = new FileInputStream(file);
+                CommandSpec result = read(in, instance, factory);
+                if (result != null) {
+                    return result;
+                }
+                tracer.debug("Snapshot %s is stale%n", file);
+            } catch (IOException ex) {
+                tracer.warn("Could not read snapshot %s: %s%n", file, ex);
+            } finally {
+                close(in);
+            }
+        }
+        CommandSpec result = CommandSpec.forAnnotatedObject(instance, factory);
+        OutputStream out = null;
+        File temp = null;
+        try {
+            temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile()
+                    .getParentFile());
+            out = new FileOutputStream(temp);
+            write(result, out);
+            out.close();
+            out = null;
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+        } catch (IOException ex) {
+            tracer.warn("Could not write snapshot %s: %s%n", file, ex);
+        } catch (InitializationException ex) {
+            tracer.warn("Could not write snapshot %s: %s%n", file, ex.getMessage());
+        } finally {
+            close(out);
+            if (temp != null && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a snapshot of the specified command spec, its mixins and its subcommands to the
+     * specified stream. Lazy subcommands are created to be written.
+     *
+     * @throws InitializationException
+     *             if the command, one of its mixins or subcommands is not supported
+     * @throws IOException
+     *             if the snapshot could not be written
+     */
+    public static void write(CommandSpec spec, OutputStream out) throws IOException {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeNode(new DataOutputStream(body), spec, classes);
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT);
+        data.writeUTF(CommandLine.VERSION);
+        data.writeInt(classes.size());
+        for (Class<?> cls : classes) {
+            data.writeUTF(cls.getName());
+        }
+        byte[] digest = digest(classes);
+        data.writeShort(digest.length);
+        data.write(digest);
+        body.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Reads the command spec of the specified command from the specified snapshot.
+     *
+     * @param in
+     *            the snapshot
+     * @param command
+     *            the annotated command object, or its class to create it with the factory
+     * @param factory
+     *            the factory used to create the command object if needed, its converters,
+     *            providers, mixins and subcommands
+     * @return the command spec of the command, or {@code null} if the snapshot is stale or is not
+     *         a snapshot of the class of the command
+     * @throws IOException
+     *             if the snapshot could not be read
+     */
+    public static CommandSpec read(InputStream in, Object command, IFactory factory)
+            throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a picocli command spec snapshot");
+        }
+        if (data.readInt() != FORMAT || !CommandLine.VERSION.equals(data.readUTF())) {
+            return null;
+        }
+        Class<?> commandClass = command instanceof Class ? (Class<?>) command
+                : command.getClass();
+        Context context = new Context(factory, commandClass.getClassLoader());
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (int i = data.readInt(); i > 0; i--) {
+            try {
+                classes.add(context.load(data.readUTF()));
+            } catch (ClassNotFoundException ex) {
+                return null;
+            }
+        }
+        byte[] digest = new byte[data.readUnsignedShort()];
+        data.readFully(digest);
+        if (!Arrays.equals(digest, digest(classes))) {
+            return null;
+        }
+        if (!commandClass.getName().equals(data.readUTF())) {
+            return null;
+        }
+        Object instance = command instanceof Class ? Factory.create(factory, commandClass)
+                : command;
+        return readNode(data, instance, commandClass, context);
+    }
+
+    private static void writeNode(DataOutputStream out, CommandSpec spec, Set<Class<?>> classes)
+            throws IOException {
+        Object userObject = spec.userObject();
+        Class<?> cls = userObject == null ? null : userObject.getClass();
+        if (cls == null || userObject instanceof CommandSpec || cls.getName().startsWith("java.")
+                || Proxy.isProxyClass(cls)) {
+            throw new InitializationException("Cannot write a snapshot of " + spec
+                    + ": only commands created from an annotated class are supported");
+        }
+        for (Class<?> c = cls; c != null && c.getClassLoader() != null; c = c.getSuperclass()) {
+            classes.add(c);
+        }
+        Members members = new Members(cls, userObject);
+        out.writeUTF(cls.getName());
+        spec.writeSnapshot(out);
+        writeString(out, reference(spec.versionProvider()));
+        writeString(out, reference(spec.defaultValueProvider()));
+        ResourceBundle bundle = spec.resourceBundle();
+        writeString(out, bundle == null ? null : bundle.getBaseBundleName());
+
+        Map<ArgSpec, CommandSpec> mixed = new IdentityHashMap<ArgSpec, CommandSpec>();
+        Set<CommandLine> mixedSubcommands = Collections.newSetFromMap(
+                new IdentityHashMap<CommandLine, Boolean>());
+        for (CommandSpec mixin : spec.mixins().values()) {
+            for (ArgSpec arg : mixin.args()) {
+                mixed.put(arg, mixin);
+            }
+            mixedSubcommands.addAll(mixin.subcommands().values());
+        }
+        Map<String, CommandSpec> mixins = new LinkedHashMap<String, CommandSpec>(spec.mixins());
+        List<Object> entries = new ArrayList<Object>(); // own arguments and mixins, in order
+        for (ArgSpec arg : spec.args()) {
+            CommandSpec mixin = mixed.get(arg);
+            if (mixin == null) {
+                entries.add(arg);
+            } else if (mixins.values().remove(mixin)) {
+                entries.add(mixin);
+            }
+        }
+        entries.addAll(mixins.values());
+        out.writeInt(entries.size());
+        for (Object entry : entries) {
+            if (entry instanceof ArgSpec) {
+                out.writeByte(ARG);
+                writeArg(out, (ArgSpec) entry, field((ArgSpec) entry, spec));
+                continue;
+            }
+            String name = null;
+            for (Map.Entry<String, CommandSpec> mixin : spec.mixins().entrySet()) {
+                name = mixin.getValue() == entry ? mixin.getKey() : name;
+            }
+            out.writeByte(MIXIN);
+            out.writeUTF(name);
+            writeField(out, members.mixins.get(name));
+            writeNode(out, (CommandSpec) entry, classes);
+        }
+
+        if (spec.unmatchedArgsBindings().size() != members.unmatched.size()) {
+            throw unsupported(cls, "unmatched arguments binding not bound to an @Unmatched field");
+        }
+        writeFields(out, members.unmatched);
+        writeFields(out, members.specs);
+        writeParser(out, spec.parser());
+
+        Map<CommandLine, List<String>> subcommands =
+                new LinkedHashMap<CommandLine, List<String>>();
+        for (Map.Entry<String, CommandLine> entry : spec.subcommands().entrySet()) {
+            if (!mixedSubcommands.contains(entry.getValue())) {
+                List<String> names = subcommands.get(entry.getValue());
+                if (names == null) {
+                    subcommands.put(entry.getValue(), names = new ArrayList<String>());
+                }
+                names.add(entry.getKey());
+            }
+        }
+        out.writeInt(subcommands.size());
+        for (Map.Entry<CommandLine, List<String>> entry : subcommands.entrySet()) {
+            CommandSpec sub = entry.getKey().getCommandSpec();
+            List<String> names = entry.getValue();
+            out.writeUTF(names.get(0));
+            writeStrings(out, names.subList(1, names.size()).toArray(new String[0]));
+            Object subObject = sub.userObject();
+            writeFields(out, subObject == null ? Collections.<Field>emptyList()
+                    : new Members(subObject.getClass(), subObject).parents);
+            ByteArrayOutputStream node = new ByteArrayOutputStream();
+            writeNode(new DataOutputStream(node), sub, classes);
+            out.writeInt(node.size());
+            node.writeTo(out);
+        }
+    }
+
+    private static CommandSpec readNode(DataInputStream in, Object userObject,
+            Class<?> cls, final Context context) throws IOException {
+        final CommandSpec spec = CommandSpec.wrapWithoutInspection(userObject);
+        spec.readSnapshot(in);
+        Class<?> versionProvider = context.readClass(in);
+        if (versionProvider != null) {
+            spec.versionProvider(Factory.create(context.factory,
+                    versionProvider.asSubclass(IVersionProvider.class)));
+        }
+        Class<?> defaultValueProvider = context.readClass(in);
+        if (defaultValueProvider != null) {
+            spec.defaultValueProvider(Factory.create(context.factory,
+                    defaultValueProvider.asSubclass(IDefaultValueProvider.class)));
+        }
+        String bundle = readString(in);
+
+        for (int i = in.readInt(); i > 0; i--) {
+            if (in.readByte() == ARG) {
+                ArgSpec arg = readArg(in, userObject, context);
+                if (arg instanceof OptionSpec) {
+                    spec.addOption((OptionSpec) arg);
+                } else {
+                    spec.addPositional((PositionalParamSpec) arg);
+                }
+                continue;
+            }
+            String name = in.readUTF();
+            Field field = context.readField(in);
+            FieldBinding binding = field == null ? null : new FieldBinding(userObject, field);
+            Object mixinObject = binding == null ? null : binding.get();
+            Class<?> mixinClass = context.loadClass(in.readUTF());
+            if (mixinObject == null) {
+                mixinObject = Factory.create(context.factory, mixinClass);
+                if (binding != null) {
+                    binding.assign(mixinObject);
+                }
+            } else if (mixinObject.getClass() != mixinClass) {
+                throw new InitializationException("Mixin " + name + " of " + cls.getName()
+                        + " is a " + mixinObject.getClass().getName()
+                        + " but the snapshot is of a " + mixinClass.getName());
+            }
+            spec.addMixin(name, readNode(in, mixinObject, mixinClass, context));
+        }
+
+        for (int i = in.readInt(); i > 0; i--) {
+            Field field = context.readField(in);
+            FieldBinding binding = new FieldBinding(userObject, field);
+            spec.addUnmatchedArgsBinding(
+                    CommandReflection.buildUnmatched(field.getType(), binding, binding));
+        }
+        List<FieldBinding> specs = new ArrayList<FieldBinding>();
+        for (int i = in.readInt(); i > 0; i--) {
+            specs.add(new FieldBinding(userObject, context.readField(in)));
+        }
+        readParser(in, spec.parser());
+
+        for (int i = in.readInt(); i > 0; i--) {
+            final String name = in.readUTF();
+            String[] aliases = readStrings(in);
+            final Field[] parents = new Field[in.readInt()];
+            for (int j = 0; j < parents.length; j++) {
+                parents[j] = context.readField(in);
+            }
+            final byte[] node = new byte[in.readInt()];
+            in.readFully(node);
+            CommandLine subcommand = CommandLine.lazy(new Supplier<CommandSpec>() {
+                public CommandSpec get() {
+                    CommandSpec result;
+                    try {
+                        DataInputStream data = new DataInputStream(new ByteArrayInputStream(node));
+                        Class<?> subclass = context.loadClass(data.readUTF());
+                        result = readNode(data, Factory.create(context.factory, subclass),
+                                subclass, context);
+                    } catch (IOException ex) {
+                        throw new InitializationException("Could not read subcommand " + name
+                                + " from the snapshot: " + ex, ex);
+                    }
+                    result.parent(spec);
+                    result.initResourceBundle(spec.resourceBundle());
+                    for (Field parent : parents) {
+                        new FieldBinding(result.userObject(), parent).assign(spec.userObject());
+                    }
+                    return result;
+                }
+            }, context.factory);
+            spec.addLazySubcommand(name, Arrays.asList(aliases), subcommand);
+        }
+
+        if (bundle != null) {
+            spec.resourceBundle(ResourceBundle.getBundle(bundle));
+        } else {
+            spec.updateArgSpecMessages();
+        }
+        spec.validate();
+        for (FieldBinding binding : specs) {
+            binding.assign(spec);
+        }
+        return spec;
+    }
+
+    /** Returns the field of the command object that the specified argument is bound to. */
+    private static Field field(ArgSpec arg, CommandSpec spec) {
+        Object userObject = spec.userObject();
+        if (arg.getter() instanceof FieldBinding
+                && ((FieldBinding) arg.getter()).scope() == userObject) {
+            return ((FieldBinding) arg.getter()).field();
+        }
+        IGeneratedCommand generated = CommandReflection.generated(userObject.getClass(),
+                userObject);
+        if (generated != null) { // generated members are not fields: find them by name
+            List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+            for (Class<?> c = userObject.getClass(); c != Object.class; c = c.getSuperclass()) {
+                hierarchy.add(0, c);
+            }
+            GeneratedMember[][] members = generated.members(userObject);
+            for (int i = 0; i < members.length; i++) {
+                for (GeneratedMember member : members[i]) {
+                    if (arg.toString().equals(
+                            "field " + ArgsReflection.abbreviate(member.toGenericString()))) {
+                        try {
+                            return hierarchy.get(i).getDeclaredField(member.getName());
+                        } catch (NoSuchFieldException ex) {
+                            throw new InitializationException(ex.toString(), ex);
+                        }
+                    }
+                }
+            }
+        }
+        throw unsupported(userObject.getClass(), arg + " not bound to a field");
+    }
+
+    @SuppressWarnings("deprecation") // the deprecated help attribute must survive a snapshot
+    private static void writeArg(DataOutput out, ArgSpec arg, Field field) throws IOException {
+        ArgSpec.Builder<?> builder;
+        if (arg instanceof OptionSpec) {
+            OptionSpec.Builder option = ((OptionSpec) arg).toBuilder();
+            out.writeBoolean(true);
+            writeStrings(out, option.names());
+            out.writeBoolean(option.help());
+            out.writeBoolean(option.usageHelp());
+            out.writeBoolean(option.versionHelp());
+            builder = option;
+        } else {
+            PositionalParamSpec positional = (PositionalParamSpec) arg;
+            out.writeBoolean(false);
+            writeRange(out, positional.index());
+            writeRange(out, positional.capacity());
+            builder = positional.toBuilder();
+        }
+        writeRange(out, builder.arity());
+        out.writeBoolean(builder.required());
+        out.writeBoolean(builder.interactive());
+        writeStrings(out, builder.description());
+        writeString(out, builder.descriptionKey());
+        writeString(out, builder.paramLabel());
+        out.writeBoolean(builder.hideParamSyntax());
+        writeString(out, builder.splitRegex());
+        out.writeBoolean(builder.hidden());
+        writeString(out, builder.type() == null ? null : builder.type().getName());
+        Class<?>[] auxiliaryTypes = builder.auxiliaryTypes();
+        String[] names = new String[auxiliaryTypes == null ? 0 : auxiliaryTypes.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = auxiliaryTypes[i] == null ? null : auxiliaryTypes[i].getName();
+        }
+        writeStrings(out, names);
+        ITypeConverter<?>[] converters = builder.converters();
+        names = new String[converters == null ? 0 : converters.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = reference(converters[i]);
+        }
+        writeStrings(out, names);
+        writeString(out, builder.defaultValue());
+        out.writeUTF(builder.showDefaultValue().name());
+        Iterable<String> choiceValues = builder.choiceValues();
+        if (choiceValues == null) {
+            out.writeByte(NO_CHOICES);
+        } else if (choiceValues instanceof Collection) {
+            out.writeByte(CHOICE_VALUES);
+            @SuppressWarnings("unchecked")
+            Collection<String> values = (Collection<String>) choiceValues;
+            writeStrings(out, values.toArray(new String[values.size()]));
+        } else {
+            out.writeByte(CHOICE_CLASS);
+            out.writeUTF(reference(choiceValues));
+        }
+        writeString(out, builder.toString());
+        out.writeBoolean(builder.hasInitialValue());
+        writeField(out, field);
+    }
+
+    private static ArgSpec readArg(DataInput in, Object userObject, Context context)
+            throws IOException {
+        ArgSpec.Builder<?> builder;
+        if (in.readBoolean()) {
+            builder = OptionSpec.builder(readStrings(in)).help(in.readBoolean())
+                    .usageHelp(in.readBoolean()).versionHelp(in.readBoolean());
+        } else {
+            builder = PositionalParamSpec.builder().index(readRange(in))
+                    .capacity(readRange(in));
+        }
+        builder.arity(readRange(in));
+        builder.required(in.readBoolean());
+        builder.interactive(in.readBoolean());
+        builder.description(readStrings(in));
+        builder.descriptionKey(readString(in));
+        builder.paramLabel(readString(in));
+        builder.hideParamSyntax(in.readBoolean());
+        builder.splitRegex(readString(in));
+        builder.hidden(in.readBoolean());
+        builder.type(context.readClass(in));
+        String[] names = readStrings(in);
+        Class<?>[] auxiliaryTypes = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            auxiliaryTypes[i] = names[i] == null ? null : context.loadClass(names[i]);
+        }
+        builder.auxiliaryTypes(auxiliaryTypes);
+        names = readStrings(in);
+        ITypeConverter<?>[] converters = new ITypeConverter<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            converters[i] = (ITypeConverter<?>) Factory.create(context.factory,
+                    context.loadClass(names[i]));
+        }
+        builder.converters(converters);
+        builder.defaultValue(readString(in));
+        builder.showDefaultValue(Help.Visibility.valueOf(in.readUTF()));
+        byte choices = in.readByte();
+        if (choices == CHOICE_VALUES) {
+            builder.choiceValues(Collections.unmodifiableList(Arrays.asList(readStrings(in))));
+        } else if (choices == CHOICE_CLASS) {
+            @SuppressWarnings("unchecked")
+            Iterable<String> choiceValues = (Iterable<String>) Factory.create(context.factory,
+                    context.loadClass(in.readUTF()));
+            builder.choiceValues(choiceValues);
+        }
+        builder.withToString(readString(in));
+        builder.hasInitialValue(in.readBoolean());
+        FieldBinding binding = new FieldBinding(userObject, context.readField(in));
+        builder.getter(binding).setter(binding);
+        try {
+            builder.initialValue(binding.get());
+        } catch (Exception ex) {
+            builder.initialValue(null);
+        }
+        return builder.build();
+    }
+
+    private static void writeParser(DataOutput out, ParserSpec parser) throws IOException {
+        out.writeUTF(parser.separator());
+        out.writeUTF(parser.endOfOptionsDelimiter());
+        writeString(out, parser.atFileCommentChar() == null ? null
+                : parser.atFileCommentChar().toString());
+        writeString(out, parser.atFileCharset() == null ? null : parser.atFileCharset().name());
+        boolean[] flags = { parser.stopAtUnmatched(), parser.stopAtPositional(),
+                parser.toggleBooleanFlags(), parser.overwrittenOptionsAllowed(),
+                parser.unmatchedArgumentsAllowed(), parser.expandAtFiles(),
+                parser.atFileStreaming(), parser.posixClusteredShortOptionsAllowed(),
+                parser.abbreviatedOptionsAllowed(), parser.abbreviatedSubcommandsAllowed(),
+                parser.internMapKeys(), parser.caseInsensitiveEnumValuesAllowed(),
+                parser.trimQuotes(), parser.splitQuotedStrings(),
+                parser.unmatchedOptionsArePositionalParams(), parser.limitSplit(),
+                parser.aritySatisfiedByAttachedOptionParam(), parser.collectErrors() };
+        int bits = 0;
+        for (int i = 0; i < flags.length; i++) {
+            bits |= flags[i] ? 1 << i : 0;
+        }
+        out.writeInt(bits);
+    }
+
+    private static void readParser(DataInput in, ParserSpec parser) throws IOException {
+        parser.separator(in.readUTF());
+        parser.endOfOptionsDelimiter(in.readUTF());
+        String commentChar = readString(in);
+        parser.atFileCommentChar(commentChar == null ? null : commentChar.charAt(0));
+        String charset = readString(in);
+        parser.atFileCharset(charset == null ? null : Charset.forName(charset));
+        int bits = in.readInt();
+        parser.stopAtUnmatched((bits & 1) != 0);
+        parser.stopAtPositional((bits & 1 << 1) != 0);
+        parser.toggleBooleanFlags((bits & 1 << 2) != 0);
+        parser.overwrittenOptionsAllowed((bits & 1 << 3) != 0);
+        parser.unmatchedArgumentsAllowed((bits & 1 << 4) != 0);
+        parser.expandAtFiles((bits & 1 << 5) != 0);
+        parser.atFileStreaming((bits & 1 << 6) != 0);
+        parser.posixClusteredShortOptionsAllowed((bits & 1 << 7) != 0);
+        parser.abbreviatedOptionsAllowed((bits & 1 << 8) != 0);
+        parser.abbreviatedSubcommandsAllowed((bits & 1 << 9) != 0);
+        parser.internMapKeys((bits & 1 << 10) != 0);
+        parser.caseInsensitiveEnumValuesAllowed((bits & 1 << 11) != 0);
+        parser.trimQuotes((bits & 1 << 12) != 0);
+        parser.splitQuotedStrings((bits & 1 << 13) != 0);
+        parser.unmatchedOptionsArePositionalParams((bits & 1 << 14) != 0);
+        parser.limitSplit((bits & 1 << 15) != 0);
+        parser.aritySatisfiedByAttachedOptionParam((bits & 1 << 16) != 0);
+        parser.collectErrors((bits & 1 << 17) != 0);
+    }
+
+    /**
+     * Returns the name of the class of the specified converter, provider or choice values, to be
+     * created again with the factory, or {@code null} if the object is {@code null}.
+     */
+    private static String reference(Object object) {
+        if (object == null) {
+            return null;
+        }
+        Class<?> cls = object.getClass();
+        if (cls.isAnonymousClass() || cls.isLocalClass()
+                || (cls.isMemberClass() && !Modifier.isStatic(cls.getModifiers()))) {
+            throw new InitializationException("Cannot write a snapshot of " + object
+                    + ": its class " + cls.getName() + " cannot be instantiated by a factory");
+        }
+        return cls.getName();
+    }
+
+    private static InitializationException unsupported(Class<?> cls, String reason) {
+        return new InitializationException(
+                "Cannot write a snapshot of " + cls.getName() + ": " + reason);
+    }
+
+    /** Returns the digest of the bytecode of the specified classes. */
+    private static byte[] digest(Collection<Class<?>> classes) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        byte[] buffer = new byte[8192];
+        for (Class<?> cls : classes) {
+            ClassLoader loader = cls.getClassLoader();
+            InputStream in = loader == null ? null
+                    : loader.getResourceAsStream(cls.getName().replace('.', '/') + ".class");
+            if (in == null) { // only its name then
+                digest.update(cls.getName().getBytes("UTF-8"));
+                continue;
+            }
+            try {
+                for (int count; (count = in.read(buffer)) != -1;) {
+                    digest.update(buffer, 0, count);
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+                // nothing to do
+            }
+        }
+    }
+
+    private static void writeRange(DataOutput out, Range range) throws IOException {
+        out.writeInt(range.min);
+        out.writeInt(range.max);
+        out.writeBoolean(range.isVariable);
+        out.writeBoolean(range.isUnspecified);
+        writeString(out, range.originalValue());
+    }
+
+    private static Range readRange(DataInput in) throws IOException {
+        return new Range(in.readInt(), in.readInt(), in.readBoolean(), in.readBoolean(),
+                readString(in));
+    }
+
+    private static void writeField(DataOutput out, Field field) throws IOException {
+        out.writeBoolean(field != null);
+        if (field != null) {
+            out.writeUTF(field.getDeclaringClass().getName());
+            out.writeUTF(field.getName());
+        }
+    }
+
+    private static void writeFields(DataOutput out, List<Field> fields) throws IOException {
+        out.writeInt(fields.size());
+        for (Field field : fields) {
+            writeField(out, field);
+        }
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /** Writes an array of strings, that may be or contain {@code null}. */
+    static void writeStrings(DataOutput out, String[] values) throws IOException {
+        out.writeInt(values == null ? -1 : values.length);
+        for (int i = 0; values != null && i < values.length; i++) {
+            writeString(out, values[i]);
+        }
+    }
+
+    static String[] readStrings(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        String[] result = new String[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = readString(in);
+        }
+        return result;
+    }
+
+    static void writeBoolean(DataOutput out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    static Boolean readBoolean(DataInput in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value != 0;
+    }
+}
@@ -0,0 +1,123 @@
+package picocli.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import picocli.annot.Command;
+
+/**
+ * Reflective information about a command class, computed once per class and shared by all the
+ * command specs created for its instances.
+ * <p>
+ * {@link CommandReflection} creates a command spec for each new {@code CommandLine}: instead of
+ * walking the class hierarchy and looking up the annotations of all declared fields and methods
+ * every time, it walks the template of the class, which keeps the {@code @Command} annotations of
+ * the hierarchy and the annotated members (whose annotations are then only parsed once). Each
+ * annotated member also keeps the handles to access it and a prototype of its option or
+ * positional parameter, holding the attributes that only depend on the annotations: the spec of a
+ * new instance copies them, with a getter and setter bound to that instance.
+ * </p>
+ * <p>
+ * Nothing created by an {@link IFactory} or read from a resource bundle is kept: converters,
+ * choice values, providers, mixins and subcommands are created and descriptions are resolved for
+ * each command spec, so templates are valid whatever factory or resource bundle is used.
+ * </p>
+ */
+final class CommandTemplate {
+    private static final ClassValue<CommandTemplate> TEMPLATES = new ClassValue<CommandTemplate>() {
+        @Override
+        protected CommandTemplate computeValue(Class<?> type) {
+            return new CommandTemplate(type);
+        }
+    };
+
+    /** A field or method of a command class with a picocli annotation. */
+    static final class Member {
+        final AccessibleObject accessible;
+        /** The unbound getter and setter handles of a field, see {@link FieldBinding}. */
+        private volatile MethodHandle[] handles;
+        /** The option or positional parameter of this member, not bound to any instance. */
+        private volatile ArgSpec prototype;
+
+        private Member(AccessibleObject accessible) {
+            this.accessible = accessible;
+        }
+
+        /** Returns the handles of this field, once it was made accessible. */
+        MethodHandle[] handles() {
+            MethodHandle[] result = handles;
+            if (result == null) {
+                handles = result = FieldBinding.unreflect((Field) accessible);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the option or positional parameter of the specified member, which must be
+         * created from this template member.
+         */
+        ArgSpec argSpec(TypedMember member, IFactory factory) {
+            ArgSpec result = prototype;
+            if (result != null) {
+                return ArgsReflection.rebind(result, member, factory);
+            }
+            result = member.isOption() ? ArgsReflection.extractOptionSpec(member, factory)
+                    : ArgsReflection.extractPositionalParamSpec(member, factory);
+            prototype = ArgsReflection.prototype(result);
+            return result;
+        }
+    }
+
+    private final CommandTemplate[] hierarchy;
+    private final Command command;
+    private final Member[] members;
+
+    private CommandTemplate(Class<?> type) {
+        Class<?> superclass = type.getSuperclass();
+        if (superclass == null) {
+            hierarchy = new CommandTemplate[] { this };
+        } else {
+            CommandTemplate[] inherited = of(superclass).hierarchy;
+            hierarchy = new CommandTemplate[inherited.length + 1];
+            System.arraycopy(inherited, 0, hierarchy, 0, inherited.length);
+            hierarchy[inherited.length] = this;
+        }
+        command = type.getAnnotation(Command.class);
+        List<Member> annotated = new ArrayList<Member>();
+        for (Field field : type.getDeclaredFields()) {
+            if (TypedMember.isAnnotated(field)) {
+                annotated.add(new Member(field));
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (TypedMember.isAnnotated(method)) {
+                annotated.add(new Member(method));
+            }
+        }
+        members = annotated.toArray(new Member[annotated.size()]);
+    }
+
+    /** Returns the template of the specified class. */
+    static CommandTemplate of(Class<?> type) {
+        return TEMPLATES.get(type);
+    }
+
+    /** Returns the templates of the class and its superclasses, the topmost superclass first. */
+    CommandTemplate[] hierarchy() {
+        return hierarchy;
+    }
+
+    /** Returns the {@code @Command} annotation of the class, or {@code null}. */
+    Command command() {
+        return command;
+    }
+
+    /** Returns the annotated fields, then the annotated methods, declared by the class. */
+    Member[] members() {
+        return members;
+    }
+}
@@ -1,37 +1,219 @@
 package picocli.model;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 
 import picocli.except.PicocliException;
 
+/**
+ * Binding to a field of the command object.
+ * <p>
+ * The field is accessed through method handles created once, bound to the scope, instead of
+ * {@link Field#get(Object)} and {@link Field#set(Object, Object)} on every access: the JIT can
+ * inline them like plain field accesses. Primitive fields are read and written without boxing
+ * through the primitive getters and setters. Fields that cannot be accessed through method
+ * handles are accessed through reflection.
+ * </p>
+ */
 class FieldBinding implements IGetter, ISetter {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class);
+
     private final Object scope;
     private final Field field;
+    /** Handles of the exact field type, bound to the scope; {@code null} to use reflection. */
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    /** The handles above, adapted to {@code Object}. */
+    private final MethodHandle objectGetter;
+    private final MethodHandle objectSetter;
 
     FieldBinding(Object scope, Field field) {
+        this(scope, field, unreflect(field));
+    }
+
+    /** Creates a binding with the specified result of {@link #unreflect(Field)}. */
+    FieldBinding(Object scope, Field field, MethodHandle[] handles) {
         this.scope = scope;
         this.field = field;
+        MethodHandle get = handles[0];
+        MethodHandle set = handles[1];
+        if (get != null && !Modifier.isStatic(field.getModifiers())) {
+            try {
+                get = get.bindTo(scope);
+                set = set.bindTo(scope);
+            } catch (ClassCastException ex) {
+                get = null;
+                set = null;
+            }
+        }
+        this.getter = get;
+        this.setter = set;
+        this.objectGetter = get == null ? null : get.asType(GETTER_TYPE);
+        this.objectSetter = set == null ? null : set.asType(SETTER_TYPE);
+    }
+
+    /**
+     * Returns the getter and setter handles of the specified accessible field, not bound to any
+     * scope, or two {@code null} handles if the field must be accessed through reflection.
+     */
+    static MethodHandle[] unreflect(Field field) {
+        try { // the field was made accessible, so any lookup can unreflect it
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new MethodHandle[] { lookup.unreflectGetter(field),
+                    lookup.unreflectSetter(field) };
+        } catch (IllegalAccessException ex) {
+            return new MethodHandle[2];
+        }
+    }
+
+    Object scope() {
+        return scope;
+    }
+
+    Field field() {
+        return field;
     }
 
     public <T> T get() throws PicocliException {
         try {
             @SuppressWarnings("unchecked")
-            T result = (T) field.get(scope);
+            T result = (T) (objectGetter == null ? field.get(scope)
+                    : (Object) objectGetter.invokeExact());
             return result;
-        } catch (Exception ex) {
-            throw new PicocliException("Could not get value for field " + field, ex);
+        } catch (Throwable ex) {
+            throw failure("Could not get value for field " + field, ex);
         }
     }
 
     public <T> T set(T value) throws PicocliException {
+        T result = get();
+        assign(value);
+        return result;
+    }
+
+    /** Sets the value of the field, like {@link #set(Object)} without reading the old value. */
+    void assign(Object value) throws PicocliException {
         try {
-            @SuppressWarnings("unchecked")
-            T result = (T) field.get(scope);
-            field.set(scope, value);
-            return result;
-        } catch (Exception ex) {
-            throw new PicocliException(
-                    "Could not set value for field " + field + " to " + value, ex);
+            if (objectSetter == null) {
+                field.set(scope, value);
+            } else {
+                objectSetter.invokeExact(value);
+            }
+        } catch (Throwable ex) {
+            throw failure("Could not set value for field " + field + " to " + value, ex);
+        }
+    }
+
+    // primitive fields are accessed without boxing; other fields through get() and set()
+
+    @Override
+    public int getInt() throws PicocliException {
+        if (getter == null || field.getType() != int.class) {
+            return this.<Number>get().intValue();
+        }
+        try {
+            return (int) getter.invokeExact();
+        } catch (Throwable ex) {
+            throw failure("Could not get value for field " + field, ex);
+        }
+    }
+
+    @Override
+    public long getLong() throws PicocliException {
+        if (getter == null || field.getType() != long.class) {
+            return this.<Number>get().longValue();
+        }
+        try {
+            return (long) getter.invokeExact();
+        } catch (Throwable ex) {
+            throw failure("Could not get value for field " + field, ex);
+        }
+    }
+
+    @Override
+    public double getDouble() throws PicocliException {
+        if (getter == null || field.getType() != double.class) {
+            return this.<Number>get().doubleValue();
+        }
+        try {
+            return (double) getter.invokeExact();
+        } catch (Throwable ex) {
+            throw failure("Could not get value for field " + field, ex);
+        }
+    }
+
+    @Override
+    public boolean getBoolean() throws PicocliException {
+        if (getter == null || field.getType() != boolean.class) {
+            return this.<Boolean>get().booleanValue();
+        }
+        try {
+            return (boolean) getter.invokeExact();
+        } catch (Throwable ex) {
+            throw failure("Could not get value for field " + field, ex);
+        }
+    }
+
+    @Override
+    public void setInt(int value) throws PicocliException {
+        if (setter == null || field.getType() != int.class) {
+            assign(value);
+            return;
+        }
+        try {
+            setter.invokeExact(value);
+        } catch (Throwable ex) {
+            throw failure("Could not set value for field " + field + " to " + value, ex);
+        }
+    }
+
+    @Override
+    public void setLong(long value) throws PicocliException {
+        if (setter == null || field.getType() != long.class) {
+            assign(value);
+            return;
+        }
+        try {
+            setter.invokeExact(value);
+        } catch (Throwable ex) {
+            throw failure("Could not set value for field " + field + " to " + value, ex);
+        }
+    }
+
+    @Override
+    public void setDouble(double value) throws PicocliException {
+        if (setter == null || field.getType() != double.class) {
+            assign(value);
+            return;
+        }
+        try {
+            setter.invokeExact(value);
+        } catch (Throwable ex) {
+            throw failure("Could not set value for field " + field + " to " + value, ex);
+        }
+    }
+
+    @Override
+    public void setBoolean(boolean value) throws PicocliException {
+        if (setter == null || field.getType() != boolean.class) {
+            assign(value);
+            return;
+        }
+        try {
+            setter.invokeExact(value);
+        } catch (Throwable ex) {
+            throw failure("Could not set value for field " + field + " to " + value, ex);
+        }
+    }
+
+    private static PicocliException failure(String message, Throwable ex) {
+        if (ex instanceof Error) {
+            throw (Error) ex;
         }
+        return new PicocliException(message, ex);
     }
 }
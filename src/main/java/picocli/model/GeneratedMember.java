@@ -0,0 +1,140 @@
+package picocli.model;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Annotated field of a command class, as described by an {@link IGeneratedCommand}: its
+ * annotations are known at compile time and it is accessed through a getter and setter bound to
+ * an instance, without reflection.
+ *
+ * @since 4.0
+ */
+public final class GeneratedMember extends AccessibleObject {
+    private final String name;
+    private final Class<?> type;
+    private final Type genericType;
+    private final String genericString;
+    private final Annotation[] annotations;
+    private final IGetter getter;
+    private final ISetter setter;
+
+    /**
+     * Creates a field.
+     *
+     * @param name
+     *            the name of the field
+     * @param type
+     *            the type of the field
+     * @param typeArguments
+     *            the type arguments of a parameterized type, as reflection resolves them to
+     *            classes (see {@link ArgSpec#auxiliaryTypes()}), or {@code null}
+     * @param genericString
+     *            the description of the field, like
+     *            {@link java.lang.reflect.Field#toGenericString()}
+     * @param annotations
+     *            the picocli annotations of the field
+     * @param getter
+     *            gets the value of the field of the instance
+     * @param setter
+     *            sets the value of the field of the instance
+     */
+    public GeneratedMember(String name, Class<?> type, Class<?>[] typeArguments,
+            String genericString, Annotation[] annotations, IGetter getter, ISetter setter) {
+        this.name = name;
+        this.type = type;
+        this.genericType = typeArguments == null ? type
+                : new GeneratedParameterizedType(type, typeArguments);
+        this.genericString = genericString;
+        this.annotations = annotations.clone();
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    public IGetter getter() {
+        return getter;
+    }
+
+    public ISetter setter() {
+        return setter;
+    }
+
+    @Override
+    public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType() == annotationClass) {
+                return annotationClass.cast(annotation);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+        return annotations.clone();
+    }
+
+    @Override
+    public Annotation[] getDeclaredAnnotations() {
+        return annotations.clone();
+    }
+
+    @Override
+    public void setAccessible(boolean flag) {
+        // accessed through the getter and setter
+    }
+
+    public String toGenericString() {
+        return genericString;
+    }
+
+    @Override
+    public String toString() {
+        return genericString;
+    }
+
+    private static final class GeneratedParameterizedType implements ParameterizedType {
+        private final Class<?> rawType;
+        private final Class<?>[] typeArguments;
+
+        GeneratedParameterizedType(Class<?> rawType, Class<?>[] typeArguments) {
+            this.rawType = rawType;
+            this.typeArguments = typeArguments.clone();
+        }
+
+        public Type[] getActualTypeArguments() {
+            return typeArguments.clone();
+        }
+
+        public Type getRawType() {
+            return rawType;
+        }
+
+        public Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder(rawType.getName()).append('<');
+            for (int i = 0; i < typeArguments.length; i++) {
+                result.append(i == 0 ? "" : ", ").append(typeArguments[i].getTypeName());
+            }
+            return result.append('>').toString();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package picocli.model;
+
+import picocli.annot.Command;
+
+/**
+ * Picocli annotations of a command class, generated at compile time by the annotation processor
+ * of {@code picocli-codegen}, so that the command spec of its instances is built without scanning
+ * the class through reflection.
+ * <p>
+ * An implementation is a public class with a public no-argument constructor, in the package of
+ * the command class and named after its binary name with the {@value #CLASS_NAME_SUFFIX} suffix.
+ * When the class of a command object has one, its command spec is built from the annotations and
+ * annotated fields returned here, exactly as from the annotations found through reflection: the
+ * subcommands, mixins, converters and providers are still created with the factory.
+ * </p>
+ *
+ * @since 4.0
+ */
+public interface IGeneratedCommand {
+    /** The suffix of the names of the generated implementations. */
+    String CLASS_NAME_SUFFIX = "_PicocliCommand";
+
+    /**
+     * Returns the {@code @Command} annotations of the command class and its superclasses, the
+     * topmost superclass first, with {@code null} for the classes without one.
+     */
+    Command[] commands();
+
+    /**
+     * Returns the annotated fields, bound to the specified instance of the command class, of each
+     * of the classes of {@link #commands()}.
+     */
+    GeneratedMember[][] members(Object command);
+}
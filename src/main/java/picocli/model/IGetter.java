@@ -23,4 +23,44 @@ public interface IGetter {
      *             and rethrow them wrapped in a PicocliException
      */
     <T> T get() throws Exception;
+
+    /**
+     * Returns the current value of an {@code int} option or positional parameter. The default
+     * implementation unboxes the result of {@link #get()}.
+     *
+     * @since 4.0
+     */
+    default int getInt() throws Exception {
+        return this.<Number>get().intValue();
+    }
+
+    /**
+     * Returns the current value of a {@code long} option or positional parameter.
+     *
+     * @see #getInt()
+     * @since 4.0
+     */
+    default long getLong() throws Exception {
+        return this.<Number>get().longValue();
+    }
+
+    /**
+     * Returns the current value of a {@code double} option or positional parameter.
+     *
+     * @see #getInt()
+     * @since 4.0
+     */
+    default double getDouble() throws Exception {
+        return this.<Number>get().doubleValue();
+    }
+
+    /**
+     * Returns the current value of a {@code boolean} option or positional parameter.
+     *
+     * @see #getInt()
+     * @since 4.0
+     */
+    default boolean getBoolean() throws Exception {
+        return this.<Boolean>get().booleanValue();
+    }
 }
\ No newline at end of file
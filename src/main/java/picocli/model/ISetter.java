@@ -27,4 +27,46 @@ public interface ISetter {
      *             and rethrow them wrapped in a PicocliException
      */
     <T> T set(T value) throws Exception;
+
+    /**
+     * Sets the new value of an {@code int} option or positional parameter. Unlike
+     * {@link #set(Object)}, does not return the previous value, so that bindings to primitive
+     * fields need not box either value. The default implementation delegates to
+     * {@link #set(Object)}.
+     *
+     * @since 4.0
+     */
+    default void setInt(int value) throws Exception {
+        set(value);
+    }
+
+    /**
+     * Sets the new value of a {@code long} option or positional parameter.
+     *
+     * @see #setInt(int)
+     * @since 4.0
+     */
+    default void setLong(long value) throws Exception {
+        set(value);
+    }
+
+    /**
+     * Sets the new value of a {@code double} option or positional parameter.
+     *
+     * @see #setInt(int)
+     * @since 4.0
+     */
+    default void setDouble(double value) throws Exception {
+        set(value);
+    }
+
+    /**
+     * Sets the new value of a {@code boolean} option or positional parameter.
+     *
+     * @see #setInt(int)
+     * @since 4.0
+     */
+    default void setBoolean(boolean value) throws Exception {
+        set(value);
+    }
 }
\ No newline at end of file
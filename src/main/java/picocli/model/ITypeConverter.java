@@ -76,4 +76,73 @@ public interface ITypeConverter<T> {
      *            Domain object.
      */
     String viewOf(Object value);
+
+    /**
+     * Converter to {@code int} values. The parser converts the values of {@code int} options and
+     * positional parameters, and the elements of {@code int[]} ones, with {@link #intOf(String)},
+     * and passes the result unboxed to {@link ISetter#setInt(int)} or to the array being built.
+     * Only the typed values recorded in the {@link ParseResult} are boxed. Checking whether a
+     * vararg value is convertible does not box the result either. The {@code long},
+     * {@code double} and {@code boolean} converters are used the same way, except that there are
+     * no unboxed {@code boolean[]} arrays.
+     *
+     * @since 4.0
+     */
+    interface OfInt extends ITypeConverter<Integer> {
+        /** Converts the specified command line argument value to an {@code int}. */
+        int intOf(String value);
+
+        @Override
+        default Integer modelOf(String value) {
+            return intOf(value);
+        }
+    }
+
+    /**
+     * Converter to {@code long} values.
+     *
+     * @see OfInt
+     * @since 4.0
+     */
+    interface OfLong extends ITypeConverter<Long> {
+        /** Converts the specified command line argument value to a {@code long}. */
+        long longOf(String value);
+
+        @Override
+        default Long modelOf(String value) {
+            return longOf(value);
+        }
+    }
+
+    /**
+     * Converter to {@code double} values.
+     *
+     * @see OfInt
+     * @since 4.0
+     */
+    interface OfDouble extends ITypeConverter<Double> {
+        /** Converts the specified command line argument value to a {@code double}. */
+        double doubleOf(String value);
+
+        @Override
+        default Double modelOf(String value) {
+            return doubleOf(value);
+        }
+    }
+
+    /**
+     * Converter to {@code boolean} values.
+     *
+     * @see OfInt
+     * @since 4.0
+     */
+    interface OfBoolean extends ITypeConverter<Boolean> {
+        /** Converts the specified command line argument value to a {@code boolean}. */
+        boolean booleanOf(String value);
+
+        @Override
+        default Boolean modelOf(String value) {
+            return booleanOf(value);
+        }
+    }
 }
\ No newline at end of file
@@ -2,12 +2,8 @@ package picocli.model;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.LineNumberReader;
-import java.io.StreamTokenizer;
-import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -25,6 +21,7 @@ import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -40,17 +37,18 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.Stack;
 import java.util.TimeZone;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
-import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import picocli.CommandLine;
-import picocli.except.InitializationException;
 import picocli.except.MaxValuesExceededException;
 import picocli.except.MissingParameterException;
 import picocli.except.MissingTypeConverterException;
@@ -61,7 +59,6 @@ import picocli.except.TypeConversionException;
 import picocli.except.UnmatchedArgumentException;
 import picocli.util.Assert;
 import picocli.util.ClassUtilsExt;
-import picocli.util.CollectionUtilsExt;
 import picocli.util.Tracer;
 import picocli.util.Utils;
 
@@ -98,9 +95,10 @@ public class Interpreter {
          * Converts {@code "true"} or {@code "false"} to a {@code Boolean}. Other values result in a
          * ParameterException.
          */
-        static class BooleanConverter extends TypeConverter<Boolean> {
+        static class BooleanConverter extends TypeConverter<Boolean>
+                implements ITypeConverter.OfBoolean {
             @Override
-            public Boolean modelOf(String value) {
+            public boolean booleanOf(String value) {
                 if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value))
                     return Boolean.parseBoolean(value);
                 else
@@ -172,11 +170,12 @@ public class Interpreter {
             }
         }
 
-        static class DoubleConverter extends TypeConverter<Double> {
+        static class DoubleConverter extends TypeConverter<Double>
+                implements ITypeConverter.OfDouble {
             @Override
-            public Double modelOf(String value) {
+            public double doubleOf(String value) {
                 try {
-                    return Double.valueOf(value);
+                    return Double.parseDouble(value);
                 } catch (Exception ex) {
                     throw fail(value, Double.TYPE);
                 }
@@ -216,12 +215,13 @@ public class Interpreter {
             }
         }
 
-        /** Converts text to an {@code Integer} by delegating to {@link Integer#valueOf(String)}. */
-        static class IntegerConverter extends TypeConverter<Integer> {
+        /** Converts text to an {@code Integer} with {@link Integer#parseInt(String)}. */
+        static class IntegerConverter extends TypeConverter<Integer>
+                implements ITypeConverter.OfInt {
             @Override
-            public Integer modelOf(String value) {
+            public int intOf(String value) {
                 try {
-                    return Integer.valueOf(value);
+                    return Integer.parseInt(value);
                 } catch (Exception ex) {
                     throw fail(value, Integer.TYPE, "'%s' is not an %s");
                 }
@@ -252,21 +252,6 @@ public class Interpreter {
             // Implementation note: use reflection so that picocli only requires the java.base module in Java 9.
             private static final String FQCN = "java.sql.Time";
 
-            public static void registerIfAvailable(Map<Class<?>, ITypeConverter<?>> registry,
-                    Tracer tracer) {
-                if (excluded(FQCN, tracer))
-                    return;
-                try {
-                    registry.put(Class.forName(FQCN), new ISO8601TimeConverter());
-                } catch (Exception e) {
-                    if (!traced.contains(FQCN)) {
-                        tracer.debug("Could not register converter for %s: %s%n", FQCN,
-                                e.toString());
-                    }
-                    traced.add(FQCN);
-                }
-            }
-
             @Override
             public Object modelOf(String value) {
                 try {
@@ -302,12 +287,13 @@ public class Interpreter {
             }
         }
 
-        /** Converts text to a {@code Long} by delegating to {@link Long#valueOf(String)}. */
-        static class LongConverter extends TypeConverter<Long> {
+        /** Converts text to a {@code Long} with {@link Long#parseLong(String)}. */
+        static class LongConverter extends TypeConverter<Long>
+                implements ITypeConverter.OfLong {
             @Override
-            public Long modelOf(String value) {
+            public long longOf(String value) {
                 try {
-                    return Long.valueOf(value);
+                    return Long.parseLong(value);
                 } catch (Exception ex) {
                     throw fail(value, Long.TYPE);
                 }
@@ -424,41 +410,289 @@ public class Interpreter {
             }
         }
 
-        static Set<String> traced = new HashSet<>();
+        /** Built-in converters that need no reflection, shared by all interpreters. */
+        private static final Map<Class<?>, ITypeConverter<?>> CONVERTERS = createConverters();
+
+        /**
+         * Built-in converters for types that may not be available at runtime, by class name. These
+         * are resolved reflectively when a type with that name first needs a converter.
+         */
+        private static final Map<String, LazyConverter> LAZY_CONVERTERS = createLazyConverters();
+
+        /**
+         * Converter for a type that is only looked up reflectively when first needed, and then
+         * shared by all interpreters.
+         */
+        static class LazyConverter {
+            private final String fqcn;
+            private final String factoryClass;
+            private final String factoryMethodName;
+            private final Class<?>[] paramTypes;
+            private boolean resolved;
+            private Class<?> type;
+            private ITypeConverter<?> converter;
+
+            /** Uses the {@link ISO8601TimeConverter}. */
+            LazyConverter(String fqcn) {
+                this(fqcn, null, null);
+            }
+
+            LazyConverter(String fqcn, String factoryClass, String factoryMethodName,
+                    Class<?>... paramTypes) {
+                this.fqcn = fqcn;
+                this.factoryClass = factoryClass;
+                this.factoryMethodName = factoryMethodName;
+                this.paramTypes = paramTypes;
+            }
+
+            /** Returns the converter, or {@code null} if the type is not available. */
+            synchronized ITypeConverter<?> converter(Tracer tracer) {
+                if (!resolved) {
+                    try {
+                        Class<?> cls = Class.forName(fqcn);
+                        if (factoryClass == null) {
+                            converter = new ISO8601TimeConverter();
+                        } else {
+                            Class<?> factory = Class.forName(factoryClass);
+                            Method method = factory.getDeclaredMethod(factoryMethodName,
+                                    paramTypes);
+                            converter = new ReflectionConverter(method, paramTypes);
+                        }
+                        type = cls;
+                    } catch (Exception e) {
+                        tracer.debug("Could not register converter for %s: %s%n", fqcn,
+                                e.toString());
+                    }
+                    resolved = true;
+                }
+                return converter;
+            }
+
+            synchronized Class<?> type(Tracer tracer) {
+                converter(tracer);
+                return type;
+            }
+        }
+
+        /**
+         * Built-in converter resolved for each type, including synthesized enum converters, or
+         * {@code null} if there is none.
+         */
+        private static final ClassValue<ITypeConverter<?>> RESOLVED =
+                new ClassValue<ITypeConverter<?>>() {
+            @Override
+            protected ITypeConverter<?> computeValue(Class<?> type) {
+                ITypeConverter<?> result = CONVERTERS.get(type);
+                if (result != null) {
+                    return result;
+                }
+                LazyConverter lazy = LAZY_CONVERTERS.get(type.getName());
+                if (lazy != null) {
+                    Tracer tracer = new Tracer();
+                    return lazy.type(tracer) == type ? lazy.converter(tracer) : null;
+                }
+                return type.isEnum() ? new EnumConverter(type, false) : null;
+            }
+        };
 
-        static boolean excluded(String fqcn, Tracer tracer) {
-            String[] excludes = System.getProperty("picocli.converters.excludes", "").split(",");
-            for (String regex : excludes) {
+        /**
+         * Returns the built-in converter for the specified type, or {@code null} if there is none
+         * or if it is excluded by the specified comma-separated list of regular expressions.
+         */
+        static ITypeConverter<?> lookup(Class<?> type, String excludes, Tracer tracer) {
+            ITypeConverter<?> result = RESOLVED.get(type);
+            if (result != null && excludes.length() > 0
+                    && LAZY_CONVERTERS.containsKey(type.getName())
+                    && excluded(type.getName(), excludes, tracer)) {
+                return null;
+            }
+            return result;
+        }
+
+        /**
+         * Returns a new map with all built-in converters that are available and not excluded. This
+         * resolves all lazy converters.
+         */
+        static Map<Class<?>, ITypeConverter<?>> available(String excludes, Tracer tracer) {
+            Map<Class<?>, ITypeConverter<?>> result = new LinkedHashMap<>(CONVERTERS);
+            for (Map.Entry<String, LazyConverter> entry : LAZY_CONVERTERS.entrySet()) {
+                LazyConverter lazy = entry.getValue();
+                if (!excluded(entry.getKey(), excludes, tracer) && lazy.converter(tracer) != null) {
+                    result.put(lazy.type(tracer), lazy.converter(tracer));
+                }
+            }
+            return result;
+        }
+
+        static boolean excluded(String fqcn, String excludes, Tracer tracer) {
+            if (excludes.length() == 0) {
+                return false;
+            }
+            for (String regex : excludes.split(",")) {
                 if (fqcn.matches(regex)) {
                     tracer.debug(
                             "BuiltIn type converter for %s is not loaded: (picocli.converters.excludes=%s)%n",
-                            fqcn, System.getProperty("picocli.converters.excludes"));
+                            fqcn, excludes);
                     return true;
                 }
             }
             return false;
         }
 
-        static void registerIfAvailable(Map<Class<?>, ITypeConverter<?>> registry, Tracer tracer,
-                String fqcn, String factoryMethodName, Class<?>... paramTypes) {
-            registerIfAvailable(registry, tracer, fqcn, fqcn, factoryMethodName, paramTypes);
+        private static Map<Class<?>, ITypeConverter<?>> createConverters() {
+            Map<Class<?>, ITypeConverter<?>> result = new HashMap<>(64);
+            result.put(Object.class, new StringConverter());
+            result.put(String.class, new StringConverter());
+            result.put(StringBuilder.class, new StringBuilderConverter());
+            result.put(CharSequence.class, new CharSequenceConverter());
+            result.put(Byte.class, new ByteConverter());
+            result.put(Byte.TYPE, new ByteConverter());
+            result.put(Boolean.class, new BooleanConverter());
+            result.put(Boolean.TYPE, new BooleanConverter());
+            result.put(Character.class, new CharacterConverter());
+            result.put(Character.TYPE, new CharacterConverter());
+            result.put(Short.class, new ShortConverter());
+            result.put(Short.TYPE, new ShortConverter());
+            result.put(Integer.class, new IntegerConverter());
+            result.put(Integer.TYPE, new IntegerConverter());
+            result.put(Long.class, new LongConverter());
+            result.put(Long.TYPE, new LongConverter());
+            result.put(Float.class, new FloatConverter());
+            result.put(Float.TYPE, new FloatConverter());
+            result.put(Double.class, new DoubleConverter());
+            result.put(Double.TYPE, new DoubleConverter());
+            result.put(File.class, new FileConverter());
+            result.put(URI.class, new URIConverter());
+            result.put(URL.class, new URLConverter());
+            result.put(Date.class, new ISO8601DateConverter());
+            result.put(BigDecimal.class, new BigDecimalConverter());
+            result.put(BigInteger.class, new BigIntegerConverter());
+            result.put(Charset.class, new CharsetConverter());
+            result.put(InetAddress.class, new InetAddressConverter());
+            result.put(Pattern.class, new PatternConverter());
+            result.put(UUID.class, new UUIDConverter());
+            result.put(Currency.class, new CurrencyConverter());
+            result.put(TimeZone.class, new TimeZoneConverter());
+            result.put(ByteOrder.class, new ByteOrderConverter());
+            result.put(Class.class, new ClassConverter());
+            result.put(NetworkInterface.class, new NetworkInterfaceConverter());
+            return Collections.unmodifiableMap(result);
+        }
+
+        private static Map<String, LazyConverter> createLazyConverters() {
+            Map<String, LazyConverter> result = new LinkedHashMap<>();
+            addLazy(result, new LazyConverter(ISO8601TimeConverter.FQCN));
+            addLazy(result, new LazyConverter("java.sql.Connection", "java.sql.DriverManager",
+                    "getConnection", String.class));
+            addLazy(result, new LazyConverter("java.sql.Driver", "java.sql.DriverManager",
+                    "getDriver", String.class));
+            addLazy(result, new LazyConverter("java.sql.Timestamp", "java.sql.Timestamp",
+                    "valueOf", String.class));
+
+            addLazy(result, new LazyConverter("java.time.Duration", "java.time.Duration", "parse",
+                    CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.Instant", "java.time.Instant", "parse",
+                    CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.LocalDate", "java.time.LocalDate",
+                    "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.LocalDateTime",
+                    "java.time.LocalDateTime", "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.LocalTime", "java.time.LocalTime",
+                    "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.MonthDay", "java.time.MonthDay", "parse",
+                    CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.OffsetDateTime",
+                    "java.time.OffsetDateTime", "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.OffsetTime", "java.time.OffsetTime",
+                    "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.Period", "java.time.Period", "parse",
+                    CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.Year", "java.time.Year", "parse",
+                    CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.YearMonth", "java.time.YearMonth",
+                    "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.ZonedDateTime",
+                    "java.time.ZonedDateTime", "parse", CharSequence.class));
+            addLazy(result, new LazyConverter("java.time.ZoneId", "java.time.ZoneId", "of",
+                    String.class));
+            addLazy(result, new LazyConverter("java.time.ZoneOffset", "java.time.ZoneOffset",
+                    "of", String.class));
+
+            addLazy(result, new LazyConverter("java.nio.file.Path", "java.nio.file.Paths", "get",
+                    String.class, String[].class));
+            return Collections.unmodifiableMap(result);
+        }
+
+        private static void addLazy(Map<String, LazyConverter> map, LazyConverter converter) {
+            map.put(converter.fqcn, converter);
         }
 
-        static void registerIfAvailable(Map<Class<?>, ITypeConverter<?>> registry, Tracer tracer,
-                String fqcn, String factoryClass, String factoryMethodName,
-                Class<?>... paramTypes) {
-            if (excluded(fqcn, tracer))
-                return;
-            try {
-                Class<?> cls = Class.forName(fqcn);
-                Class<?> factory = Class.forName(factoryClass);
-                Method method = factory.getDeclaredMethod(factoryMethodName, paramTypes);
-                registry.put(cls, new ReflectionConverter(method, paramTypes));
-            } catch (Exception e) {
-                if (!traced.contains(fqcn)) {
-                    tracer.debug("Could not register converter for %s: %s%n", fqcn, e.toString());
+        /**
+         * Converter synthesized for enum types, shared by all interpreters.
+         * <p>
+         * The constants are looked up in tables built once per enum type: by name, and by the
+         * upper case of their string value for case-insensitive matching. Nothing is allocated for
+         * a value that does not match until the error is reported.
+         * </p>
+         */
+        static class EnumConverter extends TypeConverter<Object> {
+            private final Class<?> type;
+            private final boolean caseInsensitive;
+            private final Map<String, Object> names;
+            private final Map<String, Object> upperCaseValues;
+            private EnumConverter other;
+
+            EnumConverter(Class<?> type, boolean caseInsensitive) {
+                this.type = type;
+                this.caseInsensitive = caseInsensitive;
+                Object[] constants = type.getEnumConstants();
+                Map<String, Object> names = new HashMap<>(constants.length * 2);
+                Map<String, Object> upperCaseValues = new HashMap<>(constants.length * 2);
+                for (Object constant : constants) {
+                    names.put(((Enum<?>) constant).name(), constant);
+                    // the first constant wins, like the linear scan this replaces
+                    upperCaseValues.putIfAbsent(String.valueOf(constant).toUpperCase(), constant);
                 }
-                traced.add(fqcn);
+                this.names = names;
+                this.upperCaseValues = upperCaseValues;
+            }
+
+            private EnumConverter(EnumConverter other) {
+                this.type = other.type;
+                this.caseInsensitive = !other.caseInsensitive;
+                this.names = other.names;
+                this.upperCaseValues = other.upperCaseValues;
+                this.other = other;
+            }
+
+            /** Returns the converter for the same type, matching names case-sensitively or not. */
+            EnumConverter caseInsensitive(boolean caseInsensitive) {
+                if (caseInsensitive == this.caseInsensitive) {
+                    return this;
+                }
+                EnumConverter result = other;
+                if (result == null) {
+                    result = new EnumConverter(this);
+                    other = result;
+                }
+                return result;
+            }
+
+            @Override
+            public Object modelOf(String value) {
+                Object result = null;
+                if (caseInsensitive) {
+                    result = upperCaseValues.get(value.toUpperCase());
+                }
+                if (result == null) {
+                    result = names.get(value);
+                }
+                if (result == null) {
+                    throw new TypeConversionException(
+                            String.format("expected one of %s but was '%s'",
+                                    Arrays.asList(type.getEnumConstants()), value));
+                }
+                return result;
             }
         }
 
@@ -474,12 +708,97 @@ public class Interpreter {
         } // private constructor: never instantiate
     }
 
+    /**
+     * Converters available to a command: the converters registered for the command with
+     * {@link CommandLine#registerConverter(Class, ITypeConverter)}, backed by the process-wide
+     * built-in converters. Built-in converters cannot be removed, only replaced.
+     * <p>
+     * A type without a registered or built-in converter of its own uses the registered converter of
+     * its most specific supertype (other than {@code Object}), if any.
+     * </p>
+     */
+    private static class ConverterRegistry extends AbstractMap<Class<?>, ITypeConverter<?>> {
+        private final Map<Class<?>, ITypeConverter<?>> registered = new HashMap<>(4);
+        /** Registered converters resolved for subtypes of their types. */
+        private final Map<Class<?>, ITypeConverter<?>> inherited = Collections
+                .synchronizedMap(new HashMap<Class<?>, ITypeConverter<?>>());
+        private final String excludes = System.getProperty("picocli.converters.excludes", "");
+        private final Tracer tracer;
+
+        ConverterRegistry(Tracer tracer) {
+            this.tracer = tracer;
+        }
+
+        @Override
+        public ITypeConverter<?> get(Object key) {
+            ITypeConverter<?> result = registered.get(key);
+            if (result == null && key instanceof Class) {
+                result = BuiltIn.lookup((Class<?>) key, excludes, tracer);
+                if (result == null && !registered.isEmpty()) {
+                    result = inherited((Class<?>) key);
+                }
+            }
+            return result;
+        }
+
+        private ITypeConverter<?> inherited(Class<?> type) {
+            if (inherited.containsKey(type)) {
+                return inherited.get(type);
+            }
+            Class<?> best = null;
+            for (Class<?> candidate : registered.keySet()) {
+                if (candidate != Object.class && candidate.isAssignableFrom(type)
+                        && (best == null || best.isAssignableFrom(candidate))) {
+                    best = candidate;
+                }
+            }
+            ITypeConverter<?> result = best == null ? null : registered.get(best);
+            inherited.put(type, result);
+            return result;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public ITypeConverter<?> put(Class<?> key, ITypeConverter<?> value) {
+            ITypeConverter<?> previous = get(key);
+            registered.put(key, value);
+            inherited.clear();
+            return previous;
+        }
+
+        @Override
+        public ITypeConverter<?> remove(Object key) {
+            inherited.clear();
+            return registered.remove(key);
+        }
+
+        @Override
+        public Set<Map.Entry<Class<?>, ITypeConverter<?>>> entrySet() {
+            Map<Class<?>, ITypeConverter<?>> all = BuiltIn.available(excludes, tracer);
+            all.putAll(registered);
+            return Collections.unmodifiableMap(all).entrySet();
+        }
+    }
+
+    /**
+     * Resolves all built-in converters, including the converters of optional types like the
+     * {@code java.time} types, which are otherwise looked up reflectively when first needed.
+     */
+    static void resolveBuiltInConverters() {
+        BuiltIn.available("", new Tracer());
+    }
+
     private CommandLine commandLine;
     //TODO:private scope
-    public final Map<Class<?>, ITypeConverter<?>> converterRegistry = new HashMap<>();
-    private boolean isHelpRequested;
-    private int position;
-    private boolean endOfOptions;
+    public final Map<Class<?>, ITypeConverter<?>> converterRegistry;
+    /**
+     * Result of the last parse of a command that is not {@linkplain CommandSpec#isFrozen()
+     * frozen}; frozen commands keep all parse state in a {@link ParseContext} instead.
+     */
     //TODO:private scope
     public ParseResult.Builder parseResult;
     Tracer tracer;
@@ -487,7 +806,7 @@ public class Interpreter {
     public Interpreter(CommandLine commandLine, Tracer tracer) {
         this.commandLine = commandLine;
         this.tracer = tracer;
-        registerBuiltInConverters();
+        this.converterRegistry = new ConverterRegistry(tracer);
     }
 
     /**
@@ -500,6 +819,82 @@ public class Interpreter {
      *             if the specified command line arguments are invalid
      */
     public List<CommandLine> parse(String... args) {
+        List<CommandLine> result = new ArrayList<>();
+        parse(result, args);
+        return result;
+    }
+
+    /**
+     * Parses the specified command line arguments and returns the result. Unlike
+     * {@link #parse(String...)}, the result does not depend on state retained by this
+     * interpreter, so this method may be called concurrently if the command is
+     * {@linkplain CommandSpec#isFrozen() frozen}.
+     * 
+     * @param args
+     *            the command line arguments
+     * @return the result of the parse
+     * @throws ParameterException
+     *             if the specified command line arguments are invalid
+     * @since 4.0
+     */
+    public ParseResult parseArgs(String... args) {
+        return parse(new ArrayList<CommandLine>(), args).parseResult.build();
+    }
+
+    /**
+     * Parses each of the specified argument vectors in parallel and returns their results in
+     * input order. The argument vectors are split into chunks run on the specified executor, or
+     * on the {@linkplain ForkJoinPool#commonPool() common pool} if {@code null}.
+     * 
+     * @param argsList
+     *            the argument vectors to parse
+     * @param executor
+     *            the executor to parse with, or {@code null}
+     * @return the result or error of each argument vector
+     * @throws IllegalStateException
+     *             if the command is not {@linkplain CommandSpec#isFrozen() frozen}
+     * @since 4.0
+     */
+    public BatchParseResult parseArgsBatch(List<String[]> argsList, Executor executor) {
+        CommandSpec spec = commandLine.getCommandSpec();
+        if (!spec.isFrozen()) {
+            throw new IllegalStateException(
+                    "Command '" + spec.name() + "' must be frozen to be parsed in parallel");
+        }
+        final String[][] vectors = argsList.toArray(new String[argsList.size()][]);
+        final ParseResult[] results = new ParseResult[vectors.length];
+        final RuntimeException[] errors = new RuntimeException[vectors.length];
+        // a few chunks per processor: enough to balance the load, few enough to be cheap
+        int chunkCount = Math.min(vectors.length,
+                Runtime.getRuntime().availableProcessors() * 4);
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            final int from = (int) ((long) vectors.length * i / chunkCount);
+            final int to = (int) ((long) vectors.length * (i + 1) / chunkCount);
+            chunks[i] = CompletableFuture.runAsync(new Runnable() {
+                public void run() {
+                    for (int index = from; index < to; index++) {
+                        try {
+                            results[index] = parseArgs(vectors[index]);
+                        } catch (RuntimeException ex) {
+                            errors[index] = ex;
+                        }
+                    }
+                }
+            }, executor == null ? ForkJoinPool.commonPool() : executor);
+        }
+        try {
+            CompletableFuture.allOf(chunks).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+        return new BatchParseResult(results, errors);
+    }
+
+    private ParseContext parse(List<CommandLine> parsedCommands, String... args) {
         Assert.notNull(args, "argument array");
         if (tracer.isInfo()) {
             tracer.info("Parsing %d command line args %s%n", args.length, Arrays.toString(args));
@@ -507,15 +902,20 @@ public class Interpreter {
         if (tracer.isDebug()) {
             tracer.debug("Parser configuration: %s%n", config());
         }
-        List<String> expanded = new ArrayList<>();
-        for (String arg : args) {
-            addOrExpand(arg, expanded, new LinkedHashSet<String>());
+        // shared by the parse results of this command and all its subcommands
+        List<String> originalArgs = Collections.unmodifiableList(Arrays.asList(args.clone()));
+        if (!config().expandAtFiles() || !ArgumentFileExpander.hasArgumentFiles(args)) {
+            return parse(parsedCommands, new ArgumentCursor(args), originalArgs,
+                    new ArrayList<>());
+        }
+        ArgumentFileExpander expander = new ArgumentFileExpander(args, config(), tracer);
+        try {
+            ArgumentCursor cursor = config().atFileStreaming() ? new ArgumentCursor(expander)
+                    : new ArgumentCursor(expander.expandAll());
+            return parse(parsedCommands, cursor, originalArgs, new ArrayList<>());
+        } finally {
+            expander.close();
         }
-        Stack<String> arguments = new Stack<>();
-        arguments.addAll(CollectionUtilsExt.reverse(expanded));
-        List<CommandLine> result = new ArrayList<>();
-        parse(result, arguments, args, new ArrayList<>());
-        return result;
     }
 
     char[] readPassword(String prompt, boolean echoInput) {
@@ -544,27 +944,8 @@ public class Interpreter {
         }
     }
 
-    private void addOrExpand(String arg, List<String> arguments, Set<String> visited) {
-        if (config().expandAtFiles() && !arg.equals("@") && arg.startsWith("@")) {
-            arg = arg.substring(1);
-            if (arg.startsWith("@")) {
-                if (tracer.isInfo()) {
-                    tracer.info("Not expanding @-escaped argument %s (trimmed leading '@' char)%n",
-                            arg);
-                }
-            } else {
-                if (tracer.isInfo()) {
-                    tracer.info("Expanding argument file @%s%n", arg);
-                }
-                expandArgumentFile(arg, arguments, visited);
-                return;
-            }
-        }
-        arguments.add(arg);
-    }
-
-    private void applyDefault(IDefaultValueProvider defaultValueProvider, ArgSpec arg,
-            List<ArgSpec> required) throws Exception {
+    private void applyDefault(ParseContext ctx, IDefaultValueProvider defaultValueProvider,
+            ArgSpec arg, List<ArgSpec> required) throws Exception {
 
         // Default value provider return value is only used if provider exists and if value
         // is not null otherwise the original default or initial value are used
@@ -579,38 +960,40 @@ public class Interpreter {
         }
         Range arity = arg.arity().min(Math.max(1, arg.arity().min));
 
-        applyOption(arg, LookBehind.SEPARATE, arity, stack(defaultValue), new HashSet<ArgSpec>(),
-                arg.toString);
+        applyOption(ctx, arg, LookBehind.SEPARATE, arity, ArgumentCursor.of(defaultValue),
+                new HashSet<ArgSpec>(), arg.toString);
         required.remove(arg);
     }
 
-    private void applyDefaultValues(List<ArgSpec> required) throws Exception {
-        parseResult.isInitializingDefaultValues = true;
+    private void applyDefaultValues(ParseContext ctx, List<ArgSpec> required) throws Exception {
+        ctx.parseResult.isInitializingDefaultValues = true;
         for (OptionSpec option : commandLine.getCommandSpec().options()) {
-            applyDefault(commandLine.getCommandSpec().defaultValueProvider(), option, required);
+            applyDefault(ctx, commandLine.getCommandSpec().defaultValueProvider(), option,
+                    required);
         }
         for (PositionalParamSpec positional : commandLine.getCommandSpec().positionalParameters()) {
-            applyDefault(commandLine.getCommandSpec().defaultValueProvider(), positional, required);
+            applyDefault(ctx, commandLine.getCommandSpec().defaultValueProvider(), positional,
+                    required);
         }
-        parseResult.isInitializingDefaultValues = false;
+        ctx.parseResult.isInitializingDefaultValues = false;
     }
 
-    private int applyOption(ArgSpec argSpec, LookBehind lookBehind, Range arity, Stack<String> args,
-            Set<ArgSpec> initialized, String argDescription) throws Exception {
-        updateHelpRequested(argSpec);
+    private int applyOption(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind, Range arity,
+            ArgumentCursor args, Set<ArgSpec> initialized, String argDescription) throws Exception {
+        updateHelpRequested(ctx, argSpec);
         boolean consumeOnlyOne = commandLine.getCommandSpec().parser()
                 .aritySatisfiedByAttachedOptionParam() && lookBehind.isAttached();
-        Stack<String> workingStack = args;
+        ArgumentCursor workingStack = args;
         if (consumeOnlyOne) {
-            workingStack = args.isEmpty() ? args : stack(args.pop());
+            workingStack = args.isEmpty() ? args : ArgumentCursor.of(args.pop());
         } else {
-            if (!assertNoMissingParameters(argSpec, arity, args))
+            if (!assertNoMissingParameters(ctx, argSpec, arity, args))
                 return 0;
         }
 
         if (argSpec.interactive()) {
             String name = argSpec.isOption() ? ((OptionSpec) argSpec).longestName()
-                    : "position " + position;
+                    : "position " + ctx.position;
             String prompt = String.format("Enter value for %s (%s): ", name,
                     Utils.safeGet(argSpec.renderedDescription(), 0));
             if (tracer.isDebug()) {
@@ -625,67 +1008,80 @@ public class Interpreter {
 
         int result;
         if (argSpec.type().isArray()) {
-            result = applyValuesToArrayField(argSpec, lookBehind, arity, workingStack, initialized,
-                    argDescription);
+            result = applyValuesToArrayField(ctx, argSpec, lookBehind, arity, workingStack,
+                    initialized, argDescription);
         } else if (Collection.class.isAssignableFrom(argSpec.type())) {
-            result = applyValuesToCollectionField(argSpec, lookBehind, arity, workingStack,
+            result = applyValuesToCollectionField(ctx, argSpec, lookBehind, arity, workingStack,
                     initialized, argDescription);
         } else if (Map.class.isAssignableFrom(argSpec.type())) {
-            result = applyValuesToMapField(argSpec, lookBehind, arity, workingStack, initialized,
-                    argDescription);
+            result = applyValuesToMapField(ctx, argSpec, lookBehind, arity, workingStack,
+                    initialized, argDescription);
         } else {
-            result = applyValueToSingleValuedField(argSpec, lookBehind, arity, workingStack,
+            result = applyValueToSingleValuedField(ctx, argSpec, lookBehind, arity, workingStack,
                     initialized, argDescription);
         }
         if (workingStack != args && !workingStack.isEmpty()) {
             args.push(workingStack.pop());
             if (!workingStack.isEmpty())
                 throw new IllegalStateException(
-                        "Working stack should be empty but was " + new ArrayList<>(workingStack));
+                        "Working stack should be empty but was " + workingStack.remainder());
         }
         return result;
     }
 
-    private int applyValuesToArrayField(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            Stack<String> args, Set<ArgSpec> initialized, String argDescription) throws Exception {
-        Object existing = argSpec.getValue();
-        int length = existing == null ? 0 : Array.getLength(existing);
+    private int applyValuesToArrayField(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind,
+            Range arity, ArgumentCursor args, Set<ArgSpec> initialized,
+            String argDescription) throws Exception {
         Class<?> type = argSpec.auxiliaryTypes()[0];
-        List<Object> converted = consumeArguments(argSpec, lookBehind, arity, args, type,
-                argDescription);
-        List<Object> newValues = new ArrayList<>();
-        if (initialized.contains(argSpec)) { // existing values are default values if initialized does NOT contain argsSpec
-            for (int i = 0; i < length; i++) {
-                newValues.add(Array.get(existing, i)); // keep non-default values
-            }
-        }
-        initialized.add(argSpec);
-        for (Object obj : converted) {
-            if (obj instanceof Collection<?>) {
-                newValues.addAll((Collection<?>) obj);
-            } else {
-                newValues.add(obj);
+        ArrayBuffer buffer = ctx.arrays.get(argSpec);
+        if (buffer == null || !initialized.contains(argSpec)) {
+            buffer = ArrayBuffer.create(type);
+            // existing values are default values if initialized does NOT contain argsSpec
+            Object existing = initialized.contains(argSpec) ? ctx.parseResult.value(argSpec) : null;
+            if (existing != null) {
+                buffer.addArray(existing); // keep non-default values
             }
         }
-        Object array = Array.newInstance(type, newValues.size());
-        for (int i = 0; i < newValues.size(); i++) {
-            Array.set(array, i, newValues.get(i));
+        int size = buffer.size;
+        List<Object> converted;
+        try {
+            converted = consumeArguments(ctx, argSpec, lookBehind, arity, args, type, buffer,
+                    argDescription);
+        } catch (Exception ex) {
+            buffer.size = size; // drop the values of an invalid occurrence
+            throw ex;
         }
-        argSpec.setValue(array, commandLine.getCommandSpec().commandLine());
-        parseResult.add(argSpec, position);
+        ctx.arrays.put(argSpec, buffer);
+        initialized.add(argSpec);
+        ctx.parseResult.add(argSpec, ctx.position);
         return converted.size(); // return how many args were consumed
     }
 
+    /**
+     * Sets the values of the array-typed arguments buffered during the parse, creating each array
+     * only once.
+     */
+    private void publishArrays(ParseContext ctx) throws Exception {
+        for (Map.Entry<ArgSpec, ArrayBuffer> entry : ctx.arrays.entrySet()) {
+            ctx.parseResult.value(entry.getKey(), entry.getValue().toArray(),
+                    commandLine.getCommandSpec().commandLine());
+        }
+        ctx.arrays.clear();
+    }
+
     @SuppressWarnings("unchecked")
-    private int applyValuesToCollectionField(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            Stack<String> args, Set<ArgSpec> initialized, String argDescription) throws Exception {
-        Collection<Object> collection = (Collection<Object>) argSpec.getValue();
+    private int applyValuesToCollectionField(ParseContext ctx, ArgSpec argSpec,
+            LookBehind lookBehind, Range arity, ArgumentCursor args, Set<ArgSpec> initialized,
+            String argDescription) throws Exception {
+        Collection<Object> collection = (Collection<Object>) ctx.parseResult.value(argSpec);
         Class<?> type = argSpec.auxiliaryTypes()[0];
-        List<Object> converted = consumeArguments(argSpec, lookBehind, arity, args, type,
-                argDescription);
-        if (collection == null || (!collection.isEmpty() && !initialized.contains(argSpec))) {
+        List<Object> converted = consumeArguments(ctx, argSpec, lookBehind, arity, args, type,
+                null, argDescription);
+        // never modify the initial value of a frozen command: it is shared by all parses
+        if (collection == null || (!initialized.contains(argSpec)
+                && (!collection.isEmpty() || ctx.isDetached()))) {
             collection = createCollection(argSpec.type()); // collection type
-            argSpec.setValue(collection, commandLine.getCommandSpec().commandLine());
+            ctx.parseResult.value(argSpec, collection, commandLine.getCommandSpec().commandLine());
         }
         initialized.add(argSpec);
         for (Object element : converted) {
@@ -695,13 +1091,14 @@ public class Interpreter {
                 collection.add(element);
             }
         }
-        parseResult.add(argSpec, position);
-        argSpec.setValue(collection, commandLine.getCommandSpec().commandLine());
+        ctx.parseResult.add(argSpec, ctx.position);
+        ctx.parseResult.value(argSpec, collection, commandLine.getCommandSpec().commandLine());
         return converted.size();
     }
 
-    private int applyValuesToMapField(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            Stack<String> args, Set<ArgSpec> initialized, String argDescription) throws Exception {
+    private int applyValuesToMapField(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind,
+            Range arity, ArgumentCursor args, Set<ArgSpec> initialized,
+            String argDescription) throws Exception {
         Class<?>[] classes = argSpec.auxiliaryTypes();
         if (classes.length < 2)
             throw new ParameterException(commandLine, argSpec.toString()
@@ -710,23 +1107,25 @@ public class Interpreter {
         ITypeConverter<?> keyConverter = getTypeConverter(classes[0], argSpec, 0);
         ITypeConverter<?> valueConverter = getTypeConverter(classes[1], argSpec, 1);
         @SuppressWarnings("unchecked")
-        Map<Object, Object> map = (Map<Object, Object>) argSpec.getValue();
-        if (map == null || (!map.isEmpty() && !initialized.contains(argSpec))) {
-            map = createMap(argSpec.type()); // map class
-            argSpec.setValue(map, commandLine.getCommandSpec().commandLine());
+        Map<Object, Object> map = (Map<Object, Object>) ctx.parseResult.value(argSpec);
+        if (map == null
+                || (!initialized.contains(argSpec) && (!map.isEmpty() || ctx.isDetached()))) {
+            // at most one entry per value this option consumes now
+            map = createMap(argSpec.type(), Math.min(arity.max, args.sizeHint())); // map class
+            ctx.parseResult.value(argSpec, map, commandLine.getCommandSpec().commandLine());
         }
         initialized.add(argSpec);
         int originalSize = map.size();
-        consumeMapArguments(argSpec, lookBehind, arity, args, classes, keyConverter, valueConverter,
-                map, argDescription);
-        parseResult.add(argSpec, position);
-        argSpec.setValue(map, commandLine.getCommandSpec().commandLine());
+        consumeMapArguments(ctx, argSpec, lookBehind, arity, args, classes, keyConverter,
+                valueConverter, map, argDescription);
+        ctx.parseResult.add(argSpec, ctx.position);
+        ctx.parseResult.value(argSpec, map, commandLine.getCommandSpec().commandLine());
         return map.size() - originalSize;
     }
 
-    private int applyValueToSingleValuedField(ArgSpec argSpec, LookBehind lookBehind,
-            Range derivedArity, Stack<String> args, Set<ArgSpec> initialized, String argDescription)
-            throws Exception {
+    private int applyValueToSingleValuedField(ParseContext ctx, ArgSpec argSpec,
+            LookBehind lookBehind, Range derivedArity, ArgumentCursor args,
+                    Set<ArgSpec> initialized, String argDescription) throws Exception {
         boolean noMoreValues = args.isEmpty();
         String value = args.isEmpty() ? null : trim(args.pop()); // unquote the value
         Range arity = argSpec.arity().isUnspecified ? derivedArity : argSpec.arity(); // #509
@@ -747,7 +1146,7 @@ public class Interpreter {
                         || "false".equalsIgnoreCase(value)) {
                     result = 1; // if it is a varargs we only consume 1 argument if it is a boolean value
                     if (!lookBehind.isAttached()) {
-                        parseResult.nowProcessing(argSpec, value);
+                        ctx.parseResult.nowProcessing(argSpec, value);
                     }
                 } else if (lookBehind != LookBehind.ATTACHED_WITH_SEPARATOR) { // if attached, try converting the value to boolean (and fail if invalid value)
                     // it's okay to ignore value if not attached to option
@@ -755,7 +1154,7 @@ public class Interpreter {
                         args.push(value); // we don't consume the value
                     }
                     if (commandLine.getCommandSpec().parser().toggleBooleanFlags()) {
-                        Boolean currentValue = (Boolean) argSpec.getValue();
+                        Boolean currentValue = (Boolean) ctx.parseResult.value(argSpec);
                         value = String.valueOf(currentValue == null || !currentValue); // #147 toggle existing boolean value
                     } else {
                         value = "true";
@@ -769,20 +1168,41 @@ public class Interpreter {
                     value = "";
                 } else {
                     if (!lookBehind.isAttached()) {
-                        parseResult.nowProcessing(argSpec, value);
+                        ctx.parseResult.nowProcessing(argSpec, value);
                     }
                 }
             }
         } else {
             if (!lookBehind.isAttached()) {
-                parseResult.nowProcessing(argSpec, value);
+                ctx.parseResult.nowProcessing(argSpec, value);
             }
         }
         if (noMoreValues && value == null)
             return 0;
         ITypeConverter<?> converter = getTypeConverter(cls, argSpec, 0);
-        Object newValue = modelOf(argSpec, -1, converter, value, cls);
-        Object oldValue = argSpec.getValue();
+        // primitive fields are converted and set without boxing; only the parse result gets a box
+        Class<?> primitive = ctx.isDetached() ? null : primitiveType(argSpec, converter);
+        int intValue = 0;
+        long longValue = 0L;
+        double doubleValue = 0d;
+        boolean booleanValue = false;
+        Object newValue;
+        if (primitive == int.class) {
+            intValue = intOf(argSpec, -1, (ITypeConverter.OfInt) converter, value);
+            newValue = intValue;
+        } else if (primitive == long.class) {
+            longValue = longOf(argSpec, -1, (ITypeConverter.OfLong) converter, value);
+            newValue = longValue;
+        } else if (primitive == double.class) {
+            doubleValue = doubleOf(argSpec, -1, (ITypeConverter.OfDouble) converter, value);
+            newValue = doubleValue;
+        } else if (primitive == boolean.class) {
+            booleanValue = booleanOf(argSpec, -1, (ITypeConverter.OfBoolean) converter, value);
+            newValue = booleanValue;
+        } else {
+            newValue = modelOf(argSpec, -1, converter, value, cls);
+        }
+        Object oldValue = tracer.isInfo() ? ctx.parseResult.value(argSpec) : null;
         String traceMessage = "Setting %s to '%3$s' (was '%2$s') for %4$s%n";
         if (initialized != null) {
             if (initialized.contains(argSpec)) {
@@ -797,17 +1217,28 @@ public class Interpreter {
             tracer.info(traceMessage, argSpec.toString(), String.valueOf(oldValue),
                     String.valueOf(newValue), argDescription);
         }
-        argSpec.setValue(newValue, commandLine.getCommandSpec().commandLine());
-        parseResult.addOriginalStringValue(argSpec, value);// #279 track empty string value if no command line argument was consumed
-        parseResult.addStringValue(argSpec, value);
-        parseResult.addTypedValues(argSpec, position, newValue);
-        parseResult.add(argSpec, position);
+        CommandLine target = commandLine.getCommandSpec().commandLine();
+        if (primitive == int.class) {
+            argSpec.setInt(intValue, target);
+        } else if (primitive == long.class) {
+            argSpec.setLong(longValue, target);
+        } else if (primitive == double.class) {
+            argSpec.setDouble(doubleValue, target);
+        } else if (primitive == boolean.class) {
+            argSpec.setBoolean(booleanValue, target);
+        } else {
+            ctx.parseResult.value(argSpec, newValue, target);
+        }
+        ctx.parseResult.addOriginalStringValue(argSpec, value);// #279 track empty string value if no command line argument was consumed
+        ctx.parseResult.addStringValue(argSpec, value);
+        ctx.parseResult.addTypedValues(argSpec, ctx.position, newValue);
+        ctx.parseResult.add(argSpec, ctx.position);
         return result;
     }
 
-    private void assertNoMissingMandatoryParameter(ArgSpec argSpec, Stack<String> args, int i,
-            Range arity) {
-        if (!varargCanConsumeNextValue(argSpec, args.peek())) {
+    private void assertNoMissingMandatoryParameter(ParseContext ctx, ArgSpec argSpec,
+            ArgumentCursor args, int i, Range arity) {
+        if (!varargCanConsumeNextValue(ctx, argSpec, args.peek())) {
             String desc = arity.min > 1 ? (i + 1) + " (of " + arity.min + " mandatory parameters) "
                     : "";
             throw new MissingParameterException(commandLine, argSpec,
@@ -816,10 +1247,11 @@ public class Interpreter {
         }
     }
 
-    private boolean assertNoMissingParameters(ArgSpec argSpec, Range arity, Stack<String> args) {
+    private boolean assertNoMissingParameters(ParseContext ctx, ArgSpec argSpec, Range arity,
+            ArgumentCursor args) {
         if (argSpec.interactive())
             return true;
-        int available = args.size();
+        int available = args.available(arity.min);
         if (available > 0 && commandLine.getCommandSpec().parser().splitFirst()
                 && argSpec.splitRegex().length() > 0) {
             available += argSpec.splitValue(args.peek(), commandLine.getCommandSpec().parser(),
@@ -828,7 +1260,7 @@ public class Interpreter {
         if (arity.min > available) {
             if (arity.min == 1) {
                 if (argSpec.isOption()) {
-                    maybeThrow(new MissingParameterException(commandLine, argSpec,
+                    maybeThrow(ctx, new MissingParameterException(commandLine, argSpec,
                             "Missing required parameter for " + optionDescription("", argSpec, 0)));
                     return false;
                 }
@@ -850,16 +1282,16 @@ public class Interpreter {
                 if (count > 1 || arity.min - available > 1) {
                     msg += "s";
                 }
-                maybeThrow(new MissingParameterException(commandLine, argSpec, msg + names));
+                maybeThrow(ctx, new MissingParameterException(commandLine, argSpec, msg + names));
             } else if (args.isEmpty()) {
-                maybeThrow(new MissingParameterException(commandLine, argSpec,
+                maybeThrow(ctx, new MissingParameterException(commandLine, argSpec,
                         optionDescription("", argSpec, 0) + " requires at least " + arity.min
                                 + " values, but none were specified."));
             } else {
-                maybeThrow(new MissingParameterException(commandLine, argSpec,
+                maybeThrow(ctx, new MissingParameterException(commandLine, argSpec,
                         optionDescription("", argSpec, 0) + " requires at least " + arity.min
-                                + " values, but only " + available + " were specified: "
-                                + CollectionUtilsExt.reverse(ObjectUtils.clone(args))));
+                                + " values, but only " + args.size() + " were specified: "
+                                + args.remainder()));
             }
             return false;
         }
@@ -877,7 +1309,7 @@ public class Interpreter {
             //                    return false;
             //                }
             for (String value : values) {
-                modelOf(argSpec, -1, converter, value, type);
+                checkModelOf(argSpec, converter, value, type);
             }
             return true;
         } catch (PicocliException ex) {
@@ -906,17 +1338,19 @@ public class Interpreter {
         }
     }
 
-    private void clear() {
-        position = 0;
-        endOfOptions = false;
-        isHelpRequested = false;
-        parseResult = ParseResult.builder(commandLine.getCommandSpec());
+    private ParseContext clear() {
+        ParseContext ctx = new ParseContext(commandLine.getCommandSpec());
+        if (ctx.isDetached()) {
+            return ctx; // frozen: matched values and initial values live in the new context only
+        }
+        parseResult = ctx.parseResult;
         for (OptionSpec option : commandLine.getCommandSpec().options()) {
             clear(option);
         }
         for (PositionalParamSpec positional : commandLine.getCommandSpec().positionalParameters()) {
             clear(positional);
         }
+        return ctx;
     }
 
     private void clear(ArgSpec argSpec) {
@@ -926,7 +1360,8 @@ public class Interpreter {
         argSpec.typedValueAtPosition.clear();
         if (argSpec.hasInitialValue()) {
             try {
-                argSpec.setter().set(argSpec.initialValue());
+                argSpec.assignValue(argSpec.initialValue(),
+                        commandLine.getCommandSpec().commandLine());
                 tracer.debug("Set initial value for %s of type %s to %s.%n", argSpec,
                         argSpec.type(), String.valueOf(argSpec.initialValue()));
             } catch (Exception ex) {
@@ -942,137 +1377,150 @@ public class Interpreter {
         return commandLine.getCommandSpec().parser();
     }
 
-    private List<Object> consumeArguments(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            Stack<String> args, Class<?> type, String argDescription) throws Exception {
+    /**
+     * Converts the values of a multi-value argument, also appending them to the specified buffer
+     * if the argument is an array.
+     */
+    private List<Object> consumeArguments(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind,
+            Range arity, ArgumentCursor args, Class<?> type, ArrayBuffer buffer,
+            String argDescription) throws Exception {
         List<Object> result = new ArrayList<>();
 
-        // don't modify Interpreter.position: same position may be consumed by multiple ArgSpec objects
-        int currentPosition = position;
+        // don't modify ParseContext.position: same position may be consumed by multiple ArgSpec objects
+        int currentPosition = ctx.position;
 
         // first do the arity.min mandatory parameters
-        int initialSize = argSpec.stringValues().size();
-        int consumed = consumedCount(0, initialSize, argSpec);
+        int initialSize = ctx.parseResult.stringValueCount(argSpec);
+        int consumed = consumedCount(ctx, 0, initialSize, argSpec);
         for (int i = 0; consumed < arity.min && !args.isEmpty(); i++) {
             List<Object> typedValuesAtPosition = new ArrayList<>();
-            parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
-            assertNoMissingMandatoryParameter(argSpec, args, i, arity);
-            consumeOneArgument(argSpec, lookBehind, arity, consumed, args.pop(), type,
-                    typedValuesAtPosition, i, argDescription);
+            ctx.parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
+            assertNoMissingMandatoryParameter(ctx, argSpec, args, i, arity);
+            consumeOneArgument(ctx, argSpec, lookBehind, arity, consumed, args.pop(), type,
+                    typedValuesAtPosition, buffer, i, argDescription);
             result.addAll(typedValuesAtPosition);
-            consumed = consumedCount(i + 1, initialSize, argSpec);
+            consumed = consumedCount(ctx, i + 1, initialSize, argSpec);
             lookBehind = LookBehind.SEPARATE;
         }
         // now process the varargs if any
         for (int i = consumed; consumed < arity.max && !args.isEmpty(); i++) {
-            if (!varargCanConsumeNextValue(argSpec, args.peek())) {
+            if (!varargCanConsumeNextValue(ctx, argSpec, args.peek())) {
                 break;
             }
 
             List<Object> typedValuesAtPosition = new ArrayList<>();
-            parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
+            ctx.parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
             if (!canConsumeOneArgument(argSpec, arity, consumed, args.peek(), type,
                     argDescription)) {
                 break; // leave empty list at argSpec.typedValueAtPosition[currentPosition] so we won't try to consume that position again
             }
-            consumeOneArgument(argSpec, lookBehind, arity, consumed, args.pop(), type,
-                    typedValuesAtPosition, i, argDescription);
+            consumeOneArgument(ctx, argSpec, lookBehind, arity, consumed, args.pop(), type,
+                    typedValuesAtPosition, buffer, i, argDescription);
             result.addAll(typedValuesAtPosition);
-            consumed = consumedCount(i + 1, initialSize, argSpec);
+            consumed = consumedCount(ctx, i + 1, initialSize, argSpec);
             lookBehind = LookBehind.SEPARATE;
         }
-        if (result.isEmpty() && arity.min == 0 && arity.max <= 1 && ClassUtilsExt.isBoolean(type))
+        if (result.isEmpty() && arity.min == 0 && arity.max <= 1 && ClassUtilsExt.isBoolean(type)) {
+            if (buffer != null) {
+                buffer.add(Boolean.TRUE);
+            }
             return Arrays.asList((Object) Boolean.TRUE);
+        }
         return result;
     }
 
-    private int consumedCount(int i, int initialSize, ArgSpec arg) {
+    private int consumedCount(ParseContext ctx, int i, int initialSize, ArgSpec arg) {
         return commandLine.getCommandSpec().parser().splitFirst()
-                ? arg.stringValues().size() - initialSize
+                ? ctx.parseResult.stringValueCount(arg) - initialSize
                 : i;
     }
 
-    private int consumedCountMap(int i, int initialSize, ArgSpec arg) {
+    private int consumedCountMap(ParseContext ctx, int i, int initialSize, ArgSpec arg) {
         return commandLine.getCommandSpec().parser().splitFirst()
-                ? (arg.stringValues().size() - initialSize) / 2
+                ? (ctx.parseResult.stringValueCount(arg) - initialSize) / 2
                 : i;
     }
 
-    private void consumeMapArguments(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            Stack<String> args, Class<?>[] classes, ITypeConverter<?> keyConverter,
-            ITypeConverter<?> valueConverter, Map<Object, Object> result, String argDescription)
-            throws Exception {
+    private void consumeMapArguments(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind,
+            Range arity, ArgumentCursor args, Class<?>[] classes, ITypeConverter<?> keyConverter,
+            ITypeConverter<?> valueConverter, Map<Object, Object> result,
+            String argDescription) throws Exception {
 
-        // don't modify Interpreter.position: same position may be consumed by multiple ArgSpec objects
-        int currentPosition = position;
+        // don't modify ParseContext.position: same position may be consumed by multiple ArgSpec objects
+        int currentPosition = ctx.position;
 
         // first do the arity.min mandatory parameters
-        int initialSize = argSpec.stringValues().size();
-        int consumed = consumedCountMap(0, initialSize, argSpec);
+        int initialSize = ctx.parseResult.stringValueCount(argSpec);
+        int consumed = consumedCountMap(ctx, 0, initialSize, argSpec);
         for (int i = 0; consumed < arity.min && !args.isEmpty(); i++) {
             Map<Object, Object> typedValuesAtPosition = new LinkedHashMap<>();
-            parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
-            assertNoMissingMandatoryParameter(argSpec, args, i, arity);
-            consumeOneMapArgument(argSpec, lookBehind, arity, consumed, args.pop(), classes,
+            ctx.parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
+            assertNoMissingMandatoryParameter(ctx, argSpec, args, i, arity);
+            consumeOneMapArgument(ctx, argSpec, lookBehind, arity, consumed, args.pop(), classes,
                     keyConverter, valueConverter, typedValuesAtPosition, i, argDescription);
             result.putAll(typedValuesAtPosition);
-            consumed = consumedCountMap(i + 1, initialSize, argSpec);
+            consumed = consumedCountMap(ctx, i + 1, initialSize, argSpec);
             lookBehind = LookBehind.SEPARATE;
         }
         // now process the varargs if any
         for (int i = consumed; consumed < arity.max && !args.isEmpty(); i++) {
-            if (!varargCanConsumeNextValue(argSpec, args.peek())) {
+            if (!varargCanConsumeNextValue(ctx, argSpec, args.peek())) {
                 break;
             }
 
             Map<Object, Object> typedValuesAtPosition = new LinkedHashMap<>();
-            parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
+            ctx.parseResult.addTypedValues(argSpec, currentPosition++, typedValuesAtPosition);
             if (!canConsumeOneMapArgument(argSpec, arity, consumed, args.peek(), classes,
                     keyConverter, valueConverter, argDescription)) {
                 break; // leave empty map at argSpec.typedValueAtPosition[currentPosition] so we won't try to consume that position again
             }
-            consumeOneMapArgument(argSpec, lookBehind, arity, consumed, args.pop(), classes,
+            consumeOneMapArgument(ctx, argSpec, lookBehind, arity, consumed, args.pop(), classes,
                     keyConverter, valueConverter, typedValuesAtPosition, i, argDescription);
             result.putAll(typedValuesAtPosition);
-            consumed = consumedCountMap(i + 1, initialSize, argSpec);
+            consumed = consumedCountMap(ctx, i + 1, initialSize, argSpec);
             lookBehind = LookBehind.SEPARATE;
         }
     }
 
-    private int consumeOneArgument(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            int consumed, String arg, Class<?> type, List<Object> result, int index,
-            String argDescription) {
+    private int consumeOneArgument(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind,
+            Range arity, int consumed, String arg, Class<?> type, List<Object> result,
+            ArrayBuffer buffer, int index, String argDescription) {
         if (!lookBehind.isAttached()) {
-            parseResult.nowProcessing(argSpec, arg);
+            ctx.parseResult.nowProcessing(argSpec, arg);
         }
         String raw = trim(arg);
         String[] values = argSpec.splitValue(raw, commandLine.getCommandSpec().parser(), arity,
                 consumed);
         ITypeConverter<?> converter = getTypeConverter(type, argSpec, 0);
         for (int j = 0; j < values.length; j++) {
-            result.add(modelOf(argSpec, index, converter, values[j], type));
+            result.add(modelOf(argSpec, index, converter, values[j], type, buffer));
             if (tracer.isInfo()) {
                 tracer.info("Adding [%s] to %s for %s%n",
                         String.valueOf(result.get(result.size() - 1)), argSpec.toString(),
                         argDescription);
             }
-            parseResult.addStringValue(argSpec, values[j]);
+            ctx.parseResult.addStringValue(argSpec, values[j]);
         }
-        parseResult.addOriginalStringValue(argSpec, raw);
+        ctx.parseResult.addOriginalStringValue(argSpec, raw);
         return ++index;
     }
 
-    private void consumeOneMapArgument(ArgSpec argSpec, LookBehind lookBehind, Range arity,
-            int consumed, String arg, Class<?>[] classes, ITypeConverter<?> keyConverter,
-            ITypeConverter<?> valueConverter, Map<Object, Object> result, int index,
-            String argDescription) {
+    private void consumeOneMapArgument(ParseContext ctx, ArgSpec argSpec, LookBehind lookBehind,
+            Range arity, int consumed, String arg, Class<?>[] classes,
+            ITypeConverter<?> keyConverter, ITypeConverter<?> valueConverter, Map<Object,
+            Object> result, int index, String argDescription) {
         if (!lookBehind.isAttached()) {
-            parseResult.nowProcessing(argSpec, arg);
+            ctx.parseResult.nowProcessing(argSpec, arg);
         }
         String raw = trim(arg);
         String[] values = argSpec.splitValue(raw, commandLine.getCommandSpec().parser(), arity,
                 consumed);
+        boolean intern = commandLine.getCommandSpec().parser().internMapKeys();
         for (String value : values) {
             String[] keyValue = splitKeyValue(argSpec, value);
+            if (intern) {
+                keyValue[0] = ctx.internMapKey(keyValue[0]);
+            }
             Object mapKey = modelOf(argSpec, index, keyConverter, keyValue[0], classes[0]);
             Object mapValue = modelOf(argSpec, index, valueConverter, keyValue[1], classes[1]);
             result.put(mapKey, mapValue);
@@ -1082,10 +1530,10 @@ public class Interpreter {
                         classes[0].getSimpleName(), classes[1].getSimpleName(), argSpec.toString(),
                         argDescription);
             }
-            parseResult.addStringValue(argSpec, keyValue[0]);
-            parseResult.addStringValue(argSpec, keyValue[1]);
+            ctx.parseResult.addStringValue(argSpec, keyValue[0]);
+            ctx.parseResult.addStringValue(argSpec, keyValue[1]);
         }
-        parseResult.addOriginalStringValue(argSpec, raw);
+        ctx.parseResult.addOriginalStringValue(argSpec, raw);
     }
 
     @SuppressWarnings("unchecked")
@@ -1106,65 +1554,19 @@ public class Interpreter {
     }
 
     @SuppressWarnings("unchecked")
-    private Map<Object, Object> createMap(Class<?> mapClass) throws Exception {
-        try { // if it is an implementation class, instantiate it
-            return (Map<Object, Object>) mapClass.getDeclaredConstructor().newInstance();
-        } catch (Exception ignored) {
+    private Map<Object, Object> createMap(Class<?> mapClass, int expectedSize) throws Exception {
+        // presize hash maps for more entries than the default capacity holds, to never rehash
+        int capacity = expectedSize <= 12 ? 16 : (int) Math.min(expectedSize / 0.75f + 1, 1 << 30);
+        if (mapClass == HashMap.class) {
+            return new HashMap<>(capacity);
         }
-        return new LinkedHashMap<>();
-    }
-
-    private void expandArgumentFile(String fileName, List<String> arguments, Set<String> visited) {
-        File file = new File(fileName);
-        if (!file.canRead()) {
-            if (tracer.isInfo()) {
-                tracer.info(
-                        "File %s does not exist or cannot be read; treating argument literally%n",
-                        fileName);
-            }
-            arguments.add("@" + fileName);
-        } else if (visited.contains(file.getAbsolutePath())) {
-            if (tracer.isInfo()) {
-                tracer.info("Already visited file %s; ignoring...%n", file.getAbsolutePath());
+        if (mapClass != LinkedHashMap.class) {
+            try { // if it is an implementation class, instantiate it
+                return (Map<Object, Object>) mapClass.getDeclaredConstructor().newInstance();
+            } catch (Exception ignored) {
             }
-        } else {
-            expandValidArgumentFile(fileName, file, arguments, visited);
         }
-    }
-
-    private void expandValidArgumentFile(String fileName, File file, List<String> arguments,
-            Set<String> visited) {
-        visited.add(file.getAbsolutePath());
-        List<String> result = new ArrayList<>();
-        LineNumberReader reader = null;
-        try {
-            reader = new LineNumberReader(new FileReader(file));
-            StreamTokenizer tok = new StreamTokenizer(reader);
-            tok.resetSyntax();
-            tok.wordChars(' ', 255);
-            tok.whitespaceChars(0, ' ');
-            tok.quoteChar('"');
-            tok.quoteChar('\'');
-            if (commandLine.getCommandSpec().parser().atFileCommentChar() != null) {
-                tok.commentChar(commandLine.getCommandSpec().parser().atFileCommentChar());
-            }
-            while (tok.nextToken() != StreamTokenizer.TT_EOF) {
-                addOrExpand(tok.sval, result, visited);
-            }
-        } catch (Exception ex) {
-            throw new InitializationException("Could not read argument file @" + fileName, ex);
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (Exception ignored) {
-                }
-            }
-        }
-        if (tracer.isInfo()) {
-            tracer.info("Expanded file @%s to arguments %s%n", fileName, result);
-        }
-        arguments.addAll(result);
+        return new LinkedHashMap<>(capacity);
     }
 
     /**
@@ -1200,47 +1602,28 @@ public class Interpreter {
      *         be synthesized on the fly.
      */
     ITypeConverter<?> getTypeConverter(final Class<?> type) {
-        if (converterRegistry.containsKey(type))
-            return converterRegistry.get(type);
-        else if (type.isEnum())
-            return new TypeConverter<Object>() {
-                @Override
-                @SuppressWarnings({ "unchecked", "rawtypes" })
-                public Object modelOf(String value) {
-                    if (commandLine.getCommandSpec().parser().caseInsensitiveEnumValuesAllowed()) {
-                        String upper = value.toUpperCase();
-                        for (Object enumConstant : type.getEnumConstants()) {
-                            if (upper.equals(String.valueOf(enumConstant).toUpperCase()))
-                                return enumConstant;
-                        }
-                    }
-                    try {
-                        return Enum.valueOf((Class<Enum>) type, value);
-                    } catch (Exception ex) {
-                        throw new TypeConversionException(
-                                String.format("expected one of %s but was '%s'",
-                                        Arrays.asList(type.getEnumConstants()), value));
-                    }
-                }
-            };
-        else
-            return null;
+        ITypeConverter<?> converter = converterRegistry.get(type);
+        if (converter instanceof BuiltIn.EnumConverter) {
+            return ((BuiltIn.EnumConverter) converter).caseInsensitive(
+                    commandLine.getCommandSpec().parser().caseInsensitiveEnumValuesAllowed());
+        }
+        return converter;
     }
 
-    private void handleUnmatchedArgument(Stack<String> args) throws Exception {
+    private void handleUnmatchedArgument(ParseContext ctx, ArgumentCursor args) throws Exception {
         if (!args.isEmpty()) {
-            handleUnmatchedArgument(args.pop());
+            handleUnmatchedArgument(ctx, args.pop());
         }
         if (config().stopAtUnmatched()) {
             // addAll would give args in reverse order
             while (!args.isEmpty()) {
-                handleUnmatchedArgument(args.pop());
+                handleUnmatchedArgument(ctx, args.pop());
             }
         }
     }
 
-    private void handleUnmatchedArgument(String arg) {
-        parseResult.unmatched.add(arg);
+    private void handleUnmatchedArgument(ParseContext ctx, String arg) {
+        ctx.parseResult.unmatched.add(arg);
     }
 
     private boolean is(ArgSpec p, String attribute, boolean value) {
@@ -1253,11 +1636,6 @@ public class Interpreter {
         return value;
     }
 
-    private boolean isAnyHelpRequested() {
-        return isHelpRequested || parseResult.versionHelpRequested
-                || parseResult.usageHelpRequested;
-    }
-
     /**
      * Called when parsing varargs parameters for a multi-value option. When an option is
      * encountered, the remainder should not be interpreted as vararg elements.
@@ -1267,31 +1645,13 @@ public class Interpreter {
      * @return true if it is an option, false otherwise
      */
     private boolean isOption(String arg) {
-        if (arg == null)
-            return false;
-        if ("--".equals(arg))
-            return true;
-
         // not just arg prefix: we may be in the middle of parsing -xrvfFILE
-        if (commandLine.getCommandSpec().optionsMap().containsKey(arg))
-            return true;
-        int separatorIndex = arg.indexOf(config().separator());
-        if (separatorIndex > 0) { // -f=FILE or --file==FILE (attached to param via separator)
-            if (commandLine.getCommandSpec().optionsMap()
-                    .containsKey(arg.substring(0, separatorIndex)))
-                return true;
-        }
-        return (arg.length() > 2 && arg.startsWith("-")
-                && commandLine.getCommandSpec().posixOptionsMap().containsKey(arg.charAt(1)));
-    }
-
-    private boolean isStandaloneOption(String arg) {
-        return commandLine.getCommandSpec().optionsMap().containsKey(arg);
+        return commandLine.getCommandSpec().argumentClassifier().isOption(arg);
     }
 
-    private void maybeThrow(PicocliException ex) throws PicocliException {
+    private void maybeThrow(ParseContext ctx, PicocliException ex) throws PicocliException {
         if (commandLine.getCommandSpec().parser().collectErrors) {
-            parseResult.addError(ex);
+            ctx.parseResult.addError(ex);
         } else
             throw ex;
     }
@@ -1313,9 +1673,10 @@ public class Interpreter {
         return desc;
     }
 
-    private void parse(List<CommandLine> parsedCommands, Stack<String> argumentStack,
-            String[] originalArgs, List<Object> nowProcessing) {
-        clear(); // first reset any state in case this CommandLine instance is being reused
+    private ParseContext parse(List<CommandLine> parsedCommands, ArgumentCursor argumentStack,
+            List<String> originalArgs, List<Object> nowProcessing) {
+        ParseContext ctx = clear(); // first reset any state in case this CommandLine instance is being reused
+        ctx.parseResult.originalArgs(originalArgs);
         if (tracer.isDebug()) {
             tracer.debug(
                     "Initializing %s: %d options, %d positional parameters, %d required, %d subcommands.%n",
@@ -1330,55 +1691,68 @@ public class Interpreter {
         Set<ArgSpec> initialized = new HashSet<>();
         Collections.sort(required, new PositionalParametersSorter());
         boolean continueOnError = commandLine.getCommandSpec().parser().collectErrors;
-        do {
-            int stackSize = argumentStack.size();
+        try {
+            do {
+                int position = argumentStack.position();
+                try {
+                    applyDefaultValues(ctx, required);
+                    processArguments(ctx, parsedCommands, argumentStack, required, initialized,
+                            originalArgs, nowProcessing);
+                } catch (ParameterException ex) {
+                    maybeThrow(ctx, ex);
+                } catch (Exception ex) {
+                    int offendingArgIndex = argumentStack.position() - 1;
+                    String arg = offendingArgIndex >= 0 && offendingArgIndex < originalArgs.size()
+                            ? originalArgs.get(offendingArgIndex)
+                            : "?";
+                    maybeThrow(ctx, ParameterException.create(commandLine, ex, arg,
+                            offendingArgIndex, originalArgs.toArray(new String[0])));
+                }
+                if (continueOnError && position == argumentStack.position()
+                        && !argumentStack.isEmpty()) {
+                    ctx.parseResult.unmatched.add(argumentStack.pop());
+                }
+            } while (!argumentStack.isEmpty() && continueOnError);
+        } finally {
             try {
-                applyDefaultValues(required);
-                processArguments(parsedCommands, argumentStack, required, initialized, originalArgs,
-                        nowProcessing);
-            } catch (ParameterException ex) {
-                maybeThrow(ex);
+                publishArrays(ctx);
             } catch (Exception ex) {
-                int offendingArgIndex = originalArgs.length - argumentStack.size() - 1;
-                String arg = offendingArgIndex >= 0 && offendingArgIndex < originalArgs.length
-                        ? originalArgs[offendingArgIndex]
-                        : "?";
-                maybeThrow(ParameterException.create(commandLine, ex, arg, offendingArgIndex,
-                        originalArgs));
-            }
-            if (continueOnError && stackSize == argumentStack.size() && stackSize > 0) {
-                parseResult.unmatched.add(argumentStack.pop());
-            }
-        } while (!argumentStack.isEmpty() && continueOnError);
-        if (!isAnyHelpRequested() && !required.isEmpty()) {
+                maybeThrow(ctx, ParameterException.create(commandLine, ex, "?", -1,
+                        originalArgs.toArray(new String[0])));
+            }
+        }
+        if (!ctx.isAnyHelpRequested() && !required.isEmpty()) {
             for (ArgSpec missing : required) {
                 if (missing.isOption()) {
-                    maybeThrow(MissingParameterException.create(commandLine, required,
+                    maybeThrow(ctx, MissingParameterException.create(commandLine, required,
                             config().separator()));
                 } else {
-                    assertNoMissingParameters(missing, missing.arity(), argumentStack);
+                    assertNoMissingParameters(ctx, missing, missing.arity(), argumentStack);
                 }
             }
         }
-        if (!parseResult.unmatched.isEmpty()) {
-            String[] unmatched = parseResult.unmatched.toArray(new String[0]);
-            for (UnmatchedArgsBinding unmatchedArgsBinding : commandLine.getCommandSpec()
-                    .unmatchedArgsBindings()) {
-                unmatchedArgsBinding.addAll(unmatched.clone());
+        if (!ctx.parseResult.unmatched.isEmpty()) {
+            String[] unmatched = ctx.parseResult.unmatched.toArray(new String[0]);
+            if (!ctx.isDetached()) { // frozen commands expose unmatched args via ParseResult only
+                for (UnmatchedArgsBinding unmatchedArgsBinding : commandLine.getCommandSpec()
+                        .unmatchedArgsBindings()) {
+                    unmatchedArgsBinding.addAll(unmatched.clone());
+                }
             }
             if (!commandLine.isUnmatchedArgumentsAllowed()) {
-                maybeThrow(new UnmatchedArgumentException(commandLine,
-                        Collections.unmodifiableList(parseResult.unmatched)));
+                maybeThrow(ctx, new UnmatchedArgumentException(commandLine,
+                        Collections.unmodifiableList(ctx.parseResult.unmatched)));
             }
             if (tracer.isInfo()) {
-                tracer.info("Unmatched arguments: %s%n", parseResult.unmatched);
+                tracer.info("Unmatched arguments: %s%n", ctx.parseResult.unmatched);
             }
         }
+        return ctx;
     }
 
-    private void processArguments(List<CommandLine> parsedCommands, Stack<String> args,
-            Collection<ArgSpec> required, Set<ArgSpec> initialized, String[] originalArgs,
-            List<Object> nowProcessing) throws Exception {
+    private void processArguments(ParseContext ctx, List<CommandLine> parsedCommands,
+            ArgumentCursor args, Collection<ArgSpec> required, Set<ArgSpec> initialized,
+            List<String> originalArgs, List<Object> nowProcessing) throws Exception {
         // arg must be one of:
         // 1. the "--" double dash separating options from positional arguments
         // 1. a stand-alone flag, like "-v" or "--verbose": no value required, must map to boolean or Boolean field
@@ -1388,43 +1762,69 @@ public class Interpreter {
         // 4. a combination of stand-alone options, like "-vxr". Equivalent to "-v -x -r", "-v true -x true -r true"
         // 5. a combination of stand-alone options and one option with an argument, like "-vxrffile"
 
-        parseResult.originalArgs(originalArgs);
-        parseResult.nowProcessing = nowProcessing;
+        ctx.parseResult.nowProcessing = nowProcessing;
         String separator = config().separator();
         while (!args.isEmpty()) {
-            if (endOfOptions) {
-                processRemainderAsPositionalParameters(required, initialized, args);
+            if (ctx.endOfOptions) {
+                processRemainderAsPositionalParameters(ctx, required, initialized, args);
                 return;
             }
             String arg = args.pop();
             if (tracer.isDebug()) {
                 tracer.debug("Processing argument '%s'. Remainder=%s%n", arg,
-                        CollectionUtilsExt.reverse(ObjectUtils.clone(args)));
+                        args.remainder());
+            }
+
+            ArgumentClassifier classifier = commandLine.getCommandSpec().argumentClassifier();
+            int classification = classifier.classify(arg);
+            int kind = ArgumentClassifier.kind(classification);
+            if (kind == ArgumentClassifier.AMBIGUOUS) {
+                int separatorIndex = ArgumentClassifier.separatorIndex(classification);
+                String abbreviation = separatorIndex > 0 ? arg.substring(0, separatorIndex) : arg;
+                StringBuilder candidates = new StringBuilder();
+                for (String candidate : classifier.candidates(abbreviation)) {
+                    candidates.append(candidates.length() > 0 ? ", '" : "'").append(candidate)
+                            .append('\'');
+                }
+                maybeThrow(ctx, new ParameterException(commandLine,
+                        "'" + abbreviation + "' is not unique: it matches " + candidates));
+                continue;
+            }
+            if (ArgumentClassifier.isAbbreviated(classification)
+                    && kind != ArgumentClassifier.ATTACHED) {
+                String name = kind == ArgumentClassifier.SUBCOMMAND
+                        ? classifier.resolveSubcommand(arg)
+                        : classifier.resolveOption(arg);
+                if (tracer.isDebug()) {
+                    tracer.debug("Resolved abbreviation '%s' to '%s'%n", arg, name);
+                }
+                arg = name;
             }
 
             // Double-dash separates options from positional arguments.
             // If found, then interpret the remaining args as positional parameters.
-            if (commandLine.getCommandSpec().parser.endOfOptionsDelimiter().equals(arg)) {
+            if (kind == ArgumentClassifier.END_OF_OPTIONS) {
                 tracer.info(
                         "Found end-of-options delimiter '--'. Treating remainder as positional parameters.%n");
-                endOfOptions = true;
-                processRemainderAsPositionalParameters(required, initialized, args);
+                ctx.endOfOptions = true;
+                processRemainderAsPositionalParameters(ctx, required, initialized, args);
                 return; // we are done
             }
 
             // if we find another command, we are done with the current command
-            if (commandLine.getCommandSpec().subcommands().containsKey(arg)) {
+            if (kind == ArgumentClassifier.SUBCOMMAND) {
                 CommandLine subcommand = commandLine.getCommandSpec().subcommands().get(arg);
                 nowProcessing.add(subcommand.getCommandSpec());
-                updateHelpRequested(subcommand.getCommandSpec());
-                if (!isAnyHelpRequested() && !required.isEmpty())
+                updateHelpRequested(ctx, subcommand.getCommandSpec());
+                if (!ctx.isAnyHelpRequested() && !required.isEmpty())
                     throw MissingParameterException.create(commandLine, required, separator);
                 if (tracer.isDebug()) {
                     tracer.debug("Found subcommand '%s' (%s)%n", arg,
                             subcommand.getCommandSpec().toString());
                 }
-                subcommand.interpreter.parse(parsedCommands, args, originalArgs, nowProcessing);
-                parseResult.subcommand(subcommand.interpreter.parseResult.build());
+                ParseContext subcommandContext = subcommand.interpreter.parse(parsedCommands, args,
+                        originalArgs, nowProcessing);
+                ctx.parseResult.subcommand(subcommandContext.parseResult.build());
                 return; // remainder done by the command
             }
 
@@ -1433,44 +1833,47 @@ public class Interpreter {
             // or an option may have one or more option parameters.
             // A parameter may be attached to the option.
             boolean paramAttachedToOption = false;
-            int separatorIndex = arg.indexOf(separator);
-            if (separatorIndex > 0) {
-                String key = arg.substring(0, separatorIndex);
+            if (kind == ArgumentClassifier.ATTACHED) {
                 // be greedy. Consume the whole arg as an option if possible.
-                if (commandLine.getCommandSpec().optionsMap().containsKey(key)
-                        && !commandLine.getCommandSpec().optionsMap().containsKey(arg)) {
-                    paramAttachedToOption = true;
-                    String optionParam = arg.substring(separatorIndex + separator.length());
-                    args.push(optionParam);
-                    arg = key;
-                    if (tracer.isDebug()) {
-                        tracer.debug("Separated '%s' option from '%s' option parameter%n", key,
-                                optionParam);
-                    }
-                } else {
+                int separatorIndex = ArgumentClassifier.separatorIndex(classification);
+                String key = arg.substring(0, separatorIndex);
+                if (ArgumentClassifier.isAbbreviated(classification)) {
+                    key = classifier.resolveOption(key);
                     if (tracer.isDebug()) {
-                        tracer.debug(
-                                "'%s' contains separator '%s' but '%s' is not a known option%n",
-                                arg, separator, key);
+                        tracer.debug("Resolved abbreviation '%s' to '%s'%n",
+                                arg.substring(0, separatorIndex), key);
                     }
                 }
-            } else {
+                paramAttachedToOption = true;
+                String optionParam = arg.substring(separatorIndex + separator.length());
+                args.push(optionParam);
+                arg = key;
+                kind = ArgumentClassifier.OPTION;
                 if (tracer.isDebug()) {
+                    tracer.debug("Separated '%s' option from '%s' option parameter%n", key,
+                            optionParam);
+                }
+            } else if (tracer.isDebug()) {
+                int separatorIndex = arg.indexOf(separator);
+                if (separatorIndex > 0) {
+                    tracer.debug("'%s' contains separator '%s' but '%s' is not a known option%n",
+                            arg, separator, arg.substring(0, separatorIndex));
+                } else {
                     tracer.debug("'%s' cannot be separated into <option>%s<option-parameter>%n",
                             arg, separator);
                 }
             }
-            if (isStandaloneOption(arg)) {
-                processStandaloneOption(required, initialized, arg, args, paramAttachedToOption);
+            if (kind == ArgumentClassifier.OPTION) {
+                processStandaloneOption(ctx, required, initialized, arg, args,
+                        paramAttachedToOption);
             }
             // Compact (single-letter) options can be grouped with other options or with an argument.
             // only single-letter options can be combined with other options or with an argument
-            else if (config().posixClusteredShortOptionsAllowed() && arg.length() > 2
-                    && arg.startsWith("-")) {
+            else if (kind == ArgumentClassifier.CLUSTER) {
                 if (tracer.isDebug()) {
                     tracer.debug("Trying to process '%s' as clustered short options%n", arg, args);
                 }
-                processClusteredShortOptions(required, initialized, arg, args);
+                processClusteredShortOptions(ctx, required, initialized, arg, args);
             }
             // The argument could not be interpreted as an option: process it as a positional argument
             else {
@@ -1481,7 +1884,7 @@ public class Interpreter {
                             arg);
                 }
                 if (commandLine.getCommandSpec().resemblesOption(arg, tracer)) {
-                    handleUnmatchedArgument(args);
+                    handleUnmatchedArgument(ctx, args);
                     continue;
                 } // #149
                 if (tracer.isDebug()) {
@@ -1489,13 +1892,13 @@ public class Interpreter {
                             "No option named '%s' found. Processing remainder as positional parameters%n",
                             arg);
                 }
-                processPositionalParameter(required, initialized, args);
+                processPositionalParameter(ctx, required, initialized, args);
             }
         }
     }
 
-    private void processClusteredShortOptions(Collection<ArgSpec> required,
-            Set<ArgSpec> initialized, String arg, Stack<String> args) throws Exception {
+    private void processClusteredShortOptions(ParseContext ctx, Collection<ArgSpec> required,
+            Set<ArgSpec> initialized, String arg, ArgumentCursor args) throws Exception {
         String prefix = arg.substring(0, 1);
         String cluster = arg.substring(1);
         boolean paramAttachedToOption = true;
@@ -1533,16 +1936,16 @@ public class Interpreter {
                     args.push(cluster); // interpret remainder as option parameter (CAUTION: may be empty string!)
                 }
                 if (first) {
-                    parseResult.nowProcessing.add(argSpec);
+                    ctx.parseResult.nowProcessing.add(argSpec);
                     first = false;
                 } else {
-                    parseResult.nowProcessing.set(parseResult.nowProcessing.size() - 1, argSpec); // replace
+                    ctx.parseResult.nowProcessing.set(ctx.parseResult.nowProcessing.size() - 1, argSpec); // replace
                 }
-                int argCount = args.size();
-                int consumed = applyOption(argSpec, lookBehind, arity, args, initialized,
+                int position = args.position();
+                int consumed = applyOption(ctx, argSpec, lookBehind, arity, args, initialized,
                         argDescription);
                 // if cluster was consumed as a parameter or if this field was the last in the cluster we're done; otherwise continue do-while loop
-                if (StringUtils.isBlank(cluster) || args.isEmpty() || args.size() < argCount)
+                if (StringUtils.isBlank(cluster) || args.isEmpty() || args.position() > position)
                     return;
                 cluster = args.pop();
             } else { // cluster is empty || cluster.charAt(0) is not a short option key
@@ -1559,67 +1962,67 @@ public class Interpreter {
                                     arg);
                         }
                         if (commandLine.getCommandSpec().resemblesOption(arg, tracer)) {
-                            handleUnmatchedArgument(args);
+                            handleUnmatchedArgument(ctx, args);
                             return;
                         } // #149
-                        processPositionalParameter(required, initialized, args);
+                        processPositionalParameter(ctx, required, initialized, args);
                         return;
                     }
                     // remainder was part of a clustered group that could not be completely parsed
                     if (tracer.isDebug()) {
                         tracer.debug("No option found for %s in %s%n", cluster, arg);
                     }
-                    handleUnmatchedArgument(args);
+                    handleUnmatchedArgument(ctx, args);
                 } else {
                     args.push(cluster);
                     if (tracer.isDebug()) {
                         tracer.debug("%s is not an option parameter for %s%n", cluster, arg);
                     }
-                    processPositionalParameter(required, initialized, args);
+                    processPositionalParameter(ctx, required, initialized, args);
                 }
                 return;
             }
         } while (true);
     }
 
-    private void processPositionalParameter(Collection<ArgSpec> required, Set<ArgSpec> initialized,
-            Stack<String> args) throws Exception {
+    private void processPositionalParameter(ParseContext ctx, Collection<ArgSpec> required,
+            Set<ArgSpec> initialized, ArgumentCursor args) throws Exception {
         if (tracer.isDebug()) {
             tracer.debug(
                     "Processing next arg as a positional parameter at index=%d. Remainder=%s%n",
-                    position, CollectionUtilsExt.reverse(ObjectUtils.clone(args)));
+                    ctx.position, args.remainder());
         }
         if (config().stopAtPositional()) {
-            if (!endOfOptions && tracer.isDebug()) {
+            if (!ctx.endOfOptions && tracer.isDebug()) {
                 tracer.debug(
                         "Parser was configured with stopAtPositional=true, treating remaining arguments as positional parameters.%n");
             }
-            endOfOptions = true;
+            ctx.endOfOptions = true;
         }
         int argsConsumed = 0;
         int interactiveConsumed = 0;
-        int originalNowProcessingSize = parseResult.nowProcessing.size();
+        int originalNowProcessingSize = ctx.parseResult.nowProcessing.size();
         for (PositionalParamSpec positionalParam : commandLine.getCommandSpec()
                 .positionalParameters()) {
             Range indexRange = positionalParam.index();
-            if (!indexRange.contains(position)
-                    || positionalParam.typedValueAtPosition.get(position) != null) {
+            if (!indexRange.contains(ctx.position)
+                    || ctx.parseResult.typedValueAt(positionalParam, ctx.position) != null) {
                 continue;
             }
-            Stack<String> argsCopy = ObjectUtils.clone(args);
+            ArgumentCursor argsCopy = args.copy();
             Range arity = positionalParam.arity();
             if (tracer.isDebug()) {
                 tracer.debug(
                         "Position %d is in index range %s. Trying to assign args to %s, arity=%s%n",
-                        position, indexRange, positionalParam, arity);
+                        ctx.position, indexRange, positionalParam, arity);
             }
-            if (!assertNoMissingParameters(positionalParam, arity, argsCopy)) {
+            if (!assertNoMissingParameters(ctx, positionalParam, arity, argsCopy)) {
                 break;
             } // #389 collectErrors parsing
-            int originalSize = argsCopy.size();
-            int actuallyConsumed = applyOption(positionalParam, LookBehind.SEPARATE, arity,
-                    argsCopy, initialized, "args[" + indexRange + "] at position " + position);
-            int count = originalSize - argsCopy.size();
+            int originalPosition = argsCopy.position();
+            int actuallyConsumed = applyOption(ctx, positionalParam, LookBehind.SEPARATE, arity,
+                    argsCopy, initialized, "args[" + indexRange + "] at position " + ctx.position);
+            int count = argsCopy.position() - originalPosition;
             if (count > 0 || actuallyConsumed > 0) {
                 required.remove(positionalParam);
                 if (positionalParam.interactive()) {
@@ -1627,34 +2030,36 @@ public class Interpreter {
                 }
             }
             argsConsumed = Math.max(argsConsumed, count);
-            while (parseResult.nowProcessing.size() > originalNowProcessingSize + count) {
-                parseResult.nowProcessing.remove(parseResult.nowProcessing.size() - 1);
+            while (ctx.parseResult.nowProcessing.size() > originalNowProcessingSize + count) {
+                ctx.parseResult.nowProcessing.remove(ctx.parseResult.nowProcessing.size() - 1);
             }
         }
         // remove processed args from the stack
         for (int i = 0; i < argsConsumed; i++) {
             args.pop();
         }
-        position += argsConsumed + interactiveConsumed;
+        ctx.position += argsConsumed + interactiveConsumed;
         if (tracer.isDebug()) {
             tracer.debug(
                     "Consumed %d arguments and %d interactive values, moving position to index %d.%n",
-                    argsConsumed, interactiveConsumed, position);
+                    argsConsumed, interactiveConsumed, ctx.position);
         }
         if (argsConsumed == 0 && interactiveConsumed == 0 && !args.isEmpty()) {
-            handleUnmatchedArgument(args);
+            handleUnmatchedArgument(ctx, args);
         }
     }
 
-    private void processRemainderAsPositionalParameters(Collection<ArgSpec> required,
-            Set<ArgSpec> initialized, Stack<String> args) throws Exception {
-        while (!args.empty()) {
-            processPositionalParameter(required, initialized, args);
+    private void processRemainderAsPositionalParameters(ParseContext ctx,
+            Collection<ArgSpec> required, Set<ArgSpec> initialized,
+            ArgumentCursor args) throws Exception {
+        while (!args.isEmpty()) {
+            processPositionalParameter(ctx, required, initialized, args);
         }
     }
 
-    private void processStandaloneOption(Collection<ArgSpec> required, Set<ArgSpec> initialized,
-            String arg, Stack<String> args, boolean paramAttachedToKey) throws Exception {
+    private void processStandaloneOption(ParseContext ctx, Collection<ArgSpec> required,
+            Set<ArgSpec> initialized, String arg, ArgumentCursor args,
+            boolean paramAttachedToKey) throws Exception {
         ArgSpec argSpec = commandLine.getCommandSpec().optionsMap().get(arg);
         required.remove(argSpec);
         Range arity = argSpec.arity();
@@ -1666,91 +2071,13 @@ public class Interpreter {
         if (tracer.isDebug()) {
             tracer.debug("Found option named '%s': %s, arity=%s%n", arg, argSpec, arity);
         }
-        parseResult.nowProcessing.add(argSpec);
-        applyOption(argSpec, lookBehind, arity, args, initialized, "option " + arg);
-    }
-
-    private void registerBuiltInConverters() {
-        converterRegistry.put(Object.class, new BuiltIn.StringConverter());
-        converterRegistry.put(String.class, new BuiltIn.StringConverter());
-        converterRegistry.put(StringBuilder.class, new BuiltIn.StringBuilderConverter());
-        converterRegistry.put(CharSequence.class, new BuiltIn.CharSequenceConverter());
-        converterRegistry.put(Byte.class, new BuiltIn.ByteConverter());
-        converterRegistry.put(Byte.TYPE, new BuiltIn.ByteConverter());
-        converterRegistry.put(Boolean.class, new BuiltIn.BooleanConverter());
-        converterRegistry.put(Boolean.TYPE, new BuiltIn.BooleanConverter());
-        converterRegistry.put(Character.class, new BuiltIn.CharacterConverter());
-        converterRegistry.put(Character.TYPE, new BuiltIn.CharacterConverter());
-        converterRegistry.put(Short.class, new BuiltIn.ShortConverter());
-        converterRegistry.put(Short.TYPE, new BuiltIn.ShortConverter());
-        converterRegistry.put(Integer.class, new BuiltIn.IntegerConverter());
-        converterRegistry.put(Integer.TYPE, new BuiltIn.IntegerConverter());
-        converterRegistry.put(Long.class, new BuiltIn.LongConverter());
-        converterRegistry.put(Long.TYPE, new BuiltIn.LongConverter());
-        converterRegistry.put(Float.class, new BuiltIn.FloatConverter());
-        converterRegistry.put(Float.TYPE, new BuiltIn.FloatConverter());
-        converterRegistry.put(Double.class, new BuiltIn.DoubleConverter());
-        converterRegistry.put(Double.TYPE, new BuiltIn.DoubleConverter());
-        converterRegistry.put(File.class, new BuiltIn.FileConverter());
-        converterRegistry.put(URI.class, new BuiltIn.URIConverter());
-        converterRegistry.put(URL.class, new BuiltIn.URLConverter());
-        converterRegistry.put(Date.class, new BuiltIn.ISO8601DateConverter());
-        converterRegistry.put(BigDecimal.class, new BuiltIn.BigDecimalConverter());
-        converterRegistry.put(BigInteger.class, new BuiltIn.BigIntegerConverter());
-        converterRegistry.put(Charset.class, new BuiltIn.CharsetConverter());
-        converterRegistry.put(InetAddress.class, new BuiltIn.InetAddressConverter());
-        converterRegistry.put(Pattern.class, new BuiltIn.PatternConverter());
-        converterRegistry.put(UUID.class, new BuiltIn.UUIDConverter());
-        converterRegistry.put(Currency.class, new BuiltIn.CurrencyConverter());
-        converterRegistry.put(TimeZone.class, new BuiltIn.TimeZoneConverter());
-        converterRegistry.put(ByteOrder.class, new BuiltIn.ByteOrderConverter());
-        converterRegistry.put(Class.class, new BuiltIn.ClassConverter());
-        converterRegistry.put(NetworkInterface.class, new BuiltIn.NetworkInterfaceConverter());
-
-        BuiltIn.ISO8601TimeConverter.registerIfAvailable(converterRegistry, tracer);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.sql.Connection",
-                "java.sql.DriverManager", "getConnection", String.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.sql.Driver",
-                "java.sql.DriverManager", "getDriver", String.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.sql.Timestamp",
-                "java.sql.Timestamp", "valueOf", String.class);
-
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.Duration", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.Instant", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.LocalDate", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.LocalDateTime", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.LocalTime", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.MonthDay", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.OffsetDateTime", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.OffsetTime", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.Period", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.Year", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.YearMonth", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.ZonedDateTime", "parse",
-                CharSequence.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.ZoneId", "of",
-                String.class);
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.time.ZoneOffset", "of",
-                String.class);
-
-        BuiltIn.registerIfAvailable(converterRegistry, tracer, "java.nio.file.Path",
-                "java.nio.file.Paths", "get", String.class, String[].class);
+        ctx.parseResult.nowProcessing.add(argSpec);
+        applyOption(ctx, argSpec, lookBehind, arity, args, initialized, "option " + arg);
     }
 
     private String[] splitKeyValue(ArgSpec argSpec, String value) {
-        String[] keyValue = value.split("=", 2);
-        if (keyValue.length < 2) {
+        int separator = value.indexOf('=');
+        if (separator < 0) {
             String splitRegex = argSpec.splitRegex();
             if (splitRegex.length() == 0)
                 throw new ParameterException(commandLine,
@@ -1764,13 +2091,7 @@ public class Interpreter {
                                 + "KEY=VALUE]... format but was " + value,
                         argSpec, value);
         }
-        return keyValue;
-    }
-
-    private Stack<String> stack(String value) {
-        Stack<String> result = new Stack<>();
-        result.push(value);
-        return result;
+        return new String[] { value.substring(0, separator), value.substring(separator + 1) };
     }
 
     private String trim(String value) {
@@ -1781,14 +2102,125 @@ public class Interpreter {
             Class<?> type) throws ParameterException {
         try {
             return converter.modelOf(value);
-        } catch (TypeConversionException ex) {
+        } catch (Exception ex) {
+            throw conversionFailure(argSpec, index, value, type, ex);
+        }
+    }
+
+    private ParameterException conversionFailure(ArgSpec argSpec, int index, String value,
+            Class<?> type, Exception ex) {
+        if (ex instanceof TypeConversionException) {
             String msg = String.format("Invalid value for %s: %s", optionDescription("", argSpec, index), ex.getMessage());
-            throw new ParameterException(commandLine, msg, argSpec, value);
+            return new ParameterException(commandLine, msg, argSpec, value);
+        }
+        String msg = String.format("Invalid value for %s: Cannot convert '%s' to %s (%s)", optionDescription("", argSpec, index),
+                value, type.getSimpleName(), ex);
+        return new ParameterException(commandLine, msg, ex, argSpec, value);
+    }
+
+    /**
+     * Converts the specified value and appends it to the specified buffer of an array-typed
+     * argument, if not {@code null}. Primitive converters append {@code int}, {@code long} and
+     * {@code double} elements without boxing them; the returned value, recorded in the parse
+     * result, is boxed.
+     */
+    private Object modelOf(ArgSpec argSpec, int index, ITypeConverter<?> converter, String value,
+            Class<?> type, ArrayBuffer buffer) throws ParameterException {
+        if (buffer == null) {
+            return modelOf(argSpec, index, converter, value, type);
+        }
+        if (type == int.class && converter instanceof ITypeConverter.OfInt) {
+            int result = intOf(argSpec, index, (ITypeConverter.OfInt) converter, value);
+            buffer.appendInt(result);
+            return result;
+        } else if (type == long.class && converter instanceof ITypeConverter.OfLong) {
+            long result = longOf(argSpec, index, (ITypeConverter.OfLong) converter, value);
+            buffer.appendLong(result);
+            return result;
+        } else if (type == double.class && converter instanceof ITypeConverter.OfDouble) {
+            double result = doubleOf(argSpec, index, (ITypeConverter.OfDouble) converter, value);
+            buffer.appendDouble(result);
+            return result;
+        }
+        Object result = modelOf(argSpec, index, converter, value, type);
+        buffer.add(result);
+        return result;
+    }
+
+    /**
+     * Returns the type of an {@code int}, {@code long}, {@code double} or {@code boolean}
+     * argument whose converter is a primitive converter for that type, or {@code null} if the
+     * argument or its converter is not primitive.
+     */
+    private static Class<?> primitiveType(ArgSpec argSpec, ITypeConverter<?> converter) {
+        Class<?> type = argSpec.type();
+        if (type == int.class && converter instanceof ITypeConverter.OfInt
+                || type == long.class && converter instanceof ITypeConverter.OfLong
+                || type == double.class && converter instanceof ITypeConverter.OfDouble
+                || type == boolean.class && converter instanceof ITypeConverter.OfBoolean) {
+            return type;
+        }
+        return null;
+    }
+
+    private int intOf(ArgSpec argSpec, int index, ITypeConverter.OfInt converter, String value) {
+        try {
+            return converter.intOf(value);
         } catch (Exception ex) {
-            String msg = String.format("Invalid value for %s: Cannot convert '%s' to %s (%s)", optionDescription("", argSpec, index),
-                    value, type.getSimpleName(), ex);
-            throw new ParameterException(commandLine, msg, ex, argSpec, value);
+            throw conversionFailure(argSpec, index, value, int.class, ex);
+        }
+    }
+
+    private long longOf(ArgSpec argSpec, int index, ITypeConverter.OfLong converter,
+            String value) {
+        try {
+            return converter.longOf(value);
+        } catch (Exception ex) {
+            throw conversionFailure(argSpec, index, value, long.class, ex);
+        }
+    }
+
+    private double doubleOf(ArgSpec argSpec, int index, ITypeConverter.OfDouble converter,
+            String value) {
+        try {
+            return converter.doubleOf(value);
+        } catch (Exception ex) {
+            throw conversionFailure(argSpec, index, value, double.class, ex);
+        }
+    }
+
+    private boolean booleanOf(ArgSpec argSpec, int index, ITypeConverter.OfBoolean converter,
+            String value) {
+        try {
+            return converter.booleanOf(value);
+        } catch (Exception ex) {
+            throw conversionFailure(argSpec, index, value, boolean.class, ex);
+        }
+    }
+
+    /**
+     * Throws the exception {@link #modelOf} would throw converting the specified value; primitive
+     * converters convert without boxing the value.
+     */
+    private void checkModelOf(ArgSpec argSpec, ITypeConverter<?> converter, String value,
+            Class<?> type) throws ParameterException {
+        try {
+            if (converter instanceof ITypeConverter.OfInt) {
+                ((ITypeConverter.OfInt) converter).intOf(value);
+                return;
+            } else if (converter instanceof ITypeConverter.OfLong) {
+                ((ITypeConverter.OfLong) converter).longOf(value);
+                return;
+            } else if (converter instanceof ITypeConverter.OfDouble) {
+                ((ITypeConverter.OfDouble) converter).doubleOf(value);
+                return;
+            } else if (converter instanceof ITypeConverter.OfBoolean) {
+                ((ITypeConverter.OfBoolean) converter).booleanOf(value);
+                return;
+            }
+        } catch (Exception ex) { // modelOf reports the failure like any other
         }
+        modelOf(argSpec, -1, converter, value, type);
     }
 
     private String unquote(String value) {
@@ -1800,17 +2232,18 @@ public class Interpreter {
                         : value;
     }
 
-    private void updateHelpRequested(ArgSpec argSpec) {
+    private void updateHelpRequested(ParseContext ctx, ArgSpec argSpec) {
         if (argSpec.isOption()) {
             OptionSpec option = (OptionSpec) argSpec;
-            isHelpRequested |= is(argSpec, "help", option.help());
-            parseResult.versionHelpRequested |= is(argSpec, "versionHelp", option.versionHelp());
-            parseResult.usageHelpRequested |= is(argSpec, "usageHelp", option.usageHelp());
+            ctx.isHelpRequested |= is(argSpec, "help", option.help());
+            ctx.parseResult.versionHelpRequested |= is(argSpec, "versionHelp",
+                    option.versionHelp());
+            ctx.parseResult.usageHelpRequested |= is(argSpec, "usageHelp", option.usageHelp());
         }
     }
 
-    private void updateHelpRequested(CommandSpec command) {
-        isHelpRequested |= command.helpCommand();
+    private void updateHelpRequested(ParseContext ctx, CommandSpec command) {
+        ctx.isHelpRequested |= command.helpCommand();
     }
 
     /**
@@ -1820,10 +2253,9 @@ public class Interpreter {
      * end-of-options has been reached, positional parameters may consume all remaining arguments.
      * </p>
      */
-    private boolean varargCanConsumeNextValue(ArgSpec argSpec, String nextValue) {
-        if (endOfOptions && argSpec.isPositional())
+    private boolean varargCanConsumeNextValue(ParseContext ctx, ArgSpec argSpec, String nextValue) {
+        if (ctx.endOfOptions && argSpec.isPositional())
             return true;
-        boolean isCommand = commandLine.getCommandSpec().subcommands().containsKey(nextValue);
-        return !isCommand && !isOption(nextValue);
+        return !commandLine.getCommandSpec().argumentClassifier().isOptionOrSubcommand(nextValue);
     }
 }
\ No newline at end of file
@@ -1,21 +1,50 @@
 package picocli.model;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 import picocli.CommandLine;
 import picocli.except.ParameterException;
 import picocli.except.PicocliException;
 
+/**
+ * Binding to a setter method of the command object, which remembers the last value set.
+ * <p>
+ * Single-parameter methods are invoked through a method handle created once, bound to the scope,
+ * instead of {@link Method#invoke(Object, Object...)}, which checks access, boxes the arguments
+ * into an array and wraps exceptions on every call.
+ * </p>
+ */
 public class MethodBinding implements IGetter, ISetter {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class);
+
     private final Object scope;
     private final Method method;
+    /** The method adapted to {@code (Object)void}, or {@code null} to use reflection. */
+    private final MethodHandle handle;
     private Object currentValue;
     CommandLine commandLine;
 
     MethodBinding(Object scope, Method method) {
         this.scope = scope;
         this.method = method;
+        MethodHandle result = null;
+        if (method.getParameterTypes().length == 1) {
+            try { // the method was made accessible, so any lookup can unreflect it
+                result = MethodHandles.lookup().unreflect(method);
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    result = result.bindTo(scope);
+                }
+                result = result.asType(SETTER_TYPE);
+            } catch (IllegalAccessException | ClassCastException ex) {
+                result = null;
+            }
+        }
+        this.handle = result;
     }
 
     @SuppressWarnings("unchecked")
@@ -27,18 +56,25 @@ public class MethodBinding implements IGetter, ISetter {
         try {
             @SuppressWarnings("unchecked")
             T result = (T) currentValue;
-            method.invoke(scope, value);
+            if (handle != null) {
+                handle.invokeExact((Object) value);
+            } else {
+                method.invoke(scope, value);
+            }
             currentValue = value;
             return result;
         } catch (InvocationTargetException ex) {
-            if (ex.getCause() instanceof PicocliException) {
-                throw (PicocliException) ex.getCause();
-            }
-            throw new ParameterException(commandLine,
-                    "Could not invoke " + method + " with " + value, ex.getCause());
-        } catch (Exception ex) {
-            throw new ParameterException(commandLine,
-                    "Could not invoke " + method + " with " + value, ex);
+            throw failure(value, ex.getCause());
+        } catch (Throwable ex) {
+            throw failure(value, ex);
+        }
+    }
+
+    private PicocliException failure(Object value, Throwable ex) {
+        if (ex instanceof PicocliException) {
+            return (PicocliException) ex;
         }
+        return new ParameterException(commandLine, "Could not invoke " + method + " with " + value,
+                ex);
     }
 }
@@ -0,0 +1,51 @@
+package picocli.model;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Mutable state of a single parse of one command: the position of the next positional
+ * parameter, whether the end of options was reached, whether help was requested, the values of
+ * array-typed arguments not yet published, and the {@code ParseResult.Builder} collecting the
+ * matched values.
+ * <p>
+ * A new context is created for every command that is parsed, so the {@link Interpreter} itself
+ * holds no per-parse state. For a {@linkplain CommandSpec#isFrozen() frozen} command the matched
+ * values are kept in the context only, which allows concurrent parsing with the same
+ * {@code CommandSpec}.
+ * </p>
+ */
+final class ParseContext {
+    final ParseResult.Builder parseResult;
+    int position;
+    boolean endOfOptions;
+    boolean isHelpRequested;
+    /** Buffered values of array-typed arguments, published when the parse ends. */
+    final Map<ArgSpec, ArrayBuffer> arrays = new IdentityHashMap<>(4);
+    /** Map keys seen so far, if {@link ParserSpec#internMapKeys()}. */
+    private Map<String, String> mapKeys;
+
+    ParseContext(CommandSpec commandSpec) {
+        parseResult = ParseResult.builder(commandSpec);
+    }
+
+    /** Returns whether matched values are kept in this context instead of the bindings. */
+    boolean isDetached() {
+        return parseResult.isDetached();
+    }
+
+    /** Returns the first key equal to the specified map key that was seen in this parse. */
+    String internMapKey(String key) {
+        if (mapKeys == null) {
+            mapKeys = new HashMap<>();
+        }
+        String result = mapKeys.putIfAbsent(key, key);
+        return result == null ? key : result;
+    }
+
+    boolean isAnyHelpRequested() {
+        return isHelpRequested || parseResult.versionHelpRequested
+                || parseResult.usageHelpRequested;
+    }
+}
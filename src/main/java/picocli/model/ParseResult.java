@@ -3,10 +3,13 @@ package picocli.model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.TreeMap;
 
 import picocli.CommandLine;
 import picocli.except.PicocliException;
@@ -23,14 +26,45 @@ public class ParseResult {
         return new Builder(commandSpec);
     }
 
+    /**
+     * Values matched for a single {@code ArgSpec} during a parse. For a
+     * {@linkplain CommandSpec#isFrozen() frozen} command these are private to the parse, otherwise
+     * they share the lists of the {@code ArgSpec} itself.
+     */
+    static class MatchedValues {
+        final List<String> stringValues;
+        final List<String> originalStringValues;
+        final List<Object> typedValues;
+        final Map<Integer, Object> typedValueAtPosition;
+        Object value;
+        boolean hasValue;
+
+        MatchedValues(ArgSpec argSpec, boolean detached) {
+            if (detached) {
+                stringValues = new ArrayList<String>();
+                originalStringValues = new ArrayList<String>();
+                typedValues = new ArrayList<Object>();
+                typedValueAtPosition = new TreeMap<Integer, Object>();
+            } else {
+                stringValues = argSpec.stringValues;
+                originalStringValues = argSpec.originalStringValues;
+                typedValues = argSpec.typedValues;
+                typedValueAtPosition = argSpec.typedValueAtPosition;
+            }
+        }
+    }
+
     /** Builds immutable {@code ParseResult} instances. */
     public static class Builder {
         private final CommandSpec commandSpec;
+        private final boolean detached;
+        private final Map<ArgSpec, MatchedValues> matchedValues = new IdentityHashMap<ArgSpec,
+                MatchedValues>();
         private final Set<OptionSpec> options = new LinkedHashSet<OptionSpec>();
         private final Set<PositionalParamSpec> positionals = new LinkedHashSet<PositionalParamSpec>();
         //TODO:private scope
         public final List<String> unmatched = new ArrayList<String>();
-        private final List<String> originalArgList = new ArrayList<String>();
+        private List<String> originalArgList = Collections.emptyList();
         private final List<List<PositionalParamSpec>> positionalParams = new ArrayList<List<PositionalParamSpec>>();
         private ParseResult subcommand;
         //TODO:private scope
@@ -42,6 +76,7 @@ public class ParseResult {
 
         private Builder(CommandSpec spec) {
             commandSpec = Assert.notNull(spec, "commandSpec");
+            detached = spec.isFrozen();
         }
 
         /**
@@ -142,27 +177,89 @@ public class ParseResult {
 
         /** Sets the specified command line arguments that were parsed. */
         public ParseResult.Builder originalArgs(String[] originalArgs) {
-            originalArgList.addAll(Arrays.asList(originalArgs));
+            return originalArgs(Collections.unmodifiableList(Arrays.asList(originalArgs.clone())));
+        }
+
+        /**
+         * Sets the specified unmodifiable list of command line arguments that were parsed. The list
+         * is not copied, so that the results of a command and its subcommands can share it.
+         */
+        ParseResult.Builder originalArgs(List<String> originalArgs) {
+            originalArgList = originalArgs;
             return this;
         }
 
         void addStringValue(ArgSpec argSpec, String value) {
             if (!isInitializingDefaultValues) {
-                argSpec.stringValues.add(value);
+                matchedValues(argSpec).stringValues.add(value);
             }
         }
 
         void addOriginalStringValue(ArgSpec argSpec, String value) {
             if (!isInitializingDefaultValues) {
-                argSpec.originalStringValues.add(value);
+                matchedValues(argSpec).originalStringValues.add(value);
             }
         }
 
         void addTypedValues(ArgSpec argSpec, int position, Object typedValue) {
             if (!isInitializingDefaultValues) {
-                argSpec.typedValues.add(typedValue);
-                argSpec.typedValueAtPosition.put(position, typedValue);
+                MatchedValues matched = matchedValues(argSpec);
+                matched.typedValues.add(typedValue);
+                matched.typedValueAtPosition.put(position, typedValue);
+            }
+        }
+
+        int stringValueCount(ArgSpec argSpec) {
+            MatchedValues matched = matchedValues.get(argSpec);
+            return matched == null ? 0 : matched.stringValues.size();
+        }
+
+        Object typedValueAt(ArgSpec argSpec, int position) {
+            MatchedValues matched = matchedValues.get(argSpec);
+            return matched == null ? null : matched.typedValueAtPosition.get(position);
+        }
+
+        /**
+         * Returns the current value of the specified argument: for a frozen command the value
+         * assigned during this parse (or the initial value), otherwise the value held by the
+         * argument's binding.
+         */
+        Object value(ArgSpec argSpec) {
+            if (!detached) {
+                return argSpec.getValue();
+            }
+            MatchedValues matched = matchedValues.get(argSpec);
+            if (matched != null && matched.hasValue) {
+                return matched.value;
+            }
+            return argSpec.hasInitialValue() ? argSpec.initialValue() : argSpec.getValue();
+        }
+
+        /**
+         * Assigns the specified value to the argument: for a frozen command the value is kept in
+         * this builder, otherwise it is passed to the argument's binding.
+         */
+        void value(ArgSpec argSpec, Object value, CommandLine commandLine) {
+            if (!detached) {
+                argSpec.assignValue(value, commandLine);
+                return;
+            }
+            MatchedValues matched = matchedValues(argSpec);
+            matched.value = value;
+            matched.hasValue = true;
+        }
+
+        boolean isDetached() {
+            return detached;
+        }
+
+        private MatchedValues matchedValues(ArgSpec argSpec) {
+            MatchedValues result = matchedValues.get(argSpec);
+            if (result == null) {
+                result = new MatchedValues(argSpec, detached);
+                matchedValues.put(argSpec, result);
             }
+            return result;
         }
 
         public void addError(PicocliException ex) {
@@ -177,6 +274,8 @@ public class ParseResult {
     private final List<String> unmatched;
     private final List<List<PositionalParamSpec>> matchedPositionalParams;
     private final List<Exception> errors;
+    private final Map<ArgSpec, MatchedValues> matchedValues;
+    private final boolean detached;
     public final List<Object> tentativeMatch;
 
     private final ParseResult subcommand;
@@ -188,7 +287,7 @@ public class ParseResult {
         subcommand = builder.subcommand;
         matchedOptions = new ArrayList<OptionSpec>(builder.options);
         unmatched = new ArrayList<String>(builder.unmatched);
-        originalArgs = new ArrayList<String>(builder.originalArgList);
+        originalArgs = builder.originalArgList;
         matchedUniquePositionals = new ArrayList<PositionalParamSpec>(builder.positionals);
         matchedPositionalParams = new ArrayList<List<PositionalParamSpec>>(
                 builder.positionalParams);
@@ -196,6 +295,8 @@ public class ParseResult {
         usageHelpRequested = builder.usageHelpRequested;
         versionHelpRequested = builder.versionHelpRequested;
         tentativeMatch = builder.nowProcessing;
+        matchedValues = new IdentityHashMap<ArgSpec, MatchedValues>(builder.matchedValues);
+        detached = builder.detached;
     }
 
     /**
@@ -338,7 +439,7 @@ public class ParseResult {
 
     /** Returns the command line arguments that were parsed. */
     public List<String> originalArgs() {
-        return Collections.unmodifiableList(originalArgs);
+        return originalArgs;
     }
 
     /**
@@ -374,9 +475,8 @@ public class ParseResult {
      * {@linkplain OptionSpec#type() type} of the option, or the specified default value if the
      * specified option is {@code null}.
      */
-    @SuppressWarnings("unchecked")
     private <T> T matchedOptionValue(OptionSpec option, T defaultValue) {
-        return option == null ? defaultValue : (T) option.getValue();
+        return option == null ? defaultValue : this.<T>valueOf(option);
     }
 
     /**
@@ -394,9 +494,69 @@ public class ParseResult {
      * the {@linkplain PositionalParamSpec#type() type} of the positional parameter, or the
      * specified default value if the specified positional parameter is {@code null}.
      */
-    @SuppressWarnings("unchecked")
     private <T> T matchedPositionalValue(PositionalParamSpec positional, T defaultValue) {
-        return positional == null ? defaultValue : (T) positional.getValue();
+        return positional == null ? defaultValue : this.<T>valueOf(positional);
+    }
+
+    /**
+     * Returns the value of the specified option or positional parameter after parsing, converted
+     * to its {@linkplain ArgSpec#type() type}. If the command is {@linkplain CommandSpec#isFrozen()
+     * frozen}, this is the value assigned during the parse that produced this result (or the
+     * initial value if nothing was assigned); otherwise this is equivalent to
+     * {@link ArgSpec#getValue()}.
+     * 
+     * @since 4.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T valueOf(ArgSpec argSpec) {
+        if (!detached) {
+            return argSpec.getValue();
+        }
+        MatchedValues matched = matchedValues.get(argSpec);
+        if (matched != null && matched.hasValue) {
+            return (T) matched.value;
+        }
+        return (T) (argSpec.hasInitialValue() ? argSpec.initialValue() : argSpec.getValue());
+    }
+
+    /**
+     * Returns the String values matched for the specified option or positional parameter in the
+     * parse that produced this result, after they were {@linkplain ArgSpec#splitRegex() split}.
+     * Unlike {@link ArgSpec#stringValues()}, this is also correct for
+     * {@linkplain CommandSpec#isFrozen() frozen} commands that are parsed concurrently.
+     * 
+     * @since 4.0
+     */
+    public List<String> stringValues(ArgSpec argSpec) {
+        MatchedValues matched = matchedValues.get(argSpec);
+        return matched == null ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(matched.stringValues);
+    }
+
+    /**
+     * Returns the original command line arguments matched for the specified option or positional
+     * parameter in the parse that produced this result.
+     * 
+     * @see ArgSpec#originalStringValues()
+     * @since 4.0
+     */
+    public List<String> originalStringValues(ArgSpec argSpec) {
+        MatchedValues matched = matchedValues.get(argSpec);
+        return matched == null ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(matched.originalStringValues);
+    }
+
+    /**
+     * Returns the typed values matched for the specified option or positional parameter in the
+     * parse that produced this result.
+     * 
+     * @see ArgSpec#typedValues()
+     * @since 4.0
+     */
+    public List<Object> typedValues(ArgSpec argSpec) {
+        MatchedValues matched = matchedValues.get(argSpec);
+        return matched == null ? Collections.<Object>emptyList()
+                : Collections.unmodifiableList(matched.typedValues);
     }
 
     /**
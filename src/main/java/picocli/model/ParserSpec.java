@@ -1,5 +1,7 @@
 package picocli.model;
 
+import java.nio.charset.Charset;
+
 import picocli.CommandLine;
 import picocli.annot.Command;
 import picocli.util.Assert;
@@ -25,14 +27,21 @@ public class ParserSpec {
     private boolean unmatchedArgumentsAllowed = false;
     private boolean expandAtFiles = true;
     private Character atFileCommentChar = '#';
+    private Charset atFileCharset;
+    private boolean atFileStreaming = false;
+    private ArgumentFileCache atFileCache;
     private boolean posixClusteredShortOptionsAllowed = true;
+    private boolean abbreviatedOptionsAllowed = false;
+    private boolean abbreviatedSubcommandsAllowed = false;
     private boolean unmatchedOptionsArePositionalParams = false;
     private boolean limitSplit = false;
+    private boolean internMapKeys = false;
     private boolean aritySatisfiedByAttachedOptionParam = false;
     boolean collectErrors = false;
     private boolean caseInsensitiveEnumValuesAllowed = false;
     private boolean trimQuotes = false;
     private boolean splitQuotedStrings = false;
+    private boolean frozen = false;
 
     /**
      * Returns the String to use as the separator between options and option parameters.
@@ -88,11 +97,59 @@ public class ParserSpec {
         return atFileCommentChar;
     }
 
+    /**
+     * @see CommandLine#getAtFileCharset()
+     * @since 4.0
+     */
+    public Charset atFileCharset() {
+        return atFileCharset;
+    }
+
+    /**
+     * @see CommandLine#isAtFileStreaming()
+     * @since 4.0
+     */
+    public boolean atFileStreaming() {
+        return atFileStreaming;
+    }
+
+    /**
+     * @see CommandLine#getAtFileCache()
+     * @since 4.0
+     */
+    public ArgumentFileCache atFileCache() {
+        return atFileCache;
+    }
+
     /** @see CommandLine#isPosixClusteredShortOptionsAllowed() */
     public boolean posixClusteredShortOptionsAllowed() {
         return posixClusteredShortOptionsAllowed;
     }
 
+    /**
+     * @see CommandLine#isAbbreviatedOptionsAllowed()
+     * @since 4.0
+     */
+    public boolean abbreviatedOptionsAllowed() {
+        return abbreviatedOptionsAllowed;
+    }
+
+    /**
+     * @see CommandLine#isAbbreviatedSubcommandsAllowed()
+     * @since 4.0
+     */
+    public boolean abbreviatedSubcommandsAllowed() {
+        return abbreviatedSubcommandsAllowed;
+    }
+
+    /**
+     * @see CommandLine#isInternMapKeys()
+     * @since 4.0
+     */
+    public boolean internMapKeys() {
+        return internMapKeys;
+    }
+
     /**
      * @see CommandLine#isCaseInsensitiveEnumValuesAllowed()
      * @since 3.4
@@ -159,18 +216,21 @@ public class ParserSpec {
      * @return this ParserSpec for method chaining
      */
     public ParserSpec separator(String separator) {
+        assertNotFrozen();
         this.separator = separator;
         return this;
     }
 
     /** @see CommandLine#setStopAtUnmatched(boolean) */
     public ParserSpec stopAtUnmatched(boolean stopAtUnmatched) {
+        assertNotFrozen();
         this.stopAtUnmatched = stopAtUnmatched;
         return this;
     }
 
     /** @see CommandLine#setStopAtPositional(boolean) */
     public ParserSpec stopAtPositional(boolean stopAtPositional) {
+        assertNotFrozen();
         this.stopAtPositional = stopAtPositional;
         return this;
     }
@@ -180,30 +240,35 @@ public class ParserSpec {
      * @since 3.5
      */
     public ParserSpec endOfOptionsDelimiter(String delimiter) {
+        assertNotFrozen();
         this.endOfOptionsDelimiter = Assert.notNull(delimiter, "end-of-options delimiter");
         return this;
     }
 
     /** @see CommandLine#setToggleBooleanFlags(boolean) */
     public ParserSpec toggleBooleanFlags(boolean toggleBooleanFlags) {
+        assertNotFrozen();
         this.toggleBooleanFlags = toggleBooleanFlags;
         return this;
     }
 
     /** @see CommandLine#setOverwrittenOptionsAllowed(boolean) */
     public ParserSpec overwrittenOptionsAllowed(boolean overwrittenOptionsAllowed) {
+        assertNotFrozen();
         this.overwrittenOptionsAllowed = overwrittenOptionsAllowed;
         return this;
     }
 
     /** @see CommandLine#setUnmatchedArgumentsAllowed(boolean) */
     public ParserSpec unmatchedArgumentsAllowed(boolean unmatchedArgumentsAllowed) {
+        assertNotFrozen();
         this.unmatchedArgumentsAllowed = unmatchedArgumentsAllowed;
         return this;
     }
 
     /** @see CommandLine#setExpandAtFiles(boolean) */
     public ParserSpec expandAtFiles(boolean expandAtFiles) {
+        assertNotFrozen();
         this.expandAtFiles = expandAtFiles;
         return this;
     }
@@ -213,23 +278,86 @@ public class ParserSpec {
      * @since 3.5
      */
     public ParserSpec atFileCommentChar(Character atFileCommentChar) {
+        assertNotFrozen();
         this.atFileCommentChar = atFileCommentChar;
         return this;
     }
 
+    /**
+     * @see CommandLine#setAtFileCharset(Charset)
+     * @since 4.0
+     */
+    public ParserSpec atFileCharset(Charset atFileCharset) {
+        assertNotFrozen();
+        this.atFileCharset = atFileCharset;
+        return this;
+    }
+
+    /**
+     * @see CommandLine#setAtFileStreaming(boolean)
+     * @since 4.0
+     */
+    public ParserSpec atFileStreaming(boolean atFileStreaming) {
+        assertNotFrozen();
+        this.atFileStreaming = atFileStreaming;
+        return this;
+    }
+
+    /**
+     * @see CommandLine#setAtFileCache(ArgumentFileCache)
+     * @since 4.0
+     */
+    public ParserSpec atFileCache(ArgumentFileCache atFileCache) {
+        assertNotFrozen();
+        this.atFileCache = atFileCache;
+        return this;
+    }
+
     /** @see CommandLine#setPosixClusteredShortOptionsAllowed(boolean) */
     public ParserSpec posixClusteredShortOptionsAllowed(
             boolean posixClusteredShortOptionsAllowed) {
+        assertNotFrozen();
         this.posixClusteredShortOptionsAllowed = posixClusteredShortOptionsAllowed;
         return this;
     }
 
+    /**
+     * @see CommandLine#setAbbreviatedOptionsAllowed(boolean)
+     * @since 4.0
+     */
+    public ParserSpec abbreviatedOptionsAllowed(boolean abbreviatedOptionsAllowed) {
+        assertNotFrozen();
+        this.abbreviatedOptionsAllowed = abbreviatedOptionsAllowed;
+        return this;
+    }
+
+    /**
+     * @see CommandLine#setAbbreviatedSubcommandsAllowed(boolean)
+     * @since 4.0
+     */
+    public ParserSpec abbreviatedSubcommandsAllowed(boolean abbreviatedSubcommandsAllowed) {
+        assertNotFrozen();
+        this.abbreviatedSubcommandsAllowed = abbreviatedSubcommandsAllowed;
+        return this;
+    }
+
+    /**
+     * @see CommandLine#setInternMapKeys(boolean)
+     * @since 4.0
+     */
+    public ParserSpec internMapKeys(boolean internMapKeys) {
+        assertNotFrozen();
+        this.internMapKeys = internMapKeys;
+        return this;
+    }
+
     /**
      * @see CommandLine#setCaseInsensitiveEnumValuesAllowed(boolean)
      * @since 3.4
      */
     public ParserSpec caseInsensitiveEnumValuesAllowed(
             boolean caseInsensitiveEnumValuesAllowed) {
+        assertNotFrozen();
         this.caseInsensitiveEnumValuesAllowed = caseInsensitiveEnumValuesAllowed;
         return this;
     }
@@ -239,6 +367,7 @@ public class ParserSpec {
      * @since 3.7
      */
     public ParserSpec trimQuotes(boolean trimQuotes) {
+        assertNotFrozen();
         this.trimQuotes = trimQuotes;
         return this;
     }
@@ -248,6 +377,7 @@ public class ParserSpec {
      * @since 3.7
      */
     public ParserSpec splitQuotedStrings(boolean splitQuotedStrings) {
+        assertNotFrozen();
         this.splitQuotedStrings = splitQuotedStrings;
         return this;
     }
@@ -255,6 +385,7 @@ public class ParserSpec {
     /** @see CommandLine#setUnmatchedOptionsArePositionalParams(boolean) */
     public ParserSpec unmatchedOptionsArePositionalParams(
             boolean unmatchedOptionsArePositionalParams) {
+        assertNotFrozen();
         this.unmatchedOptionsArePositionalParams = unmatchedOptionsArePositionalParams;
         return this;
     }
@@ -267,6 +398,7 @@ public class ParserSpec {
      * @since 3.2
      */
     public ParserSpec collectErrors(boolean collectErrors) {
+        assertNotFrozen();
         this.collectErrors = collectErrors;
         return this;
     }
@@ -276,6 +408,7 @@ public class ParserSpec {
      * arguments and should not validate arity.
      */
     public ParserSpec aritySatisfiedByAttachedOptionParam(boolean newValue) {
+        assertNotFrozen();
         aritySatisfiedByAttachedOptionParam = newValue;
         return this;
     }
@@ -286,10 +419,22 @@ public class ParserSpec {
      * many parts as allowed by max arity.
      */
     public ParserSpec limitSplit(boolean limitSplit) {
+        assertNotFrozen();
         this.limitSplit = limitSplit;
         return this;
     }
 
+    void freeze() {
+        frozen = true;
+    }
+
+    private void assertNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException(
+                    "Parser settings of a frozen command cannot be modified");
+        }
+    }
+
     void initSeparator(String value) {
         if (Model.initializable(separator, value, DEFAULT_SEPARATOR)) {
             separator = value;
@@ -327,9 +472,15 @@ public class ParserSpec {
         unmatchedArgumentsAllowed = settings.unmatchedArgumentsAllowed;
         expandAtFiles = settings.expandAtFiles;
         atFileCommentChar = settings.atFileCommentChar;
+        atFileCharset = settings.atFileCharset;
+        atFileStreaming = settings.atFileStreaming;
+        atFileCache = settings.atFileCache;
         posixClusteredShortOptionsAllowed = settings.posixClusteredShortOptionsAllowed;
+        abbreviatedOptionsAllowed = settings.abbreviatedOptionsAllowed;
+        abbreviatedSubcommandsAllowed = settings.abbreviatedSubcommandsAllowed;
         unmatchedOptionsArePositionalParams = settings.unmatchedOptionsArePositionalParams;
         limitSplit = settings.limitSplit;
+        internMapKeys = settings.internMapKeys;
         aritySatisfiedByAttachedOptionParam = settings.aritySatisfiedByAttachedOptionParam;
         collectErrors = settings.collectErrors;
         caseInsensitiveEnumValuesAllowed = settings.caseInsensitiveEnumValuesAllowed;
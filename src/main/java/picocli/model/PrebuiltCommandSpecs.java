@@ -0,0 +1,90 @@
+package picocli.model;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import picocli.CommandLine;
+import picocli.util.Assert;
+
+/**
+ * Command specs built ahead of time, for example while a GraalVM native image is built, so that
+ * the command model does not have to be built reflectively when the application starts.
+ * <p>
+ * {@link #prebuild(Class...)} creates the command spec of each specified {@code @Command} class
+ * with the {@linkplain CommandLine#defaultFactory() default factory}, including all its (also
+ * {@linkplain picocli.annot.Command#lazySubcommands() lazy}) subcommands, and resolves the
+ * built-in type converters. The first {@code CommandLine} that is then constructed for one of
+ * these classes with the default factory takes over its prebuilt command spec and command
+ * object; later ones build a new command spec as usual, since a command spec holds the state of
+ * the parsed command line.
+ * </p>
+ * <p>
+ * The application must therefore construct its {@code CommandLine} with the command class, as in
+ * {@code new CommandLine(MyCommand.class)}. A {@code CommandLine} constructed for an instance,
+ * like {@code new CommandLine(new MyCommand())} or {@code CommandLine.call(new MyCommand(), args)},
+ * or with another factory, builds its command spec reflectively; a warning is traced when that
+ * happens for an instance of a class whose prebuilt command spec is still available.
+ * </p>
+ * <p>
+ * A native-image {@code Feature} that calls {@code prebuild} while the image is built (see the
+ * {@code NativeImageFeatureGenerator} of {@code picocli-codegen}) stores the command specs in the
+ * image heap. The classes of picocli and of the command objects must then be initialized at
+ * image build time. Note that the {@code picocli.trace} and
+ * {@code picocli.converters.excludes} system properties are read when the command specs are
+ * built.
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class PrebuiltCommandSpecs {
+    private static final Map<Class<?>, CommandSpec> PREBUILT = new ConcurrentHashMap<>();
+
+    private PrebuiltCommandSpecs() {
+    } // private constructor: never instantiate
+
+    /**
+     * Builds the command specs of the specified {@code @Command}-annotated classes and their
+     * subcommands, and resolves the built-in type converters.
+     *
+     * @param commandClasses
+     *            the command classes to create a command spec for
+     * @throws picocli.except.InitializationException
+     *             if a command spec could not be created
+     */
+    public static void prebuild(Class<?>... commandClasses) {
+        Interpreter.resolveBuiltInConverters();
+        for (Class<?> cls : commandClasses) {
+            CommandSpec spec = CommandSpec.forAnnotatedObject(Assert.notNull(cls, "class"),
+                    CommandLine.defaultFactory());
+            createSubcommands(spec);
+            PREBUILT.put(cls, spec);
+        }
+    }
+
+    private static void createSubcommands(CommandSpec spec) {
+        // the aliases of a subcommand map to the same CommandLine
+        for (CommandLine sub : new LinkedHashSet<>(spec.subcommands().values())) {
+            createSubcommands(sub.getCommandSpec());
+        }
+    }
+
+    /**
+     * Returns whether a prebuilt command spec of the specified class is available, that is, it
+     * was {@linkplain #prebuild(Class...) built} and not yet taken by a {@code CommandLine}.
+     *
+     * @param commandClass
+     *            the command class
+     * @return whether a prebuilt command spec is available
+     */
+    public static boolean isPrebuilt(Class<?> commandClass) {
+        return PREBUILT.containsKey(commandClass);
+    }
+
+    /**
+     * Removes and returns the prebuilt command spec of the specified class, if any.
+     */
+    static CommandSpec take(Class<?> commandClass) {
+        return PREBUILT.remove(commandClass);
+    }
+}
@@ -285,6 +285,10 @@ public class Range implements Comparable<Range> {
         return new Range(min, max, isVariable, unspecified, originalValue);
     }
 
+    String originalValue() {
+        return originalValue;
+    }
+
     /**
      * Returns {@code true} if this Range includes the specified value, {@code false} otherwise.
      * 
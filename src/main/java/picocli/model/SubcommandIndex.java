@@ -0,0 +1,126 @@
+package picocli.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import picocli.except.InitializationException;
+
+/**
+ * Index of the subcommands that are not declared by their parent command, read from the
+ * {@value #RESOURCE_NAME} resources of a class loader. The annotation processor of
+ * {@code picocli-codegen} writes this resource for the command classes with a
+ * {@link picocli.annot.Command#subcommandOf() subcommandOf} attribute, so that subcommands can be
+ * shipped in separate jars.
+ * <p>
+ * Each line of the resource lists the binary class name of the parent command, the binary class
+ * name of the subcommand, and the name and aliases of the subcommand, separated by whitespace.
+ * Empty lines and lines starting with {@code #} are ignored. A {@code CommandLine} constructed
+ * for a command registers the indexed subcommands of its class and superclasses by name, without
+ * loading their classes until they are first needed. The index of a class loader is read once.
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class SubcommandIndex {
+    /** The name of the class path resources with the subcommand index. */
+    public static final String RESOURCE_NAME = "META-INF/picocli/subcommands";
+
+    private static final Map<ClassLoader, SubcommandIndex> INDEXES = new WeakHashMap<>();
+
+    /** A subcommand listed in the index. */
+    static final class Entry {
+        final String className;
+        final String name;
+        final List<String> aliases;
+
+        Entry(String className, String name, List<String> aliases) {
+            this.className = className;
+            this.name = name;
+            this.aliases = aliases;
+        }
+    }
+
+    /** The indexed subcommands by binary class name of their parent command. */
+    private final Map<String, List<Entry>> subcommands = new HashMap<>();
+
+    private SubcommandIndex(ClassLoader loader) {
+        try {
+            Enumeration<URL> resources = loader.getResources(RESOURCE_NAME);
+            while (resources.hasMoreElements()) {
+                read(resources.nextElement());
+            }
+        } catch (IOException ex) {
+            throw new InitializationException("Could not read " + RESOURCE_NAME + ": " + ex, ex);
+        }
+    }
+
+    private void read(URL url) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8));
+        try {
+            int number = 0;
+            for (String line; (line = reader.readLine()) != null;) {
+                number++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] values = line.split("\\s+");
+                if (values.length < 3) {
+                    throw new InitializationException("Invalid line " + number + " in " + url
+                            + ": expected parent class, subcommand class and name, but was '"
+                            + line + "'");
+                }
+                List<Entry> entries = subcommands.get(values[0]);
+                if (entries == null) {
+                    subcommands.put(values[0], entries = new ArrayList<>(2));
+                }
+                add(entries, new Entry(values[1], values[2],
+                        Arrays.asList(values).subList(3, values.length)));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /** Adds the entry, unless the same jar was listed twice on the class path. */
+    private static void add(List<Entry> entries, Entry entry) {
+        for (Entry existing : entries) {
+            if (existing.className.equals(entry.className) && existing.name.equals(entry.name)) {
+                return;
+            }
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * Returns the index of the specified class loader, reading its resources the first time.
+     */
+    static synchronized SubcommandIndex of(ClassLoader loader) {
+        SubcommandIndex result = INDEXES.get(loader);
+        if (result == null) {
+            INDEXES.put(loader, result = new SubcommandIndex(loader));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexed subcommands of the specified command class, not those of its
+     * superclasses.
+     */
+    List<Entry> subcommands(Class<?> parent) {
+        List<Entry> result = subcommands.get(parent.getName());
+        return result == null ? Collections.<Entry>emptyList() : result;
+    }
+}
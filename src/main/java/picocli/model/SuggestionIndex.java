@@ -0,0 +1,211 @@
+package picocli.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of names, like the subcommand names or option names of a command, to suggest the names
+ * closest to a mistyped command line argument.
+ * <p>
+ * {@link #mostSimilar(String, int)} ranks names by the cosine similarity of their bigram
+ * frequencies, like {@link picocli.except.CosineSimilarity}, but through an inverted index from
+ * bigrams to the names containing them: only the names sharing a bigram with the argument are
+ * scored, and nothing about the names is recomputed per query. Names with equal scores are all
+ * returned, in the order they were indexed. {@link #withStrippedPrefix(String)} finds names by
+ * the prefix of their {@linkplain CommandSpec#stripPrefix(String) stripped} form with a binary
+ * search.
+ * </p>
+ * <p>
+ * Instances are immutable and may be shared by threads. {@link CommandSpec} keeps an index of its
+ * subcommand names and one of its option names, built when first needed.
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class SuggestionIndex {
+    private static final int[] NO_INTS = {};
+
+    private final String[] names;
+    /** Sum of the squared bigram counts of each name. */
+    private final long[] norms;
+    /** Sorted bigrams, each encoded as two chars in an int. */
+    private final int[] grams;
+    /** Per bigram, the indexes of the names containing it, ascending. */
+    private final int[][] postings;
+    /** Per bigram, how often each name of {@link #postings} contains it. */
+    private final int[][] counts;
+    /** Indexes of the names, sorted by their stripped form. */
+    private final Integer[] byStrippedName;
+    private final String[] strippedNames;
+
+    /** Creates an index of the specified names, keeping their iteration order. */
+    public SuggestionIndex(Collection<String> names) {
+        this.names = names.toArray(new String[names.size()]);
+        norms = new long[this.names.length];
+        Map<Integer, List<int[]>> index = new HashMap<Integer, List<int[]>>();
+        for (int i = 0; i < this.names.length; i++) {
+            int[] nameGrams = bigrams(this.names[i]);
+            for (int g = 0; g < nameGrams.length;) {
+                int count = run(nameGrams, g);
+                List<int[]> posting = index.get(nameGrams[g]);
+                if (posting == null) {
+                    index.put(nameGrams[g], posting = new ArrayList<int[]>());
+                }
+                posting.add(new int[] { i, count });
+                norms[i] += count * count;
+                g += count;
+            }
+        }
+        grams = new int[index.size()];
+        int g = 0;
+        for (Integer gram : index.keySet()) {
+            grams[g++] = gram;
+        }
+        Arrays.sort(grams);
+        postings = new int[grams.length][];
+        counts = new int[grams.length][];
+        for (g = 0; g < grams.length; g++) {
+            List<int[]> posting = index.get(grams[g]);
+            postings[g] = new int[posting.size()];
+            counts[g] = new int[posting.size()];
+            for (int p = 0; p < posting.size(); p++) {
+                postings[g][p] = posting.get(p)[0];
+                counts[g][p] = posting.get(p)[1];
+            }
+        }
+
+        strippedNames = new String[this.names.length];
+        byStrippedName = new Integer[this.names.length];
+        for (int i = 0; i < this.names.length; i++) {
+            strippedNames[i] = CommandSpec.stripPrefix(this.names[i]);
+            byStrippedName[i] = i;
+        }
+        Arrays.sort(byStrippedName, new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                int result = strippedNames[i1].compareTo(strippedNames[i2]);
+                return result != 0 ? result : i1.compareTo(i2);
+            }
+        });
+    }
+
+    /** Returns the number of indexed names. */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns at most the specified number of names similar to the specified argument, most
+     * similar first; names that do not share any two consecutive (case-insensitive) characters
+     * with the argument are never returned.
+     */
+    public List<String> mostSimilar(String pattern, int max) {
+        int[] patternGrams = bigrams(pattern);
+        if (patternGrams.length == 0 || max <= 0) {
+            return Collections.emptyList();
+        }
+        long patternNorm = 0;
+        // per matching name: name index in the high bits, product of the bigram counts below
+        long[] products = new long[16];
+        int size = 0;
+        for (int g = 0; g < patternGrams.length;) {
+            int count = run(patternGrams, g);
+            patternNorm += count * count;
+            int gram = Arrays.binarySearch(grams, patternGrams[g]);
+            if (gram >= 0) {
+                int[] posting = postings[gram];
+                if (size + posting.length > products.length) {
+                    products = Arrays.copyOf(products,
+                            Math.max(products.length * 2, size + posting.length));
+                }
+                for (int p = 0; p < posting.length; p++) {
+                    products[size++] = (long) posting[p] << 32 | count * counts[gram][p];
+                }
+            }
+            g += count;
+        }
+        Arrays.sort(products, 0, size);
+        final List<Integer> matches = new ArrayList<Integer>();
+        final List<Double> scores = new ArrayList<Double>();
+        for (int p = 0; p < size;) {
+            int name = (int) (products[p] >>> 32);
+            long dotProduct = 0;
+            for (; p < size && (int) (products[p] >>> 32) == name; p++) {
+                dotProduct += (int) products[p];
+            }
+            matches.add(name);
+            scores.add(dotProduct / Math.sqrt((double) patternNorm * norms[name]));
+        }
+        Integer[] order = new Integer[matches.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                int result = scores.get(i2).compareTo(scores.get(i1));
+                return result != 0 ? result : matches.get(i1).compareTo(matches.get(i2));
+            }
+        });
+        List<String> result = new ArrayList<String>(Math.min(max, order.length));
+        for (int i = 0; i < order.length && i < max; i++) {
+            result.add(names[matches.get(order[i])]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names whose {@linkplain CommandSpec#stripPrefix(String) stripped} form starts
+     * with the specified prefix, in the order they were indexed.
+     */
+    public List<String> withStrippedPrefix(String prefix) {
+        int low = 0;
+        int high = byStrippedName.length;
+        while (low < high) { // first stripped name not less than the prefix
+            int mid = (low + high) >>> 1;
+            if (strippedNames[byStrippedName[mid]].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Integer> matches = new ArrayList<Integer>();
+        for (int i = low; i < byStrippedName.length
+                && strippedNames[byStrippedName[i]].startsWith(prefix); i++) {
+            matches.add(byStrippedName[i]);
+        }
+        Collections.sort(matches);
+        List<String> result = new ArrayList<String>(matches.size());
+        for (Integer match : matches) {
+            result.add(names[match]);
+        }
+        return result;
+    }
+
+    /** Returns the sorted, lower case bigrams of the specified string. */
+    private static int[] bigrams(String value) {
+        String lowerCase = value.toLowerCase();
+        if (lowerCase.length() < 2) {
+            return NO_INTS;
+        }
+        int[] result = new int[lowerCase.length() - 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = lowerCase.charAt(i) << 16 | lowerCase.charAt(i + 1);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /** Returns the number of elements equal to the element at the specified index. */
+    private static int run(int[] sorted, int index) {
+        int end = index + 1;
+        while (end < sorted.length && sorted[end] == sorted[index]) {
+            end++;
+        }
+        return end - index;
+    }
+}
@@ -42,16 +42,44 @@ class TypedMember {
         return isAnnotated(field) ? new TypedMember(field, scope) : null;
     }
 
+    /** Returns the member of the specified instance for the specified annotated member. */
+    static TypedMember create(CommandTemplate.Member member, Object scope) {
+        return member.accessible instanceof Field ? new TypedMember(member, scope)
+                : new TypedMember((Method) member.accessible, scope);
+    }
+
     private TypedMember(Field field, Object scope) {
         this(field);
-        if (Proxy.isProxyClass(scope.getClass())) {
-            throw new InitializationException("Invalid picocli annotation on interface field");
-        }
+        checkFieldScope(scope);
         FieldBinding binding = new FieldBinding(scope, field);
         getter = binding;
         setter = binding;
     }
 
+    private TypedMember(CommandTemplate.Member member, Object scope) {
+        this((Field) member.accessible);
+        checkFieldScope(scope);
+        FieldBinding binding = new FieldBinding(scope, (Field) accessible, member.handles());
+        getter = binding;
+        setter = binding;
+    }
+
+    TypedMember(GeneratedMember member) {
+        accessible = member;
+        name = member.getName();
+        type = member.getType();
+        genericType = member.getGenericType();
+        hasInitialValue = true;
+        getter = member.getter();
+        setter = member.setter();
+    }
+
+    private static void checkFieldScope(Object scope) {
+        if (Proxy.isProxyClass(scope.getClass())) {
+            throw new InitializationException("Invalid picocli annotation on interface field");
+        }
+    }
+
     static TypedMember createIfAnnotated(Method method, Object scope) {
         return isAnnotated(method) ? new TypedMember(method, scope) : null;
     }
@@ -113,19 +141,19 @@ class TypedMember {
         boolean initialized = true;
         try {
             if (type == Boolean.TYPE) {
-                setter.set(false);
+                setter.setBoolean(false);
             } else if (type == Byte.TYPE) {
                 setter.set(Byte.valueOf((byte) 0));
             } else if (type == Short.TYPE) {
                 setter.set(Short.valueOf((short) 0));
             } else if (type == Integer.TYPE) {
-                setter.set(Integer.valueOf(0));
+                setter.setInt(0);
             } else if (type == Long.TYPE) {
-                setter.set(Long.valueOf(0L));
+                setter.setLong(0L);
             } else if (type == Float.TYPE) {
                 setter.set(Float.valueOf(0f));
             } else if (type == Double.TYPE) {
-                setter.set(Double.valueOf(0d));
+                setter.setDouble(0d);
             } else {
                 initialized = false;
             }
@@ -208,7 +236,9 @@ class TypedMember {
     String toGenericString() {
         return accessible instanceof Field ? ((Field) accessible).toGenericString()
                 : accessible instanceof Method ? ((Method) accessible).toGenericString()
-                        : ((MethodParam) accessible).toString();
+                        : accessible instanceof GeneratedMember
+                                ? ((GeneratedMember) accessible).toGenericString()
+                                : ((MethodParam) accessible).toString();
     }
 
     boolean isMethodParameter() {
@@ -1,5 +1,8 @@
 package picocli.model;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ResourceBundle;
 
 import org.apache.commons.lang3.StringUtils;
@@ -482,6 +485,53 @@ public class UsageMessageSpec {
         messages = Messages.copy(commandSpec, settings.messages());
     }
 
+    /**
+     * Writes the attributes of this spec, but not its messages, to a
+     * {@linkplain CommandSpecSnapshot snapshot}.
+     */
+    void writeSnapshot(DataOutput out) throws IOException {
+        CommandSpecSnapshot.writeStrings(out, description);
+        CommandSpecSnapshot.writeStrings(out, customSynopsis);
+        CommandSpecSnapshot.writeStrings(out, header);
+        CommandSpecSnapshot.writeStrings(out, footer);
+        CommandSpecSnapshot.writeBoolean(out, abbreviateSynopsis);
+        CommandSpecSnapshot.writeBoolean(out, sortOptions);
+        CommandSpecSnapshot.writeBoolean(out, defaultValuesVisible);
+        CommandSpecSnapshot.writeBoolean(out, hidden);
+        CommandSpecSnapshot.writeString(out,
+                requiredOptionMarker == null ? null : requiredOptionMarker.toString());
+        CommandSpecSnapshot.writeString(out, headerHeading);
+        CommandSpecSnapshot.writeString(out, synopsisHeading);
+        CommandSpecSnapshot.writeString(out, descriptionHeading);
+        CommandSpecSnapshot.writeString(out, parameterListHeading);
+        CommandSpecSnapshot.writeString(out, optionListHeading);
+        CommandSpecSnapshot.writeString(out, commandListHeading);
+        CommandSpecSnapshot.writeString(out, footerHeading);
+        out.writeInt(width);
+    }
+
+    /** Reads the attributes written by {@link #writeSnapshot(DataOutput)}. */
+    void readSnapshot(DataInput in) throws IOException {
+        description = CommandSpecSnapshot.readStrings(in);
+        customSynopsis = CommandSpecSnapshot.readStrings(in);
+        header = CommandSpecSnapshot.readStrings(in);
+        footer = CommandSpecSnapshot.readStrings(in);
+        abbreviateSynopsis = CommandSpecSnapshot.readBoolean(in);
+        sortOptions = CommandSpecSnapshot.readBoolean(in);
+        defaultValuesVisible = CommandSpecSnapshot.readBoolean(in);
+        hidden = CommandSpecSnapshot.readBoolean(in);
+        String marker = CommandSpecSnapshot.readString(in);
+        requiredOptionMarker = marker == null ? null : marker.charAt(0);
+        headerHeading = CommandSpecSnapshot.readString(in);
+        synopsisHeading = CommandSpecSnapshot.readString(in);
+        descriptionHeading = CommandSpecSnapshot.readString(in);
+        parameterListHeading = CommandSpecSnapshot.readString(in);
+        optionListHeading = CommandSpecSnapshot.readString(in);
+        commandListHeading = CommandSpecSnapshot.readString(in);
+        footerHeading = CommandSpecSnapshot.readString(in);
+        width = in.readInt();
+    }
+
     void initFromMixin(UsageMessageSpec mixin, CommandSpec commandSpec) {
         if (Model.initializable(synopsisHeading, mixin.synopsisHeading(),
                 DEFAULT_SYNOPSIS_HEADING)) {
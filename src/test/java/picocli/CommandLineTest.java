@@ -41,6 +41,7 @@ import java.net.InetAddress;
 import java.net.Socket;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -87,6 +88,7 @@ import picocli.help.Ansi;
 import picocli.help.ColorScheme;
 import picocli.help.Help;
 import picocli.help.HelpCommand;
+import picocli.model.ArgumentFileCache;
 import picocli.model.CommandSpec;
 import picocli.model.IFactory;
 import picocli.model.ITypeConverter;
@@ -1348,6 +1350,55 @@ public class CommandLineTest {
         assertTrue(grandChildCount > 0);
     }
 
+    @Test
+    public void testAbbreviatedOptionsAndSubcommands() {
+        @Command(name = "status")
+        class AbbreviatedStatus {
+            @Option(names = "--verbose")
+            boolean verbose;
+            @Option(names = "--verbatim")
+            boolean verbatim;
+            @Option(names = "--format")
+            String format;
+        }
+        @Command(name = "stash")
+        class AbbreviatedStash {
+        }
+        @Command
+        class AbbreviatedApp {
+            @Option(names = "--format")
+            String format;
+        }
+        AbbreviatedStatus status = new AbbreviatedStatus();
+        CommandLine commandLine = new CommandLine(new AbbreviatedApp()).addSubcommand("status", status)
+                .addSubcommand("stash", new AbbreviatedStash());
+        assertFalse(commandLine.isAbbreviatedOptionsAllowed());
+        assertFalse(commandLine.isAbbreviatedSubcommandsAllowed());
+        commandLine.setAbbreviatedOptionsAllowed(true).setAbbreviatedSubcommandsAllowed(true);
+        assertTrue(commandLine.getSubcommands().get("status").isAbbreviatedOptionsAllowed());
+
+        List<CommandLine> parsed = commandLine.parse("--form", "x", "stat", "--verbo",
+                "--fo=json");
+        assertEquals("x", ((AbbreviatedApp) parsed.get(0).getCommand()).format);
+        assertSame(status, parsed.get(1).getCommand());
+        assertTrue(status.verbose);
+        assertEquals("json", status.format);
+
+        try {
+            commandLine.parse("st");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("'st' is not unique: it matches 'stash', 'status'", ex.getMessage());
+        }
+        try {
+            commandLine.parse("status", "--verb=true");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("'--verb' is not unique: it matches '--verbatim', '--verbose'",
+                    ex.getMessage());
+        }
+    }
+
     @Test
     public void testDoubleDashSeparatesPositionalParameters() {
         CompactFields compact = CommandLine.populateCommand(new CompactFields(),
@@ -1374,16 +1425,8 @@ public class CommandLineTest {
         }
     }
 
-    private static void clearBuiltInTracingCache() throws Exception {
-        Field field = Class.forName("picocli.model.Interpreter$BuiltIn").getDeclaredField("traced");
-        field.setAccessible(true);
-        Collection<?> collection = (Collection<?>) field.get(null);
-        collection.clear();
-    }
-
     @Test
     public void testDebugOutputForDoubleDashSeparatesPositionalParameters() throws Exception {
-        clearBuiltInTracingCache();
         PrintStream originalErr = System.err;
         ByteArrayOutputStream baos = new ByteArrayOutputStream(2500);
         System.setErr(new PrintStream(baos));
@@ -1397,23 +1440,6 @@ public class CommandLineTest {
         } else {
             System.setProperty(PROPERTY, old);
         }
-        String prefix8 = String.format(""
-                + "[picocli DEBUG] Could not register converter for java.time.Duration: java.lang.ClassNotFoundException: java.time.Duration%n"
-                + "[picocli DEBUG] Could not register converter for java.time.Instant: java.lang.ClassNotFoundException: java.time.Instant%n"
-                + "[picocli DEBUG] Could not register converter for java.time.LocalDate: java.lang.ClassNotFoundException: java.time.LocalDate%n"
-                + "[picocli DEBUG] Could not register converter for java.time.LocalDateTime: java.lang.ClassNotFoundException: java.time.LocalDateTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.LocalTime: java.lang.ClassNotFoundException: java.time.LocalTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.MonthDay: java.lang.ClassNotFoundException: java.time.MonthDay%n"
-                + "[picocli DEBUG] Could not register converter for java.time.OffsetDateTime: java.lang.ClassNotFoundException: java.time.OffsetDateTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.OffsetTime: java.lang.ClassNotFoundException: java.time.OffsetTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.Period: java.lang.ClassNotFoundException: java.time.Period%n"
-                + "[picocli DEBUG] Could not register converter for java.time.Year: java.lang.ClassNotFoundException: java.time.Year%n"
-                + "[picocli DEBUG] Could not register converter for java.time.YearMonth: java.lang.ClassNotFoundException: java.time.YearMonth%n"
-                + "[picocli DEBUG] Could not register converter for java.time.ZonedDateTime: java.lang.ClassNotFoundException: java.time.ZonedDateTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.ZoneId: java.lang.ClassNotFoundException: java.time.ZoneId%n"
-                + "[picocli DEBUG] Could not register converter for java.time.ZoneOffset: java.lang.ClassNotFoundException: java.time.ZoneOffset%n");
-        String prefix7 = String.format(""
-                + "[picocli DEBUG] Could not register converter for java.nio.file.Path: java.lang.ClassNotFoundException: java.nio.file.Path%n");
         String expected = String.format(""
                 + "[picocli DEBUG] Creating CommandSpec for object of class picocli.CommandLineTest$CompactFields with factory picocli.model.Factory%n"
                 + "[picocli INFO] Parsing 6 command line args [-oout, --, -r, -v, p1, p2]%n"
@@ -1450,12 +1476,6 @@ public class CommandLineTest {
                 CommandLineTest.class.getName(), new File("/home/rpopma/picocli"));
         String actual = new String(baos.toByteArray(), "UTF8");
         //System.out.println(actual);
-        if (System.getProperty("java.version").compareTo("1.7.0") < 0) {
-            expected = prefix7 + expected;
-        }
-        if (System.getProperty("java.version").compareTo("1.8.0") < 0) {
-            expected = prefix8 + expected;
-        }
         assertEquals(expected, actual);
     }
 
@@ -2331,7 +2351,6 @@ public class CommandLineTest {
 
     @Test
     public void testTracingDebugWithSubCommands() throws Exception {
-        clearBuiltInTracingCache();
         PrintStream originalErr = System.err;
         ByteArrayOutputStream baos = new ByteArrayOutputStream(2500);
         System.setErr(new PrintStream(baos));
@@ -2347,23 +2366,6 @@ public class CommandLineTest {
         } else {
             System.setProperty(PROPERTY, old);
         }
-        String prefix8 = String.format(""
-                + "[picocli DEBUG] Could not register converter for java.time.Duration: java.lang.ClassNotFoundException: java.time.Duration%n"
-                + "[picocli DEBUG] Could not register converter for java.time.Instant: java.lang.ClassNotFoundException: java.time.Instant%n"
-                + "[picocli DEBUG] Could not register converter for java.time.LocalDate: java.lang.ClassNotFoundException: java.time.LocalDate%n"
-                + "[picocli DEBUG] Could not register converter for java.time.LocalDateTime: java.lang.ClassNotFoundException: java.time.LocalDateTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.LocalTime: java.lang.ClassNotFoundException: java.time.LocalTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.MonthDay: java.lang.ClassNotFoundException: java.time.MonthDay%n"
-                + "[picocli DEBUG] Could not register converter for java.time.OffsetDateTime: java.lang.ClassNotFoundException: java.time.OffsetDateTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.OffsetTime: java.lang.ClassNotFoundException: java.time.OffsetTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.Period: java.lang.ClassNotFoundException: java.time.Period%n"
-                + "[picocli DEBUG] Could not register converter for java.time.Year: java.lang.ClassNotFoundException: java.time.Year%n"
-                + "[picocli DEBUG] Could not register converter for java.time.YearMonth: java.lang.ClassNotFoundException: java.time.YearMonth%n"
-                + "[picocli DEBUG] Could not register converter for java.time.ZonedDateTime: java.lang.ClassNotFoundException: java.time.ZonedDateTime%n"
-                + "[picocli DEBUG] Could not register converter for java.time.ZoneId: java.lang.ClassNotFoundException: java.time.ZoneId%n"
-                + "[picocli DEBUG] Could not register converter for java.time.ZoneOffset: java.lang.ClassNotFoundException: java.time.ZoneOffset%n");
-        String prefix7 = String.format(""
-                + "[picocli DEBUG] Could not register converter for java.nio.file.Path: java.lang.ClassNotFoundException: java.nio.file.Path%n");
         String expected = String.format(""
                 + "[picocli DEBUG] Creating CommandSpec for object of class picocli.Demo$Git with factory picocli.model.Factory%n"
                 + "[picocli DEBUG] Creating CommandSpec for object of class picocli.help.AutoHelpMixin with factory picocli.model.Factory%n"
@@ -2422,12 +2424,6 @@ public class CommandLineTest {
                 Demo.class.getName(), new File("/home/rpopma/picocli"));
         String actual = new String(baos.toByteArray(), "UTF8");
         //System.out.println(actual);
-        if (System.getProperty("java.version").compareTo("1.7.0") < 0) {
-            expected = prefix7 + expected;
-        }
-        if (System.getProperty("java.version").compareTo("1.8.0") < 0) {
-            expected = prefix8 + expected;
-        }
         assertEquals(expected, actual);
     }
 
@@ -4558,6 +4554,125 @@ public class CommandLineTest {
         assertFalse("never invoked", app.xxx);
     }
 
+    @Test
+    public void testNestedAtFileStreaming() throws IOException {
+        class App {
+            @Option(names = "-x")
+            private boolean xxx;
+
+            @Option(names = "-f")
+            private String[] fff;
+
+            @Option(names = "-v")
+            private boolean verbose;
+
+            @Parameters
+            private List<String> files;
+        }
+        File file = findFile("/argfile-with-nested-at-file.txt");
+        File file2 = findFile("/argfile2.txt");
+        File nested = new File("argfile2.txt");
+        nested.delete();
+        assertFalse("does not exist yet", nested.exists());
+        copyFile(file2, nested);
+
+        setTraceLevel("OFF");
+        App app = new App();
+        CommandLine commandLine = new CommandLine(app).setOverwrittenOptionsAllowed(true)
+                .setAtFileStreaming(true);
+        assertTrue(commandLine.isAtFileStreaming());
+        commandLine.parse("-f", "fVal1", "@" + file.getAbsolutePath(), "-f", "fVal2");
+        assertTrue("invoked in argFile2", app.verbose);
+        assertEquals(Arrays.asList("abcdefg", "1111", "2222", "3333"), app.files);
+        assertTrue("invoked in argFile2", app.xxx);
+        assertArrayEquals(new String[] { "fVal1", "FFFF", "F2F2F2", "fVal2" }, app.fff);
+        assertEquals(Arrays.asList("-f", "fVal1", "@" + file.getAbsolutePath(), "-f", "fVal2"),
+                commandLine.getParseResult().originalArgs());
+        assertTrue("Deleted " + nested, nested.delete());
+    }
+
+    @Test
+    public void testAtFileCharset() throws IOException {
+        class App {
+            @Parameters
+            private List<String> values;
+        }
+        File file = File.createTempFile("argfile-utf16", ".txt");
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                out.write("äöü \"€ 1\"\n".getBytes("UTF-16"));
+            } finally {
+                out.close();
+            }
+            App app = new App();
+            CommandLine commandLine = new CommandLine(app);
+            assertNull(commandLine.getAtFileCharset());
+            commandLine.setAtFileCharset(Charset.forName("UTF-16"));
+            commandLine.parse("@" + file.getAbsolutePath());
+            assertEquals(Arrays.asList("äöü", "€ 1"), app.values);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testAtFileCache() throws IOException {
+        class App {
+            @Parameters
+            private List<String> values;
+        }
+        File file = File.createTempFile("argfile-cached", ".txt");
+        File other = File.createTempFile("argfile-evicted", ".txt");
+        try {
+            writeArgumentFile(file, "a \"b c\" # comment\n");
+            writeArgumentFile(other, "x\n");
+            ArgumentFileCache cache = new ArgumentFileCache(1);
+            App app = new App();
+            new CommandLine(app).setAtFileCache(cache).parse("@" + file.getAbsolutePath());
+            assertEquals(Arrays.asList("a", "b c"), app.values);
+            assertEquals(0, cache.hitCount());
+            assertEquals(1, cache.missCount());
+
+            app = new App();
+            new CommandLine(app).setAtFileCache(cache).parse("@" + file.getAbsolutePath(),
+                    "@" + file.getAbsolutePath());
+            assertEquals(Arrays.asList("a", "b c", "a", "b c"), app.values);
+            assertEquals(2, cache.hitCount());
+            assertEquals(1, cache.missCount());
+
+            writeArgumentFile(file, "changed\n");
+            app = new App();
+            new CommandLine(app).setAtFileCache(cache).parse("@" + file.getAbsolutePath());
+            assertEquals(Arrays.asList("changed"), app.values);
+            assertEquals(2, cache.missCount());
+
+            app = new App();
+            new CommandLine(app).setAtFileCache(cache).parse("@" + other.getAbsolutePath(),
+                    "@" + file.getAbsolutePath());
+            assertEquals(Arrays.asList("x", "changed"), app.values);
+            assertEquals(4, cache.missCount());
+            assertEquals(1, cache.size());
+        } finally {
+            file.delete();
+            other.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAtFileCacheRequiresPositiveSize() {
+        new ArgumentFileCache(0);
+    }
+
+    private void writeArgumentFile(File file, String content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
     private void copyFile(File source, File destination) throws IOException {
         InputStream in = null;
         OutputStream out = null;
@@ -4967,6 +5082,39 @@ public class CommandLineTest {
                 c.parameters.get("AppOptions"));
     }
 
+    @Test
+    public void testMapKeysInterned() {
+        class InternedProperties {
+            @Option(names = "-D")
+            Map<String, String> properties;
+        }
+        String[] args = { "-Dkey=1", "-D", "other=x=y", "-Dkey=2", "-Dempty=" };
+        InternedProperties app = new InternedProperties();
+        ParseResult parseResult = new CommandLine(app).setInternMapKeys(true).parseArgs(args);
+        assertEquals(LinkedHashMap.class, app.properties.getClass());
+        assertEquals(Arrays.asList("key", "other", "empty"),
+                new ArrayList<String>(app.properties.keySet()));
+        assertEquals("2", app.properties.get("key"));
+        assertEquals("x=y", app.properties.get("other"));
+        assertEquals("", app.properties.get("empty"));
+        List<String> values = parseResult.matchedOption("-D").stringValues();
+        assertEquals(Arrays.asList("key", "1", "other", "x=y", "key", "2", "empty", ""), values);
+        assertSame(values.get(0), values.get(4));
+
+        app = new InternedProperties();
+        parseResult = new CommandLine(app).parseArgs(args);
+        values = parseResult.matchedOption("-D").stringValues();
+        assertEquals(values.get(0), values.get(4));
+        assertNotSame(values.get(0), values.get(4));
+        try {
+            new CommandLine(new InternedProperties()).parseArgs("-Dkey");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("Value for option option '-D' (<String=String>) should be in KEY=VALUE "
+                    + "format but was key", ex.getMessage());
+        }
+    }
+
     // Enum required for testIssue402, can't be local
     public enum Choices {
         CHOICE1, CHOICE2
@@ -4997,7 +5145,7 @@ public class CommandLineTest {
         Demo.mainCommand().parseWithHandler(((IParseResultHandler) null), new PrintStream(baos),
                 new String[] { "chekcout" });
         String expected = String.format("" + "Unmatched argument: chekcout%n"
-                + "Did you mean: checkout or help or branch?%n");
+                + "Did you mean: checkout or help or commit?%n");
         assertEquals(expected, baos.toString());
     }
 
@@ -5217,4 +5365,33 @@ public class CommandLineTest {
             System.setIn(in);
         }
     }
+
+    @Test
+    public void testAbbreviationOfSeveralNamesOfOneOptionIsNotAmbiguous() {
+        @Command
+        class Colors {
+            @Option(names = {"--color", "--colour"})
+            String color;
+        }
+        Colors colors = new Colors();
+        new CommandLine(colors).setAbbreviatedOptionsAllowed(true).parse("--col", "red");
+        assertEquals("red", colors.color);
+        new CommandLine(colors).setAbbreviatedOptionsAllowed(true).parse("--col=blue");
+        assertEquals("blue", colors.color);
+    }
+
+    @Test
+    public void testAbbreviationOfSubcommandAndItsAliasIsNotAmbiguous() {
+        @Command(name = "status", aliases = "stat")
+        class Status {
+        }
+        @Command
+        class App {
+        }
+        Status status = new Status();
+        CommandLine commandLine = new CommandLine(new App()).addSubcommand("status", status)
+                .setAbbreviatedSubcommandsAllowed(true);
+        List<CommandLine> parsed = commandLine.parse("sta");
+        assertSame(status, parsed.get(1).getCommand());
+    }
 }
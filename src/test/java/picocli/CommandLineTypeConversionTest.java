@@ -21,6 +21,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -377,6 +378,123 @@ public class CommandLineTypeConversionTest {
         assertEquals(Integer.valueOf(34), bean.anIntegerField);
     }
 
+    static class HexIntConverter extends TypeConverter<Integer> implements ITypeConverter.OfInt {
+        int converted;
+
+        @Override
+        public int intOf(String value) {
+            converted++;
+            return Integer.decode(value);
+        }
+    }
+
+    @Test
+    public void testPrimitiveConverterAndSetter() {
+        class PrimitiveApp {
+            @Option(names = "-i")
+            int i;
+            @Option(names = "-d")
+            double d;
+            @Option(names = "-b", arity = "1")
+            boolean b;
+            @Parameters
+            int[] values;
+        }
+        PrimitiveApp app = new PrimitiveApp();
+        HexIntConverter converter = new HexIntConverter();
+        CommandLine commandLine = new CommandLine(app).registerConverter(Integer.TYPE, converter);
+        commandLine.parseArgs("-i", "0x10", "-d", "2.5", "-b", "true", "1", "0x7FFFFFFF", "010");
+        assertEquals(16, app.i);
+        assertEquals(2.5, app.d, 0);
+        assertTrue(app.b);
+        assertArrayEquals(new int[] { 1, 0x7FFFFFFF, 8 }, app.values);
+        assertEquals(Arrays.<Object>asList(16), commandLine.getCommandSpec().findOption("-i")
+                .typedValues());
+        assertTrue(converter.converted >= 4);
+
+        try {
+            commandLine.parseArgs("-i", "x");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("Invalid value for option '-i': Cannot convert 'x' to int "
+                    + "(java.lang.NumberFormatException: For input string: \"x\")",
+                    ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testPrimitiveConvertersConvertSingleValuesWithoutBoxing() {
+        class PrimitiveApp {
+            @Option(names = "-l")
+            long l;
+            @Option(names = "-b", arity = "1")
+            boolean b;
+        }
+        PrimitiveApp app = new PrimitiveApp();
+        CommandLine commandLine = new CommandLine(app)
+                .registerConverter(Long.TYPE, new ITypeConverter.OfLong() {
+                    public long longOf(String value) {
+                        return Long.decode(value);
+                    }
+
+                    public Long modelOf(String value) {
+                        throw new UnsupportedOperationException(value);
+                    }
+
+                    public String viewOf(Object value) {
+                        return String.valueOf(value);
+                    }
+                })
+                .registerConverter(Boolean.TYPE, new ITypeConverter.OfBoolean() {
+                    public boolean booleanOf(String value) {
+                        return "yes".equals(value);
+                    }
+
+                    public Boolean modelOf(String value) {
+                        throw new UnsupportedOperationException(value);
+                    }
+
+                    public String viewOf(Object value) {
+                        return String.valueOf(value);
+                    }
+                });
+        commandLine.parseArgs("-l", "0x10", "-b", "yes");
+        assertEquals(16L, app.l);
+        assertTrue(app.b);
+        assertEquals(Arrays.<Object>asList(16L), commandLine.getCommandSpec().findOption("-l")
+                .typedValues());
+    }
+
+    @Test
+    public void testConversionErrorPrecedesOverwrittenOptionError() {
+        class App {
+            @Option(names = "--xval")
+            int x;
+            @Option(names = "--name")
+            String name;
+        }
+        try {
+            new CommandLine(new App()).parseArgs("--xval", "-1", "--xval", "-of");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("Invalid value for option '--xval': '-of' is not an int",
+                    ex.getMessage());
+        }
+        try {
+            new CommandLine(new App()).parseArgs("--xval", "1", "--xval", "2");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("option '--xval' (<x>) should be specified only once", ex.getMessage());
+        }
+        try {
+            new CommandLine(new App()).parseArgs("--name", "a", "--name", "b");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("option '--name' (<name>) should be specified only once",
+                    ex.getMessage());
+        }
+    }
+
     @Test
     public void testLongFieldsAreDecimal() {
         try {
@@ -678,6 +796,62 @@ public class CommandLineTypeConversionTest {
         assertEquals(args[0], app.globField.glob);
     }
 
+    static class Shape {
+        final String name;
+
+        Shape(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Circle extends Shape {
+        Circle(String name) {
+            super(name);
+        }
+    }
+
+    static class ShapeConverter extends TypeConverter<Shape> {
+        @Override
+        public Shape modelOf(String value) {
+            return new Circle(value);
+        }
+    }
+
+    static class CircleConverter extends TypeConverter<Circle> {
+        @Override
+        public Circle modelOf(String value) {
+            return new Circle(value);
+        }
+    }
+
+    @Test
+    public void testRegisteredConverterResolvesSubtypes() throws Exception {
+        class App {
+            @Option(names = "-c")
+            Circle circle;
+        }
+        App app = new App();
+        CommandLine commandLine = new CommandLine(app);
+        commandLine.registerConverter(Shape.class, new ShapeConverter());
+        commandLine.parse("-c", "round");
+        assertEquals("round", app.circle.name);
+        assertTrue(extractRegistry(commandLine).get(Circle.class) instanceof ShapeConverter);
+
+        // the most specific registered type wins, also after earlier lookups
+        commandLine.registerConverter(Circle.class, new CircleConverter());
+        assertTrue(extractRegistry(commandLine).get(Circle.class) instanceof CircleConverter);
+        assertNull(extractRegistry(commandLine).get(App.class));
+    }
+
+    @Test
+    public void testEnumConverterIsCached() throws Exception {
+        ITypeConverter<?> converter = extractRegistry(new CommandLine(new EnumParams()))
+                .get(TimeUnit.class);
+        assertNotNull(converter);
+        assertSame(converter,
+                extractRegistry(new CommandLine(new EnumParams())).get(TimeUnit.class));
+    }
+
     static class MyGlobConverter extends TypeConverter<MyGlob> {
         @Override
         public MyGlob modelOf(String value) {
@@ -871,6 +1045,42 @@ public class CommandLineTypeConversionTest {
         assertEquals(expected, params.timeUnitList);
     }
 
+    enum Level {
+        DEBUG("dbg"), INFO("info");
+
+        private final String label;
+
+        Level(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    @Test
+    public void testEnumTypeConversionCaseInsensitiveMatchesStringValueOrName() {
+        class App {
+            @Option(names = "-l")
+            Level level;
+        }
+        App app = new App();
+        CommandLine commandLine = new CommandLine(app).setCaseInsensitiveEnumValuesAllowed(true);
+        commandLine.parse("-l", "DBG");
+        assertEquals(Level.DEBUG, app.level);
+        commandLine.parse("-l", "INFO");
+        assertEquals(Level.INFO, app.level);
+        try {
+            commandLine.parse("-l", "debug");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("Invalid value for option '-l': expected one of [dbg, info] but was 'debug'",
+                    ex.getMessage());
+        }
+    }
+
     @Test
     public void testEnumArrayTypeConversionFailsForInvalidInput() {
         try {
@@ -0,0 +1,223 @@
+/*
+   Copyright 2017 Remko Popma
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package picocli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+import picocli.except.ParameterException;
+import picocli.model.BatchParseResult;
+import picocli.model.CommandSpec;
+import picocli.model.OptionSpec;
+import picocli.model.ParseResult;
+
+/**
+ * Tests parsing with a frozen {@code CommandSpec}.
+ */
+public class ConcurrentParsingTest {
+    @Command(name = "app")
+    static class App {
+        @Option(names = "-v")
+        boolean verbose;
+        @Option(names = "-x")
+        int x = 3;
+        @Option(names = "-I")
+        List<String> includes = new ArrayList<String>();
+        @Parameters
+        File[] files;
+    }
+
+    @Test
+    public void testFrozenParseDoesNotModifyUserObject() {
+        App app = new App();
+        CommandLine cmd = new CommandLine(app);
+        cmd.getCommandSpec().freeze();
+
+        ParseResult result = cmd.parseArgs("-v", "-x", "5", "-I", "a", "-I", "b", "f1", "f2");
+        assertTrue(result.<Boolean>matchedOptionValue('v', false));
+        assertEquals(Integer.valueOf(5), result.matchedOptionValue('x', 0));
+        assertEquals(Arrays.asList("a", "b"), result.matchedOptionValue('I', null));
+        assertEquals(Arrays.asList("5"), result.stringValues(result.matchedOption('x')));
+        assertEquals(2, result.<File[]>matchedPositionalValue(0, null).length);
+
+        assertFalse(app.verbose);
+        assertEquals(3, app.x);
+        assertTrue(app.includes.isEmpty());
+        assertNull(app.files);
+        assertTrue(cmd.getCommandSpec().findOption('x').stringValues().isEmpty());
+        assertNull(cmd.getParseResult());
+    }
+
+    @Test
+    public void testFrozenParseUsesInitialValueForUnmatchedArgs() {
+        CommandLine cmd = new CommandLine(new App());
+        cmd.getCommandSpec().freeze();
+        ParseResult result = cmd.parseArgs("-v");
+        OptionSpec x = cmd.getCommandSpec().findOption('x');
+        assertEquals(Integer.valueOf(3), result.valueOf(x));
+        assertTrue(result.stringValues(x).isEmpty());
+    }
+
+    @Test
+    public void testFrozenSpecRejectsModification() {
+        CommandLine cmd = new CommandLine(new App());
+        cmd.getCommandSpec().freeze();
+        assertTrue(cmd.getCommandSpec().isFrozen());
+        try {
+            cmd.getCommandSpec().addOption(OptionSpec.builder("-y").build());
+            fail("Expected exception");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            cmd.setSeparator(":");
+            fail("Expected exception");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testConcurrentParsesAreIndependent() throws Exception {
+        final CommandLine cmd = new CommandLine(new App());
+        cmd.getCommandSpec().freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 200; i++) {
+                final int n = i;
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() {
+                        ParseResult result = cmd.parseArgs("-x", String.valueOf(n), "-I",
+                                "inc" + n, "file" + n);
+                        return result.matchedOptionValue('x', -1) == n
+                                && result.matchedOptionValue('I', Collections.emptyList())
+                                        .equals(Arrays.asList("inc" + n))
+                                && result.<File[]>matchedPositionalValue(0, null)[0].getName()
+                                        .equals("file" + n);
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParseArgsBatchKeepsInputOrder() {
+        CommandLine cmd = new CommandLine(new App());
+        cmd.getCommandSpec().freeze();
+        List<String[]> argsList = new ArrayList<String[]>();
+        for (int i = 0; i < 500; i++) {
+            argsList.add(i % 7 == 0 ? new String[] { "-x", "not-a-number" }
+                    : new String[] { "-x", String.valueOf(i), "file" + i });
+        }
+        BatchParseResult batch = cmd.parseArgsBatch(argsList);
+        assertEquals(500, batch.size());
+        assertTrue(batch.hasErrors());
+        for (int i = 0; i < 500; i++) {
+            if (i % 7 == 0) {
+                assertNull(batch.parseResult(i));
+                assertTrue(batch.error(i) instanceof ParameterException);
+            } else {
+                assertNull(batch.error(i));
+                assertEquals(Integer.valueOf(i), batch.parseResult(i).matchedOptionValue('x', -1));
+                assertEquals("file" + i, batch.parseResult(i)
+                        .<File[]>matchedPositionalValue(0, null)[0].getName());
+            }
+        }
+    }
+
+    @Test
+    public void testParseArgsBatchOnCallerExecutor() {
+        CommandLine cmd = new CommandLine(new App());
+        cmd.getCommandSpec().freeze();
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        Executor sameThread = new Executor() {
+            public void execute(Runnable command) {
+                tasks.add(command);
+                command.run();
+            }
+        };
+        BatchParseResult batch = cmd.parseArgsBatch(
+                Arrays.asList(new String[] { "-v" }, new String[] { "-I", "a" }), sameThread);
+        assertFalse(tasks.isEmpty());
+        assertFalse(batch.hasErrors());
+        assertTrue(batch.parseResult(0).<Boolean>matchedOptionValue('v', false));
+        assertEquals(Arrays.asList("a"), batch.parseResult(1).matchedOptionValue('I', null));
+    }
+
+    @Test
+    public void testParseArgsBatchFromStream() {
+        CommandLine cmd = new CommandLine(new App());
+        cmd.getCommandSpec().freeze();
+        BatchParseResult batch = cmd.parseArgsBatch(
+                Stream.of(new String[] { "-x", "1" }, new String[] { "-x", "2" }));
+        assertEquals(Integer.valueOf(1), batch.parseResult(0).matchedOptionValue('x', 0));
+        assertEquals(Integer.valueOf(2), batch.parseResult(1).matchedOptionValue('x', 0));
+        assertEquals(0, cmd.parseArgsBatch(new ArrayList<String[]>()).size());
+    }
+
+    @Command(name = "sub", aliases = { "s", "su" })
+    static class Sub {
+        @Option(names = "-y")
+        int y;
+    }
+
+    @Command(name = "lazy", lazySubcommands = true, subcommands = Sub.class)
+    static class LazyApp {
+    }
+
+    @Test
+    public void testFreezeDoesNotCreateLazySubcommands() {
+        CommandLine cmd = new CommandLine(new LazyApp());
+        CommandLine sub = cmd.getSubcommands().get("sub");
+        cmd.getCommandSpec().freeze();
+        assertFalse(sub.hasCommandSpec());
+
+        ParseResult result = cmd.parseArgs("s", "-y", "2");
+        assertTrue(sub.hasCommandSpec());
+        assertTrue(sub.getCommandSpec().isFrozen());
+        assertEquals(Integer.valueOf(2), result.subcommand().matchedOptionValue('y', 0));
+        assertEquals(0, ((Sub) sub.getCommand()).y);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParseArgsBatchRequiresFrozenSpec() {
+        new CommandLine(new App()).parseArgsBatch(Arrays.<String[]>asList(new String[0]));
+    }
+}
@@ -0,0 +1,92 @@
+package picocli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.ParentCommand;
+import picocli.except.InitializationException;
+import picocli.except.ParameterException;
+
+/**
+ * Tests subcommands registered from the subcommand index in
+ * {@code src/test/resources/META-INF/picocli/subcommands}.
+ */
+public class IndexedSubcommandsTest {
+    static boolean pluginLoaded;
+
+    static class Base {
+    }
+
+    @Command(name = "tool", subcommands = Declared.class)
+    static class Tool extends Base {
+    }
+
+    @Command(name = "plugin", aliases = "p", subcommandOf = Tool.class)
+    static class Plugin {
+        static {
+            pluginLoaded = true;
+        }
+
+        @ParentCommand
+        Tool parent;
+        @Option(names = "-y")
+        int y;
+    }
+
+    @Command(name = "declared", subcommandOf = Tool.class)
+    static class Declared {
+    }
+
+    @Command(name = "inherited", subcommandOf = Base.class)
+    static class Inherited {
+    }
+
+    @Test
+    public void testIndexedSubcommandsAreRegisteredWithoutLoadingThem() {
+        Tool tool = new Tool();
+        CommandLine commandLine = new CommandLine(tool);
+        assertEquals(Arrays.asList("declared", "plugin", "p", "missing", "inherited"),
+                new ArrayList<String>(commandLine.getSubcommands().keySet()));
+        CommandLine plugin = commandLine.getSubcommands().get("plugin");
+        assertSame(plugin, commandLine.getSubcommands().get("p"));
+        assertFalse(plugin.hasCommandSpec());
+        assertFalse(pluginLoaded);
+
+        commandLine.parseArgs("p", "-y", "2");
+        assertTrue(pluginLoaded);
+        Plugin command = plugin.getCommand();
+        assertEquals(2, command.y);
+        assertSame(tool, command.parent);
+        assertSame(commandLine.getCommandSpec(), plugin.getCommandSpec().parent());
+        assertTrue(commandLine.getSubcommands().get("declared").getCommand() instanceof Declared);
+    }
+
+    @Test
+    public void testMissingIndexedSubcommandFailsWhenInvoked() {
+        CommandLine commandLine = new CommandLine(new Tool());
+        try {
+            commandLine.parseArgs("missing");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertTrue(ex.getCause() instanceof InitializationException);
+            assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().startsWith(
+                    "Could not load subcommand picocli.IndexedSubcommandsTest$Missing listed in "
+                            + "META-INF/picocli/subcommands"));
+        }
+    }
+
+    @Test
+    public void testOtherCommandsHaveNoIndexedSubcommands() {
+        assertTrue(new CommandLine(new Declared()).getSubcommands().isEmpty());
+    }
+}
@@ -0,0 +1,150 @@
+package picocli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.ParentCommand;
+import picocli.except.InitializationException;
+import picocli.except.ParameterException;
+import picocli.model.CommandSpec;
+import picocli.model.ParseResult;
+
+/**
+ * Tests subcommands that are only instantiated when first needed.
+ */
+public class LazySubcommandsTest {
+    enum Level {
+        LOW, HIGH
+    }
+
+    static int created;
+
+    @Command(name = "admin", lazySubcommands = true, subcommands = { Users.class,
+            Groups.class })
+    static class Admin {
+    }
+
+    @Command(name = "users", aliases = "u", description = "Manages users")
+    static class Users {
+        @ParentCommand
+        Admin parent;
+        @Option(names = "--level")
+        Level level;
+
+        Users() {
+            created++;
+        }
+    }
+
+    @Command(name = "groups", description = "Manages groups")
+    static class Groups {
+        Groups() {
+            created++;
+        }
+    }
+
+    @Command(name = "broken", lazySubcommands = true, subcommands = Broken.Sub.class)
+    static class Broken {
+        @Command(name = "sub")
+        static class Sub {
+            Sub() {
+                throw new IllegalStateException("Boom");
+            }
+        }
+    }
+
+    @Test
+    public void testSubcommandsAreCreatedWhenMatched() {
+        created = 0;
+        Admin admin = new Admin();
+        CommandLine commandLine = new CommandLine(admin).setCaseInsensitiveEnumValuesAllowed(true);
+        assertEquals(0, created);
+        assertEquals(Arrays.asList("users", "u", "groups"),
+                Arrays.asList(commandLine.getSubcommands().keySet().toArray()));
+        CommandLine users = commandLine.getSubcommands().get("users");
+        assertSame(users, commandLine.getSubcommands().get("u"));
+        assertFalse(users.hasCommandSpec());
+
+        ParseResult parseResult = commandLine.parseArgs("u", "--level", "high");
+        assertEquals(1, created);
+        assertTrue(users.hasCommandSpec());
+        assertFalse(commandLine.getSubcommands().get("groups").hasCommandSpec());
+        Users user = users.getCommand();
+        assertEquals(Level.HIGH, user.level);
+        assertSame(admin, user.parent);
+        assertSame(commandLine.getCommandSpec(), users.getCommandSpec().parent());
+        assertEquals("users", parseResult.subcommand().commandSpec().name());
+        assertTrue(users.isCaseInsensitiveEnumValuesAllowed());
+
+        commandLine.parseArgs("users", "--level", "low");
+        assertEquals(1, created);
+        assertEquals(Level.LOW, user.level);
+    }
+
+    @Test
+    public void testUsageHelpCreatesSubcommands() {
+        created = 0;
+        CommandLine commandLine = new CommandLine(new Admin());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        commandLine.usage(new PrintStream(baos));
+        assertEquals(2, created);
+        String usage = baos.toString();
+        assertTrue(usage, usage.contains("Manages users"));
+        assertTrue(usage, usage.contains("Manages groups"));
+    }
+
+    @Command(name = "top")
+    static class Top {
+    }
+
+    @Test
+    public void testAddSubcommandDoesNotCreateLazySubcommand() {
+        created = 0;
+        CommandLine top = new CommandLine(new Top());
+        CommandLine groups = CommandLine.lazy(
+                () -> CommandSpec.forAnnotatedObject(new Groups(), CommandLine.defaultFactory()),
+                CommandLine.defaultFactory());
+        top.addSubcommand("grp", groups, "g");
+        assertFalse(groups.hasCommandSpec());
+        assertSame(groups, top.getSubcommands().get("grp"));
+        assertSame(groups, top.getSubcommands().get("g"));
+        assertEquals(0, created);
+
+        List<CommandLine> parsed = top.parse("g");
+        assertEquals(1, created);
+        assertSame(groups, parsed.get(1));
+        CommandSpec spec = groups.getCommandSpec();
+        assertEquals("groups", spec.name());
+        assertTrue(spec.aliases().contains("g"));
+        assertSame(top.getCommandSpec(), spec.parent());
+        assertSame(top, groups.getParent());
+    }
+
+    @Test
+    public void testFailureToCreateSubcommandIsReportedWhenUsed() {
+        CommandLine commandLine = new CommandLine(new Broken());
+        List<CommandLine> parsed = commandLine.parse();
+        assertEquals(1, parsed.size());
+        try {
+            commandLine.parse("sub");
+            fail("Expected exception");
+        } catch (ParameterException ex) { // like any failure while processing arguments
+            assertTrue(ex.getCause() instanceof InitializationException);
+            assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage()
+                    .startsWith("Could not instantiate subcommand " + Broken.Sub.class.getName()));
+        }
+        assertFalse(commandLine.getSubcommands().get("sub").hasCommandSpec());
+    }
+}
@@ -17,6 +17,7 @@ package picocli;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import java.text.ParseException;
 import java.util.Arrays;
@@ -76,6 +77,22 @@ public class LenientParsingTest {
         assertEquals(1, commandLine.getParseResult().errors().size());
         assertEquals("Unmatched arguments: 2, 3", commandLine.getParseResult().errors().get(0).getMessage());
     }
+
+    @Test
+    public void testOriginalArgsAreNotRepeatedWhenCollectingErrors() throws Exception {
+        CommandSpec spec = CommandSpec.create();
+        spec.addOption(OptionSpec.builder("-c").type(int.class).build());
+        spec.addSubcommand("sub", new CommandLine(CommandSpec.create()));
+        spec.parser().collectErrors(true);
+        CommandLine commandLine = new CommandLine(spec);
+        String[] args = {"-c", "x", "-c", "y", "-c", "z", "sub"};
+        commandLine.parse(args);
+        assertEquals(3, commandLine.getParseResult().errors().size());
+        assertEquals(Arrays.asList(args), commandLine.getParseResult().originalArgs());
+        assertSame(commandLine.getParseResult().originalArgs(),
+                commandLine.getParseResult().subcommand().originalArgs());
+    }
+
     @Test
     public void testMissingRequiredParams() {
         class Example {
@@ -16,6 +16,7 @@ import org.junit.Test;
 import picocli.CommandLine;
 import picocli.annot.Option;
 import picocli.annot.Parameters;
+import picocli.except.InitializationException;
 import picocli.except.MissingParameterException;
 import picocli.except.UnmatchedArgumentException;
 
@@ -314,6 +315,47 @@ public class ArgSplitTest {
         assertArrayEquals(new String[]{"a", "b", "c,d,e", "f", "xxx,yyy"}, actual);
     }
 
+    @Test
+    public void testSplitLiteralMatchesStringSplit() {
+        String[] values = {"", ",", ",,", "a", "a,", ",a", "a,,b,", "a,b,c,,", "a::b::", "::"};
+        String[] delimiters = {",", "::"};
+        for (String value : values) {
+            for (String delimiter : delimiters) {
+                for (int limit = 0; limit < 4; limit++) {
+                    assertArrayEquals(value + " " + delimiter + " " + limit,
+                            value.split(delimiter, limit),
+                            ArgSpec.splitLiteral(value, delimiter, limit));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitRegexLiteralDetection() {
+        assertEquals(",", ArgSpec.literal(","));
+        assertEquals(";;", ArgSpec.literal(";;"));
+        assertEquals("|", ArgSpec.literal("\\|"));
+        assertNull(ArgSpec.literal("\\s+"));
+        assertNull(ArgSpec.literal("a|b"));
+        assertNull(ArgSpec.literal(""));
+    }
+
+    @Test
+    public void testArgSpecSplitValue_CompiledRegex() {
+        ParserSpec parser = new ParserSpec();
+        ArgSpec spec = PositionalParamSpec.builder().splitRegex("\\s*[,;]\\s*").build();
+        assertArrayEquals(new String[]{"a", "b", "c"},
+                spec.splitValue("a , b;c", parser, Range.valueOf("0"), 0));
+        spec = PositionalParamSpec.builder().splitRegex("\\|").build();
+        assertArrayEquals(new String[]{"a", "b|c"},
+                spec.splitValue("a|b|c", parser.limitSplit(true), Range.valueOf("2"), 0));
+    }
+
+    @Test(expected = InitializationException.class)
+    public void testInvalidSplitRegexIsRejectedWhenBuilt() {
+        PositionalParamSpec.builder().splitRegex("[").build();
+    }
+
     @Test
     public void testParseQuotedArgumentWithNestedQuotes() {
         class Example {
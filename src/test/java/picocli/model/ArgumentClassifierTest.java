@@ -0,0 +1,196 @@
+package picocli.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ArgumentClassifierTest {
+    private final ArgumentClassifier classifier = classifier(new ParserSpec());
+
+    private static ArgumentClassifier classifier(ParserSpec parser) {
+        return new ArgumentClassifier(Arrays.asList("-v", "-f", "--file", "--file=x", "-o=",
+                "--verbose", "--verbatim"), Arrays.asList("commit", "-c", "status", "stash"),
+                parser);
+    }
+
+    private int kind(String arg) {
+        return ArgumentClassifier.kind(classifier.classify(arg));
+    }
+
+    @Test
+    public void testClassify() {
+        assertEquals(ArgumentClassifier.END_OF_OPTIONS, kind("--"));
+        assertEquals(ArgumentClassifier.SUBCOMMAND, kind("commit"));
+        assertEquals(ArgumentClassifier.SUBCOMMAND, kind("-c"));
+        assertEquals(ArgumentClassifier.OPTION, kind("-v"));
+        assertEquals(ArgumentClassifier.OPTION, kind("--file"));
+        assertEquals(ArgumentClassifier.OPTION, kind("--file=x"));
+        assertEquals(ArgumentClassifier.CLUSTER, kind("-vf"));
+        assertEquals(ArgumentClassifier.CLUSTER, kind("--files"));
+        assertEquals(ArgumentClassifier.POSITIONAL, kind("-x"));
+        assertEquals(ArgumentClassifier.POSITIONAL, kind("commits"));
+        assertEquals(ArgumentClassifier.POSITIONAL, kind(""));
+        assertEquals(ArgumentClassifier.CLUSTER, kind("--verb"));
+        assertEquals(ArgumentClassifier.POSITIONAL, kind("st"));
+        assertEquals(ArgumentClassifier.POSITIONAL, ArgumentClassifier.kind(
+                classifier(new ParserSpec().posixClusteredShortOptionsAllowed(false))
+                        .classify("-vf")));
+    }
+
+    @Test
+    public void testAttachedValueIsSplitAtFirstSeparator() {
+        int classification = classifier.classify("--file=y=z");
+        assertEquals(ArgumentClassifier.ATTACHED, ArgumentClassifier.kind(classification));
+        assertEquals(6, ArgumentClassifier.separatorIndex(classification));
+
+        classification = classifier.classify("-f=");
+        assertEquals(ArgumentClassifier.ATTACHED, ArgumentClassifier.kind(classification));
+        assertEquals(2, ArgumentClassifier.separatorIndex(classification));
+
+        // the first separator follows "-o", which is not an option
+        assertEquals(ArgumentClassifier.CLUSTER, kind("-o=1"));
+        assertEquals(ArgumentClassifier.POSITIONAL, kind("=-v=1"));
+    }
+
+    @Test
+    public void testAbbreviatedOptions() {
+        ArgumentClassifier abbreviating = classifier(
+                new ParserSpec().abbreviatedOptionsAllowed(true));
+        int classification = abbreviating.classify("--verbo");
+        assertEquals(ArgumentClassifier.OPTION, ArgumentClassifier.kind(classification));
+        assertTrue(ArgumentClassifier.isAbbreviated(classification));
+        assertEquals("--verbose", abbreviating.resolveOption("--verbo"));
+
+        classification = abbreviating.classify("--verbo=a");
+        assertEquals(ArgumentClassifier.ATTACHED, ArgumentClassifier.kind(classification));
+        assertTrue(ArgumentClassifier.isAbbreviated(classification));
+        assertEquals(7, ArgumentClassifier.separatorIndex(classification));
+        assertEquals(ArgumentClassifier.AMBIGUOUS,
+                ArgumentClassifier.kind(abbreviating.classify("--fi=a")));
+
+        // exact names win over abbreviations
+        classification = abbreviating.classify("--file");
+        assertEquals(ArgumentClassifier.OPTION, ArgumentClassifier.kind(classification));
+        assertFalse(ArgumentClassifier.isAbbreviated(classification));
+
+        classification = abbreviating.classify("--verb=1");
+        assertEquals(ArgumentClassifier.AMBIGUOUS, ArgumentClassifier.kind(classification));
+        assertEquals(6, ArgumentClassifier.separatorIndex(classification));
+        assertEquals(Arrays.asList("--verbatim", "--verbose"), abbreviating.candidates("--verb"));
+
+        // short options and lone dashes are never abbreviations
+        assertEquals(ArgumentClassifier.POSITIONAL,
+                ArgumentClassifier.kind(abbreviating.classify("-")));
+        assertEquals(ArgumentClassifier.CLUSTER,
+                ArgumentClassifier.kind(abbreviating.classify("---")));
+        assertEquals(ArgumentClassifier.POSITIONAL,
+                ArgumentClassifier.kind(abbreviating.classify("st")));
+        assertTrue(abbreviating.isOption("--verbo"));
+    }
+
+    @Test
+    public void testAbbreviatedSubcommands() {
+        ArgumentClassifier abbreviating = classifier(
+                new ParserSpec().abbreviatedSubcommandsAllowed(true));
+        int classification = abbreviating.classify("com");
+        assertEquals(ArgumentClassifier.SUBCOMMAND, ArgumentClassifier.kind(classification));
+        assertTrue(ArgumentClassifier.isAbbreviated(classification));
+        assertEquals("commit", abbreviating.resolveSubcommand("com"));
+        assertEquals(ArgumentClassifier.AMBIGUOUS,
+                ArgumentClassifier.kind(abbreviating.classify("st")));
+        assertEquals(Arrays.asList("stash", "status"), abbreviating.candidates("st"));
+        assertEquals(ArgumentClassifier.CLUSTER,
+                ArgumentClassifier.kind(abbreviating.classify("--verbo")));
+        assertTrue(abbreviating.isOptionOrSubcommand("sta"));
+    }
+
+    @Test
+    public void testAbbreviationOfAliasesOfOneTargetIsNotAmbiguous() {
+        Object color = new Object();
+        Object verbose = new Object();
+        Map<String, Object> options = new LinkedHashMap<String, Object>();
+        options.put("--color", color);
+        options.put("--colour", color);
+        options.put("--verbose", verbose);
+        options.put("--verbatim", new Object());
+        Object status = new Object();
+        Map<String, Object> subcommands = new LinkedHashMap<String, Object>();
+        subcommands.put("status", status);
+        subcommands.put("stat", status);
+        subcommands.put("stop", new Object());
+        ArgumentClassifier abbreviating = new ArgumentClassifier(options, subcommands,
+                new ParserSpec().abbreviatedOptionsAllowed(true)
+                        .abbreviatedSubcommandsAllowed(true));
+
+        int classification = abbreviating.classify("--col");
+        assertEquals(ArgumentClassifier.OPTION, ArgumentClassifier.kind(classification));
+        assertTrue(ArgumentClassifier.isAbbreviated(classification));
+        assertEquals(ArgumentClassifier.ATTACHED,
+                ArgumentClassifier.kind(abbreviating.classify("--col=red")));
+        assertEquals(ArgumentClassifier.AMBIGUOUS,
+                ArgumentClassifier.kind(abbreviating.classify("--verb")));
+        assertEquals(ArgumentClassifier.SUBCOMMAND,
+                ArgumentClassifier.kind(abbreviating.classify("sta")));
+        assertEquals("status", abbreviating.resolveSubcommand("sta"));
+        assertEquals(ArgumentClassifier.AMBIGUOUS,
+                ArgumentClassifier.kind(abbreviating.classify("st")));
+    }
+
+    @Test
+    public void testCommonPrefixLengthSumsOverOptionNames() {
+        // options: -v, -f, --file, --file=x, -o=, --verbose, --verbatim
+        assertEquals(7, classifier.optionCount());
+        assertEquals(7, classifier.commonPrefixLength("-"));
+        assertEquals(7 + 4, classifier.commonPrefixLength("--"));
+        assertEquals(7 + 4 + 2 * 4 + 4, classifier.commonPrefixLength("--verbatim"));
+        assertEquals(7 + 1, classifier.commonPrefixLength("-vx"));
+        assertEquals(0, classifier.commonPrefixLength("commit"));
+        assertEquals(0, classifier.commonPrefixLength(""));
+    }
+
+    @Test
+    public void testIsOption() {
+        assertTrue(classifier.isOption("--"));
+        assertTrue(classifier.isOption("-v"));
+        assertTrue(classifier.isOption("--file=a"));
+        assertTrue(classifier.isOption("-vx"));
+        assertFalse(classifier.isOption("-xv"));
+        assertFalse(classifier.isOption("commit"));
+        assertFalse(classifier.isOption(null));
+        assertTrue(classifier.isOptionOrSubcommand("commit"));
+        assertTrue(classifier.isOptionOrSubcommand("-v"));
+        assertFalse(classifier.isOptionOrSubcommand("value"));
+        assertFalse(classifier.isOptionOrSubcommand(null));
+    }
+
+    @Test
+    public void testCommandSpecRecompilesClassifierWhenModified() {
+        CommandSpec spec = CommandSpec.create();
+        ArgumentClassifier first = spec.argumentClassifier();
+        assertEquals(ArgumentClassifier.POSITIONAL,
+                ArgumentClassifier.kind(first.classify("-y")));
+        assertTrue(first == spec.argumentClassifier());
+
+        spec.addOption(OptionSpec.builder("-y").build());
+        assertEquals(ArgumentClassifier.OPTION,
+                ArgumentClassifier.kind(spec.argumentClassifier().classify("-y")));
+
+        spec.parser().endOfOptionsDelimiter(";");
+        assertEquals(ArgumentClassifier.END_OF_OPTIONS,
+                ArgumentClassifier.kind(spec.argumentClassifier().classify(";")));
+
+        spec.parser().abbreviatedOptionsAllowed(true);
+        assertTrue(first != spec.argumentClassifier());
+
+        spec.parser().separator(":");
+        int classification = spec.argumentClassifier().classify("-y:1");
+        assertEquals(ArgumentClassifier.ATTACHED, ArgumentClassifier.kind(classification));
+        assertEquals(2, ArgumentClassifier.separatorIndex(classification));
+    }
+}
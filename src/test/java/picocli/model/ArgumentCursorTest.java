@@ -0,0 +1,71 @@
+package picocli.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class ArgumentCursorTest {
+
+    @Test
+    public void testPopAndPeekFollowArgumentOrder() {
+        ArgumentCursor cursor = new ArgumentCursor(new String[] {"a", "b"});
+        assertEquals(2, cursor.size());
+        assertEquals("a", cursor.peek());
+        assertEquals("a", cursor.pop());
+        assertEquals("b", cursor.pop());
+        assertTrue(cursor.isEmpty());
+        assertNull(cursor.peek());
+    }
+
+    @Test
+    public void testPushBackDoesNotModifySharedArray() {
+        String[] args = {"-ffile", "x"};
+        ArgumentCursor cursor = new ArgumentCursor(args);
+        String arg = cursor.pop();
+        cursor.push(arg);
+        assertEquals("-ffile", cursor.peek());
+        cursor.pop();
+        cursor.push("file");
+        assertEquals(Arrays.asList("file", "x"), cursor.remainder());
+        assertArrayEquals(new String[] {"-ffile", "x"}, args);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        ArgumentCursor cursor = new ArgumentCursor(new String[] {"a", "b", "c"});
+        cursor.pop();
+        ArgumentCursor copy = cursor.copy();
+        copy.pop();
+        copy.push("B");
+        assertEquals(Arrays.asList("B", "c"), copy.remainder());
+        assertEquals(Arrays.asList("b", "c"), cursor.remainder());
+    }
+
+    @Test
+    public void testPushBeforeFirstPop() {
+        ArgumentCursor cursor = ArgumentCursor.of("a");
+        cursor.push("z");
+        assertEquals(Arrays.asList("z", "a"), cursor.remainder());
+    }
+
+    @Test
+    public void testLazySourceIsPulledOnDemandAndSharedWithCopies() {
+        Iterator<String> source = Arrays.asList("a", "b", "c").iterator();
+        ArgumentCursor cursor = new ArgumentCursor(source);
+        assertEquals(1, cursor.available(1));
+        assertEquals("a", cursor.pop());
+        assertTrue(source.hasNext());
+        ArgumentCursor copy = cursor.copy();
+        assertEquals("b", copy.pop());
+        assertEquals("c", copy.pop());
+        assertTrue(copy.isEmpty());
+        assertEquals(2, copy.position() - cursor.position());
+        assertEquals(Arrays.asList("b", "c"), cursor.remainder());
+    }
+}
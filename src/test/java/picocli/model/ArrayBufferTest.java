@@ -0,0 +1,116 @@
+package picocli.model;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import picocli.CommandLine;
+import picocli.annot.Option;
+
+public class ArrayBufferTest {
+
+    @Test
+    public void testPrimitiveBuffersGrowAndKeepOrder() {
+        ArrayBuffer ints = ArrayBuffer.create(int.class);
+        ArrayBuffer longs = ArrayBuffer.create(long.class);
+        ArrayBuffer doubles = ArrayBuffer.create(double.class);
+        int[] expectedInts = new int[100];
+        long[] expectedLongs = new long[100];
+        double[] expectedDoubles = new double[100];
+        for (int i = 0; i < 100; i++) {
+            ints.add(i);
+            longs.add((long) i);
+            doubles.add(i / 2d);
+            expectedInts[i] = i;
+            expectedLongs[i] = i;
+            expectedDoubles[i] = i / 2d;
+        }
+        assertArrayEquals(expectedInts, (int[]) ints.toArray());
+        assertArrayEquals(expectedLongs, (long[]) longs.toArray());
+        assertArrayEquals(expectedDoubles, (double[]) doubles.toArray(), 0d);
+    }
+
+    @Test
+    public void testPrimitiveAppendsMixWithBoxedElements() {
+        ArrayBuffer ints = ArrayBuffer.create(int.class);
+        ints.appendInt(1);
+        ints.add(2);
+        ints.addArray(new int[] {3, 4});
+        assertArrayEquals(new int[] {1, 2, 3, 4}, (int[]) ints.toArray());
+
+        ArrayBuffer numbers = ArrayBuffer.create(Number.class);
+        numbers.appendLong(5L);
+        numbers.appendDouble(0.5);
+        assertArrayEquals(new Number[] {5L, 0.5}, (Number[]) numbers.toArray());
+    }
+
+    @Test
+    public void testObjectBufferFlattensCollectionsAndArrays() {
+        ArrayBuffer buffer = ArrayBuffer.create(String.class);
+        buffer.addArray(new String[] {"a", "b"});
+        buffer.add(Arrays.asList("c", "d"));
+        buffer.add("e");
+        assertArrayEquals(new String[] {"a", "b", "c", "d", "e"}, (String[]) buffer.toArray());
+
+        ArrayBuffer chars = ArrayBuffer.create(char.class);
+        chars.add('x');
+        chars.add('y');
+        assertArrayEquals(new char[] {'x', 'y'}, (char[]) chars.toArray());
+    }
+
+    static class App {
+        @Option(names = "-i")
+        int[] ints = {-1};
+        @Option(names = "-l", split = ",")
+        long[] longs;
+        @Option(names = "-d")
+        double[] doubles;
+        @Option(names = "-s")
+        String[] strings;
+    }
+
+    /** Fails if the interpreter converts through the boxing {@code modelOf}. */
+    static class UnboxedIntConverter implements ITypeConverter.OfInt {
+        public int intOf(String value) {
+            return Integer.parseInt(value);
+        }
+
+        public Integer modelOf(String value) {
+            throw new UnsupportedOperationException("boxed conversion of " + value);
+        }
+
+        public String viewOf(Object value) {
+            return String.valueOf(value);
+        }
+    }
+
+    @Test
+    public void testPrimitiveConverterAppendsUnboxed() {
+        App app = new App();
+        new CommandLine(app).registerConverter(int.class, new UnboxedIntConverter())
+                .parse("-i", "1", "-i", "2");
+        assertArrayEquals(new int[] {1, 2}, app.ints);
+    }
+
+    @Test
+    public void testInvalidValueIsNotAppended() {
+        App app = new App();
+        CommandLine commandLine = new CommandLine(app);
+        commandLine.getCommandSpec().parser().collectErrors(true);
+        commandLine.parse("-i", "1", "-i", "x", "-i", "3");
+        assertArrayEquals(new int[] {1, 3}, app.ints);
+    }
+
+    @Test
+    public void testRepeatedArrayOptionsAccumulate() {
+        App app = new App();
+        new CommandLine(app).parse("-i", "1", "-l", "2,3", "-i", "4", "-d", "0.5", "-s", "x",
+                "-l", "5", "-s", "y");
+        assertArrayEquals(new int[] {1, 4}, app.ints);
+        assertArrayEquals(new long[] {2, 3, 5}, app.longs);
+        assertArrayEquals(new double[] {0.5}, app.doubles, 0d);
+        assertArrayEquals(new String[] {"x", "y"}, app.strings);
+    }
+}
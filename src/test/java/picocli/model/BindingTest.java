@@ -0,0 +1,99 @@
+package picocli.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import picocli.CommandLine;
+import picocli.except.ParameterException;
+import picocli.except.PicocliException;
+
+public class BindingTest {
+    static String staticName;
+
+    static class Bean {
+        String name = "initial";
+        int count = 1;
+        Long boxed;
+        String last;
+
+        void name(String name) {
+            if ("boom".equals(name)) {
+                throw new IllegalStateException("Boom!");
+            }
+            last = name;
+        }
+    }
+
+    private static Field field(Class<?> cls, String name) throws Exception {
+        Field result = cls.getDeclaredField(name);
+        result.setAccessible(true);
+        return result;
+    }
+
+    @Test
+    public void testFieldBindingGetSetAndAssign() throws Exception {
+        Bean bean = new Bean();
+        FieldBinding name = new FieldBinding(bean, field(Bean.class, "name"));
+        assertEquals("initial", name.get());
+        assertEquals("initial", name.set("second"));
+        name.assign("third");
+        assertEquals("third", bean.name);
+
+        FieldBinding count = new FieldBinding(bean, field(Bean.class, "count"));
+        count.setInt(42);
+        assertEquals(42, bean.count);
+        assertEquals(42, count.getInt());
+        assertEquals(Integer.valueOf(42), count.set(7));
+        assertEquals(7L, count.getLong());
+
+        FieldBinding boxed = new FieldBinding(bean, field(Bean.class, "boxed"));
+        boxed.setLong(3L); // not a primitive field: boxed
+        assertEquals(Long.valueOf(3), bean.boxed);
+        try {
+            boxed.assign("text");
+            fail("Expected exception");
+        } catch (PicocliException ex) {
+            assertTrue(ex.getMessage(),
+                    ex.getMessage().startsWith("Could not set value for field"));
+        }
+    }
+
+    @Test
+    public void testFieldBindingOfStaticField() throws Exception {
+        FieldBinding binding = new FieldBinding(new Bean(),
+                field(BindingTest.class, "staticName"));
+        binding.assign("static");
+        assertEquals("static", staticName);
+        assertSame(staticName, binding.get());
+        staticName = null;
+    }
+
+    @Test
+    public void testMethodBindingInvokesAndUnwrapsExceptions() throws Exception {
+        Bean bean = new Bean();
+        Method method = Bean.class.getDeclaredMethod("name", String.class);
+        method.setAccessible(true);
+        MethodBinding binding = new MethodBinding(bean, method);
+        binding.commandLine = new CommandLine(CommandSpec.create());
+        assertNull(binding.set("abc"));
+        assertEquals("abc", bean.last);
+        assertEquals("abc", binding.set("def"));
+        assertEquals("def", binding.get());
+        try {
+            binding.set("boom");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertTrue(ex.getCause() instanceof IllegalStateException);
+            assertEquals("Could not invoke " + method + " with boom", ex.getMessage());
+        }
+        assertEquals("def", binding.get());
+    }
+}
@@ -0,0 +1,192 @@
+package picocli.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Mixin;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+import picocli.annot.ParentCommand;
+import picocli.annot.Spec;
+import picocli.annot.Unmatched;
+import picocli.except.InitializationException;
+
+public class CommandSpecSnapshotTest {
+    public static class Upper implements ITypeConverter<String> {
+        public String modelOf(String value) {
+            return value.toUpperCase();
+        }
+
+        public String viewOf(Object value) {
+            return String.valueOf(value);
+        }
+    }
+
+    public static class Version implements IVersionProvider {
+        public String[] getVersion() {
+            return new String[] { "snapshot 1.0" };
+        }
+    }
+
+    public static class Common {
+        @Option(names = "--quiet", description = "Be quiet")
+        boolean quiet;
+    }
+
+    @Command(name = "app", mixinStandardHelpOptions = true, versionProvider = Version.class,
+            description = "The app", footer = "%nFooter", subcommands = Sub.class)
+    public static class App {
+        @Option(names = { "-c", "--count" }, arity = "1", description = "The count")
+        int count = 3;
+        @Option(names = "--name", converter = Upper.class, required = true)
+        String name;
+        @Option(names = "--unit")
+        java.util.concurrent.TimeUnit unit;
+        @Parameters(index = "0..*", paramLabel = "FILE")
+        List<String> files;
+        @Mixin
+        Common common;
+        @Spec
+        CommandSpec spec;
+    }
+
+    @Command(name = "sub", aliases = "s", description = "A subcommand")
+    public static class Sub {
+        @ParentCommand
+        App parent;
+        @Option(names = "-x", split = ",")
+        int[] x;
+        @Unmatched
+        List<String> unmatched;
+    }
+
+    public static class Methods {
+        @Command(name = "method")
+        void run(@Option(names = "-v") boolean verbose) {
+        }
+    }
+
+    private static byte[] snapshot(Object command) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CommandSpecSnapshot.write(CommandSpec.forAnnotatedObject(command), out);
+        return out.toByteArray();
+    }
+
+    private static CommandSpec read(byte[] snapshot, Object command) throws IOException {
+        return CommandSpecSnapshot.read(new ByteArrayInputStream(snapshot), command,
+                new Factory());
+    }
+
+    private static String usage(CommandLine commandLine) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        commandLine.usage(new PrintStream(out));
+        return out.toString();
+    }
+
+    @Test
+    public void testSnapshotIsEquivalentToAnnotations() throws IOException {
+        CommandLine reflected = new CommandLine(new App());
+        CommandLine restored = new CommandLine(read(snapshot(new App()), new App()));
+        CommandSpec spec = restored.getCommandSpec();
+        assertEquals(usage(reflected), usage(restored));
+        assertEquals(reflected.getCommandSpec().options().toString(), spec.options().toString());
+        assertEquals(reflected.getCommandSpec().args().size(), spec.args().size());
+        assertEquals(reflected.getCommandSpec().mixins().keySet(), spec.mixins().keySet());
+        assertEquals(Arrays.asList("snapshot 1.0"), Arrays.asList(spec.version()));
+        assertEquals(reflected.getCommandSpec().findOption("--count").arity(),
+                spec.findOption("--count").arity());
+        assertEquals(Arrays.asList("NANOSECONDS", "MICROSECONDS", "MILLISECONDS", "SECONDS",
+                "MINUTES", "HOURS", "DAYS"), spec.findOption("--unit").choiceValues());
+        assertEquals(usage(reflected.getSubcommands().get("sub")),
+                usage(restored.getSubcommands().get("s")));
+    }
+
+    @Test
+    public void testSnapshotBindsTheFieldsOfTheCommand() throws IOException {
+        App app = new App();
+        app.count = 5;
+        CommandLine commandLine = new CommandLine(read(snapshot(new App()), app));
+        CommandSpec spec = commandLine.getCommandSpec();
+        assertSame(app, spec.userObject());
+        assertSame(spec, app.spec);
+        assertEquals(Integer.valueOf(5), spec.findOption("-c").initialValue());
+        assertTrue(spec.findOption("--name").converters()[0] instanceof Upper);
+
+        CommandLine sub = commandLine.getSubcommands().get("sub");
+        assertFalse(sub.hasCommandSpec());
+        commandLine.parseArgs("--name", "a", "--quiet", "--unit", "DAYS", "f", "s", "-x", "1,2",
+                "extra");
+        assertEquals("A", app.name);
+        assertTrue(app.common.quiet);
+        assertEquals(java.util.concurrent.TimeUnit.DAYS, app.unit);
+        assertEquals(Arrays.asList("f"), app.files);
+        Sub subcommand = sub.getCommand();
+        assertSame(app, subcommand.parent);
+        assertEquals(2, subcommand.x.length);
+        assertEquals(Arrays.asList("extra"), subcommand.unmatched);
+        assertSame(spec, sub.getCommandSpec().parent());
+    }
+
+    @Test
+    public void testStaleSnapshotIsNotRead() throws IOException {
+        byte[] snapshot = snapshot(new App());
+        assertNull(read(snapshot, new Sub()));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+        in.readInt();
+        in.readInt();
+        in.readUTF();
+        for (int i = in.readInt(); i > 0; i--) {
+            in.readUTF();
+        }
+        in.readUnsignedShort();
+        snapshot[snapshot.length - in.available()] ^= 1; // change the digest
+        assertNull(read(snapshot, new App()));
+    }
+
+    @Test
+    public void testLoadWritesThenReadsTheSnapshot() throws IOException {
+        File file = File.createTempFile("picocli", ".snapshot");
+        try {
+            assertTrue(file.delete());
+            CommandSpec created = CommandSpecSnapshot.load(file, App.class, new Factory());
+            assertTrue(file.isFile());
+            assertTrue(created.subcommands().get("sub").hasCommandSpec());
+
+            CommandSpec loaded = CommandSpecSnapshot.load(file, App.class, new Factory());
+            assertFalse(loaded.subcommands().get("sub").hasCommandSpec()); // read lazily
+            assertEquals(usage(new CommandLine(created)), usage(new CommandLine(loaded)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testCommandMethodsAreNotSupported() throws IOException {
+        CommandSpec spec = CommandSpec.forAnnotatedObjectLenient(new Methods());
+        spec.addMethodSubcommands();
+        try {
+            CommandSpecSnapshot.write(spec, new ByteArrayOutputStream());
+            fail("Expected exception");
+        } catch (InitializationException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Cannot write a snapshot"));
+        }
+    }
+}
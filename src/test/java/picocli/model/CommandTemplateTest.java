@@ -0,0 +1,113 @@
+package picocli.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Option;
+import picocli.annot.Parameters;
+
+public class CommandTemplateTest {
+    static class Base {
+        @Option(names = "-v")
+        boolean verbose;
+    }
+
+    @Command(name = "app")
+    static class App extends Base {
+        @Option(names = "--count")
+        int count = 1;
+        @Option(names = "--name", converter = Upper.class)
+        String name;
+        @Parameters
+        List<String> files;
+
+        int unannotated;
+    }
+
+    static class Upper implements ITypeConverter<String> {
+        public String modelOf(String value) {
+            return value.toUpperCase();
+        }
+
+        public String viewOf(Object value) {
+            return String.valueOf(value);
+        }
+    }
+
+    static class CountingFactory implements IFactory {
+        final List<Class<?>> created = new ArrayList<Class<?>>();
+
+        public <K> K create(Class<K> cls) throws Exception {
+            created.add(cls);
+            return CommandLine.defaultFactory().create(cls);
+        }
+    }
+
+    @Test
+    public void testTemplateIsComputedOncePerClass() {
+        CommandTemplate template = CommandTemplate.of(App.class);
+        assertSame(template, CommandTemplate.of(App.class));
+        CommandTemplate[] hierarchy = template.hierarchy();
+        assertEquals(3, hierarchy.length);
+        assertSame(CommandTemplate.of(Object.class), hierarchy[0]);
+        assertSame(CommandTemplate.of(Base.class), hierarchy[1]);
+        assertSame(template, hierarchy[2]);
+        assertNull(hierarchy[1].command());
+        assertEquals("app", template.command().name());
+        assertEquals(3, template.members().length);
+        assertEquals(1, hierarchy[1].members().length);
+    }
+
+    @Test
+    public void testSpecsOfInstancesAreBoundToEachInstance() {
+        App first = new App();
+        App second = new App();
+        second.count = 2;
+        CommandLine firstLine = new CommandLine(first);
+        CommandLine secondLine = new CommandLine(second);
+
+        OptionSpec firstCount = firstLine.getCommandSpec().findOption("--count");
+        OptionSpec secondCount = secondLine.getCommandSpec().findOption("--count");
+        assertNotSame(firstCount, secondCount);
+        assertEquals(Integer.valueOf(1), firstCount.initialValue());
+        assertEquals(Integer.valueOf(2), secondCount.initialValue());
+        assertEquals(firstCount.arity(), secondCount.arity());
+        assertEquals(firstCount.toString(), secondCount.toString());
+
+        firstLine.parseArgs("-v", "--count", "5", "--name", "a", "x");
+        secondLine.parseArgs("--name", "b", "y", "z");
+        assertEquals(true, first.verbose);
+        assertEquals(5, first.count);
+        assertEquals("A", first.name);
+        assertEquals(false, second.verbose);
+        assertEquals(2, second.count);
+        assertEquals("B", second.name);
+        assertEquals(2, second.files.size());
+        assertEquals(1, first.files.size());
+
+        firstLine.parseArgs();
+        assertEquals(1, first.count); // reset to the initial value of this instance
+    }
+
+    @Test
+    public void testConvertersAreCreatedByEachFactory() {
+        new CommandLine(new App());
+        CountingFactory factory = new CountingFactory();
+        CommandLine commandLine = new CommandLine(new App(), factory);
+        assertEquals(1, factory.created.size());
+        assertSame(Upper.class, factory.created.get(0));
+        ITypeConverter<?> converter = commandLine.getCommandSpec().findOption("--name")
+                .converters()[0];
+        assertNotSame(converter, new CommandLine(new App()).getCommandSpec()
+                .findOption("--name").converters()[0]);
+    }
+}
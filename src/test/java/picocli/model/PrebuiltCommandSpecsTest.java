@@ -0,0 +1,87 @@
+package picocli.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import picocli.CommandLine;
+import picocli.annot.Command;
+import picocli.annot.Option;
+
+public class PrebuiltCommandSpecsTest {
+    @Command(name = "top", subcommands = Sub.class, lazySubcommands = true)
+    public static class Top {
+        @Option(names = "-v")
+        boolean verbose;
+    }
+
+    @Command(name = "sub", aliases = "s")
+    public static class Sub {
+        @Option(names = "-x")
+        int x;
+    }
+
+    @Command(name = "other")
+    public static class Other {
+    }
+
+    @Test
+    public void testFirstCommandLineTakesThePrebuiltSpec() {
+        PrebuiltCommandSpecs.prebuild(Top.class);
+        assertTrue(PrebuiltCommandSpecs.isPrebuilt(Top.class));
+
+        CommandLine first = new CommandLine(Top.class);
+        assertFalse(PrebuiltCommandSpecs.isPrebuilt(Top.class));
+        assertSame(first, first.getCommandSpec().commandLine());
+        CommandLine sub = first.getSubcommands().get("sub");
+        assertTrue(sub.hasCommandSpec()); // created ahead of time, although lazy
+        assertSame(sub, first.getSubcommands().get("s"));
+
+        first.parseArgs("-v", "s", "-x", "3");
+        assertTrue(((Top) first.getCommand()).verbose);
+        assertEquals(3, ((Sub) sub.getCommand()).x);
+
+        CommandLine second = new CommandLine(Top.class);
+        assertNotSame(first.getCommandSpec(), second.getCommandSpec());
+        assertFalse(((Top) second.getCommand()).verbose);
+        assertFalse(second.getSubcommands().get("sub").hasCommandSpec());
+    }
+
+    @Test
+    public void testPrebuiltSpecIsOnlyUsedWithTheDefaultFactory() throws Exception {
+        PrebuiltCommandSpecs.prebuild(Other.class);
+        new CommandLine(Other.class, new IFactory() {
+            public <K> K create(Class<K> cls) throws Exception {
+                return CommandLine.defaultFactory().create(cls);
+            }
+        });
+        assertTrue(PrebuiltCommandSpecs.isPrebuilt(Other.class));
+        new CommandLine(Other.class);
+        assertFalse(PrebuiltCommandSpecs.isPrebuilt(Other.class));
+    }
+
+    @Test
+    public void testCommandLineForAnInstanceWarnsThatThePrebuiltSpecIsNotUsed() {
+        PrebuiltCommandSpecs.prebuild(Other.class);
+        PrintStream err = System.err;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(baos));
+        try {
+            new CommandLine(new Other());
+        } finally {
+            System.setErr(err);
+        }
+        assertTrue(PrebuiltCommandSpecs.isPrebuilt(Other.class));
+        assertEquals(String.format("[picocli WARN] Not using the prebuilt CommandSpec of %s for an "
+                + "instance: construct the CommandLine with the class instead%n",
+                Other.class.getName()), baos.toString());
+        new CommandLine(Other.class);
+    }
+}
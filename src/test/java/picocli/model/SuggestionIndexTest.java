@@ -0,0 +1,57 @@
+package picocli.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import picocli.except.CosineSimilarity;
+
+public class SuggestionIndexTest {
+
+    @Test
+    public void testMostSimilarKeepsEqualScores() {
+        List<String> names = Arrays.asList("commit", "branch", "checkout", "help");
+        SuggestionIndex index = new SuggestionIndex(names);
+        assertEquals(Arrays.asList("checkout", "help", "commit", "branch"),
+                index.mostSimilar("chekcout", 10));
+        assertEquals(Arrays.asList("checkout", "help"), index.mostSimilar("CHEKCOUT", 2));
+        assertEquals(index.mostSimilar("chekcout", 10),
+                CosineSimilarity.mostSimilar("chekcout", names));
+    }
+
+    @Test
+    public void testMostSimilarIgnoresUnrelatedAndShortNames() {
+        SuggestionIndex index = new SuggestionIndex(Arrays.asList("a", "merge", "push"));
+        assertEquals(Arrays.asList("merge"), index.mostSimilar("me", 3));
+        assertTrue(index.mostSimilar("x", 3).isEmpty());
+        assertTrue(index.mostSimilar("zz", 3).isEmpty());
+        assertTrue(index.mostSimilar("merge", 0).isEmpty());
+    }
+
+    @Test
+    public void testMostSimilarScalesToManyNames() {
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 5000; i++) {
+            names.add("command" + i);
+        }
+        names.add("deploy");
+        SuggestionIndex index = new SuggestionIndex(names);
+        assertEquals(5001, index.size());
+        assertEquals(Arrays.asList("deploy"), index.mostSimilar("depoly", 3));
+    }
+
+    @Test
+    public void testWithStrippedPrefixKeepsIndexOrder() {
+        SuggestionIndex index = new SuggestionIndex(
+                Arrays.asList("--fixup", "-v", "--file", "/fo", "--verbose", "-f"));
+        assertEquals(Arrays.asList("--fixup", "--file", "/fo", "-f"),
+                index.withStrippedPrefix("f"));
+        assertEquals(Arrays.asList("--fixup", "--file"), index.withStrippedPrefix("fi"));
+        assertTrue(index.withStrippedPrefix("x").isEmpty());
+    }
+}